@@ -3,10 +3,17 @@ package com.poldroc.retry.annotation.annotation;
 import com.poldroc.retry.annotation.annotation.metadata.RetryAble;
 import com.poldroc.retry.annotation.handler.impl.DefaultRetryAbleHandler;
 import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
 import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
+import com.poldroc.retry.core.constant.RetryFailureCacheConst;
+import com.poldroc.retry.core.constant.RetryTimeoutConst;
 import com.poldroc.retry.core.core.retry.DefaultRetry;
 import com.poldroc.retry.core.support.condition.ExceptionCauseRetryCondition;
+import com.poldroc.retry.core.support.key.ParamsRetryKey;
+import com.poldroc.retry.core.support.listen.NoRetryLifecycleListen;
 import com.poldroc.retry.core.support.listen.NoRetryListen;
 import com.poldroc.retry.core.support.recover.NoRecover;
 
@@ -27,6 +34,15 @@ import java.lang.annotation.*;
 @RetryAble(DefaultRetryAbleHandler.class)
 public @interface Retry {
 
+    /**
+     * 策略名称
+     * 1. 用于区分不同策略的统计信息
+     * 2. 默认为空，此时使用方法签名作为名称
+     *
+     * @return 策略名称
+     */
+    String name() default "";
+
     /**
      * 重试类实现
      *
@@ -58,6 +74,25 @@ public @interface Retry {
      */
     Class<? extends RetryListen> listen() default NoRetryListen.class;
 
+    /**
+     * 是否异步执行监听器
+     * 1. 默认为 false，在重试线程中同步执行
+     * 2. 为 true 时，事件写入缓冲区，由单独的线程执行监听器，缓冲区满时丢弃
+     * 3. 异步时同一个监听器类型只创建一个实例，所有方法共享一个缓冲区和线程
+     *
+     * @return 是否异步
+     */
+    boolean asyncListen() default false;
+
+    /**
+     * 生命周期监听
+     * 1. 默认不进行监听
+     * 2. 调用开始、每次尝试、成功和用尽重试时触发
+     *
+     * @return 生命周期监听
+     */
+    Class<? extends RetryLifecycleListen> lifecycle() default NoRetryLifecycleListen.class;
+
     /**
      * 恢复操作
      * 1. 默认不进行任何恢复操作
@@ -66,6 +101,94 @@ public @interface Retry {
      */
     Class<? extends Recover> recover() default NoRecover.class;
 
+    /**
+     * 单次尝试的超时时间（毫秒）
+     * 1. 默认为 0，表示不限制
+     * 2. 超时的尝试会被中断，并视为一次失败
+     *
+     * @return 超时时间
+     */
+    long timeout() default 0;
+
+    /**
+     * 自适应超时的分位数，如 0.99
+     * 1. 默认为 0，表示使用 {@link #timeout()} 作为固定超时
+     * 2. 大于 0 时，每次尝试的超时时间为该策略最近耗时的分位数乘以 {@link #timeoutFactor()}，
+     * 并且不超过 {@link #timeout()}（为 0 时不限制），样本不足时直接使用 {@link #timeout()}
+     *
+     * @return 分位数
+     */
+    double timeoutQuantile() default 0;
+
+    /**
+     * 自适应超时的因子
+     * 1. 仅在 {@link #timeoutQuantile()} 大于 0 时生效
+     *
+     * @return 因子
+     */
+    double timeoutFactor() default RetryTimeoutConst.DEFAULT_FACTOR;
+
+    /**
+     * 是否合并相同的并发调用
+     * 1. 默认为 false
+     * 2. 为 true 时，键相等的并发调用共享同一次重试执行的结果或者异常
+     *
+     * @return 是否合并
+     */
+    boolean coalesce() default false;
+
+    /**
+     * 合并调用的键
+     * 1. 仅在 {@link #coalesce()} 为 true 时生效
+     * 2. 默认按照方法 + 参数合并
+     *
+     * @return 键对应的类
+     */
+    Class<? extends RetryKey> key() default ParamsRetryKey.class;
+
+    /**
+     * 失败结果缓存的有效期（毫秒）
+     * 1. 默认为 0，表示不缓存
+     * 2. 大于 0 时，用尽重试的参数在有效期内直接触发恢复策略，不再执行方法
+     *
+     * @return 有效期
+     */
+    long failureCacheTtl() default 0;
+
+    /**
+     * 失败结果缓存最多的键数量
+     * 1. 仅在 {@link #failureCacheTtl()} 大于 0 时生效，超出时淘汰最久未访问的键
+     *
+     * @return 键数量
+     */
+    int failureCacheSize() default RetryFailureCacheConst.DEFAULT_MAX_SIZE;
+
+    /**
+     * 是否统计每次尝试的 CPU 时间和分配的内存
+     * 1. 默认不统计
+     * 2. 结果记录在 {@link com.poldroc.retry.api.model.AttemptTime} 和重试统计信息中
+     *
+     * @return 是否统计
+     */
+    boolean resourceAccounting() default false;
+
+    /**
+     * 嵌套在其他重试中时的重试模式
+     * 1. 默认独立重试
+     * 2. 为 {@link NestedRetryMode#CAP} 时，整个调用链的总尝试次数由 {@link #nestedCap()} 指定
+     *
+     * @return 嵌套重试模式
+     */
+    NestedRetryMode nested() default NestedRetryMode.ALLOW;
+
+    /**
+     * 整个调用链的总尝试次数
+     * 1. 仅在 {@link #nested()} 为 {@link NestedRetryMode#CAP} 时生效
+     *
+     * @return 总尝试次数
+     */
+    int nestedCap() default 1;
+
     /**
      * 重试等待策略
      * 1. 支持指定多个，如果不指定，则不进行任何等待，
@@ -3,6 +3,7 @@ package com.poldroc.retry.annotation.annotation;
 import com.poldroc.retry.annotation.annotation.metadata.RetryWaitAble;
 import com.poldroc.retry.annotation.handler.impl.DefaultRetryWaitAbleHandler;
 import com.poldroc.retry.core.constant.RetryWaitConst;
+import com.poldroc.retry.core.support.wait.ExponentialRetryWait;
 import com.poldroc.retry.core.support.wait.NoRetryWait;
 
 import java.lang.annotation.*;
@@ -58,4 +59,12 @@ public @interface RetryWait {
      */
     Class<? extends com.poldroc.retry.api.support.wait.RetryWait> retryWait() default NoRetryWait.class;
 
+    /**
+     * 兜底的等待时间 class 信息
+     * 对 {@link com.poldroc.retry.core.support.wait.RetryAfterRetryWait}（没有下游建议时间时）和
+     * {@link com.poldroc.retry.core.support.wait.AdaptiveRetryWait}（恢复样本不足时）生效
+     * @return 兜底等待时间 class
+     */
+    Class<? extends com.poldroc.retry.api.support.wait.RetryWait> fallback() default ExponentialRetryWait.class;
+
 }
@@ -5,17 +5,25 @@ import com.poldroc.retry.annotation.annotation.RetryWait;
 import com.poldroc.retry.annotation.handler.RetryAbleHandler;
 import com.poldroc.retry.api.context.RetryContext;
 import com.poldroc.retry.api.context.RetryWaitContext;
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
+import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
 import com.poldroc.retry.common.annotation.ThreadSafe;
 import com.poldroc.retry.common.support.instance.Instance;
 import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryTimeoutConst;
 import com.poldroc.retry.core.core.RetryWaiter;
 import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.listen.RetryListens;
+import com.poldroc.retry.core.support.timeout.RetryTimeouts;
 import com.poldroc.retry.core.support.wait.NoRetryWait;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 /**
  * 默认的重试处理器
  * @author Poldroc
@@ -28,17 +36,64 @@ public class DefaultRetryAbleHandler<R> implements RetryAbleHandler<Retry, R> {
     @Override
     public RetryContext<R> build(Retry annotation, Callable<R> callable) {
         Instance instance = InstanceFactory.getInstance();
-        return Retryer.<R>newInstance()
+        Retryer<R> retryer = Retryer.<R>newInstance();
+        if (!StringUtil.isEmpty(annotation.name())) {
+            retryer.name(annotation.name());
+        }
+        if (annotation.coalesce()) {
+            retryer.key(instance.threadSafe(annotation.key()));
+        }
+        if (annotation.nested() == NestedRetryMode.CAP) {
+            retryer.nestedCap(annotation.nestedCap());
+        } else {
+            retryer.nested(annotation.nested());
+        }
+        if (annotation.failureCacheTtl() > 0) {
+            retryer.failureCache(annotation.failureCacheTtl(), TimeUnit.MILLISECONDS, annotation.failureCacheSize());
+        }
+        return retryer
                 .callable(callable)
                 .retry(instance.threadSafe(annotation.retry()))
                 .condition(instance.threadSafe(annotation.condition()))
                 .maxAttempt(annotation.maxAttempt())
                 .recover(instance.threadSafe(annotation.recover()))
-                .listen(instance.threadSafe(annotation.listen()))
+                .listen(buildRetryListen(annotation))
+                .lifecycle(instance.threadSafe(annotation.lifecycle()))
+                .resourceAccounting(annotation.resourceAccounting())
                 .retryWaitContext(buildRetryWaitContext(annotation))
+                .timeout(buildRetryTimeout(annotation))
                 .context();
     }
 
+    /**
+     * 构建监听器
+     * 异步时同一个监听器类型只使用一个单例，从而共享一个异步分发器；异步分发器只有一个消费者线程，单例不会被并发调用
+     * @param retry 重试信息
+     * @return 监听器
+     */
+    private RetryListen buildRetryListen(Retry retry) {
+        if (retry.asyncListen()) {
+            return RetryListens.async(InstanceFactory.getInstance().singleton(retry.listen()));
+        }
+        return InstanceFactory.getInstance().threadSafe(retry.listen());
+    }
+
+    /**
+     * 构建单次尝试的超时策略
+     * @param retry 重试信息
+     * @return 超时策略
+     */
+    private RetryTimeout buildRetryTimeout(Retry retry) {
+        if (retry.timeoutQuantile() > 0) {
+            return RetryTimeouts.adaptive(retry.timeoutQuantile(), retry.timeoutFactor(),
+                    RetryTimeoutConst.DEFAULT_MIN_MILLS, retry.timeout());
+        }
+        if (retry.timeout() <= 0) {
+            return RetryTimeouts.noTimeout();
+        }
+        return RetryTimeouts.fixed(retry.timeout(), TimeUnit.MILLISECONDS);
+    }
+
     /**
      * 构建重试等待上下文
      * @param retry 重试信息
@@ -20,6 +20,7 @@ public class DefaultRetryWaitAbleHandler<R> implements RetryWaitAbleHandler<Retr
                 .max(annotation.max())
                 .factor(annotation.factor())
                 .value(annotation.value())
+                .fallback(annotation.fallback())
                 .context();
     }
 }
@@ -7,6 +7,7 @@ import com.poldroc.retry.annotation.proxy.IMethodHandler;
 import com.poldroc.retry.api.context.RetryContext;
 import com.poldroc.retry.common.annotation.ThreadSafe;
 import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
 import com.poldroc.retry.core.core.Retryer;
 
 import java.lang.annotation.Annotation;
@@ -39,6 +40,7 @@ public class RetryMethodHandler implements IMethodHandler {
         // 3. 根据注解的内容构建执行上下文
         RetryContext retryContext = retryAbleHandler.build(retryAbleBean.annotation(), callable);
         retryContext.params(args);
+        fillName(retryContext, method);
         return Retryer.newInstance().retryCall(retryContext);
     }
 
@@ -54,9 +56,22 @@ public class RetryMethodHandler implements IMethodHandler {
         RetryAbleHandler retryAbleHandler = InstanceFactory.getInstance().threadSafe(retryAbleBean.retryAble().value());
         RetryContext retryContext = retryAbleHandler.build(retryAbleBean.annotation(), callable);
         retryContext.params(retryAbleBean.args());
+        fillName(retryContext, retryAbleBean.method());
         return Retryer.newInstance().retryCall(retryContext);
     }
 
+    /**
+     * 没有指定策略名称时，使用方法签名作为名称
+     *
+     * @param retryContext 重试上下文
+     * @param method       方法
+     */
+    private void fillName(RetryContext retryContext, Method method) {
+        if (method != null && StringUtil.isEmpty(retryContext.name())) {
+            retryContext.name(method.getDeclaringClass().getName() + "#" + method.getName());
+        }
+    }
+
     /**
      * 查找重试注解
      *
@@ -76,7 +91,8 @@ public class RetryMethodHandler implements IMethodHandler {
                 RetryAbleBean bean = new RetryAbleBean();
                 bean.retryAble(retryAble)
                         .annotation(annotation)
-                        .args(args);
+                        .args(args)
+                        .method(method);
                 return Optional.of(bean);
             }
         }
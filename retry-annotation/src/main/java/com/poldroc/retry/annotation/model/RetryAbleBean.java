@@ -3,6 +3,7 @@ package com.poldroc.retry.annotation.model;
 import com.poldroc.retry.annotation.annotation.metadata.RetryAble;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 
 /**
  * 可重试注解对象
@@ -28,6 +29,11 @@ public class RetryAbleBean {
      */
     private Object[] args;
 
+    /**
+     * 注解所在的方法
+     */
+    private Method method;
+
     public RetryAble retryAble() {
         return retryAble;
     }
@@ -54,4 +60,13 @@ public class RetryAbleBean {
         this.args = args;
         return this;
     }
+
+    public Method method() {
+        return method;
+    }
+
+    public RetryAbleBean method(Method method) {
+        this.method = method;
+        return this;
+    }
 }
@@ -0,0 +1,49 @@
+package com.poldroc.retry.api.context;
+
+/**
+ * 正在执行的尝试信息
+ * 1. 在被重试的方法中通过 RetryContextHolder.current() 获取
+ * 2. 对象会被重用，只在方法执行期间有效，不要保存或者传给其他线程
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryAttemptContext {
+
+    /**
+     * 重试策略名称
+     * @return 名称
+     */
+    String name();
+
+    /**
+     * 当前尝试次数，从 1 开始
+     * @return 尝试次数
+     */
+    int attempt();
+
+    /**
+     * 最大尝试次数
+     * @return 最大尝试次数，无法确定时为 -1
+     */
+    int maxAttempt();
+
+    /**
+     * 是否为最后一次尝试
+     * @return 是否为最后一次尝试，最大尝试次数无法确定时为 false
+     */
+    boolean lastAttempt();
+
+    /**
+     * 本次尝试剩余的超时时间（毫秒）
+     * @return 剩余时间，已经超时为 0，没有设置超时为 -1
+     */
+    long remainingMills();
+
+    /**
+     * 上一次尝试的异常信息
+     * @return 异常信息，第一次尝试或者上一次没有异常时为 null
+     */
+    Throwable previousCause();
+
+}
@@ -2,10 +2,17 @@ package com.poldroc.retry.api.context;
 
 import com.poldroc.retry.api.core.Retry;
 import com.poldroc.retry.api.support.block.RetryBlock;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
 import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.defer.RetryDefer;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
 import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
 import com.poldroc.retry.api.support.stop.RetryStop;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.api.support.timer.RetryTimer;
 
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -19,6 +26,21 @@ import java.util.concurrent.Callable;
 
 public interface RetryContext<R> {
 
+    /**
+     * 策略名称
+     * 1. 用于区分不同策略的统计信息，如注解方式下为方法签名
+     * 2. 可以为空，为空时使用默认名称
+     * @return 策略名称
+     */
+    String name();
+
+    /**
+     * 设置策略名称
+     * @param name 策略名称
+     * @return this
+     */
+    RetryContext<R> name(String name);
+
     /**
      * 重试实现类
      * @return 重试
@@ -55,18 +77,96 @@ public interface RetryContext<R> {
      */
     Callable<R> callable();
 
+    /**
+     * 设置可执行的方法
+     * 1. 用于复用同一个策略执行不同的方法，如死信重放
+     * @param callable 方法
+     * @return this
+     */
+    RetryContext<R> callable(Callable<R> callable);
+
     /**
      * 监听信息列表
      * @return 监听信息列表
      */
     RetryListen listen();
 
+    /**
+     * 生命周期监听
+     * @return 生命周期监听
+     */
+    RetryLifecycleListen lifecycle();
+
     /**
      * 恢复方式
      * @return 恢复方式
      */
     Recover recover();
 
+    /**
+     * 单次尝试的超时策略
+     * @return 超时策略
+     */
+    RetryTimeout timeout();
+
+    /**
+     * 定时器
+     * @return 定时器
+     */
+    RetryTimer timer();
+
+    /**
+     * 调用的键
+     * 1. 键相等的并发调用会合并为一次重试执行
+     * @return 键
+     */
+    RetryKey key();
+
+    /**
+     * 失败结果缓存
+     * @return 失败结果缓存
+     */
+    RetryFailureCache failureCache();
+
+    /**
+     * 是否统计每次尝试的 CPU 时间和分配的内存
+     * @return 是否统计
+     */
+    boolean resourceAccounting();
+
+    /**
+     * 嵌套在其他重试中时的重试模式
+     * @return 嵌套重试模式
+     */
+    NestedRetryMode nestedMode();
+
+    /**
+     * {@link NestedRetryMode#CAP} 模式下整个调用链的总尝试次数
+     * @return 总尝试次数
+     */
+    int nestedCap();
+
+    /**
+     * 重试延后执行，为 null 时总是阻塞等待
+     * @return 重试延后执行
+     */
+    RetryDefer defer();
+
+    /**
+     * 第一次尝试的序号
+     * 1. 默认为 1
+     * 2. 延后执行的重试从之前的尝试次数继续计数，停止策略依然按照总的尝试次数生效
+     * @return 序号
+     */
+    int firstAttempt();
+
+    /**
+     * 设置第一次尝试的序号
+     * @param firstAttempt 序号
+     * @return this
+     */
+    RetryContext<R> firstAttempt(int firstAttempt);
+
     /**
      * 请求参数
      * @return 请求参数
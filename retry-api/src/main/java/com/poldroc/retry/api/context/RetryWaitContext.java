@@ -9,6 +9,13 @@ import com.poldroc.retry.api.support.wait.RetryWait;
  */
 
 public interface RetryWaitContext<R> extends RetryAttempt<R> {
+
+    /**
+     * 重试策略名称
+     * 用于按照策略区分状态的等待策略
+     * @return 名称
+     */
+    String name();
     /**
      * 基础值（毫秒）
      * 1. fixed: 固定间隔
@@ -44,4 +51,13 @@ public interface RetryWaitContext<R> extends RetryAttempt<R> {
      */
     Class<? extends RetryWait> retryWait();
 
+    /**
+     * 兜底等待策略的 class 信息
+     * 用于本身需要兜底的等待策略，例如没有下游建议时间时使用的策略
+     * @return class 信息，没有设置时为 null
+     */
+    default Class<? extends RetryWait> fallback() {
+        return null;
+    }
+
 }
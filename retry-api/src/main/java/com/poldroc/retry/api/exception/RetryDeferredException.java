@@ -0,0 +1,22 @@
+package com.poldroc.retry.api.exception;
+
+/**
+ * 重试被延后执行异常
+ * 1. 等待时间超过了 {@link com.poldroc.retry.api.support.defer.RetryDefer} 的阈值，剩余的重试已经交给后台执行
+ * 2. 调用方不会得到结果，cause 为最后一次尝试的异常（如果有）
+ *
+ * @author Poldroc
+ *  
+ */
+
+public class RetryDeferredException extends RetryException {
+
+    public RetryDeferredException(String message) {
+        super(message);
+    }
+
+    public RetryDeferredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
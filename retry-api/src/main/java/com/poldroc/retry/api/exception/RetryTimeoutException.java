@@ -0,0 +1,22 @@
+package com.poldroc.retry.api.exception;
+
+/**
+ * 单次尝试超时异常
+ * 1. 尝试执行超过了 {@link com.poldroc.retry.api.support.timeout.RetryTimeout} 指定的时间
+ * 2. cause 为被中断的方法抛出的异常（如果有）
+ *
+ * @author Poldroc
+ *  
+ */
+
+public class RetryTimeoutException extends RetryException {
+
+    public RetryTimeoutException(String message) {
+        super(message);
+    }
+
+    public RetryTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -27,4 +27,22 @@ public interface AttemptTime {
      */
     long costTimeInMills();
 
+    /**
+     * 消耗的 CPU 时间(纳秒)
+     * -1 表示没有统计：未开启资源统计、虚拟机不支持，或者实现没有提供该值
+     * @return CPU 时间
+     */
+    default long cpuTimeInNanos() {
+        return -1;
+    }
+
+    /**
+     * 分配的内存(字节)
+     * -1 表示没有统计：未开启资源统计、虚拟机不支持，或者实现没有提供该值
+     * @return 分配的内存
+     */
+    default long allocatedBytes() {
+        return -1;
+    }
+
 }
@@ -10,6 +10,14 @@ import java.util.List;
 
 public interface RetryAttempt<R> {
 
+    /**
+     * 获取重试策略名称
+     * @return 名称，未知时为 null
+     */
+    default String name() {
+        return null;
+    }
+
     /**
      * 获取方法执行的结果
      * @return 方法执行的结果
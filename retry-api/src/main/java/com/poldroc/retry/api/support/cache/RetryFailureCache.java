@@ -0,0 +1,33 @@
+package com.poldroc.retry.api.support.cache;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+
+/**
+ * 失败结果缓存
+ * 1. 调用用尽所有重试之后，缓存最后一次尝试的信息
+ * 2. 在缓存有效期内，相同键的调用不再执行，直接触发恢复策略
+ * 3. 尽可能的保证为线程安全的
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryFailureCache {
+
+    /**
+     * 获取未过期的失败信息
+     * @param context 重试上下文
+     * @param <R> 泛型
+     * @return 失败信息，没有时返回 null
+     */
+    <R> RetryAttempt<R> get(final RetryContext<R> context);
+
+    /**
+     * 缓存失败信息
+     * @param context 重试上下文
+     * @param attempt 最后一次尝试的信息
+     * @param <R> 泛型
+     */
+    <R> void put(final RetryContext<R> context, final RetryAttempt<R> attempt);
+
+}
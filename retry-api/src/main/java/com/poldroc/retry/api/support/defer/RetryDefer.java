@@ -0,0 +1,29 @@
+package com.poldroc.retry.api.support.defer;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.model.WaitTime;
+
+/**
+ * 重试延后执行
+ * 1. 每次重试等待之前调用，接管之后调用线程不再等待，直接抛出 {@link com.poldroc.retry.api.exception.RetryDeferredException}
+ * 2. 接管的实现负责在等待时间之后继续执行剩余的重试，并使用相同的条件、停止和恢复策略
+ * 3. 不接管时按照原来的方式阻塞等待
+ *
+ * @author Poldroc
+ *  
+ */
+public interface RetryDefer {
+
+    /**
+     * 是否接管剩余的重试
+     *
+     * @param context      执行上下文
+     * @param retryAttempt 最后一次尝试
+     * @param waitTime     本次需要等待的时间
+     * @param <R>          泛型
+     * @return 是否接管
+     */
+    <R> boolean defer(final RetryContext<R> context, final RetryAttempt<R> retryAttempt, final WaitTime waitTime);
+
+}
@@ -0,0 +1,23 @@
+package com.poldroc.retry.api.support.key;
+
+import com.poldroc.retry.api.context.RetryContext;
+
+/**
+ * 重试调用的键
+ * 1. 同一个策略下键相等的并发调用会合并为一次重试执行，共享结果或者异常
+ * 2. 返回的键需要正确实现 equals 和 hashCode
+ * 3. 尽可能的保证为线程安全的
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryKey {
+
+    /**
+     * 计算本次调用的键
+     * @param context 重试上下文
+     * @return 键，为 null 表示不合并
+     */
+    Object key(final RetryContext<?> context);
+
+}
@@ -0,0 +1,59 @@
+package com.poldroc.retry.api.support.listen;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+
+/**
+ * 重试生命周期监听接口
+ * 1. 和 {@link RetryListen} 不同，每一次尝试（包含第一次）都会触发 onAttempt
+ * 2. 一次调用依次触发 onStart、若干次 onAttempt，最后触发 onSuccess、onExhausted 或者 onDeferred 其中之一
+ * 3. 剩余的重试交给后台延后执行时触发 onDeferred，后台继续执行时是一次新的调用，会重新触发 onStart
+ * 4. 在重试线程中同步执行，实现类需要保证线程安全并且尽量轻量
+ * 注意：实现类应该有无参构造函数
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryLifecycleListen {
+
+    /**
+     * 调用开始，第一次尝试之前触发
+     * @param context 重试上下文
+     * @param <R> 泛型
+     */
+    <R> void onStart(final RetryContext<R> context);
+
+    /**
+     * 每一次尝试结束之后触发
+     * @param context 重试上下文
+     * @param attempt 本次尝试的信息
+     * @param <R> 泛型
+     */
+    <R> void onAttempt(final RetryContext<R> context, final RetryAttempt<R> attempt);
+
+    /**
+     * 调用成功，即最后一次尝试不满足重试条件
+     * @param context 重试上下文
+     * @param attempt 最后一次尝试的信息
+     * @param <R> 泛型
+     */
+    <R> void onSuccess(final RetryContext<R> context, final RetryAttempt<R> attempt);
+
+    /**
+     * 用尽重试，恢复策略执行之前触发
+     * @param context 重试上下文
+     * @param attempt 最后一次尝试的信息
+     * @param <R> 泛型
+     */
+    <R> void onExhausted(final RetryContext<R> context, final RetryAttempt<R> attempt);
+
+    /**
+     * 剩余的重试交给后台延后执行，调用线程抛出异常之前触发
+     * @param context 重试上下文
+     * @param attempt 最后一次尝试的信息
+     * @param <R> 泛型
+     */
+    default <R> void onDeferred(final RetryContext<R> context, final RetryAttempt<R> attempt) {
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.poldroc.retry.api.support.probe;
+
+import com.poldroc.retry.api.context.RetryContext;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 重试探针
+ * 1. 用于 JFR、链路追踪等外部观测工具，通过 {@link java.util.ServiceLoader} 全局加载
+ * 2. 每个阶段开始时返回一个令牌，结束时传回；不需要观测时返回 null，结束方法不会被调用
+ * 3. 在重试的热路径上调用，实现类需要保证线程安全，并且在关闭时尽量不产生开销
+ * 4. 除了 {@link #wrap(Callable)} 包装的方法，其余方法都在发起重试的线程中调用
+ * 5. 调用级别的方法和 {@link #wrap(Callable)} 为后续新增，提供默认实现，已有的实现类不需要修改
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryProbe {
+
+    /**
+     * 一次重试调用开始，早于第一次尝试
+     * @param context 重试上下文
+     * @return 令牌，为 null 表示不观测
+     */
+    default Object callStart(final RetryContext<?> context) {
+        return null;
+    }
+
+    /**
+     * 一次重试调用结束
+     * @param token 开始时返回的令牌
+     * @param context 重试上下文
+     * @param attempts 总的尝试次数
+     * @param cause 最后一次尝试的异常信息，成功时为 null
+     */
+    default void callEnd(final Object token, final RetryContext<?> context, final int attempts, final Throwable cause) {
+    }
+
+    /**
+     * 一次尝试开始
+     * @param context 重试上下文
+     * @param attempt 尝试次数
+     * @return 令牌，为 null 表示不观测
+     */
+    Object attemptStart(final RetryContext<?> context, final int attempt);
+
+    /**
+     * 一次尝试结束
+     * @param token 开始时返回的令牌
+     * @param context 重试上下文
+     * @param attempt 尝试次数
+     * @param cause 异常信息，成功时为 null
+     */
+    void attemptEnd(final Object token, final RetryContext<?> context, final int attempt, final Throwable cause);
+
+    /**
+     * 重试等待开始
+     * @param context 重试上下文
+     * @param attempt 等待之后的尝试次数
+     * @param waitMills 计划的等待时间（毫秒）
+     * @return 令牌，为 null 表示不观测
+     */
+    Object sleepStart(final RetryContext<?> context, final int attempt, final long waitMills);
+
+    /**
+     * 重试等待结束
+     * @param token 开始时返回的令牌
+     */
+    void sleepEnd(final Object token);
+
+    /**
+     * 恢复策略开始执行
+     * @param context 重试上下文
+     * @param attempt 最后一次尝试的次数
+     * @param cause 最后一次尝试的异常信息
+     * @return 令牌，为 null 表示不观测
+     */
+    Object recoverStart(final RetryContext<?> context, final int attempt, final Throwable cause);
+
+    /**
+     * 恢复策略执行结束
+     * @param token 开始时返回的令牌
+     */
+    void recoverEnd(final Object token);
+
+    /**
+     * 包装交给其他线程执行的方法，用于传递调用线程的上下文
+     * 不需要时直接返回原方法
+     * @param callable 待执行的方法
+     * @param <T> 泛型
+     * @return 包装之后的方法
+     */
+    default <T> Callable<T> wrap(final Callable<T> callable) {
+        return callable;
+    }
+
+}
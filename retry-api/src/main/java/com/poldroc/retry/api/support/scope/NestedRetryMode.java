@@ -0,0 +1,32 @@
+package com.poldroc.retry.api.support.scope;
+
+/**
+ * 嵌套重试模式
+ * 在另一个重试调用内部发起重试时生效，最外层的调用不受影响
+ * @author Poldroc
+ *  
+ */
+
+public enum NestedRetryMode {
+
+    /**
+     * 允许，按照自身的策略独立重试
+     */
+    ALLOW,
+
+    /**
+     * 禁用，嵌套时只执行一次
+     */
+    DISABLE,
+
+    /**
+     * 共享外层的重试次数，内层的每次重试都会占用外层剩余的重试次数
+     */
+    SHARE,
+
+    /**
+     * 限制整个调用链的总尝试次数
+     */
+    CAP
+
+}
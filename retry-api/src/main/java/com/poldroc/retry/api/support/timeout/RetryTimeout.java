@@ -0,0 +1,23 @@
+package com.poldroc.retry.api.support.timeout;
+
+import com.poldroc.retry.api.context.RetryContext;
+
+/**
+ * 单次尝试的超时策略
+ * 1. 超时的尝试会被中断，并视为一次失败，异常为 {@link com.poldroc.retry.api.exception.RetryTimeoutException}
+ * 2. 尽可能的保证为线程安全的
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryTimeout {
+
+    /**
+     * 计算本次尝试的超时时间
+     * @param context 重试上下文
+     * @param attempt 当前尝试次数
+     * @return 超时时间（毫秒），小于等于 0 表示不限制
+     */
+    long timeoutMills(final RetryContext<?> context, final int attempt);
+
+}
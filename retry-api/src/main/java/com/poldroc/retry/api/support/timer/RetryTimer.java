@@ -0,0 +1,25 @@
+package com.poldroc.retry.api.support.timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试定时器
+ * 1. 用于单次尝试超时等需要延迟触发的场景
+ * 2. 实现应该被所有的调用共享，而不是每次调用创建一个线程
+ * 3. 任务会在定时器线程中执行，任务本身应该足够轻量
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryTimer {
+
+    /**
+     * 延迟执行任务
+     * @param task 待执行的任务
+     * @param delay 延迟时间
+     * @param unit 时间单位
+     * @return 任务句柄
+     */
+    TimerHandle schedule(final Runnable task, final long delay, final TimeUnit unit);
+
+}
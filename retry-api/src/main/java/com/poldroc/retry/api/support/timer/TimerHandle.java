@@ -0,0 +1,29 @@
+package com.poldroc.retry.api.support.timer;
+
+/**
+ * 定时任务句柄
+ * @author Poldroc
+ *  
+ */
+
+public interface TimerHandle {
+
+    /**
+     * 取消任务
+     * @return 是否取消成功，任务已经执行或者已经取消时返回 false
+     */
+    boolean cancel();
+
+    /**
+     * 任务是否已经执行
+     * @return 是否已经执行
+     */
+    boolean isExpired();
+
+    /**
+     * 任务是否已经取消
+     * @return 是否已经取消
+     */
+    boolean isCancelled();
+
+}
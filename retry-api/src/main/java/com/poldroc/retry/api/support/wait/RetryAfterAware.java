@@ -0,0 +1,18 @@
+package com.poldroc.retry.api.support.wait;
+
+/**
+ * 携带建议等待时间的异常或者结果
+ * 1. 异常（包括异常链中的原因）或者方法结果实现该接口时，不需要额外注册 {@link RetryAfterHint}
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryAfterAware {
+
+    /**
+     * 建议的等待时间
+     * @return 等待时间（毫秒），没有建议时返回小于 0 的值
+     */
+    long retryAfterMills();
+
+}
@@ -0,0 +1,23 @@
+package com.poldroc.retry.api.support.wait;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+
+/**
+ * 下游建议的重试等待时间
+ * 1. 从异常或者结果中提取下游给出的等待时间，比如限流异常、HTTP 429/503 响应中的 Retry-After
+ * 2. 通过 {@link java.util.ServiceLoader} 全局加载，也可以手动注册；存在多个实现时使用第一个给出的值
+ * 3. 在重试的热路径上调用，实现类需要保证线程安全
+ * @author Poldroc
+ *  
+ */
+
+public interface RetryAfterHint {
+
+    /**
+     * 提取建议的等待时间
+     * @param attempt 本次尝试的信息
+     * @return 等待时间（毫秒），没有建议时返回小于 0 的值
+     */
+    long retryAfterMills(final RetryAttempt<?> attempt);
+
+}
@@ -101,8 +101,12 @@ public class InstanceFactory implements Instance {
         final String fullClassName = tClass.getName();
         T instance = (T) instanceMap.get(fullClassName);
         if (instance == null) {
+            // 并发创建时只保留先放入的实例
             instance = this.multiple(tClass);
-            instanceMap.put(fullClassName, instance);
+            T existing = (T) instanceMap.putIfAbsent(fullClassName, instance);
+            if (existing != null) {
+                instance = existing;
+            }
         }
         return instance;
     }
@@ -124,8 +128,12 @@ public class InstanceFactory implements Instance {
         final String fullClassName = tClass.getName() + "-" + group;
         T instance = (T) instanceMap.get(fullClassName);
         if (instance == null) {
+            // 并发创建时只保留先放入的实例
             instance = this.multiple(tClass);
-            instanceMap.put(fullClassName, instance);
+            T existing = (T) instanceMap.putIfAbsent(fullClassName, instance);
+            if (existing != null) {
+                instance = existing;
+            }
         }
         return instance;
     }
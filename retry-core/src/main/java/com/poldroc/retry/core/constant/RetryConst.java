@@ -0,0 +1,26 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 重试常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryConst {
+    private RetryConst() {
+    }
+
+    /**
+     * 默认的策略名称
+     * 没有指定名称的重试共享这个名称下的统计信息
+     */
+    public static final String DEFAULT_NAME = "default";
+
+    /**
+     * 统计成功分布时单独统计的最大尝试次数
+     * 更大的尝试次数合并到最后一个统计项
+     */
+    public static final int MAX_TRACKED_ATTEMPTS = 16;
+
+}
@@ -0,0 +1,64 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 死信日志常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryDeadLetterConst {
+    private RetryDeadLetterConst() {
+    }
+
+    /**
+     * 默认的分段大小 64MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 默认的写入队列容量
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    /**
+     * 一次组提交最多写入的记录数
+     */
+    public static final int MAX_BATCH = 1024;
+
+    /**
+     * 写入线程空闲时的等待时间
+     */
+    public static final long IDLE_WAIT_MILLS = 100;
+
+    /**
+     * 分段文件后缀
+     */
+    public static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * 记录头长度：记录长度 + CRC32
+     */
+    public static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * 第一条记录的序号
+     */
+    public static final long FIRST_SEQUENCE = 1;
+
+    /**
+     * 重放时每批读取的记录数
+     */
+    public static final int DEFAULT_REPLAY_BATCH = 256;
+
+    /**
+     * 默认的重放并发数
+     */
+    public static final int DEFAULT_REPLAY_PARALLELISM = 4;
+
+    /**
+     * 重放检查点文件名
+     */
+    public static final String CHECKPOINT_FILE = "replay.checkpoint";
+
+}
@@ -0,0 +1,56 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 重试延后执行常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryDeferConst {
+    private RetryDeferConst() {
+    }
+
+    /**
+     * 默认的延后阈值，等待时间不小于该值时交给后台执行
+     */
+    public static final long DEFAULT_THRESHOLD_MILLS = 30_000;
+
+    /**
+     * 默认的后台执行线程数
+     */
+    public static final int DEFAULT_WORKERS = 4;
+
+    /**
+     * 默认的调度窗口
+     * 只有在窗口内到期的任务才交给定时器，其余的任务只保存在存储中，由定期扫描放入下一个窗口
+     */
+    public static final long DEFAULT_HORIZON_MILLS = 60_000;
+
+    /**
+     * 到期时没有对应策略或者参数无法反序列化的任务，第一次重新调度的等待时间
+     * 之后每次翻倍，直到 {@link #MAX_UNREGISTERED_BACKOFF_MILLS}
+     */
+    public static final long UNREGISTERED_BACKOFF_MILLS = 1_000;
+
+    /**
+     * 跳过的任务最长的重新调度等待时间
+     */
+    public static final long MAX_UNREGISTERED_BACKOFF_MILLS = 60_000;
+
+    /**
+     * 日志记录数超过该值，并且超过存活任务数的两倍时压缩
+     */
+    public static final int COMPACT_MIN_RECORDS = 1024;
+
+    /**
+     * 堆外存储默认的分段大小 64MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 堆外存储的分段文件后缀
+     */
+    public static final String SEGMENT_SUFFIX = ".seg";
+
+}
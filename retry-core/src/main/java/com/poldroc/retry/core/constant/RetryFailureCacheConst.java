@@ -0,0 +1,24 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 失败结果缓存常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryFailureCacheConst {
+    private RetryFailureCacheConst() {
+    }
+
+    /**
+     * 默认最多缓存的键数量
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * 最多的分段数量
+     */
+    public static final int MAX_SEGMENTS = 16;
+
+}
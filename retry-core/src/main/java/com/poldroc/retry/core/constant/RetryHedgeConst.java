@@ -0,0 +1,54 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 对冲常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryHedgeConst {
+    private RetryHedgeConst() {
+    }
+
+    /**
+     * 默认的对冲延迟
+     * 没有足够的耗时样本时使用
+     * 50ms
+     */
+    public static final long DEFAULT_DELAY_MILLS = 50L;
+
+    /**
+     * 默认的对冲分位数
+     * 尝试耗时超过策略最近耗时的该分位数时发起对冲
+     */
+    public static final double DEFAULT_QUANTILE = 0.95;
+
+    /**
+     * 每次尝试默认最多的对冲次数
+     */
+    public static final int DEFAULT_MAX_HEDGES = 1;
+
+    /**
+     * 默认的对冲预算比例
+     * 对冲数量最多约为正常尝试数量的 10%
+     */
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+    /**
+     * 默认最多累积的对冲令牌
+     */
+    public static final int DEFAULT_BUDGET_TOKENS = 10;
+
+    /**
+     * 共享对冲线程池的最大线程数
+     * 线程都在执行时，新的对冲会被跳过
+     */
+    public static final int DEFAULT_MAX_THREADS = 64;
+
+    /**
+     * 使用分位数之前最少的样本数量
+     */
+    public static final long MIN_SAMPLES = 20L;
+
+}
@@ -0,0 +1,34 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 监听器常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryListenConst {
+    private RetryListenConst() {
+    }
+
+    /**
+     * 异步监听默认的缓冲区大小
+     */
+    public static final int DEFAULT_ASYNC_CAPACITY = 1024;
+
+    /**
+     * 采样模式下，缓冲区超过一半之后每多少个事件保留一个
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    /**
+     * 日志监听默认每秒最多输出的事件数
+     */
+    public static final int DEFAULT_LOG_LIMIT_PER_SECOND = 10;
+
+    /**
+     * 日志监听的限流窗口，窗口结束时输出被抑制事件的汇总
+     */
+    public static final long LOG_WINDOW_MILLS = 1000L;
+
+}
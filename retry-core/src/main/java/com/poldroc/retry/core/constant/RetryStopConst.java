@@ -0,0 +1,37 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 终止策略常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryStopConst {
+    private RetryStopConst() {
+    }
+
+    /**
+     * 自适应最大尝试次数的默认最低成功率
+     * 最后一次允许的尝试成功率低于该值时，降低最大尝试次数
+     */
+    public static final double DEFAULT_MIN_SUCCESS_RATE = 0.05;
+
+    /**
+     * 默认的调整间隔
+     * 1s
+     */
+    public static final long DEFAULT_ADJUST_INTERVAL_MILLS = 1000L;
+
+    /**
+     * 一个统计窗口内，到达最后一次允许的尝试的最少调用次数
+     * 不足时继续累积，不做调整
+     */
+    public static final long MIN_SAMPLES = 20;
+
+    /**
+     * 降低之后，经过多少个统计窗口再次尝试提高
+     */
+    public static final int PROBE_WINDOWS = 30;
+
+}
@@ -0,0 +1,25 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 单次尝试超时常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryTimeoutConst {
+    private RetryTimeoutConst() {
+    }
+
+    /**
+     * 自适应超时的最小值
+     * 1ms
+     */
+    public static final long DEFAULT_MIN_MILLS = 1L;
+
+    /**
+     * 自适应超时的默认因子
+     */
+    public static final double DEFAULT_FACTOR = 3;
+
+}
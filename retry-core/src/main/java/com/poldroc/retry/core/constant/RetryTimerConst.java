@@ -0,0 +1,39 @@
+package com.poldroc.retry.core.constant;
+
+/**
+ * 定时器常量
+ *
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryTimerConst {
+    private RetryTimerConst() {
+    }
+
+    /**
+     * 时间轮默认的刻度
+     */
+    public static final long DEFAULT_TICK_MILLS = 10;
+
+    /**
+     * 时间轮默认的槽位数量
+     */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * 时间轮最大的槽位数量
+     */
+    public static final int MAX_TICKS_PER_WHEEL = 1 << 20;
+
+    /**
+     * 每个刻度最多从队列转移到时间轮的任务数，避免新任务过多时推迟到期任务
+     */
+    public static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    /**
+     * 对齐到刻度时，推迟的时间最多占等待时间的比例
+     */
+    public static final double DEFAULT_COALESCE_MAX_DELAY_RATIO = 0.1;
+
+}
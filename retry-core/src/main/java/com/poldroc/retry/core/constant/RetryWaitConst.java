@@ -40,5 +40,14 @@ public final class RetryWaitConst {
      */
     public static final double MULTIPLY_FACTOR = 1.618;
 
+    /**
+     * 自适应等待开始使用学习结果前，最少的恢复样本数量
+     */
+    public static final long ADAPTIVE_MIN_SAMPLES = 5;
+
+    /**
+     * 自适应等待的探索范围，在学习到的时间以下浮动的比例
+     */
+    public static final double ADAPTIVE_EXPLORE_RATIO = 0.25;
 
 }
@@ -4,10 +4,17 @@ import com.poldroc.retry.api.context.RetryContext;
 import com.poldroc.retry.api.context.RetryWaitContext;
 import com.poldroc.retry.api.core.Retry;
 import com.poldroc.retry.api.support.block.RetryBlock;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
 import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.defer.RetryDefer;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
 import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
 import com.poldroc.retry.api.support.stop.RetryStop;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.api.support.timer.RetryTimer;
 import com.poldroc.retry.common.annotation.NotThreadSafe;
 
 import java.util.Collections;
@@ -24,6 +31,11 @@ import java.util.concurrent.Callable;
 @NotThreadSafe
 public class DefaultRetryContext<R> implements RetryContext<R> {
 
+    /**
+     * 策略名称
+     */
+    private String name;
+
     /**
      * 重试实现类
      */
@@ -59,17 +71,78 @@ public class DefaultRetryContext<R> implements RetryContext<R> {
      */
     private RetryListen listen;
 
+    /**
+     * 生命周期监听
+     */
+    private RetryLifecycleListen lifecycle;
+
     /**
      * 恢复策略
      */
     private Recover recover;
 
+    /**
+     * 单次尝试的超时策略
+     */
+    private RetryTimeout timeout;
+
+    /**
+     * 定时器
+     */
+    private RetryTimer timer;
+
+    /**
+     * 调用的键
+     */
+    private RetryKey key;
+
+    /**
+     * 失败结果缓存
+     */
+    private RetryFailureCache failureCache;
+
+    /**
+     * 是否统计资源消耗
+     */
+    private boolean resourceAccounting;
+
+    /**
+     * 嵌套重试模式
+     */
+    private NestedRetryMode nestedMode;
+
+    /**
+     * 限制模式下整个调用链的总尝试次数
+     */
+    private int nestedCap;
+
+    /**
+     * 重试延后执行
+     */
+    private RetryDefer defer;
+
+    /**
+     * 第一次尝试的序号
+     */
+    private int firstAttempt = 1;
+
     /**
      * 请求参数信息
      */
     private Object[] params;
 
 
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public DefaultRetryContext<R> name(String name) {
+        this.name = name;
+        return this;
+    }
+
     @Override
     public Retry<R> retry() {
         return retry;
@@ -125,6 +198,7 @@ public class DefaultRetryContext<R> implements RetryContext<R> {
         return callable;
     }
 
+    @Override
     public DefaultRetryContext<R> callable(Callable<R> callable) {
         this.callable = callable;
         return this;
@@ -145,6 +219,16 @@ public class DefaultRetryContext<R> implements RetryContext<R> {
         return this;
     }
 
+    @Override
+    public RetryLifecycleListen lifecycle() {
+        return lifecycle;
+    }
+
+    public DefaultRetryContext<R> lifecycle(RetryLifecycleListen lifecycle) {
+        this.lifecycle = lifecycle;
+        return this;
+    }
+
     @Override
     public Recover recover() {
         return recover;
@@ -155,6 +239,97 @@ public class DefaultRetryContext<R> implements RetryContext<R> {
         return this;
     }
 
+    @Override
+    public RetryTimeout timeout() {
+        return timeout;
+    }
+
+    public DefaultRetryContext<R> timeout(RetryTimeout timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    @Override
+    public RetryTimer timer() {
+        return timer;
+    }
+
+    public DefaultRetryContext<R> timer(RetryTimer timer) {
+        this.timer = timer;
+        return this;
+    }
+
+    @Override
+    public RetryKey key() {
+        return key;
+    }
+
+    public DefaultRetryContext<R> key(RetryKey key) {
+        this.key = key;
+        return this;
+    }
+
+    @Override
+    public RetryFailureCache failureCache() {
+        return failureCache;
+    }
+
+    public DefaultRetryContext<R> failureCache(RetryFailureCache failureCache) {
+        this.failureCache = failureCache;
+        return this;
+    }
+
+    @Override
+    public boolean resourceAccounting() {
+        return resourceAccounting;
+    }
+
+    public DefaultRetryContext<R> resourceAccounting(boolean resourceAccounting) {
+        this.resourceAccounting = resourceAccounting;
+        return this;
+    }
+
+    @Override
+    public NestedRetryMode nestedMode() {
+        return nestedMode;
+    }
+
+    public DefaultRetryContext<R> nestedMode(NestedRetryMode nestedMode) {
+        this.nestedMode = nestedMode;
+        return this;
+    }
+
+    @Override
+    public int nestedCap() {
+        return nestedCap;
+    }
+
+    public DefaultRetryContext<R> nestedCap(int nestedCap) {
+        this.nestedCap = nestedCap;
+        return this;
+    }
+
+    @Override
+    public RetryDefer defer() {
+        return defer;
+    }
+
+    public DefaultRetryContext<R> defer(RetryDefer defer) {
+        this.defer = defer;
+        return this;
+    }
+
+    @Override
+    public int firstAttempt() {
+        return firstAttempt;
+    }
+
+    @Override
+    public DefaultRetryContext<R> firstAttempt(int firstAttempt) {
+        this.firstAttempt = firstAttempt;
+        return this;
+    }
+
     @Override
     public Object[] params() {
         return params;
@@ -17,6 +17,11 @@ import java.util.List;
 
 public class DefaultRetryWaitContext<R> implements RetryWaitContext<R> {
 
+    /**
+     * 重试策略名称
+     */
+    private String name;
+
     /**
      * 执行结果
      */
@@ -67,12 +72,51 @@ public class DefaultRetryWaitContext<R> implements RetryWaitContext<R> {
      */
     private Class<? extends RetryWait> retryWait;
 
+    /**
+     * 兜底等待类
+     */
+    private Class<? extends RetryWait> fallback;
+
     /**
      * 请求参数
      */
     private Object[] params;
 
 
+    /**
+     * 复制等待上下文的所有字段
+     *
+     * @param waitContext 等待上下文
+     * @param <R>         泛型
+     * @return 新的等待上下文
+     */
+    public static <R> DefaultRetryWaitContext<R> copyOf(RetryWaitContext<R> waitContext) {
+        return new DefaultRetryWaitContext<R>()
+                .name(waitContext.name())
+                .result(waitContext.result())
+                .attempt(waitContext.attempt())
+                .cause(waitContext.cause())
+                .time(waitContext.time())
+                .history(waitContext.history())
+                .value(waitContext.value())
+                .min(waitContext.min())
+                .max(waitContext.max())
+                .factor(waitContext.factor())
+                .retryWait(waitContext.retryWait())
+                .fallback(waitContext.fallback())
+                .params(waitContext.params());
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    public DefaultRetryWaitContext<R> name(String name) {
+        this.name = name;
+        return this;
+    }
+
     @Override
     public R result() {
         return result;
@@ -173,6 +217,16 @@ public class DefaultRetryWaitContext<R> implements RetryWaitContext<R> {
         return this;
     }
 
+    @Override
+    public Class<? extends RetryWait> fallback() {
+        return fallback;
+    }
+
+    public DefaultRetryWaitContext<R> fallback(Class<? extends RetryWait> fallback) {
+        this.fallback = fallback;
+        return this;
+    }
+
     @Override
     public Object[] params() {
         return params;
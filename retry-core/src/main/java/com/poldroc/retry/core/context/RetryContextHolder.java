@@ -0,0 +1,202 @@
+package com.poldroc.retry.core.context;
+
+import com.poldroc.retry.api.context.RetryAttemptContext;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 正在执行的尝试信息持有者
+ * 1. 重试执行器在每次调用方法前填充，调用结束后清理
+ * 2. 每个线程按照嵌套深度重用尝试信息对象，读取和填充都不创建对象
+ * 3. 交给其他线程执行的方法通过 {@link #wrap(Callable, String, int, int, boolean, long, Throwable)} 带上尝试信息
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public final class RetryContextHolder {
+
+    private RetryContextHolder() {
+    }
+
+    private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+
+    /**
+     * 当前线程正在执行的尝试
+     *
+     * @return 尝试信息，不在重试中时为 null
+     */
+    public static RetryAttemptContext current() {
+        final Frames frames = FRAMES.get();
+        return frames.depth < 0 ? null : frames.views[frames.depth];
+    }
+
+    /**
+     * 开始执行一次尝试，必须在 finally 中调用 {@link #exit()}
+     *
+     * @param name          重试策略名称
+     * @param attempt       尝试次数
+     * @param maxAttempt    最大尝试次数，无法确定时为 -1
+     * @param hasDeadline   是否有超时时间
+     * @param deadlineNanos 超时的时间点（{@link System#nanoTime()}），没有超时时忽略
+     * @param previousCause 上一次尝试的异常信息
+     */
+    public static void enter(final String name,
+                             final int attempt,
+                             final int maxAttempt,
+                             final boolean hasDeadline,
+                             final long deadlineNanos,
+                             final Throwable previousCause) {
+        FRAMES.get().push().fill(name, attempt, maxAttempt, hasDeadline, deadlineNanos, previousCause);
+    }
+
+    /**
+     * 结束当前的尝试，恢复外层的尝试信息
+     */
+    public static void exit() {
+        FRAMES.get().pop();
+    }
+
+    /**
+     * 包装交给其他线程执行的方法，执行期间可以获取到尝试信息
+     *
+     * @param callable      待执行的方法
+     * @param name          重试策略名称
+     * @param attempt       尝试次数
+     * @param maxAttempt    最大尝试次数
+     * @param hasDeadline   是否有超时时间
+     * @param deadlineNanos 超时的时间点
+     * @param previousCause 上一次尝试的异常信息
+     * @param <T>           泛型
+     * @return 包装之后的方法
+     */
+    public static <T> Callable<T> wrap(final Callable<T> callable,
+                                       final String name,
+                                       final int attempt,
+                                       final int maxAttempt,
+                                       final boolean hasDeadline,
+                                       final long deadlineNanos,
+                                       final Throwable previousCause) {
+        return () -> {
+            enter(name, attempt, maxAttempt, hasDeadline, deadlineNanos, previousCause);
+            try {
+                return callable.call();
+            } finally {
+                exit();
+            }
+        };
+    }
+
+    /**
+     * 每个线程的尝试信息栈
+     */
+    private static final class Frames {
+
+        private MutableAttemptContext[] views = new MutableAttemptContext[2];
+
+        private int depth = -1;
+
+        private MutableAttemptContext push() {
+            depth++;
+            if (depth == views.length) {
+                MutableAttemptContext[] grown = new MutableAttemptContext[views.length * 2];
+                System.arraycopy(views, 0, grown, 0, views.length);
+                views = grown;
+            }
+            MutableAttemptContext view = views[depth];
+            if (view == null) {
+                view = new MutableAttemptContext();
+                views[depth] = view;
+            }
+            return view;
+        }
+
+        private void pop() {
+            if (depth < 0) {
+                return;
+            }
+            views[depth].clear();
+            depth--;
+        }
+    }
+
+    /**
+     * 可重用的尝试信息
+     */
+    private static final class MutableAttemptContext implements RetryAttemptContext {
+
+        private String name;
+
+        private int attempt;
+
+        private int maxAttempt;
+
+        /**
+         * 是否有超时时间，任何 nanoTime 都是合法的时间点，不能用特殊值表示没有超时
+         */
+        private boolean hasDeadline;
+
+        private long deadlineNanos;
+
+        private Throwable previousCause;
+
+        private void fill(String name, int attempt, int maxAttempt, boolean hasDeadline, long deadlineNanos, Throwable previousCause) {
+            this.name = name;
+            this.attempt = attempt;
+            this.maxAttempt = maxAttempt;
+            this.hasDeadline = hasDeadline;
+            this.deadlineNanos = deadlineNanos;
+            this.previousCause = previousCause;
+        }
+
+        private void clear() {
+            fill(null, 0, 0, false, 0L, null);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int attempt() {
+            return attempt;
+        }
+
+        @Override
+        public int maxAttempt() {
+            return maxAttempt;
+        }
+
+        @Override
+        public boolean lastAttempt() {
+            return maxAttempt > 0 && attempt >= maxAttempt;
+        }
+
+        @Override
+        public long remainingMills() {
+            if (!hasDeadline) {
+                return -1;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        }
+
+        @Override
+        public Throwable previousCause() {
+            return previousCause;
+        }
+
+        @Override
+        public String toString() {
+            return "RetryAttemptContext{" +
+                    "name='" + name + '\'' +
+                    ", attempt=" + attempt +
+                    ", maxAttempt=" + maxAttempt +
+                    ", remainingMills=" + remainingMills() +
+                    '}';
+        }
+    }
+
+}
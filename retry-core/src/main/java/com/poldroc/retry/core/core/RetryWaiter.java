@@ -5,9 +5,11 @@ import com.poldroc.retry.api.support.wait.RetryWait;
 import com.poldroc.retry.common.annotation.NotThreadSafe;
 import com.poldroc.retry.core.constant.RetryWaitConst;
 import com.poldroc.retry.core.context.DefaultRetryWaitContext;
+import com.poldroc.retry.core.support.wait.AdaptiveRetryWait;
 import com.poldroc.retry.core.support.wait.ExponentialRetryWait;
 import com.poldroc.retry.core.support.wait.IncreaseRetryWait;
 import com.poldroc.retry.core.support.wait.NoRetryWait;
+import com.poldroc.retry.core.support.wait.RetryAfterRetryWait;
 
 /**
  * 重试等待类构造器
@@ -24,6 +26,13 @@ public class RetryWaiter<R> {
      */
     private Class<? extends RetryWait> retryWait = NoRetryWait.class;
 
+    /**
+     * 兜底等待类的类型
+     * 对 {@link com.poldroc.retry.core.support.wait.RetryAfterRetryWait}（没有建议时间时）和
+     * {@link com.poldroc.retry.core.support.wait.AdaptiveRetryWait}（恢复样本不足时）生效，默认为 {@link ExponentialRetryWait}
+     */
+    private Class<? extends RetryWait> fallback = ExponentialRetryWait.class;
+
     /**
      * 默认的等待时间
      */
@@ -42,7 +51,7 @@ public class RetryWaiter<R> {
     /**
      * 变化因子
      * <p>
-     * 1. 如果是 {@link com.poldroc.retry.core.support.wait.ExponentialRetryWait} 则为 {@link com.poldroc.retry.core.constant.RetryWaitConst#MULTIPLY_FACTOR}
+     * 1. 如果是 {@link com.poldroc.retry.core.support.wait.ExponentialRetryWait}、{@link com.poldroc.retry.core.support.wait.RetryAfterRetryWait}、{@link com.poldroc.retry.core.support.wait.AdaptiveRetryWait} 则为 {@link com.poldroc.retry.core.constant.RetryWaitConst#MULTIPLY_FACTOR}
      * <p>
      * 2. 如果是 {@link com.poldroc.retry.core.support.wait.IncreaseRetryWait} 则为 {@link com.poldroc.retry.core.constant.RetryWaitConst#INCREASE_MILLS_FACTOR}
      */
@@ -67,7 +76,9 @@ public class RetryWaiter<R> {
         if (IncreaseRetryWait.class.equals(retryWait)) {
             retryWaiter.factor(RetryWaitConst.INCREASE_MILLS_FACTOR);
         }
-        if (ExponentialRetryWait.class.equals(retryWait)) {
+        if (ExponentialRetryWait.class.equals(retryWait)
+                || RetryAfterRetryWait.class.equals(retryWait)
+                || AdaptiveRetryWait.class.equals(retryWait)) {
             retryWaiter.factor(RetryWaitConst.MULTIPLY_FACTOR);
         }
         return retryWaiter;
@@ -77,6 +88,15 @@ public class RetryWaiter<R> {
         return retryWait;
     }
 
+    public Class<? extends RetryWait> fallback() {
+        return fallback;
+    }
+
+    public RetryWaiter<R> fallback(Class<? extends RetryWait> fallback) {
+        this.fallback = fallback;
+        return this;
+    }
+
     public long value() {
         return value;
     }
@@ -122,6 +142,7 @@ public class RetryWaiter<R> {
                 .min(min)
                 .max(max)
                 .factor(factor)
-                .retryWait(retryWait);
+                .retryWait(retryWait)
+                .fallback(fallback);
     }
 }
@@ -4,25 +4,40 @@ import com.poldroc.retry.api.context.RetryContext;
 import com.poldroc.retry.api.context.RetryWaitContext;
 import com.poldroc.retry.api.core.Retry;
 import com.poldroc.retry.api.support.block.RetryBlock;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
 import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.defer.RetryDefer;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
 import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
 import com.poldroc.retry.api.support.stop.RetryStop;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.api.support.timer.RetryTimer;
 import com.poldroc.retry.common.annotation.NotThreadSafe;
 import com.poldroc.retry.common.util.ArgUtil;
 import com.poldroc.retry.core.context.DefaultRetryContext;
 import com.poldroc.retry.core.core.retry.DefaultRetry;
 import com.poldroc.retry.core.support.block.ThreadSleepRetryBlock;
+import com.poldroc.retry.core.support.cache.NoRetryFailureCache;
+import com.poldroc.retry.core.support.cache.RetryFailureCaches;
 import com.poldroc.retry.core.support.condition.RetryConditions;
+import com.poldroc.retry.core.support.key.NoRetryKey;
+import com.poldroc.retry.core.support.listen.NoRetryLifecycleListen;
 import com.poldroc.retry.core.support.listen.NoRetryListen;
 import com.poldroc.retry.core.support.recover.NoRecover;
 import com.poldroc.retry.core.support.stop.MaxAttemptRetryStop;
+import com.poldroc.retry.core.support.timeout.NoRetryTimeout;
+import com.poldroc.retry.core.support.timeout.RetryTimeouts;
+import com.poldroc.retry.core.support.timer.ScheduledRetryTimer;
 import com.poldroc.retry.core.support.wait.NoRetryWait;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 引导核心类
@@ -33,6 +48,12 @@ import java.util.concurrent.Callable;
 @NotThreadSafe
 public class Retryer<R> implements Retry<R> {
 
+    /**
+     * 策略名称
+     * 1. 用于区分不同策略的统计信息，默认为空
+     */
+    private String name;
+
     /**
      * 待执行的方法
      */
@@ -71,6 +92,13 @@ public class Retryer<R> implements Retry<R> {
      */
     private RetryListen listen = NoRetryListen.getInstance();
 
+    /**
+     * 生命周期监听
+     * 调用开始、每次尝试、成功和用尽重试时触发
+     * 1. 默认不进行任何操作
+     */
+    private RetryLifecycleListen lifecycle = NoRetryLifecycleListen.getInstance();
+
     /**
      * 恢复策略
      * 符合重试条件但是也符合停止条件时触发
@@ -78,6 +106,55 @@ public class Retryer<R> implements Retry<R> {
      */
     private Recover recover = NoRecover.getInstance();
 
+    /**
+     * 单次尝试的超时策略
+     * 1. 默认不限制
+     */
+    private RetryTimeout timeout = NoRetryTimeout.getInstance();
+
+    /**
+     * 定时器
+     * 1. 默认使用共享的定时器，用于触发单次尝试的超时
+     */
+    private RetryTimer timer = ScheduledRetryTimer.getInstance();
+
+    /**
+     * 调用的键
+     * 1. 默认不合并调用
+     * 2. 键相等的并发调用会共享同一次重试执行的结果或者异常
+     */
+    private RetryKey key = NoRetryKey.getInstance();
+
+    /**
+     * 失败结果缓存
+     * 1. 默认不缓存
+     * 2. 缓存有效期内，用尽重试的键直接触发恢复策略
+     */
+    private RetryFailureCache failureCache = NoRetryFailureCache.getInstance();
+
+    /**
+     * 是否统计每次尝试的 CPU 时间和分配的内存
+     * 1. 默认不统计
+     */
+    private boolean resourceAccounting = false;
+
+    /**
+     * 嵌套在其他重试中时的重试模式
+     * 1. 默认独立重试
+     */
+    private NestedRetryMode nestedMode = NestedRetryMode.ALLOW;
+
+    /**
+     * 限制模式下整个调用链的总尝试次数
+     */
+    private int nestedCap;
+
+    /**
+     * 重试延后执行
+     * 1. 默认不延后，总是阻塞等待
+     */
+    private RetryDefer defer;
+
     /**
      * 重试等待上下文
      * 包含等待策略和对应的时间参数
@@ -110,6 +187,19 @@ public class Retryer<R> implements Retry<R> {
     }
 
 
+    /**
+     * 设置策略名称
+     *
+     * @param name 策略名称
+     * @return this
+     */
+    public Retryer<R> name(final String name) {
+        ArgUtil.notEmpty(name, "name");
+
+        this.name = name;
+        return this;
+    }
+
     /**
      * 设置重试实现类
      *
@@ -205,6 +295,19 @@ public class Retryer<R> implements Retry<R> {
         return this;
     }
 
+    /**
+     * 设置生命周期监听
+     *
+     * @param lifecycle 生命周期监听
+     * @return this
+     */
+    public Retryer<R> lifecycle(RetryLifecycleListen lifecycle) {
+        ArgUtil.notNull(lifecycle, "lifecycle");
+
+        this.lifecycle = lifecycle;
+        return this;
+    }
+
     /**
      * 设置恢复策略
      *
@@ -219,6 +322,142 @@ public class Retryer<R> implements Retry<R> {
     }
 
 
+    /**
+     * 设置单次尝试的超时策略
+     *
+     * @param timeout 超时策略
+     * @return this
+     */
+    public Retryer<R> timeout(RetryTimeout timeout) {
+        ArgUtil.notNull(timeout, "timeout");
+
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * 设置单次尝试的固定超时时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return this
+     */
+    public Retryer<R> timeout(final long timeout, final TimeUnit unit) {
+        ArgUtil.notNull(unit, "unit");
+
+        this.timeout = RetryTimeouts.fixed(timeout, unit);
+        return this;
+    }
+
+    /**
+     * 设置定时器
+     *
+     * @param timer 定时器
+     * @return this
+     */
+    public Retryer<R> timer(RetryTimer timer) {
+        ArgUtil.notNull(timer, "timer");
+
+        this.timer = timer;
+        return this;
+    }
+
+    /**
+     * 设置调用的键，用于合并相同的并发调用
+     * 键只在策略内合并，使用时必须同时设置 {@link #name(String)}，否则执行时抛出异常
+     *
+     * @param key 键
+     * @return this
+     */
+    public Retryer<R> key(RetryKey key) {
+        ArgUtil.notNull(key, "key");
+
+        this.key = key;
+        return this;
+    }
+
+    /**
+     * 设置失败结果缓存
+     *
+     * @param failureCache 失败结果缓存
+     * @return this
+     */
+    public Retryer<R> failureCache(RetryFailureCache failureCache) {
+        ArgUtil.notNull(failureCache, "failureCache");
+
+        this.failureCache = failureCache;
+        return this;
+    }
+
+    /**
+     * 缓存用尽重试的键，有效期内相同键的调用直接触发恢复策略
+     * 缓存按照策略名称共享，必须同时设置 {@link #name(String)}，并且同名策略的容量必须一致
+     *
+     * @param ttl     有效期
+     * @param unit    时间单位
+     * @param maxSize 最多缓存的键数量
+     * @return this
+     */
+    public Retryer<R> failureCache(final long ttl, final TimeUnit unit, final int maxSize) {
+        ArgUtil.notNull(unit, "unit");
+
+        this.failureCache = RetryFailureCaches.lru(ttl, unit, maxSize);
+        return this;
+    }
+
+    /**
+     * 设置是否统计每次尝试的 CPU 时间和分配的内存
+     *
+     * @param resourceAccounting 是否统计
+     * @return this
+     */
+    public Retryer<R> resourceAccounting(boolean resourceAccounting) {
+        this.resourceAccounting = resourceAccounting;
+        return this;
+    }
+
+    /**
+     * 设置嵌套在其他重试中时的重试模式
+     *
+     * @param nestedMode 嵌套重试模式，{@link NestedRetryMode#CAP} 需要通过 {@link #nestedCap(int)} 设置
+     * @return this
+     */
+    public Retryer<R> nested(NestedRetryMode nestedMode) {
+        ArgUtil.notNull(nestedMode, "nestedMode");
+        if (nestedMode == NestedRetryMode.CAP) {
+            throw new IllegalArgumentException("Use nestedCap(int) to cap the total attempts");
+        }
+
+        this.nestedMode = nestedMode;
+        return this;
+    }
+
+    /**
+     * 嵌套在其他重试中时，限制整个调用链的总尝试次数
+     *
+     * @param maxAttempts 总尝试次数
+     * @return this
+     */
+    public Retryer<R> nestedCap(int maxAttempts) {
+        ArgUtil.positive(maxAttempts, "maxAttempts");
+
+        this.nestedMode = NestedRetryMode.CAP;
+        this.nestedCap = maxAttempts;
+        return this;
+    }
+
+    /**
+     * 设置重试延后执行
+     * 等待时间较长时，剩余的重试交给后台执行，调用方直接返回
+     *
+     * @param defer 重试延后执行
+     * @return this
+     */
+    public Retryer<R> defer(RetryDefer defer) {
+        this.defer = defer;
+        return this;
+    }
+
     /**
      * 构建重试上下文
      *
@@ -227,13 +466,23 @@ public class Retryer<R> implements Retry<R> {
     public RetryContext<R> context() {
         // 初始化
         return new DefaultRetryContext<R>()
+                .name(name)
                 .callable(callable)
                 .waitContext(waitContexts)
                 .block(block)
                 .stop(stop)
                 .condition(condition)
                 .listen(listen)
+                .lifecycle(lifecycle)
                 .recover(recover)
+                .timeout(timeout)
+                .timer(timer)
+                .key(key)
+                .failureCache(failureCache)
+                .resourceAccounting(resourceAccounting)
+                .nestedMode(nestedMode)
+                .nestedCap(nestedCap)
+                .defer(defer)
                 .retry(retry);
     }
 
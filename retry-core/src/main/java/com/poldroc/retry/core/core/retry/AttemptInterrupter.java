@@ -0,0 +1,58 @@
+package com.poldroc.retry.core.core.retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单次尝试的超时中断器
+ * 1. 由定时器触发，中断正在执行方法的线程
+ * 2. 通过状态机保证中断只会落在本次尝试之内，不会泄漏到后续的执行中
+ *
+ * @author Poldroc
+ *  
+ */
+final class AttemptInterrupter implements Runnable {
+
+    private static final int RUNNING = 0;
+    private static final int INTERRUPTING = 1;
+    private static final int TIMED_OUT = 2;
+    private static final int DONE = 3;
+
+    /**
+     * 执行方法的线程
+     */
+    private final Thread thread;
+
+    /**
+     * 当前状态
+     */
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+    AttemptInterrupter(Thread thread) {
+        this.thread = thread;
+    }
+
+    @Override
+    public void run() {
+        if (state.compareAndSet(RUNNING, INTERRUPTING)) {
+            thread.interrupt();
+            state.set(TIMED_OUT);
+        }
+    }
+
+    /**
+     * 方法执行结束，由执行线程调用
+     *
+     * @return 是否已经超时
+     */
+    boolean complete() {
+        if (state.compareAndSet(RUNNING, DONE)) {
+            return false;
+        }
+        // 等待中断动作完成，再清除中断标记
+        while (state.get() != TIMED_OUT) {
+            Thread.yield();
+        }
+        Thread.interrupted();
+        return true;
+    }
+}
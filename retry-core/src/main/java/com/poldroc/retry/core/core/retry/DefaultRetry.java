@@ -3,21 +3,41 @@ package com.poldroc.retry.core.core.retry;
 import com.poldroc.retry.api.context.RetryContext;
 import com.poldroc.retry.api.context.RetryWaitContext;
 import com.poldroc.retry.api.core.Retry;
+import com.poldroc.retry.api.exception.RetryDeferredException;
 import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.api.exception.RetryTimeoutException;
 import com.poldroc.retry.api.model.RetryAttempt;
 import com.poldroc.retry.api.model.WaitTime;
 import com.poldroc.retry.api.support.block.RetryBlock;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
 import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.defer.RetryDefer;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.api.support.probe.RetryProbe;
 import com.poldroc.retry.api.support.recover.Recover;
 import com.poldroc.retry.api.support.stop.RetryStop;
+import com.poldroc.retry.api.support.timer.TimerHandle;
 import com.poldroc.retry.api.support.wait.RetryWait;
 import com.poldroc.retry.common.annotation.ThreadSafe;
 import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
 import com.poldroc.retry.core.context.DefaultRetryWaitContext;
+import com.poldroc.retry.core.context.RetryContextHolder;
 import com.poldroc.retry.core.model.DefaultAttemptTime;
 import com.poldroc.retry.core.model.DefaultRetryAttempt;
 import com.poldroc.retry.core.model.DefaultWaitTime;
+import com.poldroc.retry.core.support.coalesce.SingleFlight;
+import com.poldroc.retry.core.support.listen.NoRetryLifecycleListen;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.probe.RetryProbes;
+import com.poldroc.retry.core.support.resource.ThreadResources;
+import com.poldroc.retry.core.support.scope.RetryScope;
+import com.poldroc.retry.core.support.stop.AdaptiveMaxAttemptRetryStop;
+import com.poldroc.retry.core.support.stop.MaxAttemptRetryStop;
+import com.poldroc.retry.core.support.tuning.RetryTuning;
+import com.poldroc.retry.core.support.tuning.RetryTuningRegistry;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -53,38 +73,236 @@ public class DefaultRetry<R> implements Retry<R> {
      */
     @Override
     public R retryCall(RetryContext<R> context) {
+        // 键相等的并发调用合并为一次执行
+        final RetryKey retryKey = context.key();
+        final Object key = retryKey == null ? null : retryKey.key(context);
+        if (key == null) {
+            return doRetryCall(context);
+        }
+        return SingleFlight.getInstance().execute(context.name(), key, () -> doRetryCall(context));
+    }
+
+    /**
+     * 执行重试
+     *
+     * @param context 执行上下文
+     * @return 结果
+     */
+    protected R doRetryCall(RetryContext<R> context) {
+        final RetryProbe probe = RetryProbes.probe();
+        final Object callToken = probe.callStart(context);
+        if (callToken == null) {
+            return result(doRetryAttempts(context, probe));
+        }
+
+        RetryAttempt<R> retryAttempt = null;
+        Throwable error = null;
+        try {
+            retryAttempt = doRetryAttempts(context, probe);
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            if (retryAttempt == null) {
+                probe.callEnd(callToken, context, 0, error);
+            } else {
+                probe.callEnd(callToken, context, retryAttempt.attempt(), retryAttempt.cause());
+            }
+        }
+        return result(retryAttempt);
+    }
+
+    /**
+     * 执行所有的尝试，必要时触发恢复策略
+     *
+     * @param context 执行上下文
+     * @param probe   探针
+     * @return 最后一次尝试
+     */
+    private RetryAttempt<R> doRetryAttempts(final RetryContext<R> context, final RetryProbe probe) {
+        final RetryMetrics metrics = RetryMetricsRegistry.getInstance().metrics(context.name());
+        // 运行时调整的参数，一次调用只读取一次
+        final RetryTuning tuning = RetryTuningRegistry.getInstance().tuning(context.name());
+        final int maxAttempt = maxAttempt(context.stop(), tuning);
+        final RetryScope scope = RetryScope.enter(context.nestedMode(), context.nestedCap(),
+                maxAttempt > 0 ? Math.max(0, maxAttempt - firstAttempt(context)) : RetryScope.UNLIMITED);
+        try {
+            return doRetryAttempts(context, probe, metrics, tuning, scope);
+        } finally {
+            scope.exit();
+            if (scope.nested()) {
+                metrics.recordNestedCall();
+            } else {
+                metrics.recordRootCall(scope.leafAttempts());
+            }
+        }
+    }
+
+    /**
+     * 在重试作用域中执行所有的尝试
+     *
+     * @param context 执行上下文
+     * @param probe   探针
+     * @param metrics 统计信息
+     * @param tuning  运行时调整的参数
+     * @param scope   重试作用域
+     * @return 最后一次尝试
+     */
+    private RetryAttempt<R> doRetryAttempts(final RetryContext<R> context,
+                                            final RetryProbe probe,
+                                            final RetryMetrics metrics,
+                                            final RetryTuning tuning,
+                                            final RetryScope scope) {
+        final long callStartNanos = System.nanoTime();
+        final RetryLifecycleListen lifecycle = lifecycle(context);
+        if (lifecycle != null) {
+            lifecycle.onStart(context);
+        }
+        // 有效期内已经用尽重试的键，直接触发恢复策略
+        final RetryFailureCache failureCache = context.failureCache();
+        if (failureCache != null) {
+            RetryAttempt<R> cachedAttempt = failureCache.get(context);
+            if (cachedAttempt != null) {
+                if (lifecycle != null) {
+                    lifecycle.onExhausted(context, cachedAttempt);
+                }
+                recover(context, cachedAttempt, probe);
+                metrics.recordRecover();
+                metrics.recordCall(cachedAttempt.attempt(), false, System.nanoTime() - callStartNanos);
+                return cachedAttempt;
+            }
+        }
+
         List<RetryAttempt<R>> history = new ArrayList<>();
-        int attempts = 1;
+        int attempts = firstAttempt(context);
         final Callable<R> callable = context.callable();
-        RetryAttempt<R> retryAttempt = execute(callable, attempts, history, context);
+        scope.attemptStart();
+        metrics.recordReached(attempts);
+        RetryAttempt<R> retryAttempt = execute(callable, attempts, history, context, metrics);
+        scope.attemptEnd();
+        if (lifecycle != null) {
+            lifecycle.onAttempt(context, retryAttempt);
+        }
+        // 第一次尝试结束和最后一次尝试开始的时间，用于统计恢复时间
+        final long firstEndNanos = System.nanoTime();
+        long lastStartNanos = firstEndNanos;
 
         final List<RetryWaitContext<R>> waitContextList = context.waitContext();
         final RetryCondition retryCondition = context.condition();
         final RetryStop retryStop = context.stop();
         final RetryBlock retryBlock = context.block();
         final RetryListen retryListen = context.listen();
+        final RetryDefer retryDefer = context.defer();
+        boolean guarded = false;
         // 触发执行的 condition 并且 不触发 stop 策略 就进行重试
-        while (retryCondition.condition(retryAttempt) && !retryStop.stop(retryAttempt)) {
+        while (retryCondition.condition(retryAttempt) && !stop(retryStop, tuning, retryAttempt)) {
+            // 嵌套在其他重试中时，受到外层作用域的限制
+            if (!scope.tryRetry()) {
+                guarded = true;
+                metrics.recordGuardedRetry();
+                break;
+            }
             // 根据等待时间计算策略计算等待时间
-            WaitTime waitTime = calcWaitTime(waitContextList, retryAttempt);
+            WaitTime waitTime = calcWaitTime(context.name(), waitContextList, retryAttempt, tuning);
+            // 等待时间较长时，剩余的重试交给后台执行，调用线程直接返回
+            if (retryDefer != null && retryDefer.defer(context, retryAttempt, waitTime)) {
+                metrics.recordDeferred();
+                if (lifecycle != null) {
+                    lifecycle.onDeferred(context, retryAttempt);
+                }
+                throw new RetryDeferredException("Retry [" + context.name() + "] deferred after attempt "
+                        + attempts + " for " + waitTime.unit().toMillis(waitTime.time()) + " ms", retryAttempt.cause());
+            }
             // 根据上面计算的时间阻塞等待
+            final Object sleepToken = probe.sleepStart(context, attempts + 1, waitTime.unit().toMillis(waitTime.time()));
+            final long sleepStartNanos = System.nanoTime();
             retryBlock.block(waitTime);
+            metrics.recordSleep(System.nanoTime() - sleepStartNanos);
+            if (sleepToken != null) {
+                probe.sleepEnd(sleepToken);
+            }
             // 每一次执行会更新 executeResult
             attempts++;
             history.add(retryAttempt);
-            retryAttempt = this.execute(callable, attempts, history, context);
+            scope.attemptStart();
+            lastStartNanos = System.nanoTime();
+            metrics.recordReached(attempts);
+            retryAttempt = this.execute(callable, attempts, history, context, metrics);
+            scope.attemptEnd();
+            if (lifecycle != null) {
+                lifecycle.onAttempt(context, retryAttempt);
+            }
 
             // 触发监听器
             retryListen.listen(retryAttempt);
         }
 
         // 仍然满足重试条件，但是满足重试停止条件 （如一直出现异常但是到达最大重试次数）
-        if (retryCondition.condition(retryAttempt) && retryStop.stop(retryAttempt)) {
+        final boolean exhausted = retryCondition.condition(retryAttempt);
+        if (exhausted && (guarded || stop(retryStop, tuning, retryAttempt))) {
+            if (failureCache != null) {
+                failureCache.put(context, retryAttempt);
+            }
+            if (lifecycle != null) {
+                lifecycle.onExhausted(context, retryAttempt);
+            }
             // 触发恢复策略
+            recover(context, retryAttempt, probe);
+            metrics.recordRecover();
+        } else {
+            if (attempts > firstAttempt(context)) {
+                metrics.recordRecovery(lastStartNanos - firstEndNanos);
+            }
+            if (lifecycle != null) {
+                lifecycle.onSuccess(context, retryAttempt);
+            }
+        }
+        metrics.recordCall(attempts, !exhausted, System.nanoTime() - callStartNanos);
+
+        return retryAttempt;
+    }
+
+    /**
+     * 获取生命周期监听
+     * 未设置或者为默认实现时返回 null，调用方直接跳过，不产生任何调用
+     *
+     * @param context 执行上下文
+     * @return 生命周期监听
+     */
+    private RetryLifecycleListen lifecycle(final RetryContext<R> context) {
+        final RetryLifecycleListen lifecycle = context.lifecycle();
+        if (lifecycle == null || lifecycle == NoRetryLifecycleListen.getInstance()) {
+            return null;
+        }
+        return lifecycle;
+    }
+
+    /**
+     * 触发恢复策略
+     *
+     * @param context      执行上下文
+     * @param retryAttempt 最后一次尝试
+     * @param probe        探针
+     */
+    private void recover(final RetryContext<R> context, final RetryAttempt<R> retryAttempt, final RetryProbe probe) {
+        final Object token = probe.recoverStart(context, retryAttempt.attempt(), retryAttempt.cause());
+        try {
             final Recover recover = context.recover();
             recover.recover(retryAttempt);
+        } finally {
+            if (token != null) {
+                probe.recoverEnd(token);
+            }
         }
+    }
 
+    /**
+     * 根据最后一次尝试返回结果
+     *
+     * @param retryAttempt 最后一次尝试
+     * @return 结果
+     */
+    private R result(final RetryAttempt<R> retryAttempt) {
         // 最后一次还是有异常，直接抛出异常
         final Throwable throwable = retryAttempt.cause();
         if (throwable != null) {
@@ -97,58 +315,251 @@ public class DefaultRetry<R> implements Retry<R> {
         }
         // 返回最后一次尝试的结果
         return retryAttempt.result();
+    }
 
+    /**
+     * 是否停止重试
+     * 运行时调整的最大尝试次数只是额外的上限，配置的停止策略依然生效
+     *
+     * @param retryStop    停止策略
+     * @param tuning       运行时调整的参数
+     * @param retryAttempt 重试信息
+     * @return 是否停止
+     */
+    private boolean stop(final RetryStop retryStop, final RetryTuning tuning, final RetryAttempt<R> retryAttempt) {
+        if (tuning.maxAttempt() > 0 && retryAttempt.attempt() >= tuning.maxAttempt()) {
+            return true;
+        }
+        return retryStop.stop(retryAttempt);
+    }
+
+    /**
+     * 最大尝试次数
+     *
+     * @param retryStop 终止策略
+     * @param tuning    运行时调整的参数
+     * @return 最大尝试次数，无法确定时为 -1
+     */
+    private int maxAttempt(final RetryStop retryStop, final RetryTuning tuning) {
+        int configured = -1;
+        if (retryStop instanceof MaxAttemptRetryStop) {
+            configured = ((MaxAttemptRetryStop) retryStop).maxAttempt();
+        } else if (retryStop instanceof AdaptiveMaxAttemptRetryStop) {
+            configured = ((AdaptiveMaxAttemptRetryStop) retryStop).maxAttempt();
+        }
+        if (tuning.maxAttempt() > 0) {
+            return configured > 0 ? Math.min(configured, tuning.maxAttempt()) : tuning.maxAttempt();
+        }
+        return configured;
+    }
+
+    /**
+     * 第一次尝试的序号，延后执行的重试从之前的尝试次数继续计数
+     *
+     * @param context 执行上下文
+     * @return 序号
+     */
+    private int firstAttempt(final RetryContext<R> context) {
+        return Math.max(1, context.firstAttempt());
+    }
+
+    /**
+     * 最大尝试次数，用于填充 {@link RetryContextHolder}
+     *
+     * @param context 执行上下文
+     * @return 最大尝试次数，无法确定时为 -1
+     */
+    protected int maxAttempt(final RetryContext<R> context) {
+        return maxAttempt(context.stop(), RetryTuningRegistry.getInstance().tuning(context.name()));
+    }
+
+    /**
+     * 上一次尝试的异常信息
+     *
+     * @param history 历史信息
+     * @return 异常信息
+     */
+    protected Throwable previousCause(final List<RetryAttempt<R>> history) {
+        return history.isEmpty() ? null : history.get(history.size() - 1).cause();
     }
 
     /**
      * 构建等待时间
      *
+     * @param name            重试策略名称
      * @param waitContextList 等待上下文列表
      * @param retryAttempt    重试信息
+     * @param tuning          运行时调整的参数
      * @return 等待时间毫秒
      */
-    private WaitTime calcWaitTime(final List<RetryWaitContext<R>> waitContextList,
-                                  final RetryAttempt<R> retryAttempt) {
+    private WaitTime calcWaitTime(final String name,
+                                  final List<RetryWaitContext<R>> waitContextList,
+                                  final RetryAttempt<R> retryAttempt,
+                                  final RetryTuning tuning) {
         long totalTimeMills = 0;
-        for (RetryWaitContext context : waitContextList) {
+        for (RetryWaitContext<R> context : waitContextList) {
             RetryWait retryWait = (RetryWait) InstanceFactory.getInstance().threadSafe(context.retryWait());
-            final RetryWaitContext retryWaitContext = buildRetryWaitContext(context, retryAttempt);
+            final RetryWaitContext retryWaitContext = buildRetryWaitContext(name, context, retryAttempt, tuning);
             WaitTime waitTime = retryWait.waitTime(retryWaitContext);
             totalTimeMills += TimeUnit.MILLISECONDS.convert(waitTime.time(), waitTime.unit());
         }
         return new DefaultWaitTime(totalTimeMills);
     }
 
-    private RetryWaitContext buildRetryWaitContext(RetryWaitContext waitContext, RetryAttempt<R> retryAttempt) {
-        DefaultRetryWaitContext<R> context = (DefaultRetryWaitContext<R>) waitContext;
-        return context.attempt(retryAttempt.attempt())
+    /**
+     * 构建本次等待使用的上下文
+     * 1. 配置的等待上下文在并发的调用之间共享，每次都复制一份，不修改原有的配置
+     * 2. 复制之后覆盖运行时调整的参数，以及本次尝试的信息
+     *
+     * @param name         重试策略名称
+     * @param waitContext  配置的等待上下文
+     * @param retryAttempt 重试信息
+     * @param tuning       运行时调整的参数
+     * @return 新的等待上下文
+     */
+    private RetryWaitContext<R> buildRetryWaitContext(final String name,
+                                                      final RetryWaitContext<R> waitContext,
+                                                      final RetryAttempt<R> retryAttempt,
+                                                      final RetryTuning tuning) {
+        DefaultRetryWaitContext<R> context = DefaultRetryWaitContext.copyOf(waitContext);
+        if (tuning.hasWait()) {
+            context.value(tuning.waitValue() >= 0 ? tuning.waitValue() : waitContext.value())
+                    .min(tuning.waitMin() >= 0 ? tuning.waitMin() : waitContext.min())
+                    .max(tuning.waitMax() >= 0 ? tuning.waitMax() : waitContext.max())
+                    .factor(tuning.waitFactor() > 0 ? tuning.waitFactor() : waitContext.factor());
+        }
+        return context.name(name)
+                .attempt(retryAttempt.attempt())
                 .cause(retryAttempt.cause())
                 .result(retryAttempt.result())
                 .time(retryAttempt.time())
                 .history(retryAttempt.history())
                 .params(retryAttempt.params());
-
     }
 
-    private RetryAttempt<R> execute(final Callable<R> callable,
-                                    final int attempts,
-                                    final List<RetryAttempt<R>> history,
-                                    final RetryContext<R> context) {
+    /**
+     * 执行一次尝试
+     * 1. 子类可以重写，改变单次尝试的执行方式
+     *
+     * @param callable 待执行的方法
+     * @param attempts 当前尝试次数
+     * @param history  历史信息
+     * @param context  执行上下文
+     * @param metrics  统计信息
+     * @return 本次尝试的信息
+     */
+    protected RetryAttempt<R> execute(final Callable<R> callable,
+                                      final int attempts,
+                                      final List<RetryAttempt<R>> history,
+                                      final RetryContext<R> context,
+                                      final RetryMetrics metrics) {
 
+        // 计算本次尝试的超时时间，超时后由共享的定时器中断执行线程
+        final long timeoutMills = context.timeout().timeoutMills(context, attempts);
+        AttemptInterrupter interrupter = null;
+        TimerHandle timerHandle = null;
+        if (timeoutMills > 0) {
+            interrupter = new AttemptInterrupter(Thread.currentThread());
+            timerHandle = context.timer().schedule(interrupter, timeoutMills, TimeUnit.MILLISECONDS);
+        }
+
+        final RetryProbe probe = RetryProbes.probe();
+        final Object probeToken = probe.attemptStart(context, attempts);
         Date startTime = new Date();
+        final long startNanos = System.nanoTime();
+        final boolean accounting = context.resourceAccounting();
+        final long cpuStart = accounting ? ThreadResources.cpuTimeNanos() : ThreadResources.UNSUPPORTED;
+        final long allocatedStart = accounting ? ThreadResources.allocatedBytes() : ThreadResources.UNSUPPORTED;
         Throwable throwable = null;
         R result = null;
+        boolean timedOut = false;
+        RetryContextHolder.enter(context.name(), attempts, maxAttempt(context),
+                timeoutMills > 0, startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMills), previousCause(history));
         try {
             result = callable.call();
         } catch (Exception e) {
             throwable = getActualThrowable(e);
+        } finally {
+            RetryContextHolder.exit();
+            if (interrupter != null) {
+                timerHandle.cancel();
+                timedOut = interrupter.complete();
+            }
+        }
+        // 超时视为一次失败，即使方法忽略了中断并返回了结果
+        if (timedOut) {
+            result = null;
+            throwable = new RetryTimeoutException("Attempt " + attempts + " timed out after " + timeoutMills + " ms", throwable);
+        }
+        long cpuNanos = ThreadResources.UNSUPPORTED;
+        long allocatedBytes = ThreadResources.UNSUPPORTED;
+        if (accounting) {
+            cpuNanos = ThreadResources.delta(cpuStart, ThreadResources.cpuTimeNanos());
+            allocatedBytes = ThreadResources.delta(allocatedStart, ThreadResources.allocatedBytes());
+            metrics.recordResource(attempts, cpuNanos, allocatedBytes);
         }
         Date endTime = new Date();
+        metrics.recordAttempt(System.nanoTime() - startNanos);
+        if (probeToken != null) {
+            probe.attemptEnd(probeToken, context, attempts, throwable);
+        }
+        return buildAttempt(result, throwable, attempts, startTime, endTime, history, context, cpuNanos, allocatedBytes);
+    }
+
+    /**
+     * 构建尝试信息
+     *
+     * @param result    执行结果
+     * @param throwable 异常信息
+     * @param attempts  当前尝试次数
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @param history   历史信息
+     * @param context   执行上下文
+     * @return 尝试信息
+     */
+    protected RetryAttempt<R> buildAttempt(final R result,
+                                           final Throwable throwable,
+                                           final int attempts,
+                                           final Date startTime,
+                                           final Date endTime,
+                                           final List<RetryAttempt<R>> history,
+                                           final RetryContext<R> context) {
+        return buildAttempt(result, throwable, attempts, startTime, endTime, history, context,
+                ThreadResources.UNSUPPORTED, ThreadResources.UNSUPPORTED);
+    }
+
+    /**
+     * 构建尝试信息
+     *
+     * @param result         执行结果
+     * @param throwable      异常信息
+     * @param attempts       当前尝试次数
+     * @param startTime      开始时间
+     * @param endTime        结束时间
+     * @param history        历史信息
+     * @param context        执行上下文
+     * @param cpuNanos       消耗的 CPU 时间，未统计时为 -1
+     * @param allocatedBytes 分配的内存，未统计时为 -1
+     * @return 尝试信息
+     */
+    protected RetryAttempt<R> buildAttempt(final R result,
+                                           final Throwable throwable,
+                                           final int attempts,
+                                           final Date startTime,
+                                           final Date endTime,
+                                           final List<RetryAttempt<R>> history,
+                                           final RetryContext<R> context,
+                                           final long cpuNanos,
+                                           final long allocatedBytes) {
         DefaultAttemptTime attemptTime = new DefaultAttemptTime()
                 .startTime(startTime)
                 .endTime(endTime)
-                .costTimeInMills(endTime.getTime() - startTime.getTime());
+                .costTimeInMills(endTime.getTime() - startTime.getTime())
+                .cpuTimeInNanos(cpuNanos)
+                .allocatedBytes(allocatedBytes);
         return new DefaultRetryAttempt<R>()
+                .name(context.name())
                 .result(result)
                 .attempt(attempts)
                 .cause(throwable)
@@ -164,7 +575,7 @@ public class DefaultRetry<R> implements Retry<R> {
      * @param throwable 异常信息
      * @return 实际的异常信息
      */
-    private Throwable getActualThrowable(Throwable throwable) {
+    protected Throwable getActualThrowable(Throwable throwable) {
         if (InvocationTargetException.class.equals(throwable.getClass())) {
             InvocationTargetException exception = (InvocationTargetException) throwable;
             return exception.getTargetException();
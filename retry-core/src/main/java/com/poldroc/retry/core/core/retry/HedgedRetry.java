@@ -0,0 +1,559 @@
+package com.poldroc.retry.core.core.retry;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.api.exception.RetryTimeoutException;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.condition.RetryCondition;
+import com.poldroc.retry.api.support.probe.RetryProbe;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryHedgeConst;
+import com.poldroc.retry.core.support.hedge.HedgeBudget;
+import com.poldroc.retry.core.support.hedge.HedgeBudgetRegistry;
+import com.poldroc.retry.core.support.metrics.LatencyHistogram;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.context.RetryContextHolder;
+import com.poldroc.retry.core.support.probe.RetryProbes;
+import com.poldroc.retry.core.support.resource.ThreadResources;
+import com.poldroc.retry.core.support.scope.RetryScope;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲（推测执行）的重试实现
+ * <p>
+ * 1. 每次尝试先发起一个请求，如果超过对冲延迟还没有完成，则并行发起新的请求（对冲）
+ * 2. 第一个不满足重试条件的结果胜出，其余的请求会被取消（中断）
+ * 3. 所有请求都失败时，本次尝试失败，交给正常的重试流程（等待、停止、恢复）处理
+ * 4. 对冲延迟为固定值，或者策略最近耗时的分位数；对冲会消耗 {@link HedgeBudget}，预算不足时不再对冲
+ * 5. 原始请求在调用线程执行，对冲请求在有界的线程池中执行，线程池已满时跳过本次对冲；
+ * 对冲由共享的定时器线程提交，线程池必须使用 {@link ThreadPoolExecutor.AbortPolicy}，不能在提交线程中执行
+ * 6. 只适用于幂等的调用，并且对冲请求中不能依赖调用线程的 ThreadLocal
+ * <p>
+ * 使用方式：{@code Retryer.newInstance().retry(HedgedRetry.newInstance().delay(20))}
+ * 或者 {@code @Retry(retry = HedgedRetry.class)} 使用默认配置。
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class HedgedRetry<R> extends DefaultRetry<R> {
+
+    /**
+     * 内部静态类，延迟创建线程池
+     * 线程数有上限，并且不排队：线程都在执行时直接拒绝，对应的对冲会被跳过
+     */
+    private static class ExecutorHolder {
+        private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, RetryHedgeConst.DEFAULT_MAX_THREADS,
+                60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "roc-retry-hedge-" + THREAD_INDEX.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 固定的对冲延迟（毫秒）
+     * 分位数样本不足时也使用该值
+     */
+    private long delayMills = RetryHedgeConst.DEFAULT_DELAY_MILLS;
+
+    /**
+     * 对冲分位数，小于等于 0 表示只使用固定的延迟
+     */
+    private double quantile = RetryHedgeConst.DEFAULT_QUANTILE;
+
+    /**
+     * 每次尝试最多的对冲次数
+     */
+    private int maxHedges = RetryHedgeConst.DEFAULT_MAX_HEDGES;
+
+    /**
+     * 对冲预算比例
+     */
+    private double budgetRatio = RetryHedgeConst.DEFAULT_BUDGET_RATIO;
+
+    /**
+     * 最多累积的对冲令牌
+     */
+    private int budgetTokens = RetryHedgeConst.DEFAULT_BUDGET_TOKENS;
+
+    /**
+     * 执行对冲请求的线程池，为空时使用共享的线程池
+     * 拒绝执行时跳过本次对冲
+     */
+    private ExecutorService executor;
+
+    /**
+     * 创建一个对象实例
+     *
+     * @param <R> 泛型
+     * @return 实例
+     */
+    public static <R> HedgedRetry<R> newInstance() {
+        return new HedgedRetry<>();
+    }
+
+    /**
+     * 设置固定的对冲延迟
+     *
+     * @param delayMills 对冲延迟（毫秒）
+     * @return this
+     */
+    public HedgedRetry<R> delay(final long delayMills) {
+        ArgUtil.positive((int) Math.min(Integer.MAX_VALUE, delayMills), "delayMills");
+
+        this.delayMills = delayMills;
+        return this;
+    }
+
+    /**
+     * 设置对冲分位数
+     *
+     * @param quantile 分位数，小于等于 0 表示只使用固定的延迟
+     * @return this
+     */
+    public HedgedRetry<R> quantile(final double quantile) {
+        if (quantile > 1) {
+            throw new IllegalArgumentException("quantile must be <= 1!");
+        }
+        this.quantile = quantile;
+        return this;
+    }
+
+    /**
+     * 设置每次尝试最多的对冲次数
+     *
+     * @param maxHedges 最多的对冲次数
+     * @return this
+     */
+    public HedgedRetry<R> maxHedges(final int maxHedges) {
+        ArgUtil.positive(maxHedges, "maxHedges");
+
+        this.maxHedges = maxHedges;
+        return this;
+    }
+
+    /**
+     * 设置对冲预算
+     * 只在策略第一次使用时生效
+     *
+     * @param ratio     每次正常尝试存入的令牌比例
+     * @param maxTokens 最多累积的令牌数量
+     * @return this
+     */
+    public HedgedRetry<R> budget(final double ratio, final int maxTokens) {
+        ArgUtil.positive(maxTokens, "maxTokens");
+
+        this.budgetRatio = ratio;
+        this.budgetTokens = maxTokens;
+        return this;
+    }
+
+    /**
+     * 设置执行对冲请求的线程池
+     * 线程池拒绝执行（抛出 {@link RejectedExecutionException}）时跳过本次对冲；
+     * {@link ThreadPoolExecutor} 只能使用 {@link ThreadPoolExecutor.AbortPolicy}，否则拒绝时会阻塞共享的定时器线程
+     *
+     * @param executor 线程池
+     * @return this
+     */
+    public HedgedRetry<R> executor(final ExecutorService executor) {
+        ArgUtil.notNull(executor, "executor");
+        if (executor instanceof ThreadPoolExecutor
+                && !(((ThreadPoolExecutor) executor).getRejectedExecutionHandler() instanceof ThreadPoolExecutor.AbortPolicy)) {
+            throw new IllegalArgumentException("Hedge executor must use ThreadPoolExecutor.AbortPolicy");
+        }
+
+        this.executor = executor;
+        return this;
+    }
+
+    @Override
+    protected RetryAttempt<R> execute(final Callable<R> callable,
+                                      final int attempts,
+                                      final List<RetryAttempt<R>> history,
+                                      final RetryContext<R> context,
+                                      final RetryMetrics metrics) {
+        final HedgeBudget budget = HedgeBudgetRegistry.getInstance().budget(context.name(), budgetRatio, budgetTokens);
+        budget.deposit();
+
+        final RetryCondition retryCondition = context.condition();
+        final long timeoutMills = context.timeout().timeoutMills(context, attempts);
+        final long hedgeDelayNanos = hedgeDelayNanos(metrics);
+        final RetryProbe probe = RetryProbes.probe();
+        final Object probeToken = probe.attemptStart(context, attempts);
+        final Date startTime = new Date();
+        final long startNanos = System.nanoTime();
+        final long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMills);
+        final boolean accounting = context.resourceAccounting();
+
+        // 对冲请求在线程池中执行，需要带上调用线程的上下文、重试作用域和尝试信息
+        final Callable<R> hedgeTask = RetryContextHolder.wrap(RetryScope.wrap(probe.wrap(callable)),
+                context.name(), attempts, maxAttempt(context), timeoutMills > 0, deadlineNanos, previousCause(history));
+        final HedgeRace<R> race = new HedgeRace<>(Thread.currentThread());
+        final Runnable hedgeLauncher = new Runnable() {
+            @Override
+            public void run() {
+                launchHedge(race, this, hedgeTask, attempts, history, context, metrics, budget, startTime, hedgeDelayNanos);
+            }
+        };
+        if (hedgeDelayNanos > 0) {
+            race.schedule(context.timer().schedule(hedgeLauncher, hedgeDelayNanos, TimeUnit.NANOSECONDS));
+        }
+
+        AttemptInterrupter interrupter = null;
+        TimerHandle timeoutHandle = null;
+        if (timeoutMills > 0) {
+            interrupter = new AttemptInterrupter(Thread.currentThread());
+            timeoutHandle = context.timer().schedule(interrupter, timeoutMills, TimeUnit.MILLISECONDS);
+        }
+
+        RetryAttempt<R> retryAttempt;
+        try {
+            // 原始请求在调用线程执行
+            final long cpuStart = accounting ? ThreadResources.cpuTimeNanos() : ThreadResources.UNSUPPORTED;
+            final long allocatedStart = accounting ? ThreadResources.allocatedBytes() : ThreadResources.UNSUPPORTED;
+            R result = null;
+            Throwable throwable = null;
+            boolean timedOut = false;
+            RetryContextHolder.enter(context.name(), attempts, maxAttempt(context), timeoutMills > 0, deadlineNanos,
+                    previousCause(history));
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                throwable = getActualThrowable(e);
+            } finally {
+                RetryContextHolder.exit();
+                // 之后对冲胜出时不再中断调用线程
+                race.primaryDone();
+                if (interrupter != null) {
+                    timeoutHandle.cancel();
+                    timedOut = interrupter.complete();
+                }
+            }
+            long cpuNanos = ThreadResources.UNSUPPORTED;
+            long allocatedBytes = ThreadResources.UNSUPPORTED;
+            if (accounting) {
+                cpuNanos = ThreadResources.delta(cpuStart, ThreadResources.cpuTimeNanos());
+                allocatedBytes = ThreadResources.delta(allocatedStart, ThreadResources.allocatedBytes());
+                metrics.recordResource(attempts, cpuNanos, allocatedBytes);
+            }
+            metrics.recordAttempt(System.nanoTime() - startNanos);
+
+            final RetryAttempt<R> winner = race.winner();
+            if (winner != null) {
+                // 对冲胜出，只清除胜出时对调用线程的中断，其他来源的中断保留
+                if (race.interruptedCaller()) {
+                    Thread.interrupted();
+                }
+                retryAttempt = winner;
+            } else if (timedOut) {
+                retryAttempt = timeoutAttempt(attempts, timeoutMills, throwable, startTime, history, context);
+            } else {
+                retryAttempt = buildAttempt(result, throwable, attempts, startTime, new Date(), history, context,
+                        cpuNanos, allocatedBytes);
+                if (retryCondition.condition(retryAttempt)) {
+                    // 原始请求失败，不再发起新的对冲，等待已经发起的对冲
+                    race.cancelSchedule();
+                    if (!race.await(timeoutMills > 0, deadlineNanos)) {
+                        retryAttempt = timeoutAttempt(attempts, timeoutMills, throwable, startTime, history, context);
+                    } else if (race.winner() != null) {
+                        retryAttempt = race.winner();
+                    } else if (race.lastFailure() != null) {
+                        retryAttempt = race.lastFailure();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetryException(e);
+        } finally {
+            // 取消其余仍在执行的对冲
+            race.close();
+        }
+        if (race.error() != null) {
+            throw race.error();
+        }
+
+        if (probeToken != null) {
+            probe.attemptEnd(probeToken, context, attempts, retryAttempt.cause());
+        }
+        return retryAttempt;
+    }
+
+    /**
+     * 计算对冲延迟
+     *
+     * @param metrics 统计信息
+     * @return 对冲延迟（纳秒），小于等于 0 表示不对冲
+     */
+    private long hedgeDelayNanos(final RetryMetrics metrics) {
+        if (quantile > 0) {
+            LatencyHistogram latency = metrics.recentLatency();
+            if (latency.count() >= RetryHedgeConst.MIN_SAMPLES) {
+                return Math.max(1L, TimeUnit.MICROSECONDS.toNanos(latency.quantile(quantile)));
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(delayMills);
+    }
+
+    /**
+     * 构建超时的尝试信息
+     */
+    private RetryAttempt<R> timeoutAttempt(final int attempts,
+                                           final long timeoutMills,
+                                           final Throwable cause,
+                                           final Date startTime,
+                                           final List<RetryAttempt<R>> history,
+                                           final RetryContext<R> context) {
+        return buildAttempt(null, new RetryTimeoutException("Attempt " + attempts + " timed out after " + timeoutMills + " ms", cause),
+                attempts, startTime, new Date(), history, context);
+    }
+
+    /**
+     * 发起一次对冲，由定时器触发
+     * 1. 已经有结果、对冲次数已满或者预算不足时不再发起
+     * 2. 先在锁内占用一次对冲，再在锁外提交，避免提交阻塞时其他线程等待锁
+     * 3. 线程池拒绝执行时跳过本次对冲，并归还令牌
+     */
+    private void launchHedge(final HedgeRace<R> race,
+                             final Runnable launcher,
+                             final Callable<R> hedgeTask,
+                             final int attempts,
+                             final List<RetryAttempt<R>> history,
+                             final RetryContext<R> context,
+                             final RetryMetrics metrics,
+                             final HedgeBudget budget,
+                             final Date startTime,
+                             final long hedgeDelayNanos) {
+        final ExecutorService actualExecutor = executor == null ? ExecutorHolder.EXECUTOR : executor;
+        synchronized (race) {
+            if (race.closed || race.winner != null || race.launched >= maxHedges) {
+                return;
+            }
+            if (!budget.tryAcquire()) {
+                return;
+            }
+            race.launched++;
+        }
+
+        Future<?> future = null;
+        try {
+            future = actualExecutor.submit(() -> runHedge(race, hedgeTask, attempts, history, context, metrics, startTime));
+        } catch (RejectedExecutionException e) {
+            budget.refund();
+        }
+
+        synchronized (race) {
+            if (future == null) {
+                race.launched--;
+                race.notifyAll();
+                return;
+            }
+            if (race.closed) {
+                // 提交期间已经结束
+                future.cancel(true);
+                return;
+            }
+            race.futures.add(future);
+            if (race.launched < maxHedges) {
+                race.nextHedge = context.timer().schedule(launcher, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * 在线程池中执行一次对冲请求
+     */
+    private void runHedge(final HedgeRace<R> race,
+                          final Callable<R> hedgeTask,
+                          final int attempts,
+                          final List<RetryAttempt<R>> history,
+                          final RetryContext<R> context,
+                          final RetryMetrics metrics,
+                          final Date startTime) {
+        final boolean accounting = context.resourceAccounting();
+        final long startNanos = System.nanoTime();
+        final long cpuStart = accounting ? ThreadResources.cpuTimeNanos() : ThreadResources.UNSUPPORTED;
+        final long allocatedStart = accounting ? ThreadResources.allocatedBytes() : ThreadResources.UNSUPPORTED;
+        R result = null;
+        Throwable throwable = null;
+        try {
+            result = hedgeTask.call();
+        } catch (Throwable e) {
+            throwable = getActualThrowable(e);
+        }
+        // 资源消耗在执行请求的线程上统计
+        long cpuNanos = ThreadResources.UNSUPPORTED;
+        long allocatedBytes = ThreadResources.UNSUPPORTED;
+        if (accounting) {
+            cpuNanos = ThreadResources.delta(cpuStart, ThreadResources.cpuTimeNanos());
+            allocatedBytes = ThreadResources.delta(allocatedStart, ThreadResources.allocatedBytes());
+            metrics.recordResource(attempts, cpuNanos, allocatedBytes);
+        }
+        metrics.recordAttempt(System.nanoTime() - startNanos);
+        if (throwable instanceof Error) {
+            race.fail((Error) throwable);
+            return;
+        }
+        final RetryAttempt<R> retryAttempt = buildAttempt(result, throwable, attempts, startTime, new Date(), history, context,
+                cpuNanos, allocatedBytes);
+        race.complete(retryAttempt, !context.condition().condition(retryAttempt));
+    }
+
+    /**
+     * 一次尝试中原始请求与对冲请求的竞争状态
+     * 所有字段都在对象锁内访问
+     */
+    private static final class HedgeRace<R> {
+
+        /**
+         * 调用线程，执行原始请求
+         */
+        private final Thread caller;
+
+        /**
+         * 已经发起的对冲
+         */
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        /**
+         * 原始请求是否仍在调用线程执行
+         */
+        private boolean callerRunning = true;
+
+        /**
+         * 是否由对冲胜出中断了调用线程
+         * 调用线程已经处于中断状态时不记录，结束时只清除自身产生的中断
+         */
+        private boolean interruptedCaller;
+
+        private boolean closed;
+
+        private int launched;
+
+        private int finished;
+
+        /**
+         * 下一次对冲的定时任务
+         */
+        private TimerHandle nextHedge;
+
+        /**
+         * 胜出的对冲结果
+         */
+        private RetryAttempt<R> winner;
+
+        /**
+         * 最后一个失败的对冲结果
+         */
+        private RetryAttempt<R> lastFailure;
+
+        private Error error;
+
+        private HedgeRace(Thread caller) {
+            this.caller = caller;
+        }
+
+        private synchronized void schedule(TimerHandle handle) {
+            this.nextHedge = handle;
+        }
+
+        private synchronized void cancelSchedule() {
+            closed = true;
+            if (nextHedge != null) {
+                nextHedge.cancel();
+            }
+        }
+
+        private synchronized void primaryDone() {
+            callerRunning = false;
+        }
+
+        /**
+         * 对冲请求完成
+         * 第一个胜出的对冲会中断仍在执行原始请求的调用线程
+         */
+        private synchronized void complete(RetryAttempt<R> attempt, boolean success) {
+            finished++;
+            if (success) {
+                if (winner == null) {
+                    winner = attempt;
+                    if (callerRunning && !caller.isInterrupted()) {
+                        interruptedCaller = true;
+                        caller.interrupt();
+                    }
+                }
+            } else {
+                lastFailure = attempt;
+            }
+            notifyAll();
+        }
+
+        private synchronized void fail(Error error) {
+            finished++;
+            if (this.error == null) {
+                this.error = error;
+            }
+            notifyAll();
+        }
+
+        /**
+         * 等待已经发起的对冲全部完成，或者某个对冲胜出
+         *
+         * @return 是否在超时之前完成
+         */
+        private synchronized boolean await(boolean hasDeadline, long deadlineNanos) throws InterruptedException {
+            while (winner == null && error == null && finished < launched) {
+                if (!hasDeadline) {
+                    wait();
+                    continue;
+                }
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+
+        private synchronized RetryAttempt<R> winner() {
+            return winner;
+        }
+
+        private synchronized boolean interruptedCaller() {
+            return interruptedCaller;
+        }
+
+        private synchronized RetryAttempt<R> lastFailure() {
+            return lastFailure;
+        }
+
+        private synchronized Error error() {
+            return error;
+        }
+
+        private synchronized void close() {
+            cancelSchedule();
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -27,6 +27,16 @@ public class DefaultAttemptTime implements AttemptTime {
      */
     private long costTimeInMills;
 
+    /**
+     * 消耗的 CPU 时间
+     */
+    private long cpuTimeInNanos = -1;
+
+    /**
+     * 分配的内存
+     */
+    private long allocatedBytes = -1;
+
     @Override
     public Date startTime() {
         return startTime;
@@ -57,12 +67,34 @@ public class DefaultAttemptTime implements AttemptTime {
         return this;
     }
 
+    @Override
+    public long cpuTimeInNanos() {
+        return cpuTimeInNanos;
+    }
+
+    public DefaultAttemptTime cpuTimeInNanos(long cpuTimeInNanos) {
+        this.cpuTimeInNanos = cpuTimeInNanos;
+        return this;
+    }
+
+    @Override
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public DefaultAttemptTime allocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "DefaultAttemptTime{" +
                 "startTime=" + startTime +
                 ", endTime=" + endTime +
                 ", costTimeInMills=" + costTimeInMills +
+                ", cpuTimeInNanos=" + cpuTimeInNanos +
+                ", allocatedBytes=" + allocatedBytes +
                 '}';
     }
 }
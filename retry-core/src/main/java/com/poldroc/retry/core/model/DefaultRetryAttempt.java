@@ -17,6 +17,11 @@ import java.util.List;
 @NotThreadSafe
 public class DefaultRetryAttempt<R> implements RetryAttempt<R> {
 
+    /**
+     * 重试策略名称
+     */
+    private String name;
+
     /**
      * 执行结果
      */
@@ -49,6 +54,16 @@ public class DefaultRetryAttempt<R> implements RetryAttempt<R> {
      */
     private Object[] params;
 
+    @Override
+    public String name() {
+        return name;
+    }
+
+    public DefaultRetryAttempt<R> name(String name) {
+        this.name = name;
+        return this;
+    }
+
     @Override
     public R result() {
         return result;
@@ -112,7 +127,8 @@ public class DefaultRetryAttempt<R> implements RetryAttempt<R> {
     @Override
     public String toString() {
         return "DefaultRetryAttempt{" +
-                "result=" + result +
+                "name=" + name +
+                ", result=" + result +
                 ", attempt=" + attempt +
                 ", cause=" + cause +
                 ", time=" + time +
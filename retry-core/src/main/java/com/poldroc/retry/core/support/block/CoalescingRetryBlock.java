@@ -0,0 +1,137 @@
+package com.poldroc.retry.core.support.block;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.api.model.WaitTime;
+import com.poldroc.retry.api.support.block.RetryBlock;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryTimerConst;
+import com.poldroc.retry.core.support.timer.HashedWheelRetryTimer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 对齐到刻度的阻塞方法
+ * 1. 等待的线程挂起，由时间轮在到期的刻度唤醒，同一个刻度内到期的重试在一次遍历中全部唤醒
+ * 2. 唤醒最多推迟一个刻度；刻度超过等待时间的一定比例时不对齐，直接睡眠，
+ * 短等待和随机等待的抖动分布基本不受影响
+ * 3. 默认使用共享的时间轮
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class CoalescingRetryBlock implements RetryBlock {
+
+    private final HashedWheelRetryTimer timer;
+
+    /**
+     * 推迟的时间最多占等待时间的比例
+     */
+    private final double maxDelayRatio;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder direct = new LongAdder();
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryBlock getInstance() {
+        return InstanceFactory.getInstance().singleton(CoalescingRetryBlock.class);
+    }
+
+    public CoalescingRetryBlock() {
+        this((HashedWheelRetryTimer) HashedWheelRetryTimer.getInstance(), RetryTimerConst.DEFAULT_COALESCE_MAX_DELAY_RATIO);
+    }
+
+    /**
+     * @param timer         时间轮，刻度即对齐的粒度
+     * @param maxDelayRatio 推迟的时间最多占等待时间的比例
+     */
+    public CoalescingRetryBlock(HashedWheelRetryTimer timer, double maxDelayRatio) {
+        ArgUtil.notNull(timer, "timer");
+        if (maxDelayRatio <= 0) {
+            throw new IllegalArgumentException("maxDelayRatio must be > 0");
+        }
+        this.timer = timer;
+        this.maxDelayRatio = maxDelayRatio;
+    }
+
+    @Override
+    public void block(WaitTime waitTime) {
+        final long waitNanos = waitTime.unit().toNanos(waitTime.time());
+        if (waitNanos <= 0) {
+            return;
+        }
+        if (timer.tickNanos() > waitNanos * maxDelayRatio) {
+            direct.increment();
+            ThreadSleepRetryBlock.getInstance().block(waitTime);
+            return;
+        }
+
+        coalesced.increment();
+        final Wakeup wakeup = new Wakeup(Thread.currentThread());
+        final TimerHandle handle = timer.schedule(wakeup, waitNanos, TimeUnit.NANOSECONDS);
+        // 定时器异常时的兜底，不会无限等待
+        final long limit = System.nanoTime() + waitNanos + 2 * timer.tickNanos() + TimeUnit.MILLISECONDS.toNanos(100);
+        while (!wakeup.released) {
+            final long remaining = limit - System.nanoTime();
+            if (remaining <= 0) {
+                handle.cancel();
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                handle.cancel();
+                // 恢复状态
+                Thread.currentThread().interrupt();
+                throw new RetryException(new InterruptedException());
+            }
+        }
+    }
+
+    /**
+     * 对齐到刻度的等待次数
+     *
+     * @return 次数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 等待时间太短，直接睡眠的次数
+     *
+     * @return 次数
+     */
+    public long direct() {
+        return direct.sum();
+    }
+
+    /**
+     * 唤醒等待的线程
+     */
+    private static final class Wakeup implements Runnable {
+
+        private final Thread thread;
+
+        private volatile boolean released;
+
+        private Wakeup(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void run() {
+            released = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.poldroc.retry.core.support.cache;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 失败结果存储注册中心
+ * 1. 每个策略名称对应一个 {@link FailureCacheStore}，第一次使用时按照传入的参数创建
+ * 2. 必须指定策略名称，否则不同方法会共享同一份失败结果
+ * 3. 同一个策略名称只能使用相同的容量，不一致时抛出异常，避免后注册的配置被静默忽略
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class FailureCacheRegistry {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static FailureCacheRegistry getInstance() {
+        return InstanceFactory.getInstance().singleton(FailureCacheRegistry.class);
+    }
+
+    /**
+     * 策略名称和存储的映射
+     */
+    private final ConcurrentMap<String, FailureCacheStore> storeMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取策略的存储，不存在时创建
+     *
+     * @param name    策略名称
+     * @param maxSize 最多缓存的键数量
+     * @return 存储
+     */
+    public FailureCacheStore store(String name, int maxSize) {
+        if (StringUtil.isEmpty(name)) {
+            throw new IllegalArgumentException("Retry name is required when failure cache is enabled");
+        }
+        FailureCacheStore store = storeMap.get(name);
+        if (store == null) {
+            store = storeMap.computeIfAbsent(name, key -> new FailureCacheStore(maxSize));
+        }
+        if (store.maxSize() != maxSize) {
+            throw new IllegalArgumentException("Failure cache of " + name + " is already registered with maxSize "
+                    + store.maxSize() + ", but got " + maxSize);
+        }
+        return store;
+    }
+
+    /**
+     * 获取已经存在的存储
+     *
+     * @param name 策略名称
+     * @return 存储，不存在时返回 null
+     */
+    public FailureCacheStore get(String name) {
+        return StringUtil.isEmpty(name) ? null : storeMap.get(name);
+    }
+
+    /**
+     * 所有的存储
+     *
+     * @return 策略名称和存储的映射
+     */
+    public Map<String, FailureCacheStore> all() {
+        return Collections.unmodifiableMap(storeMap);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.poldroc.retry.core.support.cache;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.constant.RetryFailureCacheConst;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个策略的失败结果存储
+ * 1. 按照键的哈希分段，每段为按访问顺序排序的 {@link LinkedHashMap}，超出容量时淘汰最久未访问的键
+ * 2. 过期的键在访问时删除
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class FailureCacheStore {
+
+    /**
+     * 分段
+     */
+    private final Segment[] segments;
+
+    /**
+     * 最多缓存的键数量
+     */
+    private final int maxSize;
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    public FailureCacheStore(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0!");
+        }
+        this.maxSize = maxSize;
+        int count = Math.min(RetryFailureCacheConst.MAX_SEGMENTS, maxSize);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // 余数分给前面的分段，保证总容量为 maxSize
+            int capacity = maxSize / count + (i < maxSize % count ? 1 : 0);
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 获取未过期的失败信息
+     *
+     * @param key 键
+     * @return 失败信息，没有时返回 null
+     */
+    public RetryAttempt<?> get(Object key) {
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expireNanos >= 0) {
+                segment.remove(key);
+                return null;
+            }
+            hits.increment();
+            return entry.attempt;
+        }
+    }
+
+    /**
+     * 缓存失败信息
+     *
+     * @param key       键
+     * @param attempt   失败信息
+     * @param ttlNanos  有效期（纳秒）
+     */
+    public void put(Object key, RetryAttempt<?> attempt, long ttlNanos) {
+        Entry entry = new Entry(attempt, System.nanoTime() + ttlNanos);
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * 当前缓存的键数量，包含已过期还未删除的键
+     *
+     * @return 数量
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return 次数
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    private Segment segmentOf(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final RetryAttempt<?> attempt;
+
+        private final long expireNanos;
+
+        private Entry(RetryAttempt<?> attempt, long expireNanos) {
+            this.attempt = attempt;
+            this.expireNanos = expireNanos;
+        }
+    }
+
+    /**
+     * 分段，访问需要持有分段的锁
+     */
+    private static final class Segment extends LinkedHashMap<Object, Entry> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+}
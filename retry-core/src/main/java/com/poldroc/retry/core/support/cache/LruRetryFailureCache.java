@@ -0,0 +1,76 @@
+package com.poldroc.retry.core.support.cache;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.support.key.ParamsRetryKey;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有效期 + 容量限制的失败结果缓存
+ * 1. 键优先使用上下文的 {@link RetryContext#key()}，没有时按照请求参数
+ * 2. 数据按照策略名称保存在 {@link FailureCacheRegistry} 中，同一个策略的调用共享，因此必须指定策略名称
+ * 3. 超出容量时淘汰最久未访问的键
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class LruRetryFailureCache implements RetryFailureCache {
+
+    /**
+     * 有效期（纳秒）
+     */
+    private final long ttlNanos;
+
+    /**
+     * 最多缓存的键数量
+     */
+    private final int maxSize;
+
+    public LruRetryFailureCache(long ttlMills, int maxSize) {
+        if (ttlMills <= 0) {
+            throw new IllegalArgumentException("ttlMills must be > 0!");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0!");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMills);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> RetryAttempt<R> get(RetryContext<R> context) {
+        Object key = keyOf(context);
+        if (key == null) {
+            return null;
+        }
+        return (RetryAttempt<R>) store(context).get(key);
+    }
+
+    @Override
+    public <R> void put(RetryContext<R> context, RetryAttempt<R> attempt) {
+        Object key = keyOf(context);
+        if (key != null) {
+            store(context).put(key, attempt, ttlNanos);
+        }
+    }
+
+    private FailureCacheStore store(RetryContext<?> context) {
+        return FailureCacheRegistry.getInstance().store(context.name(), maxSize);
+    }
+
+    private Object keyOf(RetryContext<?> context) {
+        RetryKey retryKey = context.key();
+        Object key = retryKey == null ? null : retryKey.key(context);
+        if (key != null) {
+            return key;
+        }
+        return ParamsRetryKey.getInstance().key(context);
+    }
+
+}
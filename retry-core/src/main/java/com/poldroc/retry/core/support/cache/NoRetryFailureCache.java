@@ -0,0 +1,35 @@
+package com.poldroc.retry.core.support.cache;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+/**
+ * 不缓存失败结果
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class NoRetryFailureCache implements RetryFailureCache {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryFailureCache getInstance() {
+        return InstanceFactory.getInstance().singleton(NoRetryFailureCache.class);
+    }
+
+    @Override
+    public <R> RetryAttempt<R> get(RetryContext<R> context) {
+        return null;
+    }
+
+    @Override
+    public <R> void put(RetryContext<R> context, RetryAttempt<R> attempt) {
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.poldroc.retry.core.support.cache;
+
+import com.poldroc.retry.api.support.cache.RetryFailureCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 失败结果缓存工具类
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryFailureCaches {
+
+    private RetryFailureCaches() {
+    }
+
+    /**
+     * 不缓存失败结果
+     * @return 缓存
+     */
+    public static RetryFailureCache none() {
+        return NoRetryFailureCache.getInstance();
+    }
+
+    /**
+     * 有效期 + 容量限制的失败结果缓存
+     * @param ttl 有效期
+     * @param unit 时间单位
+     * @param maxSize 最多缓存的键数量
+     * @return 缓存
+     */
+    public static RetryFailureCache lru(final long ttl, final TimeUnit unit, final int maxSize) {
+        return new LruRetryFailureCache(unit.toMillis(ttl), maxSize);
+    }
+
+}
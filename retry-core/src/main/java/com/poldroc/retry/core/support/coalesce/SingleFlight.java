@@ -0,0 +1,183 @@
+package com.poldroc.retry.core.support.coalesce;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同的并发调用
+ * 1. 同一个策略下键相等的调用，同一时刻只有一个在执行，其余的调用等待并共享其结果或者异常
+ * 2. 执行结束后立即移除，之后的调用会重新执行，不缓存结果
+ * 3. 键只在策略内有意义，所以必须指定策略名称，否则不同方法的相同键会被错误地合并
+ * 4. 同一个线程重入相同的键时直接执行，避免等待自己而死锁
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class SingleFlight {
+
+    /**
+     * 执行中的调用
+     */
+    private final ConcurrentMap<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static SingleFlight getInstance() {
+        return InstanceFactory.getInstance().singleton(SingleFlight.class);
+    }
+
+    /**
+     * 执行调用
+     *
+     * @param name     策略名称
+     * @param key      键
+     * @param supplier 实际的调用
+     * @param <R>      泛型
+     * @return 结果
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R execute(final String name, final Object key, final Supplier<R> supplier) {
+        if (StringUtil.isEmpty(name)) {
+            throw new IllegalArgumentException("Retry name is required when a retry key is set");
+        }
+        final FlightKey flightKey = new FlightKey(name, key);
+        final Flight flight = new Flight(Thread.currentThread());
+        final Flight existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            if (existing.owner == Thread.currentThread()) {
+                return supplier.get();
+            }
+            existing.waiters.incrementAndGet();
+            try {
+                return (R) await(existing.future);
+            } finally {
+                existing.waiters.decrementAndGet();
+            }
+        }
+
+        try {
+            R result = supplier.get();
+            flight.future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * 执行中的调用数量
+     *
+     * @return 数量
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * 等待执行中调用的数量
+     *
+     * @param name 策略名称
+     * @param key  键
+     * @return 数量，没有执行中的调用时为 0
+     */
+    public int waiting(final String name, final Object key) {
+        final Flight flight = flights.get(new FlightKey(name, key));
+        return flight == null ? 0 : flight.waiters.get();
+    }
+
+    /**
+     * 等待执行中的调用，抛出和执行者相同的异常
+     *
+     * @param flight 执行中的调用
+     * @return 结果
+     */
+    private Object await(final CompletableFuture<Object> flight) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetryException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RetryException(cause);
+        }
+    }
+
+    /**
+     * 执行中的调用
+     */
+    private static final class Flight {
+
+        /**
+         * 执行调用的线程
+         */
+        private final Thread owner;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        /**
+         * 等待该调用的数量
+         */
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private Flight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * 策略名称 + 键
+     */
+    private static final class FlightKey {
+
+        private final String name;
+
+        private final Object key;
+
+        private FlightKey(String name, Object key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return name.equals(other.name) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, key);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.core.constant.RetryDeadLetterConst;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * 死信记录编解码
+ * <p>
+ * 记录格式：[长度 int][CRC32 int][序号 long][时间 long][尝试次数 int][名称][异常类名][异常信息][参数]
+ * 字符串和参数都以 int 长度开头，-1 表示 null
+ *
+ * @author Poldroc
+ *  
+ */
+final class DeadLetterCodec {
+
+    private static final int NULL_LENGTH = -1;
+
+    private DeadLetterCodec() {
+    }
+
+    /**
+     * 编码记录体，序号由写入线程在写入时填充
+     *
+     * @return 记录体
+     */
+    static byte[] encode(long timestamp, String name, int attempt,
+                         String causeClass, String causeMessage, byte[] params) {
+        byte[] nameBytes = bytes(name);
+        byte[] classBytes = bytes(causeClass);
+        byte[] messageBytes = bytes(causeMessage);
+        int size = 8 + 8 + 4
+                + sizeOf(nameBytes) + sizeOf(classBytes) + sizeOf(messageBytes) + sizeOf(params);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(0L);
+        buffer.putLong(timestamp);
+        buffer.putInt(attempt);
+        put(buffer, nameBytes);
+        put(buffer, classBytes);
+        put(buffer, messageBytes);
+        put(buffer, params);
+        return buffer.array();
+    }
+
+    /**
+     * 填充序号并计算校验和
+     *
+     * @param payload  记录体
+     * @param sequence 序号
+     * @return CRC32
+     */
+    static int seal(byte[] payload, long sequence) {
+        ByteBuffer.wrap(payload).putLong(0, sequence);
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 校验指定位置的记录
+     *
+     * @param buffer   分段内容
+     * @param position 记录开始位置
+     * @return 记录体长度，记录不完整或校验失败时返回 -1
+     */
+    static int payloadLength(ByteBuffer buffer, int position) {
+        if (position + RetryDeadLetterConst.RECORD_HEADER_SIZE > buffer.limit()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        int start = position + RetryDeadLetterConst.RECORD_HEADER_SIZE;
+        if (length <= 0 || length > buffer.limit() - start) {
+            return -1;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(start + length).position(start);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * 读取记录的序号
+     */
+    static long sequence(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + RetryDeadLetterConst.RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * 解码已经校验过的记录
+     */
+    static DeadLetterEntry decode(ByteBuffer buffer, int position, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        int start = position + RetryDeadLetterConst.RECORD_HEADER_SIZE;
+        payload.limit(start + length).position(start);
+
+        long sequence = payload.getLong();
+        long timestamp = payload.getLong();
+        int attempt = payload.getInt();
+        String name = string(payload);
+        String causeClass = string(payload);
+        String causeMessage = string(payload);
+        byte[] params = get(payload);
+        return new DeadLetterEntry(sequence, timestamp, name, attempt, causeClass, causeMessage, params);
+    }
+
+    private static byte[] bytes(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] get(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = get(buffer);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
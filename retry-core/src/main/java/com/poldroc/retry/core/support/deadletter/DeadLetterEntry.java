@@ -0,0 +1,123 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+/**
+ * 死信记录
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public final class DeadLetterEntry {
+
+    /**
+     * 序号，在日志中单调递增
+     */
+    private final long sequence;
+
+    /**
+     * 写入时间
+     */
+    private final long timestamp;
+
+    /**
+     * 重试策略名称
+     */
+    private final String name;
+
+    /**
+     * 已经执行的尝试次数
+     */
+    private final int attempt;
+
+    /**
+     * 异常类名，没有异常时为 null
+     */
+    private final String causeClass;
+
+    /**
+     * 异常信息
+     */
+    private final String causeMessage;
+
+    /**
+     * 序列化后的方法参数，参数无法序列化时为 null
+     */
+    private final byte[] params;
+
+    DeadLetterEntry(long sequence, long timestamp, String name, int attempt,
+                    String causeClass, String causeMessage, byte[] params) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.name = name;
+        this.attempt = attempt;
+        this.causeClass = causeClass;
+        this.causeMessage = causeMessage;
+        this.params = params;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int attempt() {
+        return attempt;
+    }
+
+    public String causeClass() {
+        return causeClass;
+    }
+
+    public String causeMessage() {
+        return causeMessage;
+    }
+
+    /**
+     * 序列化后的方法参数
+     *
+     * @return 字节的拷贝，参数无法序列化时为 null
+     */
+    public byte[] params() {
+        return params == null ? null : params.clone();
+    }
+
+    /**
+     * 写入时参数是否序列化成功
+     *
+     * @return 是否有参数
+     */
+    public boolean hasParams() {
+        return params != null;
+    }
+
+    /**
+     * 反序列化方法参数
+     *
+     * @param serializer 写入时使用的序列化实现
+     * @return 方法参数，参数无法序列化时为 null
+     */
+    public Object[] params(DeadLetterSerializer serializer) {
+        return params == null ? null : serializer.deserialize(params);
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetterEntry{" +
+                "sequence=" + sequence +
+                ", name='" + name + '\'' +
+                ", attempt=" + attempt +
+                ", causeClass='" + causeClass + '\'' +
+                ", causeMessage='" + causeMessage + '\'' +
+                '}';
+    }
+
+}
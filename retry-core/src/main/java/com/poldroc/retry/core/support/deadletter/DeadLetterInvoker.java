@@ -0,0 +1,22 @@
+package com.poldroc.retry.core.support.deadletter;
+
+/**
+ * 根据死信中记录的参数重新执行方法
+ *
+ * @param <R> 返回值类型
+ * @author Poldroc
+ *  
+ */
+@FunctionalInterface
+public interface DeadLetterInvoker<R> {
+
+    /**
+     * 执行方法
+     *
+     * @param params 反序列化后的方法参数
+     * @return 执行结果
+     * @throws Exception 执行异常
+     */
+    R invoke(Object[] params) throws Exception;
+
+}
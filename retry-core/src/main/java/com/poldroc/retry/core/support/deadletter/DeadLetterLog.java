@@ -0,0 +1,448 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.core.constant.RetryDeadLetterConst;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 死信日志
+ * <p>
+ * 1. 目录下按序号分段的只追加日志，每个分段是一个内存映射文件，写满之后切换到新的分段
+ * 2. 调用线程只编码记录并放入有界队列，队列满时丢弃并计数，不会阻塞
+ * 3. 单独的写入线程批量写入队列中的记录，每批只刷一次盘（组提交）
+ * 4. 只有刷盘之后的记录才能被读取；重新打开时从最后一条完整的记录之后继续写入
+ * 5. 同一个目录同时只能由一个实例写入
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class DeadLetterLog implements AutoCloseable {
+
+    /**
+     * 写入线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    /**
+     * 关闭时用于唤醒写入线程
+     */
+    private static final byte[] WAKE_UP = new byte[0];
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final BlockingQueue<byte[]> queue;
+
+    private final Thread writer;
+
+    /**
+     * 刷盘等待的监视器
+     */
+    private final Object flushMonitor = new Object();
+
+    /**
+     * 当前写入的分段，只由写入线程访问
+     */
+    private DeadLetterSegment active;
+
+    /**
+     * 下一条记录的序号，只由写入线程访问
+     */
+    private long nextSequence;
+
+    /**
+     * 已经刷盘的最大序号
+     */
+    private volatile long durableSequence;
+
+    /**
+     * 写入线程已经处理的记录数
+     */
+    private volatile long processed;
+
+    private volatile boolean closed;
+
+    private final AtomicLong appended = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * 使用默认的分段大小和队列容量
+     *
+     * @param directory 日志目录
+     * @return 日志
+     */
+    public static DeadLetterLog open(Path directory) {
+        return open(directory, RetryDeadLetterConst.DEFAULT_SEGMENT_SIZE, RetryDeadLetterConst.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param directory     日志目录，不存在时创建
+     * @param segmentSize   分段大小
+     * @param queueCapacity 写入队列容量
+     * @return 日志
+     */
+    public static DeadLetterLog open(Path directory, int segmentSize, int queueCapacity) {
+        return new DeadLetterLog(directory, segmentSize, queueCapacity);
+    }
+
+    private DeadLetterLog(Path directory, int segmentSize, int queueCapacity) {
+        ArgUtil.notNull(directory, "directory");
+        ArgUtil.positive(segmentSize, "segmentSize");
+        ArgUtil.positive(queueCapacity, "queueCapacity");
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            Files.createDirectories(directory);
+            List<Long> bases = segmentBases();
+            long base = bases.isEmpty() ? RetryDeadLetterConst.FIRST_SEQUENCE : bases.get(bases.size() - 1);
+            this.active = DeadLetterSegment.open(segmentPath(base), base, segmentSize);
+        } catch (IOException e) {
+            throw new RetryException("Failed to open dead letter log " + directory, e);
+        }
+        this.nextSequence = active.lastSequence() + 1;
+        this.durableSequence = active.lastSequence();
+
+        this.writer = new Thread(this::write, "roc-retry-dead-letter-" + THREAD_INDEX.incrementAndGet());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 追加死信记录，不阻塞调用线程
+     *
+     * @param name    重试策略名称
+     * @param attempt 已经执行的尝试次数
+     * @param cause   最后一次的异常，可以为 null
+     * @param params  序列化后的方法参数，null 表示参数无法序列化
+     * @return 是否放入写入队列；已关闭、队列已满或者记录超过分段大小时返回 false
+     */
+    public boolean append(String name, int attempt, Throwable cause, byte[] params) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        String actualName = (name == null || name.isEmpty()) ? RetryConst.DEFAULT_NAME : name;
+        byte[] payload = DeadLetterCodec.encode(System.currentTimeMillis(), actualName, attempt,
+                cause == null ? null : cause.getClass().getName(),
+                cause == null ? null : cause.getMessage(),
+                params);
+        return offer(payload);
+    }
+
+    /**
+     * 将没有重放成功的记录重新追加到日志末尾，保留原有的内容和写入时间
+     *
+     * @param entry 记录
+     * @return 是否放入写入队列
+     */
+    boolean requeue(DeadLetterEntry entry) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        byte[] payload = DeadLetterCodec.encode(entry.timestamp(), entry.name(), entry.attempt(),
+                entry.causeClass(), entry.causeMessage(), entry.params());
+        return offer(payload);
+    }
+
+    private boolean offer(byte[] payload) {
+        if (payload.length > segmentSize - RetryDeadLetterConst.RECORD_HEADER_SIZE
+                || !queue.offer(payload)) {
+            dropped.increment();
+            return false;
+        }
+        appended.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 等待调用之前追加的记录全部刷盘
+     */
+    public void flush() {
+        long target = appended.get();
+        synchronized (flushMonitor) {
+            while (processed < target && writer.isAlive()) {
+                try {
+                    flushMonitor.wait(RetryDeadLetterConst.IDLE_WAIT_MILLS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取已经刷盘的记录
+     *
+     * @param fromSequence 起始序号，包含
+     * @param max          最多读取的记录数
+     * @return 按序号排列的记录
+     */
+    public List<DeadLetterEntry> read(long fromSequence, int max) {
+        ArgUtil.positive(max, "max");
+        long bound = durableSequence;
+        List<DeadLetterEntry> entries = new ArrayList<>(Math.min(max, 256));
+        if (fromSequence > bound) {
+            return entries;
+        }
+        try {
+            List<Long> bases = segmentBases();
+            for (int i = 0; i < bases.size() && entries.size() < max; i++) {
+                if (i + 1 < bases.size() && bases.get(i + 1) <= fromSequence) {
+                    continue;
+                }
+                if (bases.get(i) > bound) {
+                    break;
+                }
+                readSegment(bases.get(i), fromSequence, bound, max, entries);
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to read dead letter log " + directory, e);
+        }
+        return entries;
+    }
+
+    private void readSegment(long base, long fromSequence, long bound, int max,
+                             List<DeadLetterEntry> entries) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            // 已经被压缩删除
+            return;
+        }
+        int position = 0;
+        int length;
+        while (entries.size() < max && (length = DeadLetterCodec.payloadLength(buffer, position)) > 0) {
+            long sequence = DeadLetterCodec.sequence(buffer, position);
+            if (sequence > bound) {
+                return;
+            }
+            if (sequence >= fromSequence) {
+                entries.add(DeadLetterCodec.decode(buffer, position, length));
+            }
+            position += RetryDeadLetterConst.RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * 删除所有记录都小于指定序号的分段，正在写入的分段不会被删除
+     *
+     * @param sequence 序号，不包含
+     * @return 删除的分段数量
+     */
+    public int compact(long sequence) {
+        int deleted = 0;
+        try {
+            List<Long> bases = segmentBases();
+            for (int i = 0; i + 1 < bases.size(); i++) {
+                if (bases.get(i + 1) > sequence) {
+                    break;
+                }
+                if (Files.deleteIfExists(segmentPath(bases.get(i)))) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to compact dead letter log " + directory, e);
+        }
+        return deleted;
+    }
+
+    /**
+     * 停止写入线程，队列中剩余的记录会先写入并刷盘
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.offer(WAKE_UP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 日志目录
+     *
+     * @return 目录
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * 已经刷盘的最大序号，没有记录时为 0
+     *
+     * @return 序号
+     */
+    public long lastSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * 分段数量
+     *
+     * @return 数量
+     */
+    public int segments() {
+        try {
+            return segmentBases().size();
+        } catch (IOException e) {
+            throw new RetryException("Failed to list dead letter log " + directory, e);
+        }
+    }
+
+    /**
+     * 放入写入队列的记录数量
+     *
+     * @return 数量
+     */
+    public long appended() {
+        return appended.get();
+    }
+
+    /**
+     * 被丢弃的记录数量
+     *
+     * @return 数量
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 写入失败的记录数量
+     *
+     * @return 数量
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * 等待写入的记录数量
+     *
+     * @return 数量
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    private void write() {
+        List<byte[]> batch = new ArrayList<>(RetryDeadLetterConst.MAX_BATCH);
+        while (!closed || !queue.isEmpty()) {
+            byte[] first;
+            try {
+                first = queue.poll(RetryDeadLetterConst.IDLE_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, RetryDeadLetterConst.MAX_BATCH - 1);
+            commit(batch);
+            batch.clear();
+        }
+        try {
+            active.close();
+        } catch (IOException e) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * 写入一批记录并刷盘一次
+     */
+    private void commit(List<byte[]> batch) {
+        int count = 0;
+        for (byte[] payload : batch) {
+            if (payload == WAKE_UP) {
+                continue;
+            }
+            count++;
+            try {
+                if (!active.fits(payload.length)) {
+                    roll();
+                }
+                active.append(nextSequence++, payload);
+            } catch (IOException | RuntimeException e) {
+                errors.increment();
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        try {
+            active.force();
+            durableSequence = active.lastSequence();
+        } catch (RuntimeException e) {
+            errors.add(count);
+        }
+        synchronized (flushMonitor) {
+            processed += count;
+            flushMonitor.notifyAll();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        durableSequence = active.lastSequence();
+        active.close();
+        active = DeadLetterSegment.open(segmentPath(nextSequence), nextSequence, segmentSize);
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, RetryDeadLetterConst.SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(RetryDeadLetterConst.SEGMENT_SUFFIX))
+                    .forEach(fileName -> {
+                        String base = fileName.substring(0, fileName.length() - RetryDeadLetterConst.SEGMENT_SUFFIX.length());
+                        try {
+                            bases.add(Long.parseLong(base));
+                        } catch (NumberFormatException e) {
+                            // 忽略不是分段的文件
+                        }
+                    });
+        }
+        Collections.sort(bases);
+        return bases;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 把重试耗尽的调用写入死信日志
+ * 1. 参数在调用线程序列化，写入和刷盘由 {@link DeadLetterLog} 的写入线程完成
+ * 2. 参数无法序列化时依然写入记录，参数为 null，重放时会被跳过
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class DeadLetterRecover implements Recover {
+
+    /**
+     * 重试策略名称，重放时用于找到对应的策略
+     */
+    private final String name;
+
+    private final DeadLetterLog log;
+
+    private final DeadLetterSerializer serializer;
+
+    private final LongAdder serializeErrors = new LongAdder();
+
+    /**
+     * 使用 JDK 序列化
+     *
+     * @param name 重试策略名称
+     * @param log  死信日志
+     */
+    public DeadLetterRecover(String name, DeadLetterLog log) {
+        this(name, log, JavaDeadLetterSerializer.getInstance());
+    }
+
+    /**
+     * @param name       重试策略名称
+     * @param log        死信日志
+     * @param serializer 参数序列化
+     */
+    public DeadLetterRecover(String name, DeadLetterLog log, DeadLetterSerializer serializer) {
+        ArgUtil.notNull(log, "log");
+        ArgUtil.notNull(serializer, "serializer");
+
+        this.name = name;
+        this.log = log;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public <R> void recover(RetryAttempt<R> retryAttempt) {
+        byte[] params;
+        try {
+            params = serializer.serialize(retryAttempt.params());
+        } catch (RuntimeException e) {
+            serializeErrors.increment();
+            params = null;
+        }
+        log.append(name, retryAttempt.attempt(), retryAttempt.cause(), params);
+    }
+
+    /**
+     * 参数序列化失败的次数
+     *
+     * @return 次数
+     */
+    public long serializeErrors() {
+        return serializeErrors.sum();
+    }
+
+    public DeadLetterLog log() {
+        return log;
+    }
+
+    public DeadLetterSerializer serializer() {
+        return serializer;
+    }
+
+}
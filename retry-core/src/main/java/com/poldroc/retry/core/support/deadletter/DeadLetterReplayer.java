@@ -0,0 +1,381 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.NotThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryDeadLetterConst;
+import com.poldroc.retry.core.core.Retryer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 死信重放
+ * <p>
+ * 1. 从检查点之后按批读取死信日志，按照记录中的策略名称找到对应的重试策略重新执行
+ * 2. 每批的记录按照限速提交到固定大小的线程池，整批完成之后写入检查点并压缩已经重放的分段
+ * 3. 进程在重放过程中退出时，重新启动后从检查点继续，最多重复执行一批记录
+ * 4. 只重放开始时已经存在的记录
+ * 5. 重放失败、没有对应策略或者参数无法序列化的记录会重新追加到日志末尾，刷盘之后才写入检查点，留给下一次重放或者人工处理；
+ * 重放使用的策略不应该再配置 {@link DeadLetterRecover}，否则失败的记录会被写入两次
+ * 6. 重新追加失败（例如写入队列已满）时，检查点停在该记录之前并停止本次重放，不会压缩没有处理的记录
+ *
+ * @author Poldroc
+ *  
+ */
+@NotThreadSafe
+public class DeadLetterReplayer {
+
+    /**
+     * 线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    private final DeadLetterLog log;
+
+    /**
+     * 策略名称 -> 重放策略
+     */
+    private final Map<String, ReplayPolicy<?>> policies = new HashMap<>();
+
+    private DeadLetterSerializer serializer = JavaDeadLetterSerializer.getInstance();
+
+    private int parallelism = RetryDeadLetterConst.DEFAULT_REPLAY_PARALLELISM;
+
+    private int batchSize = RetryDeadLetterConst.DEFAULT_REPLAY_BATCH;
+
+    /**
+     * 每秒最多重放的记录数，0 表示不限制
+     */
+    private int ratePerSecond;
+
+    private Path checkpoint;
+
+    private volatile boolean stopped;
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private DeadLetterReplayer(DeadLetterLog log) {
+        this.log = log;
+        this.checkpoint = log.directory().resolve(RetryDeadLetterConst.CHECKPOINT_FILE);
+    }
+
+    /**
+     * 创建重放实例，检查点默认保存在日志目录下
+     *
+     * @param log 死信日志
+     * @return 实例
+     */
+    public static DeadLetterReplayer newInstance(DeadLetterLog log) {
+        ArgUtil.notNull(log, "log");
+        return new DeadLetterReplayer(log);
+    }
+
+    /**
+     * 注册重放策略
+     *
+     * @param name    死信记录中的策略名称
+     * @param retryer 重放时使用的重试策略
+     * @param invoker 根据参数执行方法
+     * @param <R>     返回值类型
+     * @return this
+     */
+    public <R> DeadLetterReplayer policy(String name, Retryer<R> retryer, DeadLetterInvoker<R> invoker) {
+        ArgUtil.notEmpty(name, "name");
+        ArgUtil.notNull(retryer, "retryer");
+        ArgUtil.notNull(invoker, "invoker");
+        policies.put(name, new ReplayPolicy<>(retryer, invoker));
+        return this;
+    }
+
+    public DeadLetterReplayer serializer(DeadLetterSerializer serializer) {
+        ArgUtil.notNull(serializer, "serializer");
+        this.serializer = serializer;
+        return this;
+    }
+
+    public DeadLetterReplayer parallelism(int parallelism) {
+        ArgUtil.positive(parallelism, "parallelism");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public DeadLetterReplayer batchSize(int batchSize) {
+        ArgUtil.positive(batchSize, "batchSize");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * 限速
+     *
+     * @param ratePerSecond 每秒最多重放的记录数，0 表示不限制
+     * @return this
+     */
+    public DeadLetterReplayer ratePerSecond(int ratePerSecond) {
+        if (ratePerSecond < 0) {
+            throw new IllegalArgumentException("ratePerSecond must be >= 0");
+        }
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    public DeadLetterReplayer checkpoint(Path checkpoint) {
+        ArgUtil.notNull(checkpoint, "checkpoint");
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * 执行重放，直到开始时已有的记录全部处理完成或者被停止
+     *
+     * @return 本次处理的记录数
+     */
+    public long replay() {
+        stopped = false;
+        final long end = log.lastSequence();
+        long next = readCheckpoint() + 1;
+        long processed = 0;
+        long intervalNanos = ratePerSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long nextPermit = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "roc-retry-replay-" + THREAD_INDEX.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (!stopped && next <= end) {
+                List<DeadLetterEntry> batch = log.read(next, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<DeadLetterEntry> submitted = new ArrayList<>(batch.size());
+                List<Future<Boolean>> futures = new ArrayList<>(batch.size());
+                for (DeadLetterEntry entry : batch) {
+                    if (stopped || entry.sequence() > end) {
+                        break;
+                    }
+                    if (intervalNanos > 0) {
+                        nextPermit = acquire(nextPermit, intervalNanos);
+                    }
+                    futures.add(executor.submit(() -> replay(entry)));
+                    submitted.add(entry);
+                }
+                if (submitted.isEmpty()) {
+                    break;
+                }
+                List<Boolean> results = await(futures);
+                processed += submitted.size();
+
+                long last = requeue(submitted, results, next - 1);
+                if (last >= next) {
+                    writeCheckpoint(last);
+                    log.compact(last + 1);
+                }
+                if (last < submitted.get(submitted.size() - 1).sequence()) {
+                    // 存在没有写回的记录，下一次重放从该记录继续
+                    break;
+                }
+                next = last + 1;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return processed;
+    }
+
+    /**
+     * 停止重放，已经提交的记录会执行完成并写入检查点
+     * 可以在其他线程调用
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * 已经重放到的序号，没有检查点时为 0
+     *
+     * @return 序号
+     */
+    public long checkpointSequence() {
+        return readCheckpoint();
+    }
+
+    public long succeeded() {
+        return succeeded.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * 重放一条记录
+     *
+     * @param entry 记录
+     * @return 是否重放成功
+     */
+    private boolean replay(DeadLetterEntry entry) {
+        ReplayPolicy<?> policy = policies.get(entry.name());
+        if (policy == null || !entry.hasParams()) {
+            skipped.increment();
+            return false;
+        }
+        try {
+            policy.replay(entry.params(serializer));
+            succeeded.increment();
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 将没有重放成功的记录重新追加到日志末尾，并等待刷盘
+     *
+     * @param submitted 本批提交的记录
+     * @param results   每条记录是否重放成功
+     * @param previous  上一个检查点
+     * @return 可以写入的检查点，在第一条没有写回的记录之前
+     */
+    private long requeue(List<DeadLetterEntry> submitted, List<Boolean> results, long previous) {
+        long last = previous;
+        boolean requeued = false;
+        for (int i = 0; i < submitted.size(); i++) {
+            DeadLetterEntry entry = submitted.get(i);
+            if (!results.get(i)) {
+                if (!log.requeue(entry)) {
+                    break;
+                }
+                requeued = true;
+            }
+            last = entry.sequence();
+        }
+        if (requeued) {
+            log.flush();
+        }
+        return last;
+    }
+
+    private long acquire(long nextPermit, long intervalNanos) {
+        long waitNanos = nextPermit - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            }
+        }
+        // 空闲之后不累积许可，避免突发
+        return Math.max(nextPermit, System.nanoTime()) + intervalNanos;
+    }
+
+    private List<Boolean> await(List<Future<Boolean>> futures) {
+        List<Boolean> results = new ArrayList<>(futures.size());
+        for (Future<Boolean> future : futures) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    results.add(future.get());
+                    break;
+                } catch (InterruptedException e) {
+                    // 已经提交的记录必须完成，否则检查点之前会有未执行的记录
+                    interrupted = true;
+                    stopped = true;
+                } catch (ExecutionException e) {
+                    results.add(Boolean.FALSE);
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return results;
+    }
+
+    private long readCheckpoint() {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            String text = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim();
+            return text.isEmpty() ? 0 : Long.parseLong(text);
+        } catch (IOException | NumberFormatException e) {
+            throw new RetryException("Failed to read replay checkpoint " + checkpoint, e);
+        }
+    }
+
+    /**
+     * 先写入临时文件并刷盘，再原子替换
+     */
+    private void writeCheckpoint(long sequence) {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RetryException("Failed to write replay checkpoint " + checkpoint, e);
+        }
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RetryException("Failed to write replay checkpoint " + checkpoint, e);
+        }
+    }
+
+    /**
+     * 重放策略
+     *
+     * @param <R> 返回值类型
+     */
+    private static final class ReplayPolicy<R> {
+
+        private final Retryer<R> retryer;
+
+        private final DeadLetterInvoker<R> invoker;
+
+        private ReplayPolicy(Retryer<R> retryer, DeadLetterInvoker<R> invoker) {
+            this.retryer = retryer;
+            this.invoker = invoker;
+        }
+
+        private void replay(Object[] params) {
+            RetryContext<R> context = retryer.context()
+                    .callable(() -> invoker.invoke(params))
+                    .params(params);
+            retryer.retryCall(context);
+        }
+    }
+
+}
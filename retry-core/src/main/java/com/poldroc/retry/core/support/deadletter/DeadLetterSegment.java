@@ -0,0 +1,120 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.common.annotation.NotThreadSafe;
+import com.poldroc.retry.core.constant.RetryDeadLetterConst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的日志分段
+ * 1. 文件名为分段中第一条记录的序号
+ * 2. 只由写入线程访问
+ *
+ * @author Poldroc
+ *  
+ */
+@NotThreadSafe
+final class DeadLetterSegment {
+
+    private final long baseSequence;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * 下一条记录的写入位置
+     */
+    private int position;
+
+    /**
+     * 最后一条记录的序号，空分段为 baseSequence - 1
+     */
+    private long lastSequence;
+
+    private DeadLetterSegment(long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseSequence = baseSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = baseSequence - 1;
+    }
+
+    /**
+     * 打开分段，已有的文件会跳过完整的记录，从第一条不完整的记录处继续写入
+     *
+     * @param path         文件路径
+     * @param baseSequence 第一条记录的序号
+     * @param size         新建文件的大小
+     * @return 分段
+     * @throws IOException 文件异常
+     */
+    static DeadLetterSegment open(Path path, long baseSequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long mapSize = Math.max(channel.size(), size);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapSize);
+        DeadLetterSegment segment = new DeadLetterSegment(baseSequence, channel, buffer);
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        int length;
+        while ((length = DeadLetterCodec.payloadLength(buffer, position)) > 0) {
+            lastSequence = DeadLetterCodec.sequence(buffer, position);
+            position += RetryDeadLetterConst.RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * 剩余空间是否能写入记录
+     *
+     * @param payloadLength 记录体长度
+     * @return 是否能写入
+     */
+    boolean fits(int payloadLength) {
+        return buffer.capacity() - position >= RetryDeadLetterConst.RECORD_HEADER_SIZE + payloadLength;
+    }
+
+    /**
+     * 写入记录，长度最后写入，读取方看到长度时记录体已经完整
+     *
+     * @param sequence 序号
+     * @param payload  记录体
+     */
+    void append(long sequence, byte[] payload) {
+        int crc = DeadLetterCodec.seal(payload, sequence);
+        ByteBuffer target = buffer.duplicate();
+        target.position(position + RetryDeadLetterConst.RECORD_HEADER_SIZE);
+        target.put(payload);
+        buffer.putInt(position + 4, crc);
+        buffer.putInt(position, payload.length);
+        position += RetryDeadLetterConst.RECORD_HEADER_SIZE + payload.length;
+        lastSequence = sequence;
+    }
+
+    /**
+     * 把修改刷到磁盘
+     */
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+}
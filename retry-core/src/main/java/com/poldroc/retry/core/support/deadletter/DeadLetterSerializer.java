@@ -0,0 +1,29 @@
+package com.poldroc.retry.core.support.deadletter;
+
+/**
+ * 死信参数序列化
+ * 1. 序列化在调用线程执行，保证记录的是失败时的参数
+ * 2. 反序列化在重放时执行
+ *
+ * @author Poldroc
+ *  
+ */
+public interface DeadLetterSerializer {
+
+    /**
+     * 序列化方法参数
+     *
+     * @param params 方法参数，可能为 null
+     * @return 字节
+     */
+    byte[] serialize(Object[] params);
+
+    /**
+     * 反序列化方法参数
+     *
+     * @param bytes 字节，可能为空数组
+     * @return 方法参数
+     */
+    Object[] deserialize(byte[] bytes);
+
+}
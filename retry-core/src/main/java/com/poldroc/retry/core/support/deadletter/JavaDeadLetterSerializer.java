@@ -0,0 +1,60 @@
+package com.poldroc.retry.core.support.deadletter;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * 基于 JDK 序列化的参数序列化，参数必须实现 {@link java.io.Serializable}
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class JavaDeadLetterSerializer implements DeadLetterSerializer {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static DeadLetterSerializer getInstance() {
+        return InstanceFactory.getInstance().singleton(JavaDeadLetterSerializer.class);
+    }
+
+    @Override
+    public byte[] serialize(Object[] params) {
+        if (params == null || params.length == 0) {
+            return EMPTY;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(params);
+        } catch (IOException e) {
+            throw new RetryException("Failed to serialize dead letter params", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object[] deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return NO_PARAMS;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Object[]) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RetryException("Failed to deserialize dead letter params", e);
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.poldroc.retry.core.support.defer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 延后任务编解码
+ * <p>
+ * 格式：[标识 long][尝试次数 int][执行时间 long][名称][异常类名][异常信息][参数]
+ * 字符串和参数都以 int 长度开头，-1 表示 null
+ *
+ * @author Poldroc
+ *  
+ */
+final class DelayedRetryCodec {
+
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * 执行时间在编码中的偏移
+     */
+    static final int FIRE_TIME_OFFSET = 8 + 4;
+
+    private DelayedRetryCodec() {
+    }
+
+    /**
+     * 编码后的长度
+     *
+     * @param task 任务
+     * @return 长度
+     */
+    static int size(DelayedRetryTask task) {
+        return 8 + 4 + 8
+                + sizeOf(bytes(task.name()))
+                + sizeOf(bytes(task.causeClass()))
+                + sizeOf(bytes(task.causeMessage()))
+                + sizeOf(task.params());
+    }
+
+    /**
+     * 从 buffer 的当前位置开始写入
+     *
+     * @param buffer 目标
+     * @param task   任务
+     */
+    static void encode(ByteBuffer buffer, DelayedRetryTask task) {
+        buffer.putLong(task.id());
+        buffer.putInt(task.attempt());
+        buffer.putLong(task.fireTime());
+        put(buffer, bytes(task.name()));
+        put(buffer, bytes(task.causeClass()));
+        put(buffer, bytes(task.causeMessage()));
+        put(buffer, task.params());
+    }
+
+    /**
+     * 从 buffer 的当前位置开始读取
+     *
+     * @param buffer 来源
+     * @return 任务
+     */
+    static DelayedRetryTask decode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        int attempt = buffer.getInt();
+        long fireTime = buffer.getLong();
+        String name = string(buffer);
+        String causeClass = string(buffer);
+        String causeMessage = string(buffer);
+        byte[] params = get(buffer);
+        return new DelayedRetryTask(id, name, attempt, fireTime, causeClass, causeMessage, params);
+    }
+
+    private static byte[] bytes(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] get(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = get(buffer);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,439 @@
+package com.poldroc.retry.core.support.defer;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.exception.RetryDeferredException;
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.model.WaitTime;
+import com.poldroc.retry.api.support.defer.RetryDefer;
+import com.poldroc.retry.api.support.timer.RetryTimer;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.core.constant.RetryDeferConst;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.deadletter.DeadLetterInvoker;
+import com.poldroc.retry.core.support.deadletter.DeadLetterSerializer;
+import com.poldroc.retry.core.support.deadletter.JavaDeadLetterSerializer;
+import com.poldroc.retry.core.support.timer.RetryTimers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 持久化的延后重试调度
+ * <p>
+ * 1. 等待时间不小于阈值时，把剩余的重试连同参数和下一次执行时间写入存储，调用线程直接返回
+ * 2. 到期之后由后台线程池通过同名的重试策略继续执行，尝试次数接着之前的次数计数，条件、停止和恢复策略保持不变
+ * 3. 重试策略再次需要长时间等待时，如果同样配置了本调度，会再次延后
+ * 4. 启动时加载存储中的任务，进程重启不会丢失等待中的重试；执行完成之后才从存储中删除
+ * 5. 只有在调度窗口内到期的任务才交给定时器，每半个窗口扫描一次存储，把下一个窗口内到期的任务交给定时器，
+ * 大量长时间等待的任务不会在堆上和定时器中各占一份
+ * 6. 只有注册了策略并且参数可以序列化的调用才会延后，否则按照原来的方式阻塞等待
+ * 7. 到期时没有对应策略，或者参数无法反序列化的任务（例如重启之后策略还没有注册、类已经变化）保留在存储中，按照退避时间重新调度
+ * 8. 延后时触发 {@link com.poldroc.retry.api.support.listen.RetryLifecycleListen#onDeferred}，后台执行是一次新的调用
+ * <p>
+ * 策略需要在 {@link #start()} 之前注册，参数的序列化和执行方式与死信重放一致
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class DelayedRetryScheduler implements RetryDefer, AutoCloseable {
+
+    /**
+     * 线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    private final DelayedRetryStore store;
+
+    /**
+     * 策略名称 -> 延后执行的策略
+     */
+    private final Map<String, DelayedPolicy<?>> policies = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * 已经交给定时器的任务，只包含调度窗口内的任务
+     */
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前调度窗口的结束时间，到期时间不晚于该值的任务在延后时直接交给定时器
+     */
+    private volatile long horizonEnd;
+
+    private volatile long horizonMills = RetryDeferConst.DEFAULT_HORIZON_MILLS;
+
+    /**
+     * 跳过的任务 -> 下一次重新调度的等待时间
+     */
+    private final Map<Long, Long> skippedBackoff = new ConcurrentHashMap<>();
+
+    private volatile DeadLetterSerializer serializer = JavaDeadLetterSerializer.getInstance();
+
+    private volatile RetryTimer timer = RetryTimers.scheduled();
+
+    private volatile long thresholdMills = RetryDeferConst.DEFAULT_THRESHOLD_MILLS;
+
+    private volatile int workers = RetryDeferConst.DEFAULT_WORKERS;
+
+    private volatile ExecutorService executor;
+
+    private volatile boolean closed;
+
+    private final LongAdder deferred = new LongAdder();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder exhausted = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private DelayedRetryScheduler(DelayedRetryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * 创建调度实例
+     *
+     * @param store 任务存储
+     * @return 实例
+     */
+    public static DelayedRetryScheduler newInstance(DelayedRetryStore store) {
+        ArgUtil.notNull(store, "store");
+        return new DelayedRetryScheduler(store);
+    }
+
+    /**
+     * 注册延后执行的策略
+     * 策略一般也通过 {@link Retryer#defer(RetryDefer)} 使用本调度，这样后续的长时间等待也会继续延后
+     *
+     * @param name    重试策略名称
+     * @param retryer 后台执行时使用的重试策略
+     * @param invoker 根据参数执行方法
+     * @param <R>     返回值类型
+     * @return this
+     */
+    public <R> DelayedRetryScheduler policy(String name, Retryer<R> retryer, DeadLetterInvoker<R> invoker) {
+        ArgUtil.notEmpty(name, "name");
+        ArgUtil.notNull(retryer, "retryer");
+        ArgUtil.notNull(invoker, "invoker");
+        policies.put(name, new DelayedPolicy<>(retryer, invoker));
+        return this;
+    }
+
+    /**
+     * 延后阈值
+     *
+     * @param threshold 等待时间不小于该值时延后执行
+     * @param unit      时间单位
+     * @return this
+     */
+    public DelayedRetryScheduler threshold(long threshold, TimeUnit unit) {
+        ArgUtil.notNull(unit, "unit");
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        this.thresholdMills = unit.toMillis(threshold);
+        return this;
+    }
+
+    /**
+     * 调度窗口
+     *
+     * @param horizon 在该时间内到期的任务才交给定时器
+     * @param unit    时间单位
+     * @return this
+     */
+    public DelayedRetryScheduler horizon(long horizon, TimeUnit unit) {
+        ArgUtil.notNull(unit, "unit");
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("horizon must be > 0");
+        }
+        this.horizonMills = unit.toMillis(horizon);
+        return this;
+    }
+
+    public DelayedRetryScheduler workers(int workers) {
+        ArgUtil.positive(workers, "workers");
+        this.workers = workers;
+        return this;
+    }
+
+    public DelayedRetryScheduler serializer(DeadLetterSerializer serializer) {
+        ArgUtil.notNull(serializer, "serializer");
+        this.serializer = serializer;
+        return this;
+    }
+
+    public DelayedRetryScheduler timer(RetryTimer timer) {
+        ArgUtil.notNull(timer, "timer");
+        this.timer = timer;
+        return this;
+    }
+
+    /**
+     * 启动后台线程池，并调度存储中第一个窗口内到期的任务，已经过期的任务立刻执行
+     *
+     * @return this
+     */
+    public synchronized DelayedRetryScheduler start() {
+        if (executor != null || closed) {
+            return this;
+        }
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "roc-retry-delayed-" + THREAD_INDEX.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) {
+            @Override
+            protected void terminated() {
+                // 所有执行中的任务结束之后才关闭存储，避免删除已经关闭的存储
+                store.close();
+            }
+        };
+        scan();
+        return this;
+    }
+
+    @Override
+    public <R> boolean defer(RetryContext<R> context, RetryAttempt<R> retryAttempt, WaitTime waitTime) {
+        final long waitMills = waitTime.unit().toMillis(waitTime.time());
+        final String name = name(context.name());
+        if (executor == null || closed || waitMills < thresholdMills || !policies.containsKey(name)) {
+            return false;
+        }
+        final byte[] params;
+        try {
+            params = serializer.serialize(context.params());
+        } catch (RuntimeException e) {
+            return false;
+        }
+
+        final Throwable cause = retryAttempt.cause();
+        final DelayedRetryTask task = new DelayedRetryTask(ids.incrementAndGet(), name, retryAttempt.attempt(),
+                System.currentTimeMillis() + waitMills,
+                cause == null ? null : cause.getClass().getName(),
+                cause == null ? null : cause.getMessage(),
+                params);
+        try {
+            store.save(task);
+        } catch (RetryException e) {
+            // 无法持久化时在当前线程等待
+            return false;
+        }
+        // 窗口之外的任务由之后的扫描交给定时器
+        if (task.fireTime() <= horizonEnd && scheduled.add(task.id())) {
+            schedule(task.id(), waitMills);
+        }
+        deferred.increment();
+        return true;
+    }
+
+    /**
+     * 停止后台线程池并关闭存储，未执行的任务留在存储中，下次启动后继续
+     * 存储在执行中的任务全部结束之后才关闭，最多等待 5 秒，超时之后由最后结束的任务所在的线程关闭
+     */
+    @Override
+    public void close() {
+        final ExecutorService current;
+        synchronized (this) {
+            closed = true;
+            current = executor;
+        }
+        if (current == null) {
+            store.close();
+            return;
+        }
+        current.shutdown();
+        try {
+            current.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 等待执行的任务数量
+     *
+     * @return 数量
+     */
+    public int pending() {
+        return store.size();
+    }
+
+    /**
+     * 延后执行的次数
+     *
+     * @return 次数
+     */
+    public long deferred() {
+        return deferred.sum();
+    }
+
+    /**
+     * 后台执行成功的次数
+     *
+     * @return 次数
+     */
+    public long succeeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * 后台执行用尽重试的次数，恢复策略已经执行
+     *
+     * @return 次数
+     */
+    public long exhausted() {
+        return exhausted.sum();
+    }
+
+    /**
+     * 到期时没有对应策略或者参数无法反序列化而跳过的次数，任务保留在存储中，并按照退避时间重新调度
+     *
+     * @return 次数
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * 交给定时器的任务数量
+     *
+     * @return 数量
+     */
+    public int scheduled() {
+        return scheduled.size();
+    }
+
+    /**
+     * 扫描存储，把下一个窗口内到期并且还没有交给定时器的任务交给定时器
+     * 先扫描再推进窗口，扫描期间新延后的任务最晚由下一次扫描调度，仍然在到期之前
+     */
+    private void scan() {
+        if (closed) {
+            return;
+        }
+        try {
+            final long now = System.currentTimeMillis();
+            final long windowEnd = now + horizonMills;
+            store.forEach((id, fireTime) -> {
+                ids.accumulateAndGet(id, Math::max);
+                if (fireTime <= windowEnd && scheduled.add(id)) {
+                    schedule(id, fireTime - now);
+                }
+            });
+            horizonEnd = windowEnd;
+        } finally {
+            timer.schedule(() -> {
+                try {
+                    executor.execute(this::scan);
+                } catch (RejectedExecutionException e) {
+                    // 已经关闭
+                }
+            }, Math.max(1, horizonMills / 2), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void schedule(final long id, final long delayMills) {
+        timer.schedule(() -> {
+            try {
+                executor.execute(() -> fire(id));
+            } catch (RejectedExecutionException e) {
+                // 已经关闭，任务留在存储中
+            }
+        }, Math.max(0, delayMills), TimeUnit.MILLISECONDS);
+    }
+
+    private void fire(long id) {
+        if (closed) {
+            return;
+        }
+        DelayedRetryTask task = store.get(id);
+        if (task == null) {
+            scheduled.remove(id);
+            return;
+        }
+        DelayedPolicy<?> policy = policies.get(task.name());
+        if (policy == null) {
+            skip(id);
+            return;
+        }
+        final Object[] params;
+        try {
+            params = serializer.deserialize(task.params());
+        } catch (RuntimeException e) {
+            // 参数无法反序列化时重试和恢复策略都无法执行，保留任务等待修复
+            skip(id);
+            return;
+        }
+        skippedBackoff.remove(id);
+        try {
+            policy.run(task, params);
+            succeeded.increment();
+        } catch (RetryDeferredException e) {
+            // 再次延后，新的任务已经保存
+        } catch (RuntimeException e) {
+            // 用尽重试，恢复策略已经执行
+            exhausted.increment();
+        } finally {
+            store.remove(id);
+            scheduled.remove(id);
+        }
+    }
+
+    /**
+     * 跳过任务，保留在存储中并按照退避时间重新调度
+     *
+     * @param id 任务标识
+     */
+    private void skip(long id) {
+        skipped.increment();
+        long backoff = skippedBackoff.merge(id, RetryDeferConst.UNREGISTERED_BACKOFF_MILLS,
+                (previous, initial) -> Math.min(previous * 2, RetryDeferConst.MAX_UNREGISTERED_BACKOFF_MILLS));
+        schedule(id, backoff);
+    }
+
+    private static String name(String name) {
+        return (name == null || name.isEmpty()) ? RetryConst.DEFAULT_NAME : name;
+    }
+
+    /**
+     * 延后执行的策略
+     *
+     * @param <R> 返回值类型
+     */
+    private static final class DelayedPolicy<R> {
+
+        private final Retryer<R> retryer;
+
+        private final DeadLetterInvoker<R> invoker;
+
+        private DelayedPolicy(Retryer<R> retryer, DeadLetterInvoker<R> invoker) {
+            this.retryer = retryer;
+            this.invoker = invoker;
+        }
+
+        private void run(DelayedRetryTask task, Object[] params) {
+            RetryContext<R> context = retryer.context()
+                    .callable(() -> invoker.invoke(params))
+                    .params(params)
+                    .firstAttempt(task.attempt() + 1);
+            retryer.retryCall(context);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.poldroc.retry.core.support.defer;
+
+import java.util.List;
+
+/**
+ * 等待后台执行的重试的存储
+ * 1. {@link #save(DelayedRetryTask)} 返回时任务必须已经持久化，调用方随后就会返回
+ * 2. 任务执行完成之后才会被删除，进程退出时正在执行的任务会在重启后再次执行
+ *
+ * @author Poldroc
+ *  
+ */
+public interface DelayedRetryStore extends AutoCloseable {
+
+    /**
+     * 保存任务
+     *
+     * @param task 任务
+     */
+    void save(DelayedRetryTask task);
+
+    /**
+     * 获取任务
+     *
+     * @param id 任务标识
+     * @return 任务，不存在时返回 null
+     */
+    DelayedRetryTask get(long id);
+
+    /**
+     * 删除任务
+     *
+     * @param id 任务标识
+     */
+    void remove(long id);
+
+    /**
+     * 所有等待执行的任务，按照执行时间排序
+     *
+     * @return 任务列表
+     */
+    List<DelayedRetryTask> load();
+
+    /**
+     * 遍历所有等待执行的任务的标识和执行时间，用于启动时调度
+     * 任务很多时实现类应该重写，避免创建任务对象
+     *
+     * @param visitor 访问者
+     */
+    default void forEach(PendingVisitor visitor) {
+        for (DelayedRetryTask task : load()) {
+            visitor.visit(task.id(), task.fireTime());
+        }
+    }
+
+    /**
+     * 等待执行的任务数量
+     *
+     * @return 数量
+     */
+    int size();
+
+    /**
+     * 关闭存储
+     */
+    @Override
+    void close();
+
+    /**
+     * 等待执行的任务访问者
+     */
+    @FunctionalInterface
+    interface PendingVisitor {
+
+        /**
+         * 访问任务
+         *
+         * @param id       任务标识
+         * @param fireTime 执行时间
+         */
+        void visit(long id, long fireTime);
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.poldroc.retry.core.support.defer;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+/**
+ * 等待后台执行的重试
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public final class DelayedRetryTask {
+
+    /**
+     * 任务标识，在存储中唯一
+     */
+    private final long id;
+
+    /**
+     * 重试策略名称
+     */
+    private final String name;
+
+    /**
+     * 已经执行的尝试次数
+     */
+    private final int attempt;
+
+    /**
+     * 下一次执行的时间
+     */
+    private final long fireTime;
+
+    /**
+     * 最后一次尝试的异常类名，没有异常时为 null
+     */
+    private final String causeClass;
+
+    /**
+     * 最后一次尝试的异常信息
+     */
+    private final String causeMessage;
+
+    /**
+     * 序列化后的方法参数
+     */
+    private final byte[] params;
+
+    public DelayedRetryTask(long id, String name, int attempt, long fireTime,
+                            String causeClass, String causeMessage, byte[] params) {
+        this.id = id;
+        this.name = name;
+        this.attempt = attempt;
+        this.fireTime = fireTime;
+        this.causeClass = causeClass;
+        this.causeMessage = causeMessage;
+        this.params = params;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int attempt() {
+        return attempt;
+    }
+
+    public long fireTime() {
+        return fireTime;
+    }
+
+    public String causeClass() {
+        return causeClass;
+    }
+
+    public String causeMessage() {
+        return causeMessage;
+    }
+
+    /**
+     * 序列化后的方法参数，调用方不能修改
+     *
+     * @return 字节
+     */
+    public byte[] params() {
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return "DelayedRetryTask{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", attempt=" + attempt +
+                ", fireTime=" + fireTime +
+                ", causeClass='" + causeClass + '\'' +
+                '}';
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.poldroc.retry.core.support.defer;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryDeferConst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 基于日志文件的存储
+ * <p>
+ * 1. 保存和删除都追加到同一个日志文件，记录带有长度和 CRC32，重新打开时跳过不完整的记录
+ * 2. 保存之后立刻刷盘；删除不刷盘，丢失的删除只会导致任务在重启后再次执行
+ * 3. 日志中已经删除的记录过多时，把存活的任务写入新文件并原子替换
+ * 4. 同一个文件同时只能由一个实例打开
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class FileDelayedRetryStore implements DelayedRetryStore {
+
+    private static final byte TYPE_SAVE = 1;
+
+    private static final byte TYPE_REMOVE = 2;
+
+    private static final int HEADER_SIZE = 8;
+
+    private final Path path;
+
+    /**
+     * 存活的任务
+     */
+    private final Map<Long, DelayedRetryTask> tasks = new HashMap<>();
+
+    private FileChannel channel;
+
+    /**
+     * 日志中的记录数
+     */
+    private int records;
+
+    /**
+     * @param path 日志文件，不存在时创建
+     */
+    public FileDelayedRetryStore(Path path) {
+        ArgUtil.notNull(path, "path");
+        this.path = path;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (Files.exists(path)) {
+                replay(ByteBuffer.wrap(Files.readAllBytes(path)));
+            }
+            // 重新打开时总是压缩一次，同时去掉末尾不完整的记录
+            compact();
+        } catch (IOException e) {
+            throw new RetryException("Failed to open delayed retry store " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(DelayedRetryTask task) {
+        ArgUtil.notNull(task, "task");
+        try {
+            write(encodeSave(task));
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RetryException("Failed to save delayed retry " + task.id(), e);
+        }
+        tasks.put(task.id(), task);
+    }
+
+    @Override
+    public synchronized DelayedRetryTask get(long id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public synchronized void remove(long id) {
+        if (tasks.remove(id) == null) {
+            return;
+        }
+        try {
+            write(encodeRemove(id));
+            if (records > RetryDeferConst.COMPACT_MIN_RECORDS && records > 2 * tasks.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to remove delayed retry " + id, e);
+        }
+    }
+
+    @Override
+    public synchronized List<DelayedRetryTask> load() {
+        List<DelayedRetryTask> list = new ArrayList<>(tasks.values());
+        list.sort(Comparator.comparingLong(DelayedRetryTask::fireTime));
+        return list;
+    }
+
+    @Override
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new RetryException("Failed to close delayed retry store " + path, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * 重放日志，遇到不完整的记录时停止
+     */
+    private void replay(ByteBuffer buffer) {
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            int start = buffer.position() + HEADER_SIZE;
+            if (length <= 0 || length > buffer.limit() - start) {
+                return;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit(start + length).position(start);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(buffer.position() + 4)) {
+                return;
+            }
+            if (payload.get() == TYPE_SAVE) {
+                DelayedRetryTask task = DelayedRetryCodec.decode(payload);
+                tasks.put(task.id(), task);
+            } else {
+                tasks.remove(payload.getLong());
+            }
+            buffer.position(start + length);
+        }
+    }
+
+    /**
+     * 把存活的任务写入临时文件，刷盘之后原子替换
+     */
+    private void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (DelayedRetryTask task : tasks.values()) {
+                ByteBuffer record = encodeSave(task);
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = tasks.size();
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        if (channel == null) {
+            throw new IOException("Store is closed");
+        }
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        records++;
+    }
+
+    private static ByteBuffer encodeSave(DelayedRetryTask task) {
+        int length = 1 + DelayedRetryCodec.size(task);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.position(HEADER_SIZE);
+        buffer.put(TYPE_SAVE);
+        DelayedRetryCodec.encode(buffer, task);
+        return seal(buffer, length);
+    }
+
+    private static ByteBuffer encodeRemove(long id) {
+        int length = 1 + 8;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.position(HEADER_SIZE);
+        buffer.put(TYPE_REMOVE);
+        buffer.putLong(id);
+        return seal(buffer, length);
+    }
+
+    private static ByteBuffer seal(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(0, length);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.position(0);
+        return buffer;
+    }
+
+}
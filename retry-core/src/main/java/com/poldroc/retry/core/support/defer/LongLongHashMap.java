@@ -0,0 +1,126 @@
+package com.poldroc.retry.core.support.defer;
+
+import com.poldroc.retry.common.annotation.NotThreadSafe;
+
+/**
+ * long 到 long 的开放寻址哈希表
+ * 1. 只有两个数组，每个条目不创建对象，用于在堆上保存大量轻量的索引
+ * 2. 键不能为 0，0 表示空槽位
+ * 3. 删除时向前移动后续的条目，不留下墓碑
+ *
+ * @author Poldroc
+ *  
+ */
+@NotThreadSafe
+final class LongLongHashMap {
+
+    /**
+     * 键不存在时返回的值
+     */
+    static final long MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int mask;
+
+    private int size;
+
+    private int resizeAt;
+
+    LongLongHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    long get(long key) {
+        int index = slot(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    void put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key must not be 0");
+        }
+        int index = slot(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeAt) {
+            resize();
+        }
+    }
+
+    long remove(long key) {
+        int index = slot(key);
+        while (keys[index] != key) {
+            if (keys[index] == 0) {
+                return MISSING;
+            }
+            index = (index + 1) & mask;
+        }
+        final long value = values[index];
+        // 把后续属于更前面槽位的条目移到空出来的位置
+        int next = (index + 1) & mask;
+        while (keys[next] != 0) {
+            int ideal = slot(keys[next]);
+            if (((next - ideal) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[index] = 0;
+        values[index] = 0;
+        size--;
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,379 @@
+package com.poldroc.retry.core.support.defer;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryDeferConst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 堆外存储
+ * <p>
+ * 1. 任务序列化之后写入内存映射的分段文件，参数等数据都在堆外，只在执行时解码
+ * 2. 堆上只保存标识到位置的原始类型哈希表，每个任务约 32 字节，不创建对象
+ * 3. 删除时在原位置标记，分段中的任务全部删除之后删除分段文件
+ * 4. 保存之后刷盘，删除不刷盘，丢失的删除只会导致任务在重启后再次执行
+ * 5. 启动时通过 {@link #forEach(PendingVisitor)} 直接从映射内存中读取标识和执行时间
+ * 6. 同一个目录同时只能由一个实例打开
+ * <p>
+ * 记录格式：[长度 int][CRC32 int][状态 byte][任务]，状态不参与校验
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class OffHeapDelayedRetryStore implements DelayedRetryStore {
+
+    private static final int HEADER_SIZE = 9;
+
+    private static final int STATUS_OFFSET = 8;
+
+    private static final byte STATUS_LIVE = 1;
+
+    private static final byte STATUS_REMOVED = 2;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    /**
+     * 分段序号 -> 分段
+     */
+    private final Map<Integer, Segment> segments = new TreeMap<>();
+
+    /**
+     * 任务标识 -> 分段序号和偏移
+     */
+    private final LongLongHashMap index = new LongLongHashMap(1024);
+
+    private Segment active;
+
+    private boolean closed;
+
+    /**
+     * 使用默认的分段大小
+     *
+     * @param directory 存储目录
+     */
+    public OffHeapDelayedRetryStore(Path directory) {
+        this(directory, RetryDeferConst.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory   存储目录，不存在时创建
+     * @param segmentSize 分段大小
+     */
+    public OffHeapDelayedRetryStore(Path directory, int segmentSize) {
+        ArgUtil.notNull(directory, "directory");
+        ArgUtil.positive(segmentSize, "segmentSize");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            for (int number : segmentNumbers()) {
+                Segment segment = Segment.open(segmentPath(number), number, segmentSize);
+                segments.put(number, segment);
+                recover(segment);
+                active = segment;
+            }
+            // 除了最后一个分段，没有存活任务的分段直接删除
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                if (segment.live == 0 && segment != active) {
+                    delete(segment);
+                }
+            }
+            if (active == null) {
+                active = newSegment(0);
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to open delayed retry store " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(DelayedRetryTask task) {
+        ArgUtil.notNull(task, "task");
+        if (task.id() <= 0) {
+            throw new IllegalArgumentException("id must be > 0");
+        }
+        ensureOpen();
+        final int length = DelayedRetryCodec.size(task);
+        if (HEADER_SIZE + length > segmentSize) {
+            throw new RetryException("Delayed retry " + task.id() + " is larger than the segment size " + segmentSize);
+        }
+        remove(task.id());
+        try {
+            if (!active.fits(length)) {
+                active = newSegment(active.number + 1);
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to save delayed retry " + task.id(), e);
+        }
+
+        final int offset = active.position;
+        ByteBuffer target = active.buffer.duplicate();
+        target.position(offset + HEADER_SIZE);
+        DelayedRetryCodec.encode(target, task);
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = active.buffer.duplicate();
+        payload.limit(offset + HEADER_SIZE + length).position(offset + HEADER_SIZE);
+        crc.update(payload);
+        active.buffer.put(offset + STATUS_OFFSET, STATUS_LIVE);
+        active.buffer.putInt(offset + 4, (int) crc.getValue());
+        // 长度最后写入，重新打开时看到长度说明记录已经完整
+        active.buffer.putInt(offset, length);
+        active.buffer.force();
+
+        active.position += HEADER_SIZE + length;
+        active.live++;
+        index.put(task.id(), location(active.number, offset));
+    }
+
+    @Override
+    public synchronized DelayedRetryTask get(long id) {
+        final long location = index.get(id);
+        if (location == LongLongHashMap.MISSING) {
+            return null;
+        }
+        Segment segment = segments.get(segmentNumber(location));
+        ByteBuffer payload = segment.buffer.duplicate();
+        payload.position(offset(location) + HEADER_SIZE);
+        return DelayedRetryCodec.decode(payload);
+    }
+
+    @Override
+    public synchronized void remove(long id) {
+        final long location = index.remove(id);
+        if (location == LongLongHashMap.MISSING) {
+            return;
+        }
+        Segment segment = segments.get(segmentNumber(location));
+        segment.buffer.put(offset(location) + STATUS_OFFSET, STATUS_REMOVED);
+        segment.live--;
+        if (segment.live == 0 && segment != active) {
+            try {
+                delete(segment);
+            } catch (IOException e) {
+                throw new RetryException("Failed to delete delayed retry segment " + segment.number, e);
+            }
+        }
+    }
+
+    /**
+     * 解码所有任务，任务很多时开销较大，调度时应该使用 {@link #forEach(PendingVisitor)}
+     *
+     * @return 按照执行时间排序的任务
+     */
+    @Override
+    public synchronized List<DelayedRetryTask> load() {
+        List<DelayedRetryTask> tasks = new ArrayList<>(index.size());
+        for (Segment segment : segments.values()) {
+            int position = 0;
+            while (position < segment.position) {
+                int length = segment.buffer.getInt(position);
+                if (segment.buffer.get(position + STATUS_OFFSET) == STATUS_LIVE) {
+                    ByteBuffer payload = segment.buffer.duplicate();
+                    payload.position(position + HEADER_SIZE);
+                    tasks.add(DelayedRetryCodec.decode(payload));
+                }
+                position += HEADER_SIZE + length;
+            }
+        }
+        tasks.sort(Comparator.comparingLong(DelayedRetryTask::fireTime));
+        return tasks;
+    }
+
+    @Override
+    public synchronized void forEach(PendingVisitor visitor) {
+        for (Segment segment : segments.values()) {
+            int position = 0;
+            while (position < segment.position) {
+                int length = segment.buffer.getInt(position);
+                if (segment.buffer.get(position + STATUS_OFFSET) == STATUS_LIVE) {
+                    int start = position + HEADER_SIZE;
+                    visitor.visit(segment.buffer.getLong(start),
+                            segment.buffer.getLong(start + DelayedRetryCodec.FIRE_TIME_OFFSET));
+                }
+                position += HEADER_SIZE + length;
+            }
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * 分段文件数量
+     *
+     * @return 数量
+     */
+    public synchronized int segments() {
+        return segments.size();
+    }
+
+    /**
+     * 分段中已经使用的字节数，包含已经删除的任务
+     *
+     * @return 字节数
+     */
+    public synchronized long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments.values()) {
+            used += segment.position;
+        }
+        return used;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            throw new RetryException("Failed to close delayed retry store " + directory, e);
+        }
+    }
+
+    /**
+     * 扫描分段，建立索引，从第一条不完整的记录处继续写入
+     */
+    private void recover(Segment segment) {
+        final MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            int start = position + HEADER_SIZE;
+            if (length <= 0 || length > buffer.capacity() - start) {
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit(start + length).position(start);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            if (buffer.get(position + STATUS_OFFSET) == STATUS_LIVE) {
+                index.put(buffer.getLong(start), location(segment.number, position));
+                segment.live++;
+            }
+            position = start + length;
+        }
+        segment.position = position;
+    }
+
+    private Segment newSegment(int number) throws IOException {
+        Segment segment = Segment.open(segmentPath(number), number, segmentSize);
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private void delete(Segment segment) throws IOException {
+        segments.remove(segment.number);
+        segment.channel.close();
+        // 映射的内存在 buffer 被回收时释放
+        Files.deleteIfExists(segmentPath(segment.number));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new RetryException("Delayed retry store is closed");
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%010d%s", number, RetryDeferConst.SEGMENT_SUFFIX));
+    }
+
+    private List<Integer> segmentNumbers() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(RetryDeferConst.SEGMENT_SUFFIX))
+                    .forEach(fileName -> {
+                        try {
+                            numbers.add(Integer.parseInt(fileName.substring(0,
+                                    fileName.length() - RetryDeferConst.SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            // 忽略不是分段的文件
+                        }
+                    });
+        }
+        numbers.sort(Integer::compare);
+        return numbers;
+    }
+
+    private static long location(int segmentNumber, int offset) {
+        return ((long) segmentNumber << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentNumber(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * 内存映射的分段
+     */
+    private static final class Segment {
+
+        private final int number;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * 下一条记录的写入位置
+         */
+        private int position;
+
+        /**
+         * 存活的任务数量
+         */
+        private int live;
+
+        private Segment(int number, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path path, int number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), size));
+            return new Segment(number, channel, buffer);
+        }
+
+        private boolean fits(int length) {
+            return buffer.capacity() - position >= HEADER_SIZE + length;
+        }
+    }
+
+}
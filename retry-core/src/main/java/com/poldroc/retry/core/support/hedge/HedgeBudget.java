@@ -0,0 +1,179 @@
+package com.poldroc.retry.core.support.hedge;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲预算
+ * <p>
+ * 1. 令牌桶：每次正常的尝试存入 ratio 个令牌，每次对冲消耗 1 个令牌
+ * 2. 对冲的数量因此最多约为正常尝试数量的 ratio 倍，避免下游变慢时对冲成倍放大流量
+ * 3. 令牌最多累积 maxTokens 个，初始为满
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class HedgeBudget {
+
+    /**
+     * 一个令牌对应的精度
+     */
+    private static final long UNIT = 1000L;
+
+    /**
+     * 当前的令牌数量（乘以精度）
+     */
+    private final AtomicLong tokens;
+
+    /**
+     * 最多累积的令牌数量（乘以精度）
+     */
+    private volatile long maxTokens;
+
+    /**
+     * 每次正常尝试存入的令牌比例
+     */
+    private volatile double ratio;
+
+    /**
+     * 已发起的对冲次数
+     */
+    private final LongAdder issued = new LongAdder();
+
+    /**
+     * 因为预算不足被拒绝的对冲次数
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    public HedgeBudget(double ratio, int maxTokens) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Ratio must not be negative");
+        }
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("MaxTokens must be positive");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens * UNIT;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * 正常尝试时存入令牌
+     */
+    public void deposit() {
+        final long add = (long) (ratio * UNIT);
+        if (add <= 0) {
+            return;
+        }
+        final long max = maxTokens;
+        while (true) {
+            long current = tokens.get();
+            if (current >= max) {
+                return;
+            }
+            long next = Math.min(max, current + add);
+            if (tokens.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 尝试为一次对冲获取令牌
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < UNIT) {
+                rejected.increment();
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - UNIT)) {
+                issued.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还一次对冲的令牌
+     * 对冲获取令牌之后没有真正发起（例如线程池已满）时调用
+     */
+    public void refund() {
+        final long max = maxTokens;
+        while (true) {
+            long current = tokens.get();
+            long next = Math.min(max, current + UNIT);
+            if (tokens.compareAndSet(current, next)) {
+                issued.decrement();
+                return;
+            }
+        }
+    }
+
+    public double ratio() {
+        return ratio;
+    }
+
+    /**
+     * 调整比例，下一次存入时生效
+     *
+     * @param ratio 比例
+     * @return this
+     */
+    public HedgeBudget ratio(double ratio) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Ratio must not be negative");
+        }
+        this.ratio = ratio;
+        return this;
+    }
+
+    /**
+     * 最多累积的令牌数量
+     *
+     * @return 令牌数量
+     */
+    public int maxTokens() {
+        return (int) (maxTokens / UNIT);
+    }
+
+    /**
+     * 调整最多累积的令牌数量，超出的令牌会被丢弃
+     *
+     * @param maxTokens 令牌数量
+     * @return this
+     */
+    public HedgeBudget maxTokens(int maxTokens) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("MaxTokens must be positive");
+        }
+        final long max = maxTokens * UNIT;
+        this.maxTokens = max;
+        tokens.accumulateAndGet(max, Math::min);
+        return this;
+    }
+
+    /**
+     * 当前可用的令牌数量
+     *
+     * @return 令牌数量
+     */
+    public double available() {
+        return (double) tokens.get() / UNIT;
+    }
+
+    public long issued() {
+        return issued.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.poldroc.retry.core.support.hedge;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 对冲预算注册中心
+ * 1. 每个策略名称对应一个 {@link HedgeBudget}，第一次使用时按照传入的参数创建
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class HedgeBudgetRegistry {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static HedgeBudgetRegistry getInstance() {
+        return InstanceFactory.getInstance().singleton(HedgeBudgetRegistry.class);
+    }
+
+    /**
+     * 策略名称和预算的映射
+     */
+    private final ConcurrentMap<String, HedgeBudget> budgetMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取策略的对冲预算，不存在时创建
+     *
+     * @param name      策略名称
+     * @param ratio     每次正常尝试存入的令牌比例
+     * @param maxTokens 最多累积的令牌数量
+     * @return 对冲预算
+     */
+    public HedgeBudget budget(String name, double ratio, int maxTokens) {
+        String actualName = StringUtil.isEmpty(name) ? RetryConst.DEFAULT_NAME : name;
+        HedgeBudget budget = budgetMap.get(actualName);
+        if (budget != null) {
+            return budget;
+        }
+        return budgetMap.computeIfAbsent(actualName, key -> new HedgeBudget(ratio, maxTokens));
+    }
+
+    /**
+     * 获取已经存在的对冲预算
+     *
+     * @param name 策略名称
+     * @return 对冲预算，不存在时返回 null
+     */
+    public HedgeBudget get(String name) {
+        return budgetMap.get(StringUtil.isEmpty(name) ? RetryConst.DEFAULT_NAME : name);
+    }
+
+    /**
+     * 所有的对冲预算
+     *
+     * @return 策略名称和预算的映射
+     */
+    public Map<String, HedgeBudget> all() {
+        return Collections.unmodifiableMap(budgetMap);
+    }
+
+}
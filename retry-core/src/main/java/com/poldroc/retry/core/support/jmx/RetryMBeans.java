@@ -0,0 +1,100 @@
+package com.poldroc.retry.core.support.jmx;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JMX 注册工具类
+ * 1. 开启之后，每个策略第一次执行时注册一个 {@link RetryPolicyMXBean}
+ * 2. ObjectName 为 com.poldroc.retry:type=RetryPolicy,name="策略名称"
+ *
+ * @author Poldroc
+ *  
+ */
+public final class RetryMBeans {
+
+    private RetryMBeans() {
+    }
+
+    /**
+     * 域名
+     */
+    public static final String DOMAIN = "com.poldroc.retry";
+
+    private static final Logger LOGGER = Logger.getLogger(RetryMBeans.class.getName());
+
+    /**
+     * 注册监听器，为空表示没有开启
+     */
+    private static Consumer<RetryMetrics> listener;
+
+    /**
+     * 开启 JMX 注册，重复调用没有影响
+     */
+    public static synchronized void enable() {
+        if (listener != null) {
+            return;
+        }
+        listener = RetryMBeans::register;
+        RetryMetricsRegistry.getInstance().addListener(listener);
+    }
+
+    /**
+     * 关闭 JMX 注册，并注销已经注册的 MBean
+     */
+    public static synchronized void disable() {
+        if (listener == null) {
+            return;
+        }
+        RetryMetricsRegistry.getInstance().removeListener(listener);
+        listener = null;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (RetryMetrics metrics : RetryMetricsRegistry.getInstance().all()) {
+            try {
+                ObjectName objectName = objectName(metrics.name());
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                throw new RetryException(e);
+            }
+        }
+    }
+
+    /**
+     * 策略对应的 ObjectName
+     *
+     * @param name 策略名称
+     * @return ObjectName
+     * @throws JMException 名称不合法时
+     */
+    public static ObjectName objectName(String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=RetryPolicy,name=" + ObjectName.quote(name));
+    }
+
+    private static void register(RetryMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(metrics.name());
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new RetryPolicy(metrics), objectName);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // 并发注册，已经存在即可
+        } catch (JMException | SecurityException e) {
+            // 在策略第一次执行时注册，注册失败不能影响重试本身，只记录日志
+            LOGGER.log(Level.WARNING, "Failed to register retry MBean for " + metrics.name(), e);
+        }
+    }
+
+}
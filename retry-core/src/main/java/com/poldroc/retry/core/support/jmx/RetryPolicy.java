@@ -0,0 +1,188 @@
+package com.poldroc.retry.core.support.jmx;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.support.hedge.HedgeBudget;
+import com.poldroc.retry.core.support.hedge.HedgeBudgetRegistry;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.stop.AttemptLimit;
+import com.poldroc.retry.core.support.stop.AttemptLimitRegistry;
+import com.poldroc.retry.core.support.tuning.RetryTuning;
+import com.poldroc.retry.core.support.tuning.RetryTuningRegistry;
+
+/**
+ * 重试策略的 JMX 实现
+ * 参数调整写入 {@link RetryTuningRegistry}，对冲预算直接修改 {@link HedgeBudget}
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RetryPolicy implements RetryPolicyMXBean {
+
+    private final RetryMetrics metrics;
+
+    public RetryPolicy(RetryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return metrics.name();
+    }
+
+    @Override
+    public long getCalls() {
+        return metrics.calls();
+    }
+
+    @Override
+    public long getAttempts() {
+        return metrics.attempts();
+    }
+
+    @Override
+    public long getSuccesses() {
+        return metrics.successes();
+    }
+
+    @Override
+    public long[] getSuccessDistribution() {
+        return metrics.successDistribution();
+    }
+
+    @Override
+    public long getExhaustions() {
+        return metrics.exhaustions();
+    }
+
+    @Override
+    public double getExhaustionRate() {
+        return metrics.exhaustionRate();
+    }
+
+    @Override
+    public long getRecovers() {
+        return metrics.recovers();
+    }
+
+    @Override
+    public long getSleepMills() {
+        return metrics.sleepMills();
+    }
+
+    @Override
+    public long getAttemptLatencyP99Micros() {
+        return metrics.attemptLatency().quantile(0.99);
+    }
+
+    @Override
+    public long getCallLatencyP99Micros() {
+        return metrics.callLatency().quantile(0.99);
+    }
+
+    @Override
+    public int getMaxAttempt() {
+        int maxAttempt = tuning().maxAttempt();
+        return maxAttempt > 0 ? maxAttempt : -1;
+    }
+
+    @Override
+    public void setMaxAttempt(int maxAttempt) {
+        registry().update(getName(), tuning -> tuning.maxAttempt(maxAttempt));
+    }
+
+    @Override
+    public int getAttemptLimit() {
+        AttemptLimit limit = AttemptLimitRegistry.getInstance().get(getName());
+        return limit == null ? -1 : limit.current();
+    }
+
+    @Override
+    public long getWaitValue() {
+        return tuning().waitValue();
+    }
+
+    @Override
+    public void setWaitValue(long waitValue) {
+        registry().update(getName(), tuning -> tuning.waitValue(waitValue));
+    }
+
+    @Override
+    public long getWaitMin() {
+        return tuning().waitMin();
+    }
+
+    @Override
+    public void setWaitMin(long waitMin) {
+        registry().update(getName(), tuning -> tuning.waitMin(waitMin));
+    }
+
+    @Override
+    public long getWaitMax() {
+        return tuning().waitMax();
+    }
+
+    @Override
+    public void setWaitMax(long waitMax) {
+        registry().update(getName(), tuning -> tuning.waitMax(waitMax));
+    }
+
+    @Override
+    public double getWaitFactor() {
+        double factor = tuning().waitFactor();
+        return factor > 0 ? factor : -1D;
+    }
+
+    @Override
+    public void setWaitFactor(double waitFactor) {
+        registry().update(getName(), tuning -> tuning.waitFactor(waitFactor));
+    }
+
+    @Override
+    public double getHedgeBudgetRatio() {
+        HedgeBudget budget = budget();
+        return budget == null ? -1D : budget.ratio();
+    }
+
+    @Override
+    public void setHedgeBudgetRatio(double ratio) {
+        requiredBudget().ratio(ratio);
+    }
+
+    @Override
+    public int getHedgeBudgetMaxTokens() {
+        HedgeBudget budget = budget();
+        return budget == null ? -1 : budget.maxTokens();
+    }
+
+    @Override
+    public void setHedgeBudgetMaxTokens(int maxTokens) {
+        requiredBudget().maxTokens(maxTokens);
+    }
+
+    @Override
+    public void resetTuning() {
+        registry().reset(getName());
+    }
+
+    private RetryTuning tuning() {
+        return registry().tuning(getName());
+    }
+
+    private RetryTuningRegistry registry() {
+        return RetryTuningRegistry.getInstance();
+    }
+
+    private HedgeBudget budget() {
+        return HedgeBudgetRegistry.getInstance().get(getName());
+    }
+
+    private HedgeBudget requiredBudget() {
+        HedgeBudget budget = budget();
+        if (budget == null) {
+            throw new IllegalStateException("Policy " + getName() + " does not use hedging");
+        }
+        return budget;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.poldroc.retry.core.support.jmx;
+
+/**
+ * 重试策略的 JMX 接口
+ * 1. 只读属性为策略的统计信息
+ * 2. 可写属性为运行时调整的参数，下一次调用时生效；设置为 -1 表示恢复原有的配置
+ *
+ * @author Poldroc
+ *  
+ */
+public interface RetryPolicyMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getAttempts();
+
+    long getSuccesses();
+
+    long[] getSuccessDistribution();
+
+    long getExhaustions();
+
+    double getExhaustionRate();
+
+    long getRecovers();
+
+    long getSleepMills();
+
+    long getAttemptLatencyP99Micros();
+
+    long getCallLatencyP99Micros();
+
+    int getMaxAttempt();
+
+    void setMaxAttempt(int maxAttempt);
+
+    /**
+     * 自适应终止策略当前的最大尝试次数，没有使用时为 -1
+     *
+     * @return 最大尝试次数
+     */
+    int getAttemptLimit();
+
+    long getWaitValue();
+
+    void setWaitValue(long waitValue);
+
+    long getWaitMin();
+
+    void setWaitMin(long waitMin);
+
+    long getWaitMax();
+
+    void setWaitMax(long waitMax);
+
+    double getWaitFactor();
+
+    void setWaitFactor(double waitFactor);
+
+    /**
+     * 对冲预算比例，没有使用对冲时为 -1
+     *
+     * @return 比例
+     */
+    double getHedgeBudgetRatio();
+
+    void setHedgeBudgetRatio(double ratio);
+
+    /**
+     * 对冲预算最多的令牌数量，没有使用对冲时为 -1
+     *
+     * @return 令牌数量
+     */
+    int getHedgeBudgetMaxTokens();
+
+    void setHedgeBudgetMaxTokens(int maxTokens);
+
+    /**
+     * 清除所有的参数调整
+     */
+    void resetTuning();
+
+}
@@ -0,0 +1,30 @@
+package com.poldroc.retry.core.support.key;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+/**
+ * 不合并调用
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class NoRetryKey implements RetryKey {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryKey getInstance() {
+        return InstanceFactory.getInstance().singleton(NoRetryKey.class);
+    }
+
+    @Override
+    public Object key(RetryContext<?> context) {
+        return null;
+    }
+
+}
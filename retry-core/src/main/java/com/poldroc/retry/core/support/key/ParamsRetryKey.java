@@ -0,0 +1,71 @@
+package com.poldroc.retry.core.support.key;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.key.RetryKey;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+import java.util.Arrays;
+
+/**
+ * 根据请求参数计算键
+ * 1. 参数按照 {@link Arrays#deepEquals(Object[], Object[])} 比较
+ * 2. 注解方式下策略名称为方法签名，所以相当于按照方法 + 参数合并
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class ParamsRetryKey implements RetryKey {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryKey getInstance() {
+        return InstanceFactory.getInstance().singleton(ParamsRetryKey.class);
+    }
+
+    @Override
+    public Object key(RetryContext<?> context) {
+        return new ParamsKey(context.params());
+    }
+
+    /**
+     * 参数键
+     */
+    private static final class ParamsKey {
+
+        private final Object[] params;
+
+        private final int hash;
+
+        private ParamsKey(Object[] params) {
+            this.params = params == null ? new Object[0] : params.clone();
+            this.hash = Arrays.deepHashCode(this.params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ParamsKey)) {
+                return false;
+            }
+            ParamsKey other = (ParamsKey) o;
+            return hash == other.hash && Arrays.deepEquals(params, other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(params);
+        }
+    }
+
+}
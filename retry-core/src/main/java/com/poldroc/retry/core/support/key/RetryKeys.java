@@ -0,0 +1,32 @@
+package com.poldroc.retry.core.support.key;
+
+import com.poldroc.retry.api.support.key.RetryKey;
+
+/**
+ * 键工具类
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryKeys {
+
+    private RetryKeys() {
+    }
+
+    /**
+     * 不合并调用
+     * @return 键
+     */
+    public static RetryKey none() {
+        return NoRetryKey.getInstance();
+    }
+
+    /**
+     * 按照请求参数合并调用
+     * @return 键
+     */
+    public static RetryKey params() {
+        return ParamsRetryKey.getInstance();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
+
+/**
+ * 生命周期监听的空实现
+ * 子类只需要重写关心的方法
+ *
+ * @author Poldroc
+ *  
+ */
+public abstract class AbstractRetryLifecycleListen implements RetryLifecycleListen {
+
+    @Override
+    public <R> void onStart(RetryContext<R> context) {
+    }
+
+    @Override
+    public <R> void onAttempt(RetryContext<R> context, RetryAttempt<R> attempt) {
+    }
+
+    @Override
+    public <R> void onSuccess(RetryContext<R> context, RetryAttempt<R> attempt) {
+    }
+
+    @Override
+    public <R> void onExhausted(RetryContext<R> context, RetryAttempt<R> attempt) {
+    }
+
+    @Override
+    public <R> void onDeferred(RetryContext<R> context, RetryAttempt<R> attempt) {
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryListenConst;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步监听器
+ * <p>
+ * 1. 调用线程只把重试信息写入预先分配的环形缓冲区，由单独的消费者线程调用实际的监听器
+ * 2. 缓冲区的槽位会被复用，实际的监听器不能在返回之后继续持有收到的 {@link RetryAttempt}
+ * 3. 缓冲区满时按照 {@link ListenOverflowPolicy} 处理
+ * 4. 实际监听器抛出的异常会被忽略并计数，不影响后续的事件
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AsyncRetryListen implements RetryListen, AutoCloseable {
+
+    /**
+     * 消费者线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    /**
+     * 消费者空闲时最长的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 阻塞模式下等待空闲位置的休眠时间
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final RetryListen delegate;
+
+    private final ListenOverflowPolicy overflowPolicy;
+
+    private final int sampleRate;
+
+    private final AttemptRingBuffer buffer;
+
+    private final Thread consumer;
+
+    /**
+     * 消费者是否在休眠，生产者只在休眠时唤醒
+     */
+    private volatile boolean sleeping;
+
+    private volatile boolean closed;
+
+    /**
+     * 采样计数
+     */
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * 使用默认的缓冲区大小，满时丢弃
+     *
+     * @param delegate 实际的监听器
+     */
+    public AsyncRetryListen(RetryListen delegate) {
+        this(delegate, RetryListenConst.DEFAULT_ASYNC_CAPACITY, ListenOverflowPolicy.DROP);
+    }
+
+    /**
+     * @param delegate       实际的监听器
+     * @param capacity       缓冲区大小，必须为 2 的幂
+     * @param overflowPolicy 缓冲区满时的处理策略
+     */
+    public AsyncRetryListen(RetryListen delegate, int capacity, ListenOverflowPolicy overflowPolicy) {
+        this(delegate, capacity, overflowPolicy, RetryListenConst.DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * @param delegate       实际的监听器
+     * @param capacity       缓冲区大小，必须为 2 的幂
+     * @param overflowPolicy 缓冲区满时的处理策略
+     * @param sampleRate     采样模式下每多少个事件保留一个
+     */
+    public AsyncRetryListen(RetryListen delegate, int capacity, ListenOverflowPolicy overflowPolicy, int sampleRate) {
+        ArgUtil.notNull(delegate, "delegate");
+        ArgUtil.notNull(overflowPolicy, "overflowPolicy");
+        ArgUtil.positive(sampleRate, "sampleRate");
+
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.buffer = new AttemptRingBuffer(capacity);
+        this.consumer = new Thread(this::consume, "roc-retry-listen-" + THREAD_INDEX.incrementAndGet());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public <R> void listen(RetryAttempt<R> attempt) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        if (overflowPolicy == ListenOverflowPolicy.SAMPLE
+                && buffer.size() > (buffer.capacity() >> 1)
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            dropped.increment();
+            return;
+        }
+
+        boolean offered = buffer.offer(attempt);
+        while (!offered && overflowPolicy == ListenOverflowPolicy.BLOCK && !closed) {
+            wakeUp();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            offered = buffer.offer(attempt);
+        }
+        if (!offered) {
+            dropped.increment();
+            return;
+        }
+        wakeUp();
+    }
+
+    /**
+     * 停止消费者线程，缓冲区中剩余的事件会先处理完
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已经交给实际监听器的事件数量
+     *
+     * @return 数量
+     */
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * 被丢弃的事件数量，包含采样丢弃的事件
+     *
+     * @return 数量
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 实际监听器抛出异常的次数
+     *
+     * @return 次数
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * 缓冲区中等待处理的事件数量
+     *
+     * @return 数量
+     */
+    public int pending() {
+        return buffer.size();
+    }
+
+    private void wakeUp() {
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        while (true) {
+            RecycledRetryAttempt attempt = buffer.peek();
+            if (attempt != null) {
+                try {
+                    delegate.listen(attempt);
+                    delivered.increment();
+                } catch (Throwable e) {
+                    errors.increment();
+                } finally {
+                    buffer.release(attempt);
+                }
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            // 先标记休眠再检查一次，避免错过生产者的唤醒
+            sleeping = true;
+            if (buffer.peek() == null && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            sleeping = false;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁的多生产者单消费者环形缓冲区
+ * <p>
+ * 1. 槽位预先分配，事件写入时只复制字段，不创建对象
+ * 2. 每个槽位有一个序号：等于写入位置时可写，等于写入位置 + 1 时可读，读完之后加上容量进入下一轮
+ * 3. 生产者通过 CAS 竞争写入位置，消费者只有一个，读取位置不需要原子操作
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+final class AttemptRingBuffer {
+
+    private final int mask;
+
+    private final RecycledRetryAttempt[] slots;
+
+    private final AtomicLongArray sequences;
+
+    /**
+     * 下一个写入位置
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个读取位置，只有消费者线程修改
+     */
+    private volatile long head;
+
+    AttemptRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2 and >= 2!");
+        }
+        this.mask = capacity - 1;
+        this.slots = new RecycledRetryAttempt[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new RecycledRetryAttempt();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入事件
+     *
+     * @param attempt 重试信息
+     * @return 缓冲区满时返回 false
+     */
+    boolean offer(RetryAttempt<?> attempt) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index].fill(attempt);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 读取下一个事件，只能由消费者线程调用
+     * 处理完成之后必须调用 {@link #release(RecycledRetryAttempt)}
+     *
+     * @return 事件，没有时返回 null
+     */
+    RecycledRetryAttempt peek() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        return slots[index];
+    }
+
+    /**
+     * 释放当前事件的槽位，只能由消费者线程调用
+     *
+     * @param attempt 当前事件
+     */
+    void release(RecycledRetryAttempt attempt) {
+        long position = head;
+        attempt.clear();
+        sequences.lazySet((int) (position & mask), position + mask + 1);
+        head = position + 1;
+    }
+
+    /**
+     * 当前的事件数量，并发时为近似值
+     *
+     * @return 数量
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+/**
+ * 组合多个生命周期监听，按照顺序执行
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class CompositeRetryLifecycleListen implements RetryLifecycleListen {
+
+    private final RetryLifecycleListen[] listens;
+
+    public CompositeRetryLifecycleListen(RetryLifecycleListen... listens) {
+        this.listens = listens.clone();
+    }
+
+    @Override
+    public <R> void onStart(RetryContext<R> context) {
+        for (RetryLifecycleListen listen : listens) {
+            listen.onStart(context);
+        }
+    }
+
+    @Override
+    public <R> void onAttempt(RetryContext<R> context, RetryAttempt<R> attempt) {
+        for (RetryLifecycleListen listen : listens) {
+            listen.onAttempt(context, attempt);
+        }
+    }
+
+    @Override
+    public <R> void onSuccess(RetryContext<R> context, RetryAttempt<R> attempt) {
+        for (RetryLifecycleListen listen : listens) {
+            listen.onSuccess(context, attempt);
+        }
+    }
+
+    @Override
+    public <R> void onExhausted(RetryContext<R> context, RetryAttempt<R> attempt) {
+        for (RetryLifecycleListen listen : listens) {
+            listen.onExhausted(context, attempt);
+        }
+    }
+
+    @Override
+    public <R> void onDeferred(RetryContext<R> context, RetryAttempt<R> attempt) {
+        for (RetryLifecycleListen listen : listens) {
+            listen.onDeferred(context, attempt);
+        }
+    }
+
+}
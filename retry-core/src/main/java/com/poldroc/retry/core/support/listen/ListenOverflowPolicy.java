@@ -0,0 +1,26 @@
+package com.poldroc.retry.core.support.listen;
+
+/**
+ * 异步监听缓冲区满时的处理策略
+ *
+ * @author Poldroc
+ *  
+ */
+public enum ListenOverflowPolicy {
+
+    /**
+     * 缓冲区满时丢弃新的事件
+     */
+    DROP,
+
+    /**
+     * 缓冲区超过一半之后按比例采样，满时丢弃
+     */
+    SAMPLE,
+
+    /**
+     * 缓冲区满时阻塞调用线程，直到有空闲位置
+     */
+    BLOCK
+
+}
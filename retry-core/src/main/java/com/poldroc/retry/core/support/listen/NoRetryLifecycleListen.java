@@ -0,0 +1,26 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+/**
+ * 不监听生命周期
+ * 重试时会直接跳过，不产生任何调用
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class NoRetryLifecycleListen extends AbstractRetryLifecycleListen {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static RetryLifecycleListen getInstance() {
+        return InstanceFactory.getInstance().singleton(NoRetryLifecycleListen.class);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.model.AttemptTime;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.common.annotation.NotThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可复用的重试信息，作为异步监听缓冲区的槽位
+ * 监听器返回之后会被清空并复用，监听器不能持有该对象
+ * 历史信息复制到槽位自身的列表中，重试线程之后继续追加历史时不会影响消费者线程
+ *
+ * @author Poldroc
+ *  
+ */
+@NotThreadSafe
+final class RecycledRetryAttempt implements RetryAttempt<Object> {
+
+    private String name;
+
+    private Object result;
+
+    private int attempt;
+
+    private Throwable cause;
+
+    private AttemptTime time;
+
+    private final List<RetryAttempt<Object>> history = new ArrayList<>();
+
+    /**
+     * 原始的历史信息是否存在
+     */
+    private boolean hasHistory;
+
+    private Object[] params;
+
+    @SuppressWarnings("unchecked")
+    void fill(RetryAttempt<?> source) {
+        this.name = source.name();
+        this.result = source.result();
+        this.attempt = source.attempt();
+        this.cause = source.cause();
+        this.time = source.time();
+        this.history.clear();
+        List<RetryAttempt<Object>> sourceHistory = (List<RetryAttempt<Object>>) (List<?>) source.history();
+        this.hasHistory = sourceHistory != null;
+        if (hasHistory) {
+            this.history.addAll(sourceHistory);
+        }
+        this.params = source.params();
+    }
+
+    void clear() {
+        this.name = null;
+        this.result = null;
+        this.attempt = 0;
+        this.cause = null;
+        this.time = null;
+        this.history.clear();
+        this.hasHistory = false;
+        this.params = null;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Object result() {
+        return result;
+    }
+
+    @Override
+    public int attempt() {
+        return attempt;
+    }
+
+    @Override
+    public Throwable cause() {
+        return cause;
+    }
+
+    @Override
+    public AttemptTime time() {
+        return time;
+    }
+
+    @Override
+    public List<RetryAttempt<Object>> history() {
+        return hasHistory ? history : null;
+    }
+
+    @Override
+    public Object[] params() {
+        return params;
+    }
+
+}
@@ -1,9 +1,14 @@
 package com.poldroc.retry.core.support.listen;
 
 import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryLifecycleListen;
 import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.core.support.log.JulRetryLogSink;
+import com.poldroc.retry.core.support.log.RetryLogSink;
 
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 监听器工具类
@@ -17,6 +22,11 @@ public class RetryListens {
     private RetryListens() {
     }
 
+    /**
+     * 共享的异步监听器，每个实际的监听器对应一个消费者线程
+     */
+    private static final Map<RetryListen, AsyncRetryListen> ASYNC_LISTENS = new ConcurrentHashMap<>();
+
     /**
      * 不进行任何监听动作
      *
@@ -45,4 +55,90 @@ public class RetryListens {
             }
         };
     }
+
+    /**
+     * 采样限流的日志监听，输出到 java.util.logging
+     *
+     * @param name           重试策略名称
+     * @param sampleRate     每多少个事件保留一个，1 表示不采样
+     * @param limitPerSecond 每秒最多输出的事件数，0 表示不限制
+     * @return 监听器
+     */
+    public static SampledLogRetryListen sampledLog(final String name, final int sampleRate, final int limitPerSecond) {
+        return sampledLog(name, sampleRate, limitPerSecond, new JulRetryLogSink());
+    }
+
+    /**
+     * 采样限流的日志监听
+     *
+     * @param name           重试策略名称
+     * @param sampleRate     每多少个事件保留一个，1 表示不采样
+     * @param limitPerSecond 每秒最多输出的事件数，0 表示不限制
+     * @param sink           日志输出
+     * @return 监听器
+     */
+    public static SampledLogRetryListen sampledLog(final String name, final int sampleRate, final int limitPerSecond,
+                                                   final RetryLogSink sink) {
+        return new SampledLogRetryListen(name, sampleRate, limitPerSecond, sink);
+    }
+
+    /**
+     * 不监听生命周期
+     *
+     * @return 生命周期监听
+     */
+    public static RetryLifecycleListen noLifecycle() {
+        return NoRetryLifecycleListen.getInstance();
+    }
+
+    /**
+     * 指定多个生命周期监听，按照顺序执行
+     *
+     * @param lifecycleListens 多个生命周期监听
+     * @return 生命周期监听
+     */
+    public static RetryLifecycleListen lifecycles(final RetryLifecycleListen... lifecycleListens) {
+        if (null == lifecycleListens || lifecycleListens.length == 0) {
+            return noLifecycle();
+        }
+        if (lifecycleListens.length == 1) {
+            return lifecycleListens[0];
+        }
+        return new CompositeRetryLifecycleListen(lifecycleListens);
+    }
+
+    /**
+     * 异步执行监听器
+     * 1. 同一个监听器（按照对象区分）共享一个缓冲区和消费者线程，适用于注解等每次调用都会重新构建上下文的场景；
+     * 缓存不会清除，传入的监听器需要复用，不能每次调用都创建新的对象
+     * 2. 使用默认的缓冲区大小，满时丢弃
+     *
+     * @param retryListen 实际的监听器
+     * @return 监听器
+     */
+    public static RetryListen async(final RetryListen retryListen) {
+        if (retryListen instanceof NoRetryListen || retryListen instanceof AsyncRetryListen) {
+            return retryListen;
+        }
+        AsyncRetryListen async = ASYNC_LISTENS.get(retryListen);
+        if (async != null) {
+            return async;
+        }
+        return ASYNC_LISTENS.computeIfAbsent(retryListen, AsyncRetryListen::new);
+    }
+
+    /**
+     * 异步执行监听器
+     * 每次调用都会创建新的缓冲区和消费者线程，需要复用返回的监听器，不再使用时关闭
+     *
+     * @param retryListen    实际的监听器
+     * @param capacity       缓冲区大小，必须为 2 的幂
+     * @param overflowPolicy 缓冲区满时的处理策略
+     * @return 监听器
+     */
+    public static AsyncRetryListen async(final RetryListen retryListen,
+                                         final int capacity,
+                                         final ListenOverflowPolicy overflowPolicy) {
+        return new AsyncRetryListen(retryListen, capacity, overflowPolicy);
+    }
 }
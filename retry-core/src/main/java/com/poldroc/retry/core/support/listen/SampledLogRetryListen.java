@@ -0,0 +1,267 @@
+package com.poldroc.retry.core.support.listen;
+
+import com.poldroc.retry.api.model.AttemptTime;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.core.constant.RetryListenConst;
+import com.poldroc.retry.core.support.log.JulRetryLogSink;
+import com.poldroc.retry.core.support.log.RetryLogSink;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * 采样限流的日志监听
+ * 1. 每 sampleRate 个事件保留一个，并且每秒最多输出 limitPerSecond 个事件
+ * 2. 被抑制的事件只做计数，窗口结束后输出一条汇总日志
+ * 3. 重试线程只创建携带模板和参数的日志记录，字符串在输出端格式化；
+ * 配合 {@link RetryListens#async(RetryListen)} 可以把输出也移出重试线程
+ * 4. 指定名称时所有事件共用一个限流窗口；不指定名称（例如注解使用的无参构造器）时按照
+ * {@link RetryAttempt#name()} 区分窗口，一个策略的大量日志不会抑制其他策略的日志
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class SampledLogRetryListen implements RetryListen {
+
+    private static final String ATTEMPT_FAILED = "Retry [{0}] attempt {1} failed after {2} ms: {3}";
+
+    private static final String ATTEMPT_DONE = "Retry [{0}] attempt {1} completed after {2} ms";
+
+    private static final String SUPPRESSED = "Retry [{0}] suppressed {1} log events in the last {2} ms";
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(RetryListenConst.LOG_WINDOW_MILLS);
+
+    /**
+     * 指定的名称对应的窗口，为空时按照策略名称区分窗口
+     */
+    private final LogWindow fixedWindow;
+
+    /**
+     * 策略名称和窗口的映射
+     */
+    private final ConcurrentMap<String, LogWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 每多少个事件保留一个，1 表示不采样
+     */
+    private final int sampleRate;
+
+    /**
+     * 每秒最多输出的事件数，0 表示不限制
+     */
+    private final int limitPerSecond;
+
+    private final RetryLogSink sink;
+
+    private final LongAdder logged = new LongAdder();
+
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * 按照策略名称区分窗口
+     */
+    public SampledLogRetryListen() {
+        this(1, RetryListenConst.DEFAULT_LOG_LIMIT_PER_SECOND, new JulRetryLogSink());
+    }
+
+    /**
+     * 按照策略名称区分窗口
+     *
+     * @param sampleRate     每多少个事件保留一个，1 表示不采样
+     * @param limitPerSecond 每秒最多输出的事件数，0 表示不限制
+     * @param sink           日志输出
+     */
+    public SampledLogRetryListen(int sampleRate, int limitPerSecond, RetryLogSink sink) {
+        this(null, sampleRate, limitPerSecond, sink, false);
+    }
+
+    public SampledLogRetryListen(String name, int sampleRate, int limitPerSecond, RetryLogSink sink) {
+        this(name, sampleRate, limitPerSecond, sink, true);
+    }
+
+    private SampledLogRetryListen(String name, int sampleRate, int limitPerSecond, RetryLogSink sink, boolean named) {
+        if (named) {
+            ArgUtil.notEmpty(name, "name");
+        }
+        ArgUtil.positive(sampleRate, "sampleRate");
+        ArgUtil.notNull(sink, "sink");
+        if (limitPerSecond < 0) {
+            throw new IllegalArgumentException("limitPerSecond must be >= 0");
+        }
+        this.fixedWindow = named ? new LogWindow(name) : null;
+        this.sampleRate = sampleRate;
+        this.limitPerSecond = limitPerSecond;
+        this.sink = sink;
+    }
+
+    @Override
+    public <R> void listen(RetryAttempt<R> attempt) {
+        final Throwable cause = attempt.cause();
+        final Level level = cause == null ? Level.INFO : Level.WARNING;
+        if (!sink.isLoggable(level)) {
+            return;
+        }
+        final LogWindow window = window(attempt.name());
+        window.roll(System.nanoTime());
+        if (!window.sample()) {
+            window.suppressed.increment();
+            suppressed.increment();
+            return;
+        }
+
+        final AttemptTime time = attempt.time();
+        final long costMills = time == null ? 0 : time.costTimeInMills();
+        final LogRecord record;
+        if (cause == null) {
+            record = new LogRecord(level, ATTEMPT_DONE);
+            record.setParameters(new Object[]{window.name, attempt.attempt(), costMills});
+        } else {
+            record = new LogRecord(level, ATTEMPT_FAILED);
+            record.setParameters(new Object[]{window.name, attempt.attempt(), costMills, cause});
+        }
+        sink.log(record);
+        logged.increment();
+    }
+
+    /**
+     * 立即输出所有窗口被抑制事件的汇总，并开始新的窗口
+     */
+    public void flush() {
+        final long now = System.nanoTime();
+        if (fixedWindow != null) {
+            fixedWindow.flush(now);
+            return;
+        }
+        for (LogWindow window : windows.values()) {
+            window.flush(now);
+        }
+    }
+
+    /**
+     * 已经输出的事件数
+     *
+     * @return 数量
+     */
+    public long logged() {
+        return logged.sum();
+    }
+
+    /**
+     * 被抑制的事件数
+     *
+     * @return 数量
+     */
+    public long suppressed() {
+        return suppressed.sum();
+    }
+
+    /**
+     * 获取事件对应的窗口
+     *
+     * @param name 策略名称
+     * @return 窗口
+     */
+    private LogWindow window(final String name) {
+        if (fixedWindow != null) {
+            return fixedWindow;
+        }
+        final String actualName = StringUtil.isEmpty(name) ? RetryConst.DEFAULT_NAME : name;
+        LogWindow window = windows.get(actualName);
+        if (window != null) {
+            return window;
+        }
+        return windows.computeIfAbsent(actualName, LogWindow::new);
+    }
+
+    /**
+     * 一个名称的采样和限流窗口
+     */
+    private final class LogWindow {
+
+        private final String name;
+
+        /**
+         * 事件序号，用于采样
+         */
+        private final AtomicLong sequence = new AtomicLong();
+
+        /**
+         * 当前窗口的开始时间
+         */
+        private final AtomicLong start = new AtomicLong(System.nanoTime());
+
+        /**
+         * 当前窗口已经输出的事件数
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * 当前窗口被抑制的事件数
+         */
+        private final LongAdder suppressed = new LongAdder();
+
+        private LogWindow(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 是否保留当前事件
+         *
+         * @return 是否保留
+         */
+        private boolean sample() {
+            if (sampleRate > 1 && sequence.getAndIncrement() % sampleRate != 0) {
+                return false;
+            }
+            return limitPerSecond == 0 || count.incrementAndGet() <= limitPerSecond;
+        }
+
+        /**
+         * 窗口结束时开始新的窗口，只有一个线程会成功
+         *
+         * @param now 当前时间
+         */
+        private void roll(final long now) {
+            final long windowStart = start.get();
+            if (now - windowStart < WINDOW_NANOS || !start.compareAndSet(windowStart, now)) {
+                return;
+            }
+            count.set(0);
+            summary(now - windowStart);
+        }
+
+        private void flush(final long now) {
+            final long windowStart = start.getAndSet(now);
+            count.set(0);
+            summary(now - windowStart);
+        }
+
+        /**
+         * 输出被抑制事件的汇总
+         *
+         * @param elapsedNanos 窗口时长
+         */
+        private void summary(final long elapsedNanos) {
+            final long suppressedCount = suppressed.sumThenReset();
+            if (suppressedCount <= 0 || !sink.isLoggable(Level.INFO)) {
+                return;
+            }
+            final LogRecord record = new LogRecord(Level.INFO, SUPPRESSED);
+            record.setParameters(new Object[]{name, suppressedCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)});
+            sink.log(record);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.poldroc.retry.core.support.log;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * 基于 java.util.logging 的日志输出
+ * 消息模板在 Handler 的 Formatter 中才会格式化
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class JulRetryLogSink implements RetryLogSink {
+
+    /**
+     * 默认的日志名称
+     */
+    public static final String DEFAULT_LOGGER_NAME = "com.poldroc.retry";
+
+    private final Logger logger;
+
+    public JulRetryLogSink() {
+        this(Logger.getLogger(DEFAULT_LOGGER_NAME));
+    }
+
+    public JulRetryLogSink(Logger logger) {
+        ArgUtil.notNull(logger, "logger");
+        this.logger = logger;
+    }
+
+    @Override
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    @Override
+    public void log(LogRecord record) {
+        record.setLoggerName(logger.getName());
+        logger.log(record);
+    }
+
+}
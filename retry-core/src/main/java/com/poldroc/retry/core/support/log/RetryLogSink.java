@@ -0,0 +1,32 @@
+package com.poldroc.retry.core.support.log;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * 重试日志输出
+ * 1. 日志记录只携带消息模板和参数，由输出端在真正写出时格式化
+ * 2. 实现类需要保证线程安全
+ *
+ * @author Poldroc
+ *  
+ */
+public interface RetryLogSink {
+
+    /**
+     * 指定级别是否需要输出
+     * 返回 false 时调用方不会创建日志记录
+     *
+     * @param level 日志级别
+     * @return 是否输出
+     */
+    boolean isLoggable(final Level level);
+
+    /**
+     * 输出日志
+     *
+     * @param record 日志记录
+     */
+    void log(final LogRecord record);
+
+}
@@ -0,0 +1,348 @@
+package com.poldroc.retry.core.support.metrics;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的耗时直方图
+ * <p>
+ * 1. 采用对数-线性分桶：每个 2 的幂区间再均分为 32 个子桶，相对误差约 3%，内存固定
+ * 2. 写入只有一次原子自增，可以在热路径上常开
+ * 3. 分位数基于定期刷新的快照计算，读取只需要一次二分查找
+ * 4. 可以设置衰减周期，每个周期所有计数减半，使分位数反映最近的耗时
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class LatencyHistogram {
+
+    /**
+     * 子桶的位数
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * 每个区间的子桶数量
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可记录的最大值的位数，超出的值记录在最后一个桶中
+     */
+    private static final int MAX_VALUE_BITS = 40;
+
+    /**
+     * 桶的数量
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * 默认的快照刷新周期
+     */
+    private static final long DEFAULT_REFRESH_NANOS = 100_000_000L;
+
+    /**
+     * 各个桶的计数
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 最大值
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 快照刷新周期（纳秒）
+     */
+    private final long refreshNanos;
+
+    /**
+     * 衰减周期（纳秒），小于等于 0 表示不衰减
+     */
+    private final long decayNanos;
+
+    /**
+     * 上一次衰减的时间
+     */
+    private final AtomicLong lastDecayNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * 正在刷新快照的标记，保证同一时刻只有一个线程刷新
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * 最近的快照
+     */
+    private volatile Snapshot snapshot = new Snapshot(new long[BUCKET_COUNT], 0, 0, System.nanoTime());
+
+    /**
+     * 累计的直方图，不衰减
+     */
+    public LatencyHistogram() {
+        this(0);
+    }
+
+    /**
+     * @param decayNanos 衰减周期（纳秒），小于等于 0 表示不衰减
+     */
+    public LatencyHistogram(long decayNanos) {
+        this(decayNanos, DEFAULT_REFRESH_NANOS);
+    }
+
+    /**
+     * @param decayNanos   衰减周期（纳秒），小于等于 0 表示不衰减
+     * @param refreshNanos 快照刷新周期（纳秒）
+     */
+    public LatencyHistogram(long decayNanos, long refreshNanos) {
+        this.decayNanos = decayNanos;
+        this.refreshNanos = refreshNanos;
+    }
+
+    /**
+     * 记录一个值
+     *
+     * @param value 值，小于 0 时按 0 处理
+     */
+    public void record(long value) {
+        long actual = value < 0 ? 0 : value;
+        buckets.incrementAndGet(indexOf(actual));
+        if (actual > max.get()) {
+            max.accumulateAndGet(actual, Math::max);
+        }
+    }
+
+    /**
+     * 根据最近的快照计算分位数
+     * 1. 快照最多落后一个刷新周期
+     * 2. 返回对应桶的上界，偏保守
+     *
+     * @param quantile 分位数，取值 [0, 1]
+     * @return 分位数的值，没有数据时返回 0
+     */
+    public long quantile(double quantile) {
+        return current().quantile(quantile);
+    }
+
+    /**
+     * 最近快照中的样本数量
+     *
+     * @return 样本数量
+     */
+    public long count() {
+        return current().count();
+    }
+
+    /**
+     * 记录过的最大值
+     *
+     * @return 最大值
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * 立刻生成一个新的快照
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        Snapshot fresh = takeSnapshot(System.nanoTime());
+        this.snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * 获取当前快照，过期时刷新
+     *
+     * @return 快照
+     */
+    private Snapshot current() {
+        Snapshot current = this.snapshot;
+        long now = System.nanoTime();
+        if (now - current.takenNanos < refreshNanos) {
+            return current;
+        }
+        // 只有一个线程负责刷新，其他线程继续使用旧的快照
+        if (!refreshing.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            decayIfNecessary(now);
+            Snapshot fresh = takeSnapshot(now);
+            this.snapshot = fresh;
+            return fresh;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * 到达衰减周期时，所有计数减半
+     *
+     * @param now 当前时间
+     */
+    private void decayIfNecessary(long now) {
+        if (decayNanos <= 0) {
+            return;
+        }
+        long last = lastDecayNanos.get();
+        if (now - last < decayNanos || !lastDecayNanos.compareAndSet(last, now)) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = buckets.get(i);
+            if (count > 0) {
+                buckets.addAndGet(i, -(count - (count >> 1)));
+            }
+        }
+    }
+
+    private Snapshot takeSnapshot(long now) {
+        long[] cumulative = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += Math.max(0, buckets.get(i));
+            cumulative[i] = total;
+        }
+        return new Snapshot(cumulative, total, max.get(), now);
+    }
+
+    /**
+     * 计算值所在的桶
+     *
+     * @param value 值
+     * @return 桶下标
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_VALUE_BITS) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶对应的最大值
+     *
+     * @param index 桶下标
+     * @return 桶的上界
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lower = ((long) (SUB_BUCKET_COUNT + subBucket)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * 直方图快照
+     * 不可变对象，保存累计计数，分位数查询为二分查找
+     */
+    public static final class Snapshot {
+
+        /**
+         * 累计计数
+         */
+        private final long[] cumulative;
+
+        /**
+         * 样本数量
+         */
+        private final long count;
+
+        /**
+         * 最大值
+         */
+        private final long max;
+
+        /**
+         * 生成时间
+         */
+        private final long takenNanos;
+
+        private Snapshot(long[] cumulative, long count, long max, long takenNanos) {
+            this.cumulative = cumulative;
+            this.count = count;
+            this.max = max;
+            this.takenNanos = takenNanos;
+        }
+
+        /**
+         * 样本数量
+         *
+         * @return 样本数量
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * 最大值
+         *
+         * @return 最大值
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * 计算分位数
+         *
+         * @param quantile 分位数，取值 [0, 1]
+         * @return 分位数的值，没有数据时返回 0
+         */
+        public long quantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            double actual = Math.min(1D, Math.max(0D, quantile));
+            long rank = Math.max(1L, (long) Math.ceil(actual * count));
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return Math.min(upperBoundOf(low), max);
+        }
+
+        /**
+         * 平均值的估计，按桶的上界计算
+         *
+         * @return 平均值
+         */
+        public double mean() {
+            if (count == 0) {
+                return 0D;
+            }
+            double sum = 0D;
+            long previous = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                long bucketCount = cumulative[i] - previous;
+                if (bucketCount > 0) {
+                    sum += (double) bucketCount * Math.min(upperBoundOf(i), max);
+                }
+                previous = cumulative[i];
+            }
+            return sum / count;
+        }
+    }
+}
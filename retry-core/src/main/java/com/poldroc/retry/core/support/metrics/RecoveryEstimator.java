@@ -0,0 +1,120 @@
+package com.poldroc.retry.core.support.metrics;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 恢复时间的流式估计
+ * 1. 恢复时间为第一次失败到最终成功的那次尝试开始之间的时间
+ * 2. 使用指数加权移动平均（EWMA）估计均值和平均绝对偏差，内存固定，越新的样本权重越大
+ * 3. 恢复事件远少于尝试次数，更新时使用 CAS 替换不可变的状态
+ * 4. 样本包含重试策略自己选择的等待时间，只是真实恢复时间的上界；用估计决定等待时间时会学习到自己的输出，
+ * 需要向更短的等待探索才能下降，见 {@link com.poldroc.retry.core.support.wait.AdaptiveRetryWait}
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RecoveryEstimator {
+
+    /**
+     * 新样本的权重
+     */
+    private final double alpha;
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+
+    /**
+     * @param alpha 新样本的权重，范围 (0, 1]
+     */
+    public RecoveryEstimator(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+    }
+
+    /**
+     * 记录一次恢复
+     *
+     * @param recoveryMills 恢复时间（毫秒）
+     */
+    public void record(long recoveryMills) {
+        final double sample = Math.max(0, recoveryMills);
+        while (true) {
+            State current = state.get();
+            State next;
+            if (current.samples == 0) {
+                next = new State(1, sample, sample / 2);
+            } else {
+                double mean = current.mean + alpha * (sample - current.mean);
+                double deviation = current.deviation + alpha * (Math.abs(sample - current.mean) - current.deviation);
+                next = new State(current.samples + 1, mean, deviation);
+            }
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 恢复已经保存的估计，用于重启之后的预热
+     *
+     * @param samples   样本数量
+     * @param mean      均值（毫秒）
+     * @param deviation 平均绝对偏差（毫秒）
+     */
+    public void restore(long samples, double mean, double deviation) {
+        if (samples < 0 || mean < 0 || deviation < 0) {
+            throw new IllegalArgumentException("samples, mean and deviation must be >= 0");
+        }
+        state.set(new State(samples, mean, deviation));
+    }
+
+    /**
+     * 样本数量
+     *
+     * @return 数量
+     */
+    public long samples() {
+        return state.get().samples;
+    }
+
+    /**
+     * 恢复时间的均值
+     *
+     * @return 毫秒，没有样本时为 0
+     */
+    public double meanMills() {
+        return state.get().mean;
+    }
+
+    /**
+     * 恢复时间的平均绝对偏差
+     *
+     * @return 毫秒，没有样本时为 0
+     */
+    public double deviationMills() {
+        return state.get().deviation;
+    }
+
+    /**
+     * 不可变的估计状态
+     */
+    private static final class State {
+
+        private final long samples;
+
+        private final double mean;
+
+        private final double deviation;
+
+        private State(long samples, double mean, double deviation) {
+            this.samples = samples;
+            this.mean = mean;
+            this.deviation = deviation;
+        }
+    }
+
+}
@@ -0,0 +1,470 @@
+package com.poldroc.retry.core.support.metrics;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.constant.RetryConst;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个重试策略的统计信息
+ * 1. 按照策略名称区分，通过 {@link RetryMetricsRegistry} 获取
+ * 2. 所有的更新都是无锁的：计数使用 {@link LongAdder}，耗时使用固定内存的 {@link LatencyHistogram}
+ * 3. 耗时的单位均为微秒
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RetryMetrics {
+
+    /**
+     * 最近耗时的衰减周期
+     */
+    private static final long RECENT_DECAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 恢复时间估计中新样本的权重
+     */
+    private static final double RECOVERY_ALPHA = 0.2;
+
+    /**
+     * 策略名称
+     */
+    private final String name;
+
+    /**
+     * 调用次数
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * 尝试次数，包含第一次执行和对冲
+     */
+    private final LongAdder attempts = new LongAdder();
+
+    /**
+     * 按照尝试次数统计的到达该次尝试的调用
+     * 下标为尝试次数 - 1，最后一个元素包含所有更大的尝试次数
+     */
+    private final LongAdder[] reached = newAdders(RetryConst.MAX_TRACKED_ATTEMPTS);
+
+    /**
+     * 按照成功时的尝试次数统计的成功调用
+     * 下标为尝试次数 - 1，最后一个元素包含所有更大的尝试次数
+     */
+    private final LongAdder[] successes = newAdders(RetryConst.MAX_TRACKED_ATTEMPTS);
+
+    /**
+     * 用尽重试的调用次数，包含失败结果缓存直接恢复的调用
+     */
+    private final LongAdder exhaustions = new LongAdder();
+
+    /**
+     * 触发恢复策略的次数，包含失败结果缓存直接恢复的调用
+     */
+    private final LongAdder recovers = new LongAdder();
+
+    /**
+     * 重试等待的总时间（纳秒）
+     */
+    private final LongAdder sleepNanos = new LongAdder();
+
+    /**
+     * 尝试消耗的 CPU 时间，只统计开启了资源统计的尝试
+     */
+    private final LongAdder cpuNanos = new LongAdder();
+
+    /**
+     * 尝试分配的内存
+     */
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * 重试（第二次及之后的尝试）消耗的 CPU 时间
+     */
+    private final LongAdder retryCpuNanos = new LongAdder();
+
+    /**
+     * 重试（第二次及之后的尝试）分配的内存
+     */
+    private final LongAdder retryAllocatedBytes = new LongAdder();
+
+    /**
+     * 最外层（没有嵌套在其他重试中）的调用次数
+     */
+    private final LongAdder rootCalls = new LongAdder();
+
+    /**
+     * 最外层调用发往下游的尝试次数，包含嵌套重试产生的尝试
+     */
+    private final LongAdder downstreamAttempts = new LongAdder();
+
+    /**
+     * 嵌套在其他重试中的调用次数
+     */
+    private final LongAdder nestedCalls = new LongAdder();
+
+    /**
+     * 被嵌套重试限制拒绝的重试次数
+     */
+    private final LongAdder guardedRetries = new LongAdder();
+
+    /**
+     * 交给后台延后执行的调用次数
+     */
+    private final LongAdder deferrals = new LongAdder();
+
+    /**
+     * 最近的单次尝试耗时
+     * 定期衰减，用于自适应超时等需要实时估计的场景
+     */
+    private final LatencyHistogram recentLatency = new LatencyHistogram(RECENT_DECAY_NANOS);
+
+    /**
+     * 累计的单次尝试耗时
+     */
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+
+    /**
+     * 累计的调用耗时，包含重试等待的时间
+     */
+    private final LatencyHistogram callLatency = new LatencyHistogram();
+
+    /**
+     * 重试之后成功的调用的恢复时间
+     */
+    private final RecoveryEstimator recovery = new RecoveryEstimator(RECOVERY_ALPHA);
+
+    public RetryMetrics(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public LatencyHistogram recentLatency() {
+        return recentLatency;
+    }
+
+    public LatencyHistogram attemptLatency() {
+        return attemptLatency;
+    }
+
+    public LatencyHistogram callLatency() {
+        return callLatency;
+    }
+
+    public RecoveryEstimator recovery() {
+        return recovery;
+    }
+
+    /**
+     * 记录一次尝试
+     *
+     * @param costNanos 尝试耗时（纳秒）
+     */
+    public void recordAttempt(long costNanos) {
+        long costMicros = TimeUnit.NANOSECONDS.toMicros(costNanos);
+        attempts.increment();
+        recentLatency.record(costMicros);
+        attemptLatency.record(costMicros);
+    }
+
+    /**
+     * 记录一次调用到达第 attempt 次尝试，不包含对冲
+     *
+     * @param attempt 尝试次数
+     */
+    public void recordReached(int attempt) {
+        reached[Math.min(Math.max(attempt, 1), reached.length) - 1].increment();
+    }
+
+    /**
+     * 记录一次尝试的资源消耗
+     *
+     * @param attempt        尝试次数
+     * @param cpuNanos       CPU 时间（纳秒），小于 0 表示不支持
+     * @param allocatedBytes 分配的内存（字节），小于 0 表示不支持
+     */
+    public void recordResource(int attempt, long cpuNanos, long allocatedBytes) {
+        if (cpuNanos >= 0) {
+            this.cpuNanos.add(cpuNanos);
+            if (attempt > 1) {
+                this.retryCpuNanos.add(cpuNanos);
+            }
+        }
+        if (allocatedBytes >= 0) {
+            this.allocatedBytes.add(allocatedBytes);
+            if (attempt > 1) {
+                this.retryAllocatedBytes.add(allocatedBytes);
+            }
+        }
+    }
+
+    /**
+     * 记录一次最外层的调用
+     *
+     * @param downstreamAttempts 整个调用链发往下游的尝试次数
+     */
+    public void recordRootCall(int downstreamAttempts) {
+        rootCalls.increment();
+        this.downstreamAttempts.add(downstreamAttempts);
+    }
+
+    /**
+     * 记录一次嵌套在其他重试中的调用
+     */
+    public void recordNestedCall() {
+        nestedCalls.increment();
+    }
+
+    /**
+     * 记录一次被嵌套重试限制拒绝的重试
+     */
+    public void recordGuardedRetry() {
+        guardedRetries.increment();
+    }
+
+    /**
+     * 记录一次交给后台延后执行的调用
+     */
+    public void recordDeferred() {
+        deferrals.increment();
+    }
+
+    /**
+     * 记录一次重试等待
+     *
+     * @param sleepNanos 等待时间（纳秒）
+     */
+    public void recordSleep(long sleepNanos) {
+        this.sleepNanos.add(sleepNanos);
+    }
+
+    /**
+     * 记录一次触发恢复策略
+     */
+    public void recordRecover() {
+        recovers.increment();
+    }
+
+    /**
+     * 记录一次重试之后成功的调用
+     *
+     * @param recoveryNanos 第一次失败结束到成功的尝试开始的时间（纳秒）
+     */
+    public void recordRecovery(long recoveryNanos) {
+        recovery.record(TimeUnit.NANOSECONDS.toMillis(recoveryNanos));
+    }
+
+    /**
+     * 记录一次调用结束
+     *
+     * @param attempt   最后一次尝试的次数
+     * @param success   是否成功
+     * @param costNanos 调用耗时（纳秒）
+     */
+    public void recordCall(int attempt, boolean success, long costNanos) {
+        calls.increment();
+        if (success) {
+            successes[Math.min(Math.max(attempt, 1), successes.length) - 1].increment();
+        } else {
+            exhaustions.increment();
+        }
+        callLatency.record(TimeUnit.NANOSECONDS.toMicros(costNanos));
+    }
+
+    /**
+     * 调用次数
+     *
+     * @return 次数
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * 尝试次数
+     *
+     * @return 次数
+     */
+    public long attempts() {
+        return attempts.sum();
+    }
+
+    /**
+     * 成功的调用次数
+     *
+     * @return 次数
+     */
+    public long successes() {
+        long total = 0;
+        for (LongAdder adder : successes) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    /**
+     * 在第 attempt 次尝试成功的调用次数
+     * 大于等于 {@link RetryConst#MAX_TRACKED_ATTEMPTS} 的尝试次数合并统计
+     *
+     * @param attempt 尝试次数，从 1 开始
+     * @return 次数
+     */
+    public long successes(int attempt) {
+        if (attempt < 1) {
+            return 0;
+        }
+        return successes[Math.min(attempt, successes.length) - 1].sum();
+    }
+
+    /**
+     * 到达第 attempt 次尝试的调用次数
+     * 大于等于 {@link RetryConst#MAX_TRACKED_ATTEMPTS} 的尝试次数合并统计
+     *
+     * @param attempt 尝试次数，从 1 开始
+     * @return 次数
+     */
+    public long reached(int attempt) {
+        if (attempt < 1) {
+            return 0;
+        }
+        return reached[Math.min(attempt, reached.length) - 1].sum();
+    }
+
+    /**
+     * 按照尝试次数统计的成功调用
+     *
+     * @return 下标为尝试次数 - 1
+     */
+    public long[] successDistribution() {
+        long[] distribution = new long[successes.length];
+        for (int i = 0; i < successes.length; i++) {
+            distribution[i] = successes[i].sum();
+        }
+        return distribution;
+    }
+
+    /**
+     * 用尽重试的调用次数
+     *
+     * @return 次数
+     */
+    public long exhaustions() {
+        return exhaustions.sum();
+    }
+
+    /**
+     * 触发恢复策略的次数
+     *
+     * @return 次数
+     */
+    public long recovers() {
+        return recovers.sum();
+    }
+
+    /**
+     * 重试等待的总时间
+     *
+     * @return 毫秒
+     */
+    public long sleepMills() {
+        return TimeUnit.NANOSECONDS.toMillis(sleepNanos.sum());
+    }
+
+    /**
+     * 尝试消耗的 CPU 时间
+     *
+     * @return CPU 时间（纳秒）
+     */
+    public long cpuTimeNanos() {
+        return cpuNanos.sum();
+    }
+
+    /**
+     * 尝试分配的内存
+     *
+     * @return 字节数
+     */
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * 重试消耗的 CPU 时间，即第一次尝试失败之后重复执行的代价
+     *
+     * @return CPU 时间（纳秒）
+     */
+    public long retryCpuTimeNanos() {
+        return retryCpuNanos.sum();
+    }
+
+    /**
+     * 重试分配的内存
+     *
+     * @return 字节数
+     */
+    public long retryAllocatedBytes() {
+        return retryAllocatedBytes.sum();
+    }
+
+    /**
+     * 用尽重试的比例
+     *
+     * @return 比例，没有调用时为 0
+     */
+    public double exhaustionRate() {
+        long total = calls();
+        return total == 0 ? 0D : (double) exhaustions() / total;
+    }
+
+    /**
+     * 嵌套在其他重试中的调用次数
+     *
+     * @return 次数
+     */
+    public long nestedCalls() {
+        return nestedCalls.sum();
+    }
+
+    /**
+     * 被嵌套重试限制拒绝的重试次数
+     *
+     * @return 次数
+     */
+    public long guardedRetries() {
+        return guardedRetries.sum();
+    }
+
+    /**
+     * 交给后台延后执行的调用次数
+     *
+     * @return 次数
+     */
+    public long deferrals() {
+        return deferrals.sum();
+    }
+
+    /**
+     * 重试放大倍数，即每次最外层调用平均发往下游的尝试次数
+     * 多层嵌套重试时会远大于单层的尝试次数
+     *
+     * @return 放大倍数
+     */
+    public double amplification() {
+        long total = rootCalls.sum();
+        return total == 0 ? 0D : (double) downstreamAttempts.sum() / total;
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.poldroc.retry.core.support.metrics;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 重试统计信息注册中心
+ * 1. 每个策略名称对应一个 {@link RetryMetrics}，第一次使用时创建
+ * 2. 没有名称的重试统一归到 {@link RetryConst#DEFAULT_NAME}
+ * 3. 名称应该是有限的（如方法签名），不要使用请求参数作为名称
+ * 4. 可以监听统计信息的创建，用于注册到外部的监控系统
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RetryMetricsRegistry {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static RetryMetricsRegistry getInstance() {
+        return InstanceFactory.getInstance().singleton(RetryMetricsRegistry.class);
+    }
+
+    /**
+     * 策略名称和统计信息的映射
+     */
+    private final ConcurrentMap<String, RetryMetrics> metricsMap = new ConcurrentHashMap<>();
+
+    /**
+     * 统计信息创建的监听器
+     */
+    private final List<Consumer<RetryMetrics>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 获取策略的统计信息，不存在时创建
+     *
+     * @param name 策略名称
+     * @return 统计信息
+     */
+    public RetryMetrics metrics(String name) {
+        String actualName = StringUtil.isEmpty(name) ? RetryConst.DEFAULT_NAME : name;
+        RetryMetrics metrics = metricsMap.get(actualName);
+        if (metrics != null) {
+            return metrics;
+        }
+        RetryMetrics created = new RetryMetrics(actualName);
+        RetryMetrics existing = metricsMap.putIfAbsent(actualName, created);
+        if (existing != null) {
+            return existing;
+        }
+        for (Consumer<RetryMetrics> listener : listeners) {
+            listener.accept(created);
+        }
+        return created;
+    }
+
+    /**
+     * 添加统计信息创建的监听器
+     * 1. 已经存在的统计信息会立刻通知
+     * 2. 并发创建时同一个统计信息可能通知多次，监听器需要保证幂等
+     *
+     * @param listener 监听器
+     */
+    public void addListener(Consumer<RetryMetrics> listener) {
+        listeners.add(listener);
+        for (RetryMetrics metrics : metricsMap.values()) {
+            listener.accept(metrics);
+        }
+    }
+
+    /**
+     * 移除统计信息创建的监听器
+     *
+     * @param listener 监听器
+     */
+    public void removeListener(Consumer<RetryMetrics> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 所有的统计信息
+     *
+     * @return 统计信息
+     */
+    public Collection<RetryMetrics> all() {
+        return Collections.unmodifiableCollection(metricsMap.values());
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.poldroc.retry.core.support.probe;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.probe.RetryProbe;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 组合多个探针
+ * 令牌为每个探针令牌组成的数组，所有探针都不观测时返回 null
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class CompositeRetryProbe implements RetryProbe {
+
+    private final RetryProbe[] probes;
+
+    public CompositeRetryProbe(RetryProbe... probes) {
+        this.probes = probes.clone();
+    }
+
+    @Override
+    public Object callStart(RetryContext<?> context) {
+        Object[] tokens = null;
+        for (int i = 0; i < probes.length; i++) {
+            Object token = probes[i].callStart(context);
+            tokens = collect(tokens, i, token);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void callEnd(Object token, RetryContext<?> context, int attempts, Throwable cause) {
+        Object[] tokens = (Object[]) token;
+        for (int i = probes.length - 1; i >= 0; i--) {
+            if (tokens[i] != null) {
+                probes[i].callEnd(tokens[i], context, attempts, cause);
+            }
+        }
+    }
+
+    @Override
+    public Object attemptStart(RetryContext<?> context, int attempt) {
+        Object[] tokens = null;
+        for (int i = 0; i < probes.length; i++) {
+            Object token = probes[i].attemptStart(context, attempt);
+            tokens = collect(tokens, i, token);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void attemptEnd(Object token, RetryContext<?> context, int attempt, Throwable cause) {
+        Object[] tokens = (Object[]) token;
+        for (int i = probes.length - 1; i >= 0; i--) {
+            if (tokens[i] != null) {
+                probes[i].attemptEnd(tokens[i], context, attempt, cause);
+            }
+        }
+    }
+
+    @Override
+    public Object sleepStart(RetryContext<?> context, int attempt, long waitMills) {
+        Object[] tokens = null;
+        for (int i = 0; i < probes.length; i++) {
+            Object token = probes[i].sleepStart(context, attempt, waitMills);
+            tokens = collect(tokens, i, token);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void sleepEnd(Object token) {
+        Object[] tokens = (Object[]) token;
+        for (int i = probes.length - 1; i >= 0; i--) {
+            if (tokens[i] != null) {
+                probes[i].sleepEnd(tokens[i]);
+            }
+        }
+    }
+
+    @Override
+    public Object recoverStart(RetryContext<?> context, int attempt, Throwable cause) {
+        Object[] tokens = null;
+        for (int i = 0; i < probes.length; i++) {
+            Object token = probes[i].recoverStart(context, attempt, cause);
+            tokens = collect(tokens, i, token);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void recoverEnd(Object token) {
+        Object[] tokens = (Object[]) token;
+        for (int i = probes.length - 1; i >= 0; i--) {
+            if (tokens[i] != null) {
+                probes[i].recoverEnd(tokens[i]);
+            }
+        }
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        Callable<T> wrapped = callable;
+        for (RetryProbe probe : probes) {
+            wrapped = probe.wrap(wrapped);
+        }
+        return wrapped;
+    }
+
+    /**
+     * 只在有探针观测时创建令牌数组
+     */
+    private Object[] collect(Object[] tokens, int index, Object token) {
+        if (token == null) {
+            return tokens;
+        }
+        Object[] actual = tokens == null ? new Object[probes.length] : tokens;
+        actual[index] = token;
+        return actual;
+    }
+
+}
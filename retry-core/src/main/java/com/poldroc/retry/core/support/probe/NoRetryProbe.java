@@ -0,0 +1,68 @@
+package com.poldroc.retry.core.support.probe;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.probe.RetryProbe;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 不进行任何观测
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class NoRetryProbe implements RetryProbe {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryProbe getInstance() {
+        return InstanceFactory.getInstance().singleton(NoRetryProbe.class);
+    }
+
+    @Override
+    public Object callStart(RetryContext<?> context) {
+        return null;
+    }
+
+    @Override
+    public void callEnd(Object token, RetryContext<?> context, int attempts, Throwable cause) {
+    }
+
+    @Override
+    public Object attemptStart(RetryContext<?> context, int attempt) {
+        return null;
+    }
+
+    @Override
+    public void attemptEnd(Object token, RetryContext<?> context, int attempt, Throwable cause) {
+    }
+
+    @Override
+    public Object sleepStart(RetryContext<?> context, int attempt, long waitMills) {
+        return null;
+    }
+
+    @Override
+    public void sleepEnd(Object token) {
+    }
+
+    @Override
+    public Object recoverStart(RetryContext<?> context, int attempt, Throwable cause) {
+        return null;
+    }
+
+    @Override
+    public void recoverEnd(Object token) {
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return callable;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.poldroc.retry.core.support.probe;
+
+import com.poldroc.retry.api.support.probe.RetryProbe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 探针工具类
+ * 1. 第一次使用时通过 {@link ServiceLoader} 加载 classpath 中的 {@link RetryProbe}
+ * 2. 也可以手动注册，注册之后对新的调用生效
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryProbes {
+
+    private RetryProbes() {
+    }
+
+    /**
+     * 手动注册的探针
+     */
+    private static final List<RetryProbe> REGISTERED = new ArrayList<>();
+
+    /**
+     * 当前生效的探针
+     */
+    private static volatile RetryProbe probe;
+
+    /**
+     * 获取当前生效的探针
+     * @return 探针，没有时为 {@link NoRetryProbe}
+     */
+    public static RetryProbe probe() {
+        RetryProbe current = probe;
+        if (current != null) {
+            return current;
+        }
+        synchronized (RetryProbes.class) {
+            if (probe == null) {
+                probe = build();
+            }
+            return probe;
+        }
+    }
+
+    /**
+     * 注册探针
+     * @param retryProbe 探针
+     */
+    public static synchronized void register(final RetryProbe retryProbe) {
+        if (retryProbe == null) {
+            throw new IllegalArgumentException("retryProbe can not be null!");
+        }
+        REGISTERED.add(retryProbe);
+        probe = build();
+    }
+
+    /**
+     * 移除注册的探针
+     * @param retryProbe 探针
+     */
+    public static synchronized void unregister(final RetryProbe retryProbe) {
+        if (REGISTERED.remove(retryProbe)) {
+            probe = build();
+        }
+    }
+
+    private static RetryProbe build() {
+        List<RetryProbe> probes = new ArrayList<>();
+        for (RetryProbe loaded : ServiceLoader.load(RetryProbe.class, RetryProbes.class.getClassLoader())) {
+            probes.add(loaded);
+        }
+        probes.addAll(REGISTERED);
+        if (probes.isEmpty()) {
+            return NoRetryProbe.getInstance();
+        }
+        if (probes.size() == 1) {
+            return probes.get(0);
+        }
+        return new CompositeRetryProbe(probes.toArray(new RetryProbe[0]));
+    }
+
+}
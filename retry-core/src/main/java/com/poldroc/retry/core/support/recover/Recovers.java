@@ -1,8 +1,12 @@
 package com.poldroc.retry.core.support.recover;
 
 import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.core.support.deadletter.DeadLetterLog;
+import com.poldroc.retry.core.support.deadletter.DeadLetterRecover;
+import com.poldroc.retry.core.support.deadletter.DeadLetterSerializer;
+
 /**
- * 没有任何恢复操作
+ * 恢复操作工具类
  * @author Poldroc
  *  
  */
@@ -19,4 +23,25 @@ public final class Recovers {
         return NoRecover.getInstance();
     }
 
+    /**
+     * 把重试耗尽的调用写入死信日志，使用 JDK 序列化参数
+     * @param name 重试策略名称
+     * @param log 死信日志
+     * @return recover 实例
+     */
+    public static Recover deadLetter(String name, DeadLetterLog log) {
+        return new DeadLetterRecover(name, log);
+    }
+
+    /**
+     * 把重试耗尽的调用写入死信日志
+     * @param name 重试策略名称
+     * @param log 死信日志
+     * @param serializer 参数序列化
+     * @return recover 实例
+     */
+    public static Recover deadLetter(String name, DeadLetterLog log, DeadLetterSerializer serializer) {
+        return new DeadLetterRecover(name, log, serializer);
+    }
+
 }
@@ -0,0 +1,83 @@
+package com.poldroc.retry.core.support.resource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 当前线程的资源消耗
+ * 1. CPU 时间来自 {@link ThreadMXBean#getCurrentThreadCpuTime()}
+ * 2. 分配的内存来自 {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}，只在 HotSpot 等支持的虚拟机上可用
+ * 3. 不支持或者被关闭时返回 -1
+ *
+ * @author Poldroc
+ *  
+ */
+public final class ThreadResources {
+
+    private ThreadResources() {
+    }
+
+    /**
+     * 不支持时的返回值
+     */
+    public static final long UNSUPPORTED = -1L;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = allocationMXBean();
+
+    /**
+     * 当前线程的 CPU 时间
+     *
+     * @return CPU 时间（纳秒），不支持时返回 -1
+     */
+    public static long cpuTimeNanos() {
+        if (!CPU_TIME_SUPPORTED) {
+            return UNSUPPORTED;
+        }
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * 当前线程累计分配的内存
+     *
+     * @return 分配的字节数，不支持时返回 -1
+     */
+    public static long allocatedBytes() {
+        if (ALLOCATION_MX_BEAN == null) {
+            return UNSUPPORTED;
+        }
+        return ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 计算两次读数的差值
+     *
+     * @param start 开始时的读数
+     * @param end   结束时的读数
+     * @return 差值，任意一次不支持时返回 -1
+     */
+    public static long delta(long start, long end) {
+        if (start < 0 || end < 0) {
+            return UNSUPPORTED;
+        }
+        return end - start;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMXBean() {
+        try {
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError e) {
+            // 非 HotSpot 虚拟机没有 com.sun.management
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,236 @@
+package com.poldroc.retry.core.support.scope;
+
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 重试作用域
+ * 1. 每次重试调用进入一个作用域，通过线程变量记录，嵌套的调用可以找到外层的作用域
+ * 2. 交给其他线程执行的方法需要通过 {@link #wrap(Callable)} 传递作用域
+ * 3. 最外层的作用域统计整个调用链的尝试次数，其中没有再嵌套重试的尝试即实际发往下游的调用
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public final class RetryScope {
+
+    /**
+     * 不限制重试次数
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<RetryScope> CURRENT = new ThreadLocal<>();
+
+    private static final AtomicIntegerFieldUpdater<RetryScope> RETRIES_LEFT =
+            AtomicIntegerFieldUpdater.newUpdater(RetryScope.class, "retriesLeft");
+
+    private static final AtomicIntegerFieldUpdater<RetryScope> TOTAL_ATTEMPTS =
+            AtomicIntegerFieldUpdater.newUpdater(RetryScope.class, "totalAttempts");
+
+    private static final AtomicIntegerFieldUpdater<RetryScope> LEAF_ATTEMPTS =
+            AtomicIntegerFieldUpdater.newUpdater(RetryScope.class, "leafAttempts");
+
+    /**
+     * 外层的作用域，最外层为 null；退出时恢复为当前线程的作用域
+     */
+    private final RetryScope parent;
+
+    /**
+     * 最外层的作用域
+     */
+    private final RetryScope root;
+
+    /**
+     * 扣减重试次数的作用域，共享模式下为外层的作用域
+     */
+    private final RetryScope budgetOwner;
+
+    private final NestedRetryMode mode;
+
+    /**
+     * 限制模式下整个调用链的总尝试次数
+     */
+    private final int cap;
+
+    /**
+     * 剩余的重试次数，只在 budgetOwner 上使用
+     */
+    private volatile int retriesLeft;
+
+    /**
+     * 整个调用链的尝试次数，只在 root 上使用
+     */
+    private volatile int totalAttempts;
+
+    /**
+     * 整个调用链发往下游的尝试次数，只在 root 上使用
+     */
+    private volatile int leafAttempts;
+
+    /**
+     * 当前尝试中是否进入了嵌套的重试
+     */
+    private volatile boolean childEntered;
+
+    private RetryScope(RetryScope parent, NestedRetryMode mode, int cap, int maxRetries) {
+        this.parent = parent;
+        this.root = parent == null ? this : parent.root;
+        this.mode = mode;
+        this.cap = cap;
+        this.budgetOwner = parent != null && mode == NestedRetryMode.SHARE ? parent.budgetOwner : this;
+        this.retriesLeft = maxRetries;
+    }
+
+    /**
+     * 当前线程所在的作用域
+     *
+     * @return 作用域，不在重试调用中时为 null
+     */
+    public static RetryScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 进入新的作用域
+     *
+     * @param mode       嵌套重试模式
+     * @param cap        限制模式下整个调用链的总尝试次数
+     * @param maxRetries 自身最多的重试次数，不确定时为 {@link #UNLIMITED}
+     * @return 作用域
+     */
+    public static RetryScope enter(final NestedRetryMode mode, final int cap, final int maxRetries) {
+        final RetryScope current = CURRENT.get();
+        final RetryScope scope = new RetryScope(current, mode == null ? NestedRetryMode.ALLOW : mode, cap, maxRetries);
+        if (current != null) {
+            current.childEntered = true;
+        }
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 退出作用域，恢复之前的作用域
+     */
+    public void exit() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    /**
+     * 包装交给其他线程执行的方法，执行期间使用当前的作用域
+     *
+     * @param callable 待执行的方法
+     * @param <T>      泛型
+     * @return 包装之后的方法
+     */
+    public static <T> Callable<T> wrap(final Callable<T> callable) {
+        final RetryScope scope = CURRENT.get();
+        if (scope == null) {
+            return callable;
+        }
+        return () -> {
+            final RetryScope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return callable.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 一次尝试开始
+     */
+    public void attemptStart() {
+        childEntered = false;
+        TOTAL_ATTEMPTS.incrementAndGet(root);
+    }
+
+    /**
+     * 一次尝试结束，没有嵌套重试的尝试计为发往下游的调用
+     */
+    public void attemptEnd() {
+        if (!childEntered) {
+            LEAF_ATTEMPTS.incrementAndGet(root);
+        }
+    }
+
+    /**
+     * 是否允许再重试一次，允许时扣减重试次数
+     *
+     * @return 是否允许
+     */
+    public boolean tryRetry() {
+        if (parent != null) {
+            if (mode == NestedRetryMode.DISABLE) {
+                return false;
+            }
+            if (mode == NestedRetryMode.CAP && root.totalAttempts >= cap) {
+                return false;
+            }
+        }
+        final RetryScope owner = budgetOwner;
+        while (true) {
+            final int left = owner.retriesLeft;
+            if (left <= 0) {
+                return false;
+            }
+            if (left == UNLIMITED || RETRIES_LEFT.compareAndSet(owner, left, left - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 是否嵌套在另一个重试调用中
+     *
+     * @return 是否嵌套
+     */
+    public boolean nested() {
+        return parent != null;
+    }
+
+    /**
+     * 嵌套的深度，最外层为 0
+     *
+     * @return 深度
+     */
+    public int depth() {
+        int depth = 0;
+        for (RetryScope scope = parent; scope != null; scope = scope.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * 整个调用链的尝试次数
+     *
+     * @return 尝试次数
+     */
+    public int totalAttempts() {
+        return root.totalAttempts;
+    }
+
+    /**
+     * 整个调用链发往下游的尝试次数
+     *
+     * @return 尝试次数
+     */
+    public int leafAttempts() {
+        return root.leafAttempts;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.poldroc.retry.core.support.stop;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.stop.RetryStop;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.core.constant.RetryStopConst;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 根据成功分布自动调整最大尝试次数的终止策略
+ * <p>
+ * 1. 统计来自 {@link com.poldroc.retry.core.support.metrics.RetryMetrics}，按策略名称区分，name 必须指定并且需要和重试的名称一致
+ * 2. 调整规则见 {@link AttemptLimit}，同一个策略的多个实例共享同一个上限，参数必须一致
+ * 3. 当前的上限通过 {@link AttemptLimitRegistry} 获取，并导出到 JMX 和 Micrometer
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AdaptiveMaxAttemptRetryStop implements RetryStop {
+
+    private final String name;
+
+    private final int minAttempt;
+
+    private final int maxAttempt;
+
+    private final double minSuccessRate;
+
+    private final long intervalNanos;
+
+    public AdaptiveMaxAttemptRetryStop(String name, int minAttempt, int maxAttempt) {
+        this(name, minAttempt, maxAttempt, RetryStopConst.DEFAULT_MIN_SUCCESS_RATE,
+                RetryStopConst.DEFAULT_ADJUST_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param name           策略名称
+     * @param minAttempt     最小的最大尝试次数
+     * @param maxAttempt     最大的最大尝试次数，不超过 {@link RetryConst#MAX_TRACKED_ATTEMPTS}
+     * @param minSuccessRate 最后一次允许的尝试的最低成功率
+     * @param interval       调整间隔
+     * @param unit           时间单位
+     */
+    public AdaptiveMaxAttemptRetryStop(String name, int minAttempt, int maxAttempt,
+                                       double minSuccessRate, long interval, TimeUnit unit) {
+        if (StringUtil.isEmpty(name)) {
+            throw new IllegalArgumentException("Retry name is required when adaptive max attempt is enabled");
+        }
+        if (minAttempt <= 0) {
+            throw new IllegalArgumentException("MinAttempt must be positive");
+        }
+        if (maxAttempt < minAttempt) {
+            throw new IllegalArgumentException("MaxAttempt must be >= minAttempt");
+        }
+        if (maxAttempt > RetryConst.MAX_TRACKED_ATTEMPTS) {
+            throw new IllegalArgumentException("MaxAttempt must be <= " + RetryConst.MAX_TRACKED_ATTEMPTS);
+        }
+        if (minSuccessRate < 0 || minSuccessRate > 1) {
+            throw new IllegalArgumentException("MinSuccessRate must be in [0, 1]");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.name = name;
+        this.minAttempt = minAttempt;
+        this.maxAttempt = maxAttempt;
+        this.minSuccessRate = minSuccessRate;
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * 当前的最大尝试次数
+     * @return 最大尝试次数
+     */
+    public int maxAttempt() {
+        return limit().current();
+    }
+
+    @Override
+    public boolean stop(RetryAttempt attempt) {
+        AttemptLimit limit = limit();
+        limit.adjust(System.nanoTime());
+        return attempt.attempt() >= limit.current();
+    }
+
+    private AttemptLimit limit() {
+        return AttemptLimitRegistry.getInstance().limit(name, minAttempt, maxAttempt, minSuccessRate, intervalNanos);
+    }
+
+}
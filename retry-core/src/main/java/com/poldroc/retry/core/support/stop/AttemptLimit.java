@@ -0,0 +1,179 @@
+package com.poldroc.retry.core.support.stop;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.constant.RetryStopConst;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 根据成功分布调整的最大尝试次数
+ * <p>
+ * 1. 每个统计窗口计算最后一次允许的尝试（第 current 次）的成功率：在第 current 次成功的调用 / 到达第 current 次的调用
+ * 2. 成功率低于 minSuccessRate 时减一，说明最后一次尝试基本只是增加下游的压力
+ * 3. 仍有调用在第 current 次失败，且更大的次数最近没有被证明无效时加一；
+ * 降低之后经过 {@link RetryStopConst#PROBE_WINDOWS} 个窗口会再次尝试提高，之后的尝试恢复有效时上限随之回升
+ * 4. 到达第 current 次的调用不足 {@link RetryStopConst#MIN_SAMPLES} 时继续累积，不做调整
+ * 5. 范围为 [minAttempt, maxAttempt]，初始为 maxAttempt
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AttemptLimit {
+
+    private final RetryMetrics metrics;
+
+    private final int minAttempt;
+
+    private final int maxAttempt;
+
+    private final double minSuccessRate;
+
+    private final long intervalNanos;
+
+    /**
+     * 当前的最大尝试次数
+     */
+    private volatile int current;
+
+    /**
+     * 下一次调整的时间点
+     */
+    private volatile long nextAdjustNanos;
+
+    /**
+     * 窗口开始时的累计统计，下标为尝试次数
+     */
+    private final long[] windowReached;
+
+    private final long[] windowSuccesses;
+
+    /**
+     * 尝试次数最近一次被证明无效的窗口序号，下标为尝试次数
+     */
+    private final long[] uselessWindow;
+
+    /**
+     * 已经完成的窗口数量
+     */
+    private long windows;
+
+    private final LongAdder lowered = new LongAdder();
+
+    private final LongAdder raised = new LongAdder();
+
+    /**
+     * @param metrics        策略的统计信息
+     * @param minAttempt     最小的最大尝试次数
+     * @param maxAttempt     最大的最大尝试次数
+     * @param minSuccessRate 最后一次允许的尝试的最低成功率
+     * @param intervalNanos  调整间隔（纳秒）
+     */
+    public AttemptLimit(RetryMetrics metrics, int minAttempt, int maxAttempt, double minSuccessRate, long intervalNanos) {
+        this.metrics = metrics;
+        this.minAttempt = minAttempt;
+        this.maxAttempt = maxAttempt;
+        this.minSuccessRate = minSuccessRate;
+        this.intervalNanos = intervalNanos;
+        this.current = maxAttempt;
+        this.windowReached = new long[maxAttempt + 1];
+        this.windowSuccesses = new long[maxAttempt + 1];
+        this.uselessWindow = new long[maxAttempt + 2];
+        for (int i = 0; i < uselessWindow.length; i++) {
+            uselessWindow[i] = -RetryStopConst.PROBE_WINDOWS;
+        }
+        startWindow();
+        this.nextAdjustNanos = System.nanoTime() + intervalNanos;
+    }
+
+    /**
+     * 当前的最大尝试次数
+     *
+     * @return 次数
+     */
+    public int current() {
+        return current;
+    }
+
+    /**
+     * 到达调整时间时，根据上一个窗口的统计调整
+     *
+     * @param nowNanos 当前时间（{@link System#nanoTime()}）
+     */
+    public void adjust(long nowNanos) {
+        if (nowNanos - nextAdjustNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (nowNanos - nextAdjustNanos < 0) {
+                return;
+            }
+            nextAdjustNanos = nowNanos + intervalNanos;
+
+            final int limit = current;
+            final long reached = metrics.reached(limit) - windowReached[limit];
+            if (reached < RetryStopConst.MIN_SAMPLES) {
+                return;
+            }
+            final long succeeded = metrics.successes(limit) - windowSuccesses[limit];
+            final double rate = (double) succeeded / reached;
+            windows++;
+            if (rate < minSuccessRate) {
+                uselessWindow[limit] = windows;
+            }
+            if (rate < minSuccessRate && limit > minAttempt) {
+                current = limit - 1;
+                lowered.increment();
+            } else if (limit < maxAttempt
+                    && succeeded < reached
+                    && windows - uselessWindow[limit + 1] >= RetryStopConst.PROBE_WINDOWS) {
+                current = limit + 1;
+                raised.increment();
+            }
+            startWindow();
+        }
+    }
+
+    public int minAttempt() {
+        return minAttempt;
+    }
+
+    public int maxAttempt() {
+        return maxAttempt;
+    }
+
+    public double minSuccessRate() {
+        return minSuccessRate;
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * 降低的次数
+     *
+     * @return 次数
+     */
+    public long lowered() {
+        return lowered.sum();
+    }
+
+    /**
+     * 提高的次数
+     *
+     * @return 次数
+     */
+    public long raised() {
+        return raised.sum();
+    }
+
+    private void startWindow() {
+        for (int attempt = 1; attempt <= maxAttempt; attempt++) {
+            windowReached[attempt] = metrics.reached(attempt);
+            windowSuccesses[attempt] = metrics.successes(attempt);
+        }
+    }
+
+}
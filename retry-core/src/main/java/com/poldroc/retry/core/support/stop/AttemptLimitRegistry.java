@@ -0,0 +1,89 @@
+package com.poldroc.retry.core.support.stop;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 自适应最大尝试次数注册中心
+ * 1. 每个策略名称对应一个 {@link AttemptLimit}，第一次使用时按照传入的参数创建
+ * 2. 必须指定策略名称，否则不同方法会共享同一个上限
+ * 3. 同一个策略名称只能使用相同的参数，不一致时抛出异常，避免后注册的配置被静默忽略
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AttemptLimitRegistry {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static AttemptLimitRegistry getInstance() {
+        return InstanceFactory.getInstance().singleton(AttemptLimitRegistry.class);
+    }
+
+    /**
+     * 策略名称和最大尝试次数的映射
+     */
+    private final ConcurrentMap<String, AttemptLimit> limitMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取策略的最大尝试次数，不存在时创建
+     *
+     * @param name           策略名称
+     * @param minAttempt     最小的最大尝试次数
+     * @param maxAttempt     最大的最大尝试次数
+     * @param minSuccessRate 最后一次允许的尝试的最低成功率
+     * @param intervalNanos  调整间隔（纳秒）
+     * @return 最大尝试次数
+     */
+    public AttemptLimit limit(String name, int minAttempt, int maxAttempt, double minSuccessRate, long intervalNanos) {
+        if (StringUtil.isEmpty(name)) {
+            throw new IllegalArgumentException("Retry name is required when adaptive max attempt is enabled");
+        }
+        AttemptLimit limit = limitMap.get(name);
+        if (limit == null) {
+            limit = limitMap.computeIfAbsent(name, key -> new AttemptLimit(
+                    RetryMetricsRegistry.getInstance().metrics(key), minAttempt, maxAttempt, minSuccessRate, intervalNanos));
+        }
+        if (limit.minAttempt() != minAttempt
+                || limit.maxAttempt() != maxAttempt
+                || Double.compare(limit.minSuccessRate(), minSuccessRate) != 0
+                || limit.intervalNanos() != intervalNanos) {
+            throw new IllegalArgumentException("Attempt limit of " + name + " is already registered with minAttempt "
+                    + limit.minAttempt() + ", maxAttempt " + limit.maxAttempt()
+                    + ", minSuccessRate " + limit.minSuccessRate() + ", intervalNanos " + limit.intervalNanos()
+                    + ", but got " + minAttempt + ", " + maxAttempt + ", " + minSuccessRate + ", " + intervalNanos);
+        }
+        return limit;
+    }
+
+    /**
+     * 获取已经存在的最大尝试次数
+     *
+     * @param name 策略名称
+     * @return 最大尝试次数，不存在时返回 null
+     */
+    public AttemptLimit get(String name) {
+        return StringUtil.isEmpty(name) ? null : limitMap.get(name);
+    }
+
+    /**
+     * 所有的最大尝试次数
+     *
+     * @return 策略名称和最大尝试次数的映射
+     */
+    public Map<String, AttemptLimit> all() {
+        return Collections.unmodifiableMap(limitMap);
+    }
+
+}
@@ -22,6 +22,14 @@ public class MaxAttemptRetryStop implements RetryStop {
         this.maxAttempt = maxAttempt;
     }
 
+    /**
+     * 最大尝试次数
+     * @return 最大尝试次数
+     */
+    public int maxAttempt() {
+        return maxAttempt;
+    }
+
     @Override
     public boolean stop(RetryAttempt attempt) {
         return attempt.attempt() >= maxAttempt;
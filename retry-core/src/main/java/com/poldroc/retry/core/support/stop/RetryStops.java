@@ -0,0 +1,37 @@
+package com.poldroc.retry.core.support.stop;
+
+import com.poldroc.retry.api.support.stop.RetryStop;
+
+/**
+ * 终止策略工具类
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryStops {
+
+    private RetryStops() {
+    }
+
+    /**
+     * 固定的最大尝试次数
+     * @param maxAttempt 最大尝试次数
+     * @return 终止策略
+     */
+    public static RetryStop maxAttempt(final int maxAttempt) {
+        return new MaxAttemptRetryStop(maxAttempt);
+    }
+
+    /**
+     * 根据成功分布自动调整的最大尝试次数
+     * 最后一次允许的尝试很少成功时降低，之后的尝试恢复有效时在范围内回升
+     * @param name 策略名称，必须指定，和重试的名称一致
+     * @param minAttempt 最小的最大尝试次数
+     * @param maxAttempt 最大的最大尝试次数
+     * @return 终止策略
+     */
+    public static RetryStop adaptive(final String name, final int minAttempt, final int maxAttempt) {
+        return new AdaptiveMaxAttemptRetryStop(name, minAttempt, maxAttempt);
+    }
+
+}
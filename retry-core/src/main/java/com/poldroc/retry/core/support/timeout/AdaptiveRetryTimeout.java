@@ -0,0 +1,77 @@
+package com.poldroc.retry.core.support.timeout;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.support.metrics.LatencyHistogram;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+
+/**
+ * 根据最近耗时自适应的单次尝试超时
+ * <p>
+ * 1. 超时时间 = 策略最近耗时的分位数 * 因子，并修正到 [min, max] 范围内
+ * 2. 最近耗时来自 {@link com.poldroc.retry.core.support.metrics.RetryMetrics#recentLatency()}，按策略名称区分
+ * 3. 样本不足时使用 max，max 小于等于 0 时表示样本不足时不限制
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AdaptiveRetryTimeout implements RetryTimeout {
+
+    /**
+     * 最少的样本数量
+     */
+    private static final long MIN_SAMPLES = 20;
+
+    /**
+     * 分位数，如 0.99
+     */
+    private final double quantile;
+
+    /**
+     * 乘以分位数的因子
+     */
+    private final double factor;
+
+    /**
+     * 最小超时时间（毫秒）
+     */
+    private final long minMills;
+
+    /**
+     * 最大超时时间（毫秒），小于等于 0 表示不限制
+     */
+    private final long maxMills;
+
+    public AdaptiveRetryTimeout(double quantile, double factor, long minMills, long maxMills) {
+        if (quantile <= 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1]");
+        }
+        if (factor <= 0) {
+            throw new IllegalArgumentException("Factor must be positive");
+        }
+        this.quantile = quantile;
+        this.factor = factor;
+        this.minMills = Math.max(1L, minMills);
+        this.maxMills = maxMills;
+    }
+
+    @Override
+    public long timeoutMills(RetryContext<?> context, int attempt) {
+        LatencyHistogram latency = RetryMetricsRegistry.getInstance().metrics(context.name()).recentLatency();
+        if (latency.count() < MIN_SAMPLES) {
+            return maxMills;
+        }
+        long quantileMicros = latency.quantile(quantile);
+        long timeoutMills = (long) Math.ceil(quantileMicros * factor / 1000D);
+        if (timeoutMills < minMills) {
+            timeoutMills = minMills;
+        }
+        if (maxMills > 0 && timeoutMills > maxMills) {
+            timeoutMills = maxMills;
+        }
+        return timeoutMills;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.poldroc.retry.core.support.timeout;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+
+/**
+ * 固定时间的单次尝试超时
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class FixedRetryTimeout implements RetryTimeout {
+
+    /**
+     * 超时时间（毫秒）
+     */
+    private final long timeoutMills;
+
+    public FixedRetryTimeout(long timeoutMills) {
+        if (timeoutMills <= 0) {
+            throw new IllegalArgumentException("TimeoutMills must be positive");
+        }
+        this.timeoutMills = timeoutMills;
+    }
+
+    @Override
+    public long timeoutMills(RetryContext<?> context, int attempt) {
+        return timeoutMills;
+    }
+
+}
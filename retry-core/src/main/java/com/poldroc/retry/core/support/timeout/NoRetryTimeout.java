@@ -0,0 +1,30 @@
+package com.poldroc.retry.core.support.timeout;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+/**
+ * 不限制单次尝试的时间
+ * @author Poldroc
+ *  
+ */
+
+@ThreadSafe
+public class NoRetryTimeout implements RetryTimeout {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryTimeout getInstance() {
+        return InstanceFactory.getInstance().singleton(NoRetryTimeout.class);
+    }
+
+    @Override
+    public long timeoutMills(RetryContext<?> context, int attempt) {
+        return 0;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.poldroc.retry.core.support.timeout;
+
+import com.poldroc.retry.api.support.timeout.RetryTimeout;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 超时策略工具类
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryTimeouts {
+
+    private RetryTimeouts() {
+    }
+
+    /**
+     * 不限制单次尝试的时间
+     * @return 超时策略
+     */
+    public static RetryTimeout noTimeout() {
+        return NoRetryTimeout.getInstance();
+    }
+
+    /**
+     * 固定时间的超时
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @return 超时策略
+     */
+    public static RetryTimeout fixed(final long timeout, final TimeUnit unit) {
+        return new FixedRetryTimeout(unit.toMillis(timeout));
+    }
+
+    /**
+     * 根据最近耗时自适应的超时
+     * 超时时间 = 策略最近耗时的分位数 * 因子，并修正到 [minMills, maxMills] 范围内
+     * @param quantile 分位数，如 0.99
+     * @param factor 因子
+     * @param minMills 最小超时时间（毫秒）
+     * @param maxMills 最大超时时间（毫秒），样本不足时使用，小于等于 0 表示不限制
+     * @return 超时策略
+     */
+    public static RetryTimeout adaptive(final double quantile, final double factor,
+                                        final long minMills, final long maxMills) {
+        return new AdaptiveRetryTimeout(quantile, factor, minMills, maxMills);
+    }
+
+}
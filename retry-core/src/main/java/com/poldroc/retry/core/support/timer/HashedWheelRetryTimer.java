@@ -0,0 +1,403 @@
+package com.poldroc.retry.core.support.timer;
+
+import com.poldroc.retry.api.support.timer.RetryTimer;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.common.annotation.NotThreadSafe;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryTimerConst;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 哈希时间轮定时器
+ * <p>
+ * 1. 新任务放入无锁队列，由时间轮线程在每个刻度转移到对应的槽位，调度和取消都是 O(1)
+ * 2. 槽位是双向链表，取消的任务放入取消队列，在下一个刻度从链表中移除
+ * 3. 精度为一个刻度，任务最多会晚一个刻度执行；延迟超过一圈的任务记录剩余圈数
+ * 4. 所有任务在时间轮线程中执行，任务本身应该足够轻量
+ * 5. 第一次调度时才创建线程
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class HashedWheelRetryTimer implements RetryTimer, AutoCloseable {
+
+    /**
+     * 线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    private static final int STATE_INIT = 0;
+
+    private static final int STATE_STARTED = 1;
+
+    private static final int STATE_STOPPED = 2;
+
+    private final long tickNanos;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    /**
+     * 等待转移到时间轮的任务
+     */
+    private final Queue<WheelTimeout> timeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 等待从时间轮移除的任务
+     */
+    private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    private final CountDownLatch startLatch = new CountDownLatch(1);
+
+    /**
+     * 首次调度时创建，避免继承创建者所在的线程组
+     */
+    private volatile Thread worker;
+
+    /**
+     * 时间轮启动的时间，任务的到期时间都相对于该时间
+     */
+    private volatile long startTime;
+
+    private final LongAdder pending = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * 获取共享的单例，使用默认的刻度和槽位数量
+     *
+     * @return 单例
+     */
+    public static RetryTimer getInstance() {
+        return InstanceFactory.getInstance().singleton(HashedWheelRetryTimer.class);
+    }
+
+    public HashedWheelRetryTimer() {
+        this(RetryTimerConst.DEFAULT_TICK_MILLS, TimeUnit.MILLISECONDS, RetryTimerConst.DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param tickDuration  刻度，不小于 1 毫秒
+     * @param unit          时间单位
+     * @param ticksPerWheel 槽位数量，会向上取整为 2 的幂
+     */
+    public HashedWheelRetryTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        ArgUtil.notNull(unit, "unit");
+        ArgUtil.positive(ticksPerWheel, "ticksPerWheel");
+        if (unit.toMillis(tickDuration) < 1) {
+            throw new IllegalArgumentException("tickDuration must be >= 1 ms");
+        }
+        if (ticksPerWheel > RetryTimerConst.MAX_TICKS_PER_WHEEL) {
+            throw new IllegalArgumentException("ticksPerWheel must be <= " + RetryTimerConst.MAX_TICKS_PER_WHEEL);
+        }
+
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+    }
+
+    @Override
+    public TimerHandle schedule(Runnable task, long delay, TimeUnit unit) {
+        ArgUtil.notNull(task, "task");
+        ArgUtil.notNull(unit, "unit");
+        start();
+
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime;
+        // 防止溢出
+        if (delay > 0 && deadline < 0) {
+            deadline = Long.MAX_VALUE;
+        }
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        pending.increment();
+        timeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 停止时间轮线程，未执行的任务会被丢弃
+     */
+    @Override
+    public void close() {
+        if (state.getAndSet(STATE_STOPPED) != STATE_STARTED) {
+            return;
+        }
+        final Thread thread = worker;
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 等待执行的任务数量
+     *
+     * @return 数量
+     */
+    public long pending() {
+        return pending.sum();
+    }
+
+    /**
+     * 任务执行时抛出异常的次数
+     *
+     * @return 次数
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long tickNanos() {
+        return tickNanos;
+    }
+
+    public int ticksPerWheel() {
+        return wheel.length;
+    }
+
+    private void start() {
+        int current = state.get();
+        if (current == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            Thread thread = new Thread(this::work, "roc-retry-wheel-" + THREAD_INDEX.incrementAndGet());
+            thread.setDaemon(true);
+            worker = thread;
+            thread.start();
+        } else if (current == STATE_STOPPED) {
+            throw new IllegalStateException("Timer is closed");
+        }
+        // 等待线程初始化开始时间，期间不响应中断，结束之后恢复中断标记
+        boolean interrupted = false;
+        while (startTime == 0) {
+            try {
+                startLatch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        long now = System.nanoTime();
+        startTime = now == 0 ? 1 : now;
+        startLatch.countDown();
+
+        long tick = 0;
+        while (state.get() == STATE_STARTED && waitForNextTick(tick)) {
+            removeCancelled();
+            transfer(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /**
+     * 等待下一个刻度
+     *
+     * @return 是否到达，已经停止时返回 false
+     */
+    private boolean waitForNextTick(long tick) {
+        final long deadline = tickNanos * (tick + 1);
+        while (true) {
+            final long sleepMills = (deadline - (System.nanoTime() - startTime) + 999_999) / 1_000_000;
+            if (sleepMills <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepMills);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_STOPPED) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transfer(long tick) {
+        for (int i = 0; i < RetryTimerConst.MAX_TRANSFER_PER_TICK; i++) {
+            WheelTimeout timeout = timeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != WheelTimeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已经过期的任务放到当前刻度，立刻执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 时间轮的槽位，只由时间轮线程访问
+     */
+    @NotThreadSafe
+    private static final class Bucket {
+
+        private WheelTimeout head;
+
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.state == WheelTimeout.ST_CANCELLED) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * 时间轮中的任务
+     */
+    private static final class WheelTimeout implements TimerHandle {
+
+        private static final int ST_INIT = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final HashedWheelRetryTimer timer;
+
+        private final Runnable task;
+
+        /**
+         * 相对于时间轮开始时间的到期时间
+         */
+        private final long deadline;
+
+        private volatile int state = ST_INIT;
+
+        /**
+         * 以下字段只由时间轮线程访问
+         */
+        private long remainingRounds;
+
+        private WheelTimeout next;
+
+        private WheelTimeout prev;
+
+        private Bucket bucket;
+
+        private WheelTimeout(HashedWheelRetryTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrement();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pending.decrement();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                timer.errors.increment();
+            }
+        }
+    }
+
+}
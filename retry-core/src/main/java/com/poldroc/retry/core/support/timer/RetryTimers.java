@@ -0,0 +1,45 @@
+package com.poldroc.retry.core.support.timer;
+
+import com.poldroc.retry.api.support.timer.RetryTimer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时器工具类
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryTimers {
+
+    private RetryTimers() {
+    }
+
+    /**
+     * 共享的默认定时器
+     * @return 定时器
+     */
+    public static RetryTimer scheduled() {
+        return ScheduledRetryTimer.getInstance();
+    }
+
+    /**
+     * 共享的哈希时间轮定时器，适合大量等待中的任务
+     * @return 定时器
+     */
+    public static RetryTimer wheel() {
+        return HashedWheelRetryTimer.getInstance();
+    }
+
+    /**
+     * 创建哈希时间轮定时器
+     * @param tickDuration 刻度
+     * @param unit 时间单位
+     * @param ticksPerWheel 槽位数量
+     * @return 定时器
+     */
+    public static RetryTimer wheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        return new HashedWheelRetryTimer(tickDuration, unit, ticksPerWheel);
+    }
+
+}
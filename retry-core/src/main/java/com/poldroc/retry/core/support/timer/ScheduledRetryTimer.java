@@ -0,0 +1,78 @@
+package com.poldroc.retry.core.support.timer;
+
+import com.poldroc.retry.api.support.timer.RetryTimer;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 {@link ScheduledThreadPoolExecutor} 的定时器
+ * 1. 所有实例共享同一个守护线程，第一次使用时才创建
+ * 2. 取消的任务会立刻从队列中移除，避免大量超时任务堆积
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class ScheduledRetryTimer implements RetryTimer {
+
+    /**
+     * 获取单例
+     * @return 单例
+     */
+    public static RetryTimer getInstance() {
+        return InstanceFactory.getInstance().singleton(ScheduledRetryTimer.class);
+    }
+
+    /**
+     * 内部静态类，延迟创建线程
+     */
+    private static class ExecutorHolder {
+        private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ScheduledThreadPoolExecutor createExecutor() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "roc-retry-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    @Override
+    public TimerHandle schedule(Runnable task, long delay, TimeUnit unit) {
+        return new FutureTimerHandle(ExecutorHolder.EXECUTOR.schedule(task, delay, unit));
+    }
+
+    /**
+     * 基于 future 的任务句柄
+     */
+    private static class FutureTimerHandle implements TimerHandle {
+
+        private final ScheduledFuture<?> future;
+
+        private FutureTimerHandle(ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public boolean cancel() {
+            return future.cancel(false);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return future.isDone() && !future.isCancelled();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.poldroc.retry.core.support.tuning;
+
+/**
+ * 运行时调整的策略参数
+ * 1. 不可变对象，修改时整体替换，调用方在一次调用中只读取一次，不需要加锁
+ * 2. 未设置的参数不覆盖策略原有的配置
+ *
+ * @author Poldroc
+ *  
+ */
+public final class RetryTuning {
+
+    /**
+     * 未设置的值
+     */
+    public static final long UNSET = -1L;
+
+    /**
+     * 没有任何调整
+     */
+    public static final RetryTuning EMPTY = new RetryTuning(0, UNSET, UNSET, UNSET, 0D);
+
+    /**
+     * 最大尝试次数的额外上限，配置的停止策略依然生效，小于等于 0 表示不限制
+     */
+    private final int maxAttempt;
+
+    /**
+     * 等待时间的基础值（毫秒），小于 0 表示不覆盖
+     */
+    private final long waitValue;
+
+    /**
+     * 等待时间的最小值（毫秒），小于 0 表示不覆盖
+     */
+    private final long waitMin;
+
+    /**
+     * 等待时间的最大值（毫秒），小于 0 表示不覆盖
+     */
+    private final long waitMax;
+
+    /**
+     * 等待时间的因子，小于等于 0 表示不覆盖
+     */
+    private final double waitFactor;
+
+    private RetryTuning(int maxAttempt, long waitValue, long waitMin, long waitMax, double waitFactor) {
+        this.maxAttempt = maxAttempt;
+        this.waitValue = waitValue;
+        this.waitMin = waitMin;
+        this.waitMax = waitMax;
+        this.waitFactor = waitFactor;
+    }
+
+    public int maxAttempt() {
+        return maxAttempt;
+    }
+
+    public long waitValue() {
+        return waitValue;
+    }
+
+    public long waitMin() {
+        return waitMin;
+    }
+
+    public long waitMax() {
+        return waitMax;
+    }
+
+    public double waitFactor() {
+        return waitFactor;
+    }
+
+    /**
+     * 是否覆盖了等待参数
+     *
+     * @return 是否覆盖
+     */
+    public boolean hasWait() {
+        return waitValue >= 0 || waitMin >= 0 || waitMax >= 0 || waitFactor > 0;
+    }
+
+    public RetryTuning maxAttempt(int maxAttempt) {
+        return new RetryTuning(Math.max(0, maxAttempt), waitValue, waitMin, waitMax, waitFactor);
+    }
+
+    public RetryTuning waitValue(long waitValue) {
+        return new RetryTuning(maxAttempt, unsetIfNegative(waitValue), waitMin, waitMax, waitFactor);
+    }
+
+    public RetryTuning waitMin(long waitMin) {
+        return new RetryTuning(maxAttempt, waitValue, unsetIfNegative(waitMin), waitMax, waitFactor);
+    }
+
+    public RetryTuning waitMax(long waitMax) {
+        return new RetryTuning(maxAttempt, waitValue, waitMin, unsetIfNegative(waitMax), waitFactor);
+    }
+
+    public RetryTuning waitFactor(double waitFactor) {
+        return new RetryTuning(maxAttempt, waitValue, waitMin, waitMax, Math.max(0D, waitFactor));
+    }
+
+    private static long unsetIfNegative(long value) {
+        return value < 0 ? UNSET : value;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryTuning{" +
+                "maxAttempt=" + maxAttempt +
+                ", waitValue=" + waitValue +
+                ", waitMin=" + waitMin +
+                ", waitMax=" + waitMax +
+                ", waitFactor=" + waitFactor +
+                '}';
+    }
+}
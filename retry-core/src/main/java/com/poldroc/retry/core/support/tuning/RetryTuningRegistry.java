@@ -0,0 +1,77 @@
+package com.poldroc.retry.core.support.tuning;
+
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.common.util.StringUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * 策略参数调整注册中心
+ * 1. 每个策略名称对应一个 {@link RetryTuning} 快照，修改时原子替换
+ * 2. 调整在下一次调用时生效，正在执行的调用不受影响
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RetryTuningRegistry {
+
+    /**
+     * 获取单例
+     *
+     * @return 单例
+     */
+    public static RetryTuningRegistry getInstance() {
+        return InstanceFactory.getInstance().singleton(RetryTuningRegistry.class);
+    }
+
+    /**
+     * 策略名称和参数快照的映射
+     */
+    private final ConcurrentMap<String, AtomicReference<RetryTuning>> tuningMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取策略当前的参数调整
+     *
+     * @param name 策略名称
+     * @return 参数调整，没有时返回 {@link RetryTuning#EMPTY}
+     */
+    public RetryTuning tuning(String name) {
+        if (tuningMap.isEmpty()) {
+            return RetryTuning.EMPTY;
+        }
+        AtomicReference<RetryTuning> reference = tuningMap.get(actualName(name));
+        return reference == null ? RetryTuning.EMPTY : reference.get();
+    }
+
+    /**
+     * 修改策略的参数
+     *
+     * @param name    策略名称
+     * @param updater 修改函数
+     * @return 修改后的参数
+     */
+    public RetryTuning update(String name, UnaryOperator<RetryTuning> updater) {
+        return tuningMap.computeIfAbsent(actualName(name), key -> new AtomicReference<>(RetryTuning.EMPTY))
+                .updateAndGet(updater);
+    }
+
+    /**
+     * 清除策略的参数调整，恢复原有的配置
+     *
+     * @param name 策略名称
+     */
+    public void reset(String name) {
+        tuningMap.remove(actualName(name));
+    }
+
+    private static String actualName(String name) {
+        return StringUtil.isEmpty(name) ? RetryConst.DEFAULT_NAME : name;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.poldroc.retry.core.support.wait;
+
+import com.poldroc.retry.api.context.RetryWaitContext;
+import com.poldroc.retry.api.model.WaitTime;
+import com.poldroc.retry.api.support.wait.RetryWait;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+import com.poldroc.retry.core.constant.RetryWaitConst;
+import com.poldroc.retry.core.support.metrics.RecoveryEstimator;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 根据历史恢复时间自适应的重试等待策略
+ * <p>
+ * 1. 恢复时间来自 {@link com.poldroc.retry.core.support.metrics.RetryMetrics#recovery()}，按策略名称区分
+ * 2. 第一次失败之后等待学习到的恢复时间，之后仍然失败说明还没有恢复，按照 factor 增长
+ * 3. 恢复时间样本包含本策略自己选择的等待时间，第一次等待之后就成功时样本只是真实恢复时间的上界（反馈偏差）；
+ * 在学习到的时间上下对称浮动时样本的期望等于当前估计，估计不会下降。因此只在学习到的时间以下浮动
+ * {@link RetryWaitConst#ADAPTIVE_EXPLORE_RATIO}：更短的等待仍然成功时估计随之下降，等待过短而失败时按照 factor 增长的等待会把估计拉回
+ * 4. 样本不足时使用 {@link RetryWaitContext#fallback()} 指定的兜底策略，默认为 {@link ExponentialRetryWait}
+ * 5. 结果按照 min/max 修正范围
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class AdaptiveRetryWait extends AbstractRetryWait {
+
+    @Override
+    public WaitTime waitTime(RetryWaitContext retryWaitContext) {
+        RecoveryEstimator recovery = RetryMetricsRegistry.getInstance().metrics(retryWaitContext.name()).recovery();
+        if (recovery.samples() < RetryWaitConst.ADAPTIVE_MIN_SAMPLES) {
+            return fallback(retryWaitContext).waitTime(retryWaitContext);
+        }
+
+        int previousAttempt = Math.max(0, retryWaitContext.attempt() - 1);
+        double growth = retryWaitContext.factor() > 1 ? Math.pow(retryWaitContext.factor(), previousAttempt) : 1D;
+        // 只向下探索，抵消样本中包含自身等待时间的偏差
+        double explore = RetryWaitConst.ADAPTIVE_EXPLORE_RATIO * ThreadLocalRandom.current().nextDouble();
+        long result = Math.round(recovery.meanMills() * growth * (1 - explore));
+        return super.rangeCorrect(result, retryWaitContext.min(), retryWaitContext.max());
+    }
+
+    /**
+     * 样本不足时使用的等待策略
+     * @param retryWaitContext 上下文
+     * @return 等待策略，没有设置时为 {@link ExponentialRetryWait}
+     */
+    protected RetryWait fallback(RetryWaitContext retryWaitContext) {
+        Class<? extends RetryWait> fallback = retryWaitContext.fallback();
+        if (fallback == null) {
+            fallback = ExponentialRetryWait.class;
+        }
+        if (AdaptiveRetryWait.class.isAssignableFrom(fallback)) {
+            throw new IllegalArgumentException("fallback must not be an AdaptiveRetryWait");
+        }
+        return InstanceFactory.getInstance().threadSafe(fallback);
+    }
+
+}
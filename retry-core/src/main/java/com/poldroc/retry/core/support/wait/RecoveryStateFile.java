@@ -0,0 +1,215 @@
+package com.poldroc.retry.core.support.wait;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.support.metrics.RecoveryEstimator;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 恢复时间估计的本地文件
+ * 1. 打开时加载文件中的估计，部署之后 {@link AdaptiveRetryWait} 不需要重新学习
+ * 2. 可以定期写入，关闭时再写入一次；先写临时文件再原子替换，不会留下不完整的文件
+ * 3. 使用 Properties 格式，键为 策略名称.samples/mean/deviation
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RecoveryStateFile implements AutoCloseable {
+
+    /**
+     * 线程序号
+     */
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    private static final String SAMPLES = ".samples";
+
+    private static final String MEAN = ".mean";
+
+    private static final String DEVIATION = ".deviation";
+
+    private final Path file;
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private final LongAdder errors = new LongAdder();
+
+    private volatile Thread saver;
+
+    private RecoveryStateFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开文件，存在时加载其中的估计
+     *
+     * @param file 文件
+     * @return 实例
+     */
+    public static RecoveryStateFile open(Path file) {
+        ArgUtil.notNull(file, "file");
+        RecoveryStateFile stateFile = new RecoveryStateFile(file);
+        stateFile.load();
+        return stateFile;
+    }
+
+    /**
+     * 开启定期写入
+     *
+     * @param period 间隔
+     * @param unit   时间单位
+     * @return this
+     */
+    public synchronized RecoveryStateFile autoSave(long period, TimeUnit unit) {
+        ArgUtil.notNull(unit, "unit");
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0");
+        }
+        if (saver != null) {
+            throw new IllegalStateException("Auto save already started");
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                while (!closed.await(period, unit)) {
+                    try {
+                        save();
+                    } catch (RetryException e) {
+                        errors.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "roc-retry-recovery-" + THREAD_INDEX.incrementAndGet());
+        thread.setDaemon(true);
+        saver = thread;
+        thread.start();
+        return this;
+    }
+
+    /**
+     * 加载文件中的估计，覆盖当前的估计
+     *
+     * @return 加载的策略数量
+     */
+    public int load() {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RetryException("Failed to load recovery state " + file, e);
+        }
+
+        int loaded = 0;
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(SAMPLES)) {
+                continue;
+            }
+            String name = key.substring(0, key.length() - SAMPLES.length());
+            try {
+                long samples = Long.parseLong(properties.getProperty(key));
+                double mean = Double.parseDouble(properties.getProperty(name + MEAN, "0"));
+                double deviation = Double.parseDouble(properties.getProperty(name + DEVIATION, "0"));
+                RetryMetricsRegistry.getInstance().metrics(name).recovery().restore(samples, mean, deviation);
+                loaded++;
+            } catch (IllegalArgumentException e) {
+                // 跳过损坏的条目
+                errors.increment();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 写入所有有样本的策略的估计
+     *
+     * @return 写入的策略数量
+     */
+    public synchronized int save() {
+        Properties properties = new Properties();
+        int saved = 0;
+        for (RetryMetrics metrics : RetryMetricsRegistry.getInstance().all()) {
+            RecoveryEstimator recovery = metrics.recovery();
+            long samples = recovery.samples();
+            if (samples <= 0) {
+                continue;
+            }
+            properties.setProperty(metrics.name() + SAMPLES, Long.toString(samples));
+            properties.setProperty(metrics.name() + MEAN, Double.toString(recovery.meanMills()));
+            properties.setProperty(metrics.name() + DEVIATION, Double.toString(recovery.deviationMills()));
+            saved++;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            properties.store(out, "roc-retry recovery state");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RetryException("Failed to save recovery state " + file, e);
+        }
+        return saved;
+    }
+
+    /**
+     * 定期写入失败以及加载时跳过的条目数量
+     *
+     * @return 数量
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * 停止定期写入，并写入一次
+     */
+    @Override
+    public void close() {
+        if (closed.getCount() == 0) {
+            return;
+        }
+        closed.countDown();
+        Thread thread = saver;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        save();
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.poldroc.retry.core.support.wait;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.wait.RetryAfterAware;
+import com.poldroc.retry.api.support.wait.RetryAfterHint;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 建议等待时间工具类
+ * 1. 第一次使用时通过 {@link ServiceLoader} 加载 classpath 中的 {@link RetryAfterHint}
+ * 2. 也可以手动注册，注册之后对新的等待生效
+ * 3. 注册的实现都没有给出建议时，检查实现了 {@link RetryAfterAware} 的结果和异常链
+ * @author Poldroc
+ *  
+ */
+
+public final class RetryAfterHints {
+
+    private RetryAfterHints() {
+    }
+
+    /**
+     * 异常链最多检查的层数
+     */
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    /**
+     * 手动注册的实现
+     */
+    private static final List<RetryAfterHint> REGISTERED = new ArrayList<>();
+
+    /**
+     * 当前生效的实现
+     */
+    private static volatile RetryAfterHint[] hints;
+
+    /**
+     * 提取建议的等待时间
+     * @param attempt 本次尝试的信息
+     * @return 等待时间（毫秒），没有建议时返回 -1
+     */
+    public static long retryAfterMills(final RetryAttempt<?> attempt) {
+        for (RetryAfterHint hint : hints()) {
+            long mills = hint.retryAfterMills(attempt);
+            if (mills >= 0) {
+                return mills;
+            }
+        }
+
+        Object result = attempt.result();
+        if (result instanceof RetryAfterAware) {
+            long mills = ((RetryAfterAware) result).retryAfterMills();
+            if (mills >= 0) {
+                return mills;
+            }
+        }
+        Throwable cause = attempt.cause();
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (cause instanceof RetryAfterAware) {
+                long mills = ((RetryAfterAware) cause).retryAfterMills();
+                if (mills >= 0) {
+                    return mills;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        return -1;
+    }
+
+    /**
+     * 解析 HTTP 的 Retry-After 头
+     * 1. 支持秒数和 HTTP 日期两种格式
+     * 2. 日期早于当前时间时返回 0
+     * @param value 头的值
+     * @return 等待时间（毫秒），无法解析时返回 -1
+     */
+    public static long parseHeader(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        final String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return -1;
+        }
+        if (Character.isDigit(trimmed.charAt(0))) {
+            try {
+                long seconds = Long.parseLong(trimmed);
+                return seconds > TimeUnit.MILLISECONDS.toSeconds(Long.MAX_VALUE)
+                        ? Long.MAX_VALUE : TimeUnit.SECONDS.toMillis(seconds);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        try {
+            long epochMills = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, epochMills - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 注册实现
+     * @param hint 实现
+     */
+    public static synchronized void register(final RetryAfterHint hint) {
+        if (hint == null) {
+            throw new IllegalArgumentException("hint can not be null!");
+        }
+        REGISTERED.add(hint);
+        hints = build();
+    }
+
+    /**
+     * 移除注册的实现
+     * @param hint 实现
+     */
+    public static synchronized void unregister(final RetryAfterHint hint) {
+        if (REGISTERED.remove(hint)) {
+            hints = build();
+        }
+    }
+
+    private static RetryAfterHint[] hints() {
+        RetryAfterHint[] current = hints;
+        if (current != null) {
+            return current;
+        }
+        synchronized (RetryAfterHints.class) {
+            if (hints == null) {
+                hints = build();
+            }
+            return hints;
+        }
+    }
+
+    private static RetryAfterHint[] build() {
+        List<RetryAfterHint> list = new ArrayList<>();
+        for (RetryAfterHint loaded : ServiceLoader.load(RetryAfterHint.class, RetryAfterHints.class.getClassLoader())) {
+            list.add(loaded);
+        }
+        list.addAll(REGISTERED);
+        return list.toArray(new RetryAfterHint[0]);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.poldroc.retry.core.support.wait;
+
+import com.poldroc.retry.api.context.RetryWaitContext;
+import com.poldroc.retry.api.model.WaitTime;
+import com.poldroc.retry.api.support.wait.RetryWait;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.support.instance.impl.InstanceFactory;
+
+/**
+ * 优先使用下游建议时间的重试等待策略
+ * <p>
+ * 1. 通过 {@link RetryAfterHints} 从结果或者异常中提取下游建议的等待时间，按照 min/max 修正范围
+ * 2. 没有建议时使用 {@link RetryWaitContext#fallback()} 指定的兜底策略，通过 RetryWaiter#fallback 或者注解的 fallback 设置，
+ * 默认为 {@link ExponentialRetryWait}；value/factor 的含义和兜底策略相同
+ * 3. 下游给出的时间可能较长，max 需要按照实际情况设置
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class RetryAfterRetryWait extends AbstractRetryWait {
+
+    @Override
+    public WaitTime waitTime(RetryWaitContext retryWaitContext) {
+        long hintMills = RetryAfterHints.retryAfterMills(retryWaitContext);
+        if (hintMills >= 0) {
+            return super.rangeCorrect(hintMills, retryWaitContext.min(), retryWaitContext.max());
+        }
+        return fallback(retryWaitContext).waitTime(retryWaitContext);
+    }
+
+    /**
+     * 没有建议时使用的等待策略
+     * @param retryWaitContext 上下文
+     * @return 等待策略，没有设置时为 {@link ExponentialRetryWait}
+     */
+    protected RetryWait fallback(RetryWaitContext retryWaitContext) {
+        Class<? extends RetryWait> fallback = retryWaitContext.fallback();
+        if (fallback == null) {
+            fallback = ExponentialRetryWait.class;
+        }
+        if (RetryAfterRetryWait.class.isAssignableFrom(fallback)) {
+            throw new IllegalArgumentException("fallback must not be a RetryAfterRetryWait");
+        }
+        return InstanceFactory.getInstance().threadSafe(fallback);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.poldroc.retry.jfr;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.probe.RetryProbe;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.jfr.event.RetryAttemptEvent;
+import com.poldroc.retry.jfr.event.RetryRecoverEvent;
+import com.poldroc.retry.jfr.event.RetrySleepEvent;
+import jdk.jfr.EventType;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 基于 JFR 的探针
+ * 1. 通过 ServiceLoader 自动加载，加入 classpath 即可生效
+ * 2. 事件没有开启记录时直接返回 null，不创建事件对象
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class JfrRetryProbe implements RetryProbe {
+
+    private static final EventType ATTEMPT = EventType.getEventType(RetryAttemptEvent.class);
+
+    private static final EventType SLEEP = EventType.getEventType(RetrySleepEvent.class);
+
+    private static final EventType RECOVER = EventType.getEventType(RetryRecoverEvent.class);
+
+    @Override
+    public Object callStart(RetryContext<?> context) {
+        return null;
+    }
+
+    @Override
+    public void callEnd(Object token, RetryContext<?> context, int attempts, Throwable cause) {
+    }
+
+    @Override
+    public Object attemptStart(RetryContext<?> context, int attempt) {
+        if (!ATTEMPT.isEnabled()) {
+            return null;
+        }
+        RetryAttemptEvent event = new RetryAttemptEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void attemptEnd(Object token, RetryContext<?> context, int attempt, Throwable cause) {
+        RetryAttemptEvent event = (RetryAttemptEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = nameOf(context);
+            event.attempt = attempt;
+            event.exception = cause == null ? null : cause.getClass().getName();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object sleepStart(RetryContext<?> context, int attempt, long waitMills) {
+        if (!SLEEP.isEnabled()) {
+            return null;
+        }
+        RetrySleepEvent event = new RetrySleepEvent();
+        event.name = nameOf(context);
+        event.attempt = attempt;
+        event.waitMills = waitMills;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void sleepEnd(Object token) {
+        RetrySleepEvent event = (RetrySleepEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object recoverStart(RetryContext<?> context, int attempt, Throwable cause) {
+        if (!RECOVER.isEnabled()) {
+            return null;
+        }
+        RetryRecoverEvent event = new RetryRecoverEvent();
+        event.name = nameOf(context);
+        event.attempt = attempt;
+        event.exception = cause == null ? null : cause.getClass().getName();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void recoverEnd(Object token) {
+        RetryRecoverEvent event = (RetryRecoverEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return callable;
+    }
+
+    private static String nameOf(RetryContext<?> context) {
+        String name = context.name();
+        return name == null ? RetryConst.DEFAULT_NAME : name;
+    }
+
+}
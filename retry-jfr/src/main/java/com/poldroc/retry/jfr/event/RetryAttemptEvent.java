@@ -0,0 +1,34 @@
+package com.poldroc.retry.jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次尝试
+ * 事件的持续时间为尝试的耗时
+ *
+ * @author Poldroc
+ *  
+ */
+@Name("com.poldroc.retry.Attempt")
+@Label("Retry Attempt")
+@Description("A single attempt of a retried call")
+@Category({"roc-retry"})
+@StackTrace(false)
+public class RetryAttemptEvent extends jdk.jfr.Event {
+
+    @Label("Policy")
+    @Description("Retry policy name, the method signature for annotated methods")
+    public String name;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Exception")
+    @Description("Exception class of a failed attempt, null on success")
+    public String exception;
+
+}
@@ -0,0 +1,32 @@
+package com.poldroc.retry.jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 恢复策略的执行
+ * 事件的持续时间为恢复策略的耗时
+ *
+ * @author Poldroc
+ *  
+ */
+@Name("com.poldroc.retry.Recover")
+@Label("Retry Recover")
+@Description("Recover invocation after the retries were exhausted")
+@Category({"roc-retry"})
+@StackTrace(false)
+public class RetryRecoverEvent extends jdk.jfr.Event {
+
+    @Label("Policy")
+    public String name;
+
+    @Label("Attempts")
+    public int attempt;
+
+    @Label("Exception")
+    public String exception;
+
+}
@@ -0,0 +1,34 @@
+package com.poldroc.retry.jfr.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 重试等待
+ * 事件的持续时间为实际的等待时间
+ *
+ * @author Poldroc
+ *  
+ */
+@Name("com.poldroc.retry.Sleep")
+@Label("Retry Sleep")
+@Description("Backoff wait before the next attempt")
+@Category({"roc-retry"})
+@StackTrace(false)
+public class RetrySleepEvent extends jdk.jfr.Event {
+
+    @Label("Policy")
+    public String name;
+
+    @Label("Next Attempt")
+    public int attempt;
+
+    @Label("Planned Wait")
+    @Timespan(Timespan.MILLISECONDS)
+    public long waitMills;
+
+}
@@ -0,0 +1,86 @@
+package com.poldroc.retry.jfr;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * JFR 事件测试
+ *
+ * @since 2026-10-19
+ */
+public class JfrRetryProbeTest {
+
+    /**
+     * 测试：记录尝试、等待和恢复事件
+     */
+    @Test
+    public void testEventsRecorded() throws Exception {
+        final String name = "jfr-" + System.nanoTime();
+        Path file = Files.createTempFile("roc-retry", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.poldroc.retry.Attempt");
+            recording.enable("com.poldroc.retry.Sleep");
+            recording.enable("com.poldroc.retry.Recover");
+            recording.start();
+
+            try {
+                Retryer.<String>newInstance()
+                        .name(name)
+                        .maxAttempt(2)
+                        .retryWaitContext(RetryWaiter.<String>retryWait(FixedRetryWait.class).value(20).context())
+                        .recover(new Recover() {
+                            @Override
+                            public <R> void recover(RetryAttempt<R> retryAttempt) {
+                            }
+                        })
+                        .callable(() -> {
+                            throw new IllegalStateException("fail");
+                        })
+                        .retryCall();
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException expected) {
+                // ignore
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> name.equals(e.getString("name")))
+                .collect(Collectors.toList());
+        Files.deleteIfExists(file);
+
+        List<RecordedEvent> attempts = byType(events, "com.poldroc.retry.Attempt");
+        assertEquals(2, attempts.size());
+        assertEquals(IllegalStateException.class.getName(), attempts.get(0).getString("exception"));
+
+        List<RecordedEvent> sleeps = byType(events, "com.poldroc.retry.Sleep");
+        assertEquals(1, sleeps.size());
+        assertEquals(2, sleeps.get(0).getInt("attempt"));
+        assertTrue(sleeps.get(0).getDuration().compareTo(Duration.ofMillis(15)) >= 0);
+
+        assertEquals(1, byType(events, "com.poldroc.retry.Recover").size());
+    }
+
+    private static List<RecordedEvent> byType(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(e -> type.equals(e.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
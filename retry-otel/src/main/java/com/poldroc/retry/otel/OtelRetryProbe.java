@@ -0,0 +1,298 @@
+package com.poldroc.retry.otel;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.support.probe.RetryProbe;
+import com.poldroc.retry.common.annotation.ThreadSafe;
+import com.poldroc.retry.common.util.ArgUtil;
+import com.poldroc.retry.core.constant.RetryConst;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenTelemetry 链路追踪探针
+ * 1. 每次重试调用创建一个 span，每次尝试、重试等待和恢复策略各创建一个子 span
+ * 2. 父 span 已经被采样时立即创建；否则只有第一次尝试需要重试时才创建，第一次尝试的 span 按照记录的时间补建，
+ * 第一次就成功的调用不会创建任何 span，此时由 Tracer 的采样器决定是否记录
+ * 3. 尝试执行期间对应的 span 为当前上下文，交给对冲线程池的方法也会带上该上下文
+ * 4. 需要通过 {@link com.poldroc.retry.core.support.probe.RetryProbes#register(RetryProbe)} 注册
+ *
+ * @author Poldroc
+ *  
+ */
+@ThreadSafe
+public class OtelRetryProbe implements RetryProbe {
+
+    /**
+     * instrumentation 名称
+     */
+    public static final String INSTRUMENTATION_NAME = "com.poldroc.retry";
+
+    public static final AttributeKey<String> RETRY_NAME = AttributeKey.stringKey("retry.name");
+
+    public static final AttributeKey<Long> RETRY_ATTEMPT = AttributeKey.longKey("retry.attempt");
+
+    public static final AttributeKey<Long> RETRY_ATTEMPTS = AttributeKey.longKey("retry.attempts");
+
+    public static final AttributeKey<Long> RETRY_BACKOFF_MS = AttributeKey.longKey("retry.backoff.ms");
+
+    public static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+    public static final String ATTEMPT_SPAN = "retry.attempt";
+
+    public static final String BACKOFF_SPAN = "retry.backoff";
+
+    public static final String RECOVER_SPAN = "retry.recover";
+
+    /**
+     * 当前线程正在执行的重试调用，嵌套调用通过 previous 串联
+     */
+    private static final ThreadLocal<CallState> CURRENT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+
+    public OtelRetryProbe(OpenTelemetry openTelemetry) {
+        ArgUtil.notNull(openTelemetry, "openTelemetry");
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    public OtelRetryProbe(Tracer tracer) {
+        ArgUtil.notNull(tracer, "tracer");
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object callStart(RetryContext<?> context) {
+        final Context parent = Context.current();
+        final CallState state = new CallState(nameOf(context), parent, CURRENT.get());
+        CURRENT.set(state);
+        if (Span.fromContext(parent).getSpanContext().isSampled()) {
+            ensureSpan(state);
+        }
+        return state;
+    }
+
+    @Override
+    public void callEnd(Object token, RetryContext<?> context, int attempts, Throwable cause) {
+        final CallState state = (CallState) token;
+        if (state.previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(state.previous);
+        }
+        final Span span = state.span;
+        if (span == null) {
+            return;
+        }
+        span.setAttribute(RETRY_ATTEMPTS, (long) attempts);
+        if (cause != null) {
+            span.setAttribute(ERROR_TYPE, cause.getClass().getName());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    @Override
+    public Object attemptStart(RetryContext<?> context, int attempt) {
+        final CallState state = CURRENT.get();
+        if (state == null) {
+            return null;
+        }
+        if (state.span == null) {
+            // 还不确定是否需要重试，只记录时间
+            state.firstStartNanos = System.nanoTime();
+            return state;
+        }
+        final Span span = tracer.spanBuilder(ATTEMPT_SPAN)
+                .setParent(state.callContext)
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(RETRY_NAME, state.name)
+                .setAttribute(RETRY_ATTEMPT, (long) attempt)
+                .startSpan();
+        return new AttemptToken(span, span.makeCurrent());
+    }
+
+    @Override
+    public void attemptEnd(Object token, RetryContext<?> context, int attempt, Throwable cause) {
+        if (token instanceof CallState) {
+            final CallState state = (CallState) token;
+            state.firstEndNanos = System.nanoTime();
+            state.firstCause = cause;
+            return;
+        }
+        final AttemptToken attemptToken = (AttemptToken) token;
+        attemptToken.scope.close();
+        error(attemptToken.span, cause);
+        attemptToken.span.end();
+    }
+
+    @Override
+    public Object sleepStart(RetryContext<?> context, int attempt, long waitMills) {
+        final CallState state = CURRENT.get();
+        if (state == null) {
+            return null;
+        }
+        ensureSpan(state);
+        return tracer.spanBuilder(BACKOFF_SPAN)
+                .setParent(state.callContext)
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(RETRY_NAME, state.name)
+                .setAttribute(RETRY_ATTEMPT, (long) attempt)
+                .setAttribute(RETRY_BACKOFF_MS, waitMills)
+                .startSpan();
+    }
+
+    @Override
+    public void sleepEnd(Object token) {
+        ((Span) token).end();
+    }
+
+    @Override
+    public Object recoverStart(RetryContext<?> context, int attempt, Throwable cause) {
+        final CallState state = CURRENT.get();
+        if (state == null) {
+            return null;
+        }
+        ensureSpan(state);
+        final Span span = tracer.spanBuilder(RECOVER_SPAN)
+                .setParent(state.callContext)
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(RETRY_NAME, state.name)
+                .setAttribute(RETRY_ATTEMPT, (long) attempt)
+                .startSpan();
+        if (cause != null) {
+            span.setAttribute(ERROR_TYPE, cause.getClass().getName());
+        }
+        return span;
+    }
+
+    @Override
+    public void recoverEnd(Object token) {
+        ((Span) token).end();
+    }
+
+    @Override
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        if (CURRENT.get() == null) {
+            return callable;
+        }
+        return Context.current().wrap(callable);
+    }
+
+    /**
+     * 创建调用的 span，并补建已经结束的第一次尝试
+     *
+     * @param state 调用状态
+     */
+    private void ensureSpan(final CallState state) {
+        if (state.span != null) {
+            return;
+        }
+        final Span span = tracer.spanBuilder("retry " + state.name)
+                .setParent(state.parent)
+                .setSpanKind(SpanKind.INTERNAL)
+                .setStartTimestamp(state.epochNanos(state.startNanos), TimeUnit.NANOSECONDS)
+                .setAttribute(RETRY_NAME, state.name)
+                .startSpan();
+        state.span = span;
+        state.callContext = state.parent.with(span);
+
+        if (state.firstEndNanos != 0) {
+            final Span first = tracer.spanBuilder(ATTEMPT_SPAN)
+                    .setParent(state.callContext)
+                    .setSpanKind(SpanKind.INTERNAL)
+                    .setStartTimestamp(state.epochNanos(state.firstStartNanos), TimeUnit.NANOSECONDS)
+                    .setAttribute(RETRY_NAME, state.name)
+                    .setAttribute(RETRY_ATTEMPT, 1L)
+                    .startSpan();
+            error(first, state.firstCause);
+            first.end(state.epochNanos(state.firstEndNanos), TimeUnit.NANOSECONDS);
+            state.firstCause = null;
+        }
+    }
+
+    /**
+     * 按照 OpenTelemetry 的约定记录异常
+     *
+     * @param span  span
+     * @param cause 异常信息
+     */
+    private static void error(final Span span, final Throwable cause) {
+        if (cause == null) {
+            return;
+        }
+        span.recordException(cause);
+        span.setAttribute(ERROR_TYPE, cause.getClass().getName());
+        span.setStatus(StatusCode.ERROR);
+    }
+
+    private static String nameOf(RetryContext<?> context) {
+        String name = context.name();
+        return name == null || name.isEmpty() ? RetryConst.DEFAULT_NAME : name;
+    }
+
+    /**
+     * 一次重试调用的状态，只在发起调用的线程中访问
+     */
+    private static final class CallState {
+
+        private final String name;
+
+        private final Context parent;
+
+        private final CallState previous;
+
+        /**
+         * 用于把 nanoTime 换算为 span 需要的时间戳
+         */
+        private final long startEpochNanos;
+
+        private final long startNanos;
+
+        private Span span;
+
+        private Context callContext;
+
+        private long firstStartNanos;
+
+        private long firstEndNanos;
+
+        private Throwable firstCause;
+
+        private CallState(String name, Context parent, CallState previous) {
+            this.name = name;
+            this.parent = parent;
+            this.previous = previous;
+            this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            this.startNanos = System.nanoTime();
+        }
+
+        private long epochNanos(long nanoTime) {
+            return startEpochNanos + (nanoTime - startNanos);
+        }
+    }
+
+    /**
+     * 尝试的 span 以及对应的上下文
+     */
+    private static final class AttemptToken {
+
+        private final Span span;
+
+        private final Scope scope;
+
+        private AttemptToken(Span span, Scope scope) {
+            this.span = span;
+            this.scope = scope;
+        }
+    }
+
+}
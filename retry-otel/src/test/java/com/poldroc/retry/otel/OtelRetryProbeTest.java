@@ -0,0 +1,160 @@
+package com.poldroc.retry.otel;
+
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.core.retry.HedgedRetry;
+import com.poldroc.retry.core.support.probe.RetryProbes;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 链路追踪测试
+ *
+ * @since 2026-10-19
+ */
+public class OtelRetryProbeTest {
+
+    private InMemorySpanExporter exporter;
+
+    private SdkTracerProvider tracerProvider;
+
+    private Tracer tracer;
+
+    private OtelRetryProbe probe;
+
+    @Before
+    public void setUp() {
+        exporter = InMemorySpanExporter.create();
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        tracer = tracerProvider.get("test");
+        probe = new OtelRetryProbe(tracerProvider.get(OtelRetryProbe.INSTRUMENTATION_NAME));
+        RetryProbes.register(probe);
+    }
+
+    @After
+    public void tearDown() {
+        RetryProbes.unregister(probe);
+        tracerProvider.close();
+    }
+
+    /**
+     * 测试：没有父 span 并且第一次就成功时不创建 span
+     */
+    @Test
+    public void testFirstTrySuccessCreatesNoSpan() {
+        String result = Retryer.<String>newInstance()
+                .callable(() -> "success")
+                .retryCall();
+
+        assertEquals("success", result);
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+    }
+
+    /**
+     * 测试：需要重试时补建第一次尝试，尝试和等待都是调用的子 span
+     */
+    @Test
+    public void testRetriedCallSpans() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        String result = Retryer.<String>newInstance()
+                .name("otel-retried")
+                .maxAttempt(3)
+                .retryWaitContext(RetryWaiter.<String>retryWait(FixedRetryWait.class).value(10).context())
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() < 2) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "success";
+                })
+                .retryCall();
+        assertEquals("success", result);
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertEquals(4, spans.size());
+        SpanData call = find(spans, "retry otel-retried");
+        assertFalse(call.getParentSpanContext().isValid());
+        assertEquals(Long.valueOf(2), call.getAttributes().get(OtelRetryProbe.RETRY_ATTEMPTS));
+        assertEquals(StatusCode.UNSET, call.getStatus().getStatusCode());
+
+        SpanData first = null;
+        SpanData second = null;
+        for (SpanData span : spans) {
+            if (OtelRetryProbe.ATTEMPT_SPAN.equals(span.getName())) {
+                assertEquals(call.getSpanId(), span.getParentSpanId());
+                if (span.getAttributes().get(OtelRetryProbe.RETRY_ATTEMPT) == 1L) {
+                    first = span;
+                } else {
+                    second = span;
+                }
+            }
+        }
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(StatusCode.ERROR, first.getStatus().getStatusCode());
+        assertEquals(IllegalStateException.class.getName(), first.getAttributes().get(OtelRetryProbe.ERROR_TYPE));
+        assertEquals("exception", first.getEvents().get(0).getName());
+        assertTrue(first.getEndEpochNanos() <= second.getStartEpochNanos());
+        assertTrue(call.getStartEpochNanos() <= first.getStartEpochNanos());
+
+        SpanData backoff = find(spans, OtelRetryProbe.BACKOFF_SPAN);
+        assertEquals(call.getSpanId(), backoff.getParentSpanId());
+        assertEquals(Long.valueOf(10), backoff.getAttributes().get(OtelRetryProbe.RETRY_BACKOFF_MS));
+    }
+
+    /**
+     * 测试：父 span 被采样时立即创建，对冲线程池中执行的方法能拿到尝试的上下文
+     */
+    @Test
+    public void testParentContextPropagatedToHedges() {
+        AtomicReference<String> seenSpanId = new AtomicReference<>();
+        Span parent = tracer.spanBuilder("request").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            String result = Retryer.<String>newInstance()
+                    .name("otel-hedged")
+                    .retry(HedgedRetry.<String>newInstance().delay(1000))
+                    .callable(() -> {
+                        seenSpanId.set(Span.current().getSpanContext().getSpanId());
+                        return "success";
+                    })
+                    .retryCall();
+            assertEquals("success", result);
+        } finally {
+            parent.end();
+        }
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        SpanData call = find(spans, "retry otel-hedged");
+        SpanData attempt = find(spans, OtelRetryProbe.ATTEMPT_SPAN);
+        assertEquals(parent.getSpanContext().getSpanId(), call.getParentSpanId());
+        assertEquals(call.getSpanId(), attempt.getParentSpanId());
+        assertEquals(attempt.getSpanId(), seenSpanId.get());
+    }
+
+    private static SpanData find(List<SpanData> spans, String name) {
+        for (SpanData span : spans) {
+            if (name.equals(span.getName())) {
+                return span;
+            }
+        }
+        throw new AssertionError("span not found: " + name);
+    }
+}
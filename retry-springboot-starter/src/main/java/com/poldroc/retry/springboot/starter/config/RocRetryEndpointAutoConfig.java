@@ -0,0 +1,27 @@
+package com.poldroc.retry.springboot.starter.config;
+
+import com.poldroc.retry.springboot.starter.endpoint.RocRetryEndpoint;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 重试端点自动配置类
+ * 存在 actuator 并且端点开放时注册 {@link RocRetryEndpoint}
+ * @author Poldroc
+ *  
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(ConditionalOnAvailableEndpoint.class)
+public class RocRetryEndpointAutoConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint(endpoint = RocRetryEndpoint.class)
+    public RocRetryEndpoint rocRetryEndpoint() {
+        return new RocRetryEndpoint();
+    }
+
+}
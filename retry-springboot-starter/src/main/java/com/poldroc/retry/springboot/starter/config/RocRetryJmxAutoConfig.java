@@ -0,0 +1,29 @@
+package com.poldroc.retry.springboot.starter.config;
+
+import com.poldroc.retry.core.support.jmx.RetryMBeans;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 重试 JMX 自动配置类
+ * 为每个策略注册 MBean，可以通过 roc.retry.jmx.enabled=false 关闭
+ * @author Poldroc
+ *  
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "roc.retry.jmx", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RocRetryJmxAutoConfig implements InitializingBean, DisposableBean {
+
+    @Override
+    public void afterPropertiesSet() {
+        RetryMBeans.enable();
+    }
+
+    @Override
+    public void destroy() {
+        RetryMBeans.disable();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.poldroc.retry.springboot.starter.config;
+
+import com.poldroc.retry.springboot.starter.metrics.RocRetryMeterBinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 重试指标自动配置类
+ * 存在 Micrometer 时注册 {@link RocRetryMeterBinder}，由 Spring Boot 绑定到 MeterRegistry
+ * @author Poldroc
+ *  
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class RocRetryMetricsAutoConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RocRetryMeterBinder rocRetryMeterBinder() {
+        return new RocRetryMeterBinder();
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.poldroc.retry.springboot.starter.endpoint;
+
+import com.poldroc.retry.core.support.cache.FailureCacheRegistry;
+import com.poldroc.retry.core.support.cache.FailureCacheStore;
+import com.poldroc.retry.core.support.hedge.HedgeBudget;
+import com.poldroc.retry.core.support.hedge.HedgeBudgetRegistry;
+import com.poldroc.retry.core.support.metrics.LatencyHistogram;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 重试统计信息端点
+ * 1. GET /actuator/rocretry 列出所有策略
+ * 2. GET /actuator/rocretry/{name} 查看单个策略
+ * 3. 注解方式下策略名称为方法签名，方法第一次执行之后才会出现
+ *
+ * @author Poldroc
+ *  
+ */
+@Endpoint(id = "rocretry")
+public class RocRetryEndpoint {
+
+    @ReadOperation
+    public Map<String, Object> retries() {
+        Map<String, Object> result = new TreeMap<>();
+        for (RetryMetrics metrics : RetryMetricsRegistry.getInstance().all()) {
+            result.put(metrics.name(), describe(metrics));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> retry(@Selector String name) {
+        for (RetryMetrics metrics : RetryMetricsRegistry.getInstance().all()) {
+            if (metrics.name().equals(name)) {
+                return describe(metrics);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 描述单个策略的统计信息
+     *
+     * @param metrics 统计信息
+     * @return 统计信息
+     */
+    private Map<String, Object> describe(RetryMetrics metrics) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("calls", metrics.calls());
+        map.put("attempts", metrics.attempts());
+        map.put("successes", metrics.successes());
+        map.put("exhaustions", metrics.exhaustions());
+        map.put("exhaustionRate", metrics.exhaustionRate());
+        map.put("recovers", metrics.recovers());
+        map.put("sleepMills", metrics.sleepMills());
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        long[] successes = metrics.successDistribution();
+        for (int i = 0; i < successes.length; i++) {
+            if (successes[i] > 0) {
+                distribution.put(i == successes.length - 1 ? (i + 1) + "+" : String.valueOf(i + 1), successes[i]);
+            }
+        }
+        map.put("successByAttempt", distribution);
+        map.put("attemptLatencyMicros", latency(metrics.attemptLatency()));
+        map.put("callLatencyMicros", latency(metrics.callLatency()));
+
+        HedgeBudget budget = HedgeBudgetRegistry.getInstance().get(metrics.name());
+        if (budget != null) {
+            Map<String, Object> hedge = new LinkedHashMap<>();
+            hedge.put("ratio", budget.ratio());
+            hedge.put("available", budget.available());
+            hedge.put("issued", budget.issued());
+            hedge.put("rejected", budget.rejected());
+            map.put("hedgeBudget", hedge);
+        }
+        FailureCacheStore store = FailureCacheRegistry.getInstance().get(metrics.name());
+        if (store != null) {
+            Map<String, Object> cache = new LinkedHashMap<>();
+            cache.put("size", store.size());
+            cache.put("hits", store.hits());
+            map.put("failureCache", cache);
+        }
+        return map;
+    }
+
+    private Map<String, Object> latency(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", snapshot.count());
+        map.put("mean", snapshot.mean());
+        map.put("p50", snapshot.quantile(0.5));
+        map.put("p90", snapshot.quantile(0.9));
+        map.put("p99", snapshot.quantile(0.99));
+        map.put("max", snapshot.max());
+        return map;
+    }
+
+}
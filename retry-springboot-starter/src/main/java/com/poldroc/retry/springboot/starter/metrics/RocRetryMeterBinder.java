@@ -0,0 +1,184 @@
+package com.poldroc.retry.springboot.starter.metrics;
+
+import com.poldroc.retry.core.constant.RetryConst;
+import com.poldroc.retry.core.support.hedge.HedgeBudget;
+import com.poldroc.retry.core.support.hedge.HedgeBudgetRegistry;
+import com.poldroc.retry.core.support.metrics.LatencyHistogram;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.stop.AttemptLimit;
+import com.poldroc.retry.core.support.stop.AttemptLimitRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 将重试统计信息注册到 Micrometer
+ * 1. 每个策略名称对应一组指标，标签 name 为策略名称（注解方式下为方法签名）
+ * 2. 策略第一次执行时才会创建统计信息，此时自动注册
+ * 3. 指标直接读取 {@link RetryMetrics} 中的计数，不会额外记录
+ * 4. 关闭时移除在 {@link RetryMetricsRegistry} 上注册的监听器，作为 Spring Bean 时随容器关闭
+ *
+ * @author Poldroc
+ *  
+ */
+public class RocRetryMeterBinder implements MeterBinder, AutoCloseable {
+
+    /**
+     * 指标前缀
+     */
+    private static final String PREFIX = "roc.retry.";
+
+    /**
+     * 导出的分位数
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * 已经注册的监听器，每次绑定一个
+     */
+    private final List<Consumer<RetryMetrics>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Consumer<RetryMetrics> listener = metrics -> bind(registry, metrics);
+        listeners.add(listener);
+        RetryMetricsRegistry.getInstance().addListener(listener);
+    }
+
+    /**
+     * 移除监听器，之后创建的策略不再注册指标
+     */
+    @Override
+    public void close() {
+        for (Consumer<RetryMetrics> listener : listeners) {
+            RetryMetricsRegistry.getInstance().removeListener(listener);
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * 注册单个策略的指标
+     *
+     * @param registry 指标注册中心
+     * @param metrics  统计信息
+     */
+    private void bind(MeterRegistry registry, RetryMetrics metrics) {
+        final String name = metrics.name();
+        final Tags tags = Tags.of("name", name);
+
+        counter(registry, "calls", "Retry calls", tags, metrics, RetryMetrics::calls);
+        counter(registry, "attempts", "Retry attempts, including the first attempt and hedges", tags, metrics, RetryMetrics::attempts);
+        counter(registry, "exhaustions", "Calls that exhausted their retries", tags, metrics, RetryMetrics::exhaustions);
+        counter(registry, "recovers", "Recover invocations", tags, metrics, RetryMetrics::recovers);
+        counter(registry, "nested", "Calls made inside another retrying call", tags, metrics, RetryMetrics::nestedCalls);
+        counter(registry, "nested.guarded", "Retries denied by the nested retry guard", tags, metrics, RetryMetrics::guardedRetries);
+        counter(registry, "deferred", "Calls whose remaining retries were handed to a background scheduler", tags, metrics, RetryMetrics::deferrals);
+        Gauge.builder(PREFIX + "amplification", metrics, RetryMetrics::amplification)
+                .description("Downstream attempts per top-level call, including nested retries")
+                .tags(tags)
+                .register(registry);
+        // 没有重试之后成功的调用时为 0
+        Gauge.builder(PREFIX + "recovery", metrics, m -> m.recovery().meanMills())
+                .description("Smoothed time from the first failure to the attempt that succeeded")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "sleep", metrics, RetryMetrics::sleepMills)
+                .description("Time spent waiting between attempts")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(registry);
+        // 只统计开启了资源统计的策略
+        FunctionCounter.builder(PREFIX + "cpu", metrics, m -> m.cpuTimeNanos() / 1e9)
+                .description("CPU time consumed by attempts")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "cpu.retries", metrics, m -> m.retryCpuTimeNanos() / 1e9)
+                .description("CPU time consumed by attempts after the first")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "allocated", metrics, RetryMetrics::allocatedBytes)
+                .description("Bytes allocated by attempts")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "allocated.retries", metrics, RetryMetrics::retryAllocatedBytes)
+                .description("Bytes allocated by attempts after the first")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+        for (int i = 1; i <= RetryConst.MAX_TRACKED_ATTEMPTS; i++) {
+            final int attempt = i;
+            String attemptTag = i == RetryConst.MAX_TRACKED_ATTEMPTS ? i + "+" : String.valueOf(i);
+            counter(registry, "successes", "Successful calls by the attempt that succeeded",
+                    tags.and("attempt", attemptTag), metrics, m -> m.successes(attempt));
+        }
+
+        latency(registry, "attempt.latency", "Attempt latency", tags, metrics, RetryMetrics::attemptLatency);
+        latency(registry, "call.latency", "Call latency, including waits", tags, metrics, RetryMetrics::callLatency);
+
+        // 对冲预算，没有使用对冲时可用令牌为 NaN
+        Gauge.builder(PREFIX + "hedge.budget.available", name, n -> budgetValue(n, HedgeBudget::available, Double.NaN))
+                .description("Available hedge tokens")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "hedges", name, n -> budgetValue(n, HedgeBudget::issued, 0D))
+                .description("Hedges issued")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "hedges.rejected", name, n -> budgetValue(n, HedgeBudget::rejected, 0D))
+                .description("Hedges rejected by the budget")
+                .tags(tags)
+                .register(registry);
+
+        // 自适应的最大尝试次数，没有使用时为 NaN
+        Gauge.builder(PREFIX + "attempt.limit", name, n -> {
+                    AttemptLimit limit = AttemptLimitRegistry.getInstance().get(n);
+                    return limit == null ? Double.NaN : limit.current();
+                })
+                .description("Effective attempt limit chosen from the success-by-attempt distribution")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, String description, Tags tags,
+                                RetryMetrics metrics, ToDoubleFunction<RetryMetrics> function) {
+        FunctionCounter.builder(PREFIX + name, metrics, function)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static void latency(MeterRegistry registry, String name, String description, Tags tags,
+                                RetryMetrics metrics, Function<RetryMetrics, LatencyHistogram> histogram) {
+        for (double quantile : QUANTILES) {
+            TimeGauge.builder(PREFIX + name, metrics, TimeUnit.MICROSECONDS, m -> histogram.apply(m).quantile(quantile))
+                    .description(description)
+                    .tags(tags.and("quantile", String.valueOf(quantile)))
+                    .register(registry);
+        }
+        TimeGauge.builder(PREFIX + name + ".max", metrics, TimeUnit.MICROSECONDS, m -> histogram.apply(m).max())
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static double budgetValue(String name, ToDoubleFunction<HedgeBudget> function, double absent) {
+        HedgeBudget budget = HedgeBudgetRegistry.getInstance().get(name);
+        return budget == null ? absent : function.applyAsDouble(budget);
+    }
+
+}
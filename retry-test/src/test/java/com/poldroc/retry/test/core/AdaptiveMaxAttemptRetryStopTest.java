@@ -0,0 +1,133 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.jmx.RetryPolicy;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.stop.AdaptiveMaxAttemptRetryStop;
+import com.poldroc.retry.core.support.stop.AttemptLimit;
+import com.poldroc.retry.core.support.stop.AttemptLimitRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 根据成功分布自动调整最大尝试次数测试
+ *
+ * @since 2026-10-19
+ */
+public class AdaptiveMaxAttemptRetryStopTest {
+
+    /**
+     * 测试：之后的尝试从不成功时降低上限，之后的尝试恢复有效时回升
+     */
+    @Test(timeout = 10000)
+    public void testLowersAndRaisesLimit() {
+        final String name = "adaptive-stop-" + System.nanoTime();
+        final AtomicInteger executions = new AtomicInteger();
+
+        // 一半的调用第一次就成功，另一半一直失败，第二次及之后的尝试都是浪费
+        for (int i = 0; i < 200; i++) {
+            final boolean broken = i % 2 == 0;
+            call(name, executions, attempt -> !broken && attempt == 1);
+        }
+        AttemptLimit limit = AttemptLimitRegistry.getInstance().get(name);
+        assertEquals(1, limit.current());
+        assertEquals(3, limit.lowered());
+        assertEquals(1, new RetryPolicy(RetryMetricsRegistry.getInstance().metrics(name)).getAttemptLimit());
+
+        executions.set(0);
+        for (int i = 0; i < 20; i++) {
+            call(name, executions, attempt -> false);
+        }
+        assertEquals("降低之后一直失败的调用只尝试一次", 20, executions.get());
+
+        // 下游变化之后，第二次尝试总是成功
+        for (int i = 0; i < 1000; i++) {
+            call(name, executions, attempt -> attempt == 2);
+        }
+        assertEquals(2, limit.current());
+        assertTrue(limit.raised() >= 1);
+    }
+
+    /**
+     * 测试：样本不足时保持最大值
+     */
+    @Test
+    public void testKeepsMaxWithoutSamples() {
+        final String name = "adaptive-stop-cold-" + System.nanoTime();
+        final AtomicInteger executions = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            call(name, executions, attempt -> false);
+        }
+
+        assertEquals(20, executions.get());
+        assertEquals(4, AttemptLimitRegistry.getInstance().get(name).current());
+    }
+
+    /**
+     * 测试：参数校验
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("a", 0, 3));
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("a", 3, 2));
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("a", 1, 100));
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("a", 1, 3, 1.5, 1, TimeUnit.SECONDS));
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("a", 1, 3, 0.05, 0, TimeUnit.SECONDS));
+        assertInvalid(() -> new AdaptiveMaxAttemptRetryStop("", 1, 3));
+    }
+
+    /**
+     * 测试：必须指定名称，同名的参数必须一致
+     */
+    @Test
+    public void testRegistryRejectsUnnamedAndConflictingParams() {
+        final String name = "adaptive-stop-conflict-" + System.nanoTime();
+        AttemptLimitRegistry registry = AttemptLimitRegistry.getInstance();
+        AttemptLimit limit = registry.limit(name, 1, 4, 0.05, 1000);
+        assertSame(limit, registry.limit(name, 1, 4, 0.05, 1000));
+
+        assertInvalid(() -> registry.limit(null, 1, 4, 0.05, 1000));
+        assertInvalid(() -> registry.limit(name, 2, 4, 0.05, 1000));
+        assertInvalid(() -> registry.limit(name, 1, 5, 0.05, 1000));
+        assertInvalid(() -> registry.limit(name, 1, 4, 0.1, 1000));
+        assertInvalid(() -> registry.limit(name, 1, 4, 0.05, 2000));
+        assertNull(registry.get(null));
+    }
+
+    private void call(String name, AtomicInteger executions, AttemptOutcome outcome) {
+        final AtomicInteger attempt = new AtomicInteger();
+        try {
+            Retryer.<String>newInstance()
+                    .name(name)
+                    .stop(new AdaptiveMaxAttemptRetryStop(name, 1, 4, 0.05, 1, TimeUnit.NANOSECONDS))
+                    .callable(() -> {
+                        executions.incrementAndGet();
+                        if (outcome.success(attempt.incrementAndGet())) {
+                            return "success";
+                        }
+                        throw new IllegalStateException("fail");
+                    })
+                    .retryCall();
+        } catch (IllegalStateException e) {
+            // 用尽重试
+        }
+    }
+
+    private void assertInvalid(Runnable runnable) {
+        try {
+            runnable.run();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private interface AttemptOutcome {
+
+        boolean success(int attempt);
+    }
+}
@@ -0,0 +1,76 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.metrics.LatencyHistogram;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.timeout.RetryTimeouts;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 自适应超时测试
+ *
+ * @since 2026-10-19
+ */
+public class AdaptiveRetryTimeoutTest {
+
+    /**
+     * 测试：直方图的分位数误差在桶精度之内
+     */
+    @Test
+    public void testHistogramQuantile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10000, snapshot.count());
+        assertEquals(10000, snapshot.max());
+        assertEquals(5000, snapshot.quantile(0.5), 5000 * 0.04);
+        assertEquals(9900, snapshot.quantile(0.99), 9900 * 0.04);
+        assertEquals(10000, snapshot.quantile(1));
+    }
+
+    /**
+     * 测试：样本不足时使用最大值，预热之后根据最近耗时截断慢的尝试
+     */
+    @Test(timeout = 5000)
+    public void testSlowOutlierIsCutShort() throws InterruptedException {
+        final String name = "adaptive-timeout-" + System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            Retryer.<String>newInstance()
+                    .name(name)
+                    .timeout(RetryTimeouts.adaptive(0.99, 3, 1, 2000))
+                    .callable(() -> {
+                        Thread.sleep(2);
+                        return "warm";
+                    })
+                    .retryCall();
+        }
+        // 等待快照刷新
+        Thread.sleep(150);
+
+        AtomicInteger executionCount = new AtomicInteger(0);
+        long start = System.currentTimeMillis();
+        String result = Retryer.<String>newInstance()
+                .name(name)
+                .timeout(RetryTimeouts.adaptive(0.99, 3, 1, 2000))
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        Thread.sleep(1500);
+                    }
+                    return "success";
+                })
+                .retryCall();
+        long cost = System.currentTimeMillis() - start;
+
+        assertEquals("success", result);
+        assertEquals(2, executionCount.get());
+        assertTrue("慢的尝试应该被提前中断，实际耗时 " + cost + "ms", cost < 1000);
+        assertTrue(RetryMetricsRegistry.getInstance().metrics(name).recentLatency().count() >= 50);
+    }
+}
@@ -0,0 +1,168 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.constant.RetryWaitConst;
+import com.poldroc.retry.core.context.DefaultRetryWaitContext;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.metrics.RecoveryEstimator;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.wait.AdaptiveRetryWait;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import com.poldroc.retry.core.support.wait.RecoveryStateFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 根据恢复时间自适应的等待策略测试
+ *
+ * @since 2026-10-19
+ */
+public class AdaptiveRetryWaitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AdaptiveRetryWait retryWait = new AdaptiveRetryWait();
+
+    /**
+     * 测试：学习下游的恢复时间，之后的等待在学习到的时间附近
+     */
+    @Test(timeout = 10000)
+    public void testLearnsRecoveryTime() {
+        final String name = "adaptive-wait-" + System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            final long[] firstFailure = {0};
+            String result = Retryer.<String>newInstance()
+                    .name(name)
+                    .maxAttempt(20)
+                    .retryWaitContext(RetryWaiter.<String>retryWait(AdaptiveRetryWait.class).value(20).max(1000).context())
+                    .callable(() -> {
+                        long now = System.currentTimeMillis();
+                        if (firstFailure[0] == 0) {
+                            firstFailure[0] = now;
+                        }
+                        // 下游在第一次失败 100ms 之后恢复
+                        if (now - firstFailure[0] < 100) {
+                            throw new IllegalStateException("not recovered");
+                        }
+                        return "success";
+                    })
+                    .retryCall();
+            assertEquals("success", result);
+        }
+
+        RecoveryEstimator recovery = RetryMetricsRegistry.getInstance().metrics(name).recovery();
+        assertEquals(6, recovery.samples());
+        assertTrue("恢复时间 " + recovery.meanMills(), recovery.meanMills() >= 90 && recovery.meanMills() < 400);
+
+        for (int i = 0; i < 100; i++) {
+            long wait = retryWait.waitTime(waitContext(name, 1)).time();
+            assertTrue(wait >= Math.floor(recovery.meanMills() * 0.75) && wait <= Math.ceil(recovery.meanMills()));
+        }
+        // 仍然失败时按照因子增长
+        assertTrue(retryWait.waitTime(waitContext(name, 3)).time() > Math.ceil(recovery.meanMills() * 1.25));
+    }
+
+    /**
+     * 测试：样本不足时使用指数等待
+     */
+    @Test
+    public void testFallbackWhenCold() {
+        final String name = "adaptive-wait-cold-" + System.nanoTime();
+        DefaultRetryWaitContext<Object> context = waitContext(name, 2);
+
+        assertEquals(Math.round(100 * context.factor()), retryWait.waitTime(context).time());
+    }
+
+    /**
+     * 测试：恢复样本包含自身的等待时间，估计仍然会向更短的真实恢复时间收敛
+     */
+    @Test(timeout = 10000)
+    public void testConvergesTowardShorterRecovery() {
+        final String name = "adaptive-wait-converge-" + System.nanoTime();
+        RecoveryEstimator recovery = RetryMetricsRegistry.getInstance().metrics(name).recovery();
+        // 之前学习到 100ms，下游现在 20ms 就恢复
+        recovery.restore(RetryWaitConst.ADAPTIVE_MIN_SAMPLES, 100, 10);
+
+        for (int i = 0; i < 30; i++) {
+            final long[] firstFailure = {0};
+            String result = Retryer.<String>newInstance()
+                    .name(name)
+                    .maxAttempt(20)
+                    .retryWaitContext(RetryWaiter.<String>retryWait(AdaptiveRetryWait.class).max(1000).context())
+                    .callable(() -> {
+                        long now = System.currentTimeMillis();
+                        if (firstFailure[0] == 0) {
+                            firstFailure[0] = now;
+                        }
+                        if (now - firstFailure[0] < 20) {
+                            throw new IllegalStateException("not recovered");
+                        }
+                        return "success";
+                    })
+                    .retryCall();
+            assertEquals("success", result);
+        }
+
+        assertTrue("恢复时间 " + recovery.meanMills(), recovery.meanMills() < 75 && recovery.meanMills() >= 15);
+    }
+
+    /**
+     * 测试：样本不足时使用配置的兜底策略，兜底策略不能是自身
+     */
+    @Test
+    public void testConfiguredFallbackWhenCold() {
+        final String name = "adaptive-wait-fallback-" + System.nanoTime();
+        DefaultRetryWaitContext<Object> context = waitContext(name, 3);
+        context.fallback(FixedRetryWait.class);
+        assertEquals(100, retryWait.waitTime(context).time());
+
+        context.fallback(AdaptiveRetryWait.class);
+        try {
+            retryWait.waitTime(context);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // ignore
+        }
+    }
+
+    /**
+     * 测试：估计写入文件，重启之后加载
+     */
+    @Test(timeout = 5000)
+    public void testStatePersistedAcrossRestart() throws Exception {
+        final String name = "adaptive.wait:persist-" + System.nanoTime();
+        final Path file = folder.getRoot().toPath().resolve("recovery.properties");
+        RecoveryEstimator recovery = RetryMetricsRegistry.getInstance().metrics(name).recovery();
+        recovery.restore(12, 250, 40);
+
+        try (RecoveryStateFile stateFile = RecoveryStateFile.open(file).autoSave(20, TimeUnit.MILLISECONDS)) {
+            assertTrue(stateFile.save() >= 1);
+        }
+
+        // 模拟重启之后的空状态
+        recovery.restore(0, 0, 0);
+        RecoveryStateFile.open(file).load();
+
+        assertEquals(12, recovery.samples());
+        assertEquals(250, recovery.meanMills(), 0.001);
+        assertEquals(40, recovery.deviationMills(), 0.001);
+        long wait = retryWait.waitTime(waitContext(name, 1)).time();
+        assertTrue(wait >= 187 && wait <= 250);
+    }
+
+    private DefaultRetryWaitContext<Object> waitContext(String name, int attempt) {
+        DefaultRetryWaitContext<Object> context = (DefaultRetryWaitContext<Object>) RetryWaiter.retryWait(AdaptiveRetryWait.class)
+                .value(100)
+                .max(10_000)
+                .context();
+        context.name(name).attempt(attempt);
+        return context;
+    }
+}
@@ -0,0 +1,247 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.annotation.annotation.Retry;
+import com.poldroc.retry.annotation.handler.impl.DefaultRetryAbleHandler;
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.model.DefaultRetryAttempt;
+import com.poldroc.retry.core.support.listen.AsyncRetryListen;
+import com.poldroc.retry.core.support.listen.ListenOverflowPolicy;
+import com.poldroc.retry.core.support.listen.RetryListens;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * 异步监听测试
+ *
+ * @since 2026-10-19
+ */
+public class AsyncRetryListenTest {
+
+    /**
+     * 测试：慢的监听器不增加调用耗时
+     */
+    @Test(timeout = 5000)
+    public void testSlowListenerOffHotPath() throws InterruptedException {
+        CountDownLatch listened = new CountDownLatch(2);
+        RetryListen slowListen = new RetryListen() {
+            @Override
+            public <R> void listen(RetryAttempt<R> attempt) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                listened.countDown();
+            }
+        };
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        long start = System.currentTimeMillis();
+        String result = Retryer.<String>newInstance()
+                .listen(RetryListens.async(slowListen))
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() < 3) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "ok";
+                })
+                .retryCall();
+        long cost = System.currentTimeMillis() - start;
+
+        assertEquals("ok", result);
+        assertTrue("监听器不应该阻塞调用，实际耗时 " + cost + "ms", cost < 150);
+        assertTrue(listened.await(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试：缓冲区满时丢弃
+     */
+    @Test(timeout = 5000)
+    public void testDropWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (AsyncRetryListen async = RetryListens.async(blockingListen(release), 2, ListenOverflowPolicy.DROP)) {
+            for (int i = 1; i <= 10; i++) {
+                async.listen(attempt(i));
+            }
+            // 一个正在处理，两个在缓冲区中
+            assertTrue(async.dropped() >= 7);
+            release.countDown();
+            waitUntil(() -> async.delivered() + async.dropped() == 10);
+        }
+    }
+
+    /**
+     * 测试：阻塞模式下多个生产者的事件全部送达，并且内容正确
+     */
+    @Test(timeout = 10000)
+    public void testBlockDeliversAllFromManyProducers() throws InterruptedException {
+        final int producers = 8;
+        final int perProducer = 10_000;
+        final AtomicLong attemptSum = new AtomicLong();
+        RetryListen sumListen = new RetryListen() {
+            @Override
+            public <R> void listen(RetryAttempt<R> attempt) {
+                attemptSum.addAndGet(attempt.attempt());
+            }
+        };
+
+        try (AsyncRetryListen async = RetryListens.async(sumListen, 64, ListenOverflowPolicy.BLOCK)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 1; i <= perProducer; i++) {
+                        async.listen(attempt(i));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            waitUntil(() -> async.delivered() == (long) producers * perProducer);
+
+            assertEquals(0, async.dropped());
+            assertEquals((long) producers * perProducer * (perProducer + 1) / 2, attemptSum.get());
+        }
+    }
+
+    /**
+     * 测试：注解异步监听每次调用复用同一个监听器和消费者线程
+     */
+    @Test(timeout = 5000)
+    public void testAnnotationAsyncListenShared() throws Exception {
+        Retry annotation = AsyncRetryListenTest.class.getDeclaredMethod("annotated").getAnnotation(Retry.class);
+        int threadsBefore = listenThreads();
+
+        for (int i = 0; i < 20; i++) {
+            AtomicInteger executionCount = new AtomicInteger(0);
+            RetryContext<String> context = new DefaultRetryAbleHandler<String>().build(annotation, () -> {
+                if (executionCount.incrementAndGet() < 2) {
+                    throw new IllegalStateException("fail");
+                }
+                return "ok";
+            });
+            assertEquals("ok", Retryer.<String>newInstance().retryCall(context));
+        }
+
+        assertEquals(1, CountingListen.INSTANCES.get());
+        assertEquals(1, listenThreads() - threadsBefore);
+        waitUntil(() -> CountingListen.LISTENED.get() >= 20);
+    }
+
+    /**
+     * 测试：异步监听器看到的历史信息是投递时的快照，不受之后的重试影响
+     */
+    @Test(timeout = 5000)
+    public void testHistoryIsSnapshot() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> historySizes = new CopyOnWriteArrayList<>();
+        RetryListen listen = new RetryListen() {
+            @Override
+            public <R> void listen(RetryAttempt<R> attempt) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                int size = 0;
+                for (RetryAttempt<R> ignored : attempt.history()) {
+                    size++;
+                }
+                historySizes.add(size);
+            }
+        };
+
+        try (AsyncRetryListen async = RetryListens.async(listen, 8, ListenOverflowPolicy.BLOCK)) {
+            AtomicInteger executionCount = new AtomicInteger(0);
+            String result = Retryer.<String>newInstance()
+                    .maxAttempt(4)
+                    .listen(async)
+                    .callable(() -> {
+                        if (executionCount.incrementAndGet() < 4) {
+                            throw new IllegalStateException("fail");
+                        }
+                        return "ok";
+                    })
+                    .retryCall();
+            assertEquals("ok", result);
+
+            release.countDown();
+            waitUntil(() -> async.delivered() == 3);
+            assertEquals(0, async.errors());
+            assertEquals(Arrays.asList(1, 2, 3), historySizes);
+        }
+    }
+
+    @Retry(listen = CountingListen.class, asyncListen = true)
+    private String annotated() {
+        return "ok";
+    }
+
+    /**
+     * 统计实例数量的监听器
+     */
+    public static class CountingListen implements RetryListen {
+
+        private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        private static final AtomicInteger LISTENED = new AtomicInteger();
+
+        public CountingListen() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public <R> void listen(RetryAttempt<R> attempt) {
+            LISTENED.incrementAndGet();
+        }
+    }
+
+    private static int listenThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("roc-retry-listen-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static RetryAttempt<String> attempt(int attempt) {
+        return new DefaultRetryAttempt<String>().attempt(attempt);
+    }
+
+    private static RetryListen blockingListen(CountDownLatch release) {
+        return new RetryListen() {
+            @Override
+            public <R> void listen(RetryAttempt<R> attempt) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.model.DefaultWaitTime;
+import com.poldroc.retry.core.support.block.CoalescingRetryBlock;
+import com.poldroc.retry.core.support.timer.HashedWheelRetryTimer;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对齐到刻度的阻塞测试
+ *
+ * @since 2026-10-19
+ */
+public class CoalescingRetryBlockTest {
+
+    /**
+     * 测试：等待时间接近的线程在同一个刻度被唤醒，且不会提前唤醒
+     */
+    @Test(timeout = 5000)
+    public void testNearbyWaitsWakeTogether() throws Exception {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(50, TimeUnit.MILLISECONDS, 64)) {
+            final CoalescingRetryBlock block = new CoalescingRetryBlock(timer, 0.5);
+            final int threads = 16;
+            final long[] wakeNanos = new long[threads];
+            final long[] waitMills = new long[threads];
+            final CountDownLatch start = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(threads);
+            final AtomicInteger early = new AtomicInteger();
+
+            // 预热时间轮线程
+            timer.schedule(() -> { }, 1, TimeUnit.MILLISECONDS);
+            Thread.sleep(120);
+
+            for (int i = 0; i < threads; i++) {
+                final int index = i;
+                waitMills[i] = 200 + i;
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        long begin = System.nanoTime();
+                        block.block(new DefaultWaitTime(waitMills[index]));
+                        wakeNanos[index] = System.nanoTime();
+                        if (wakeNanos[index] - begin < TimeUnit.MILLISECONDS.toNanos(waitMills[index])) {
+                            early.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            start.countDown();
+            assertTrue(done.await(3, TimeUnit.SECONDS));
+
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long wake : wakeNanos) {
+                min = Math.min(min, wake);
+                max = Math.max(max, wake);
+            }
+            assertEquals(0, early.get());
+            assertEquals(threads, block.coalesced());
+            // 等待时间相差 15ms，唤醒时间落在至多两个相邻刻度上
+            assertTrue("唤醒时间相差 " + TimeUnit.NANOSECONDS.toMillis(max - min) + "ms",
+                    max - min <= TimeUnit.MILLISECONDS.toNanos(50 + 40));
+        }
+    }
+
+    /**
+     * 测试：刻度相对于等待时间过大时直接睡眠
+     */
+    @Test(timeout = 5000)
+    public void testShortWaitSleepsDirectly() {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(50, TimeUnit.MILLISECONDS, 64)) {
+            CoalescingRetryBlock block = new CoalescingRetryBlock(timer, 0.1);
+            long begin = System.nanoTime();
+            block.block(new DefaultWaitTime(20));
+
+            assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertEquals(1, block.direct());
+            assertEquals(0, block.coalesced());
+        }
+    }
+
+    /**
+     * 测试：等待中被中断时抛出异常并保留中断标记
+     */
+    @Test(timeout = 5000)
+    public void testInterrupt() throws Exception {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(10, TimeUnit.MILLISECONDS, 64)) {
+            final CoalescingRetryBlock block = new CoalescingRetryBlock(timer, 0.1);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final AtomicReference<Boolean> interrupted = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    block.block(new DefaultWaitTime(10_000));
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+                interrupted.set(Thread.currentThread().isInterrupted());
+            });
+            waiter.start();
+            Thread.sleep(100);
+            waiter.interrupt();
+            waiter.join(2000);
+
+            assertTrue(error.get() instanceof RetryException);
+            assertTrue(interrupted.get());
+            assertEquals(0, timer.pending());
+        }
+    }
+
+    /**
+     * 测试：作为重试的阻塞方式使用
+     */
+    @Test(timeout = 5000)
+    public void testRetryerUsesCoalescingBlock() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+        String result = Retryer.<String>newInstance()
+                .maxAttempt(3)
+                .block(CoalescingRetryBlock.getInstance())
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() < 3) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals(3, executionCount.get());
+    }
+}
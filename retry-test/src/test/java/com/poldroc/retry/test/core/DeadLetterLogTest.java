@@ -0,0 +1,145 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.deadletter.DeadLetterEntry;
+import com.poldroc.retry.core.support.deadletter.DeadLetterLog;
+import com.poldroc.retry.core.support.deadletter.DeadLetterRecover;
+import com.poldroc.retry.core.support.deadletter.JavaDeadLetterSerializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * 死信日志测试
+ *
+ * @since 2026-10-19
+ */
+public class DeadLetterLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 测试：重试耗尽后写入策略名称、参数、异常和尝试次数
+     */
+    @Test(timeout = 5000)
+    public void testExhaustedCallIsRecorded() throws Exception {
+        try (DeadLetterLog log = DeadLetterLog.open(folder.getRoot().toPath())) {
+            Retryer<String> retryer = Retryer.<String>newInstance()
+                    .name("orders")
+                    .maxAttempt(3)
+                    .recover(new DeadLetterRecover("orders", log))
+                    .callable(() -> {
+                        throw new IllegalStateException("downstream unavailable");
+                    });
+            RetryContext<String> context = retryer.context().params(new Object[]{"order-1", 42});
+            try {
+                retryer.retryCall(context);
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                // 重试耗尽后依然抛出原始异常
+            }
+            log.flush();
+
+            List<DeadLetterEntry> entries = log.read(1, 10);
+            assertEquals(1, entries.size());
+            DeadLetterEntry entry = entries.get(0);
+            assertEquals(1, entry.sequence());
+            assertEquals("orders", entry.name());
+            assertEquals(3, entry.attempt());
+            assertEquals(IllegalStateException.class.getName(), entry.causeClass());
+            assertEquals("downstream unavailable", entry.causeMessage());
+            assertArrayEquals(new Object[]{"order-1", 42}, entry.params(JavaDeadLetterSerializer.getInstance()));
+        }
+    }
+
+    /**
+     * 测试：并发写入的记录序号连续，分段写满后切换，重新打开后继续编号
+     */
+    @Test(timeout = 10000)
+    public void testConcurrentAppendRollAndReopen() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        final int threads = 8;
+        final int perThread = 500;
+        try (DeadLetterLog log = DeadLetterLog.open(directory, 16 * 1024, 8192)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int index = t;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        log.append("bulk", index, new RuntimeException("e" + i), new byte[]{(byte) i});
+                    }
+                });
+                writers.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            for (Thread thread : writers) {
+                thread.join();
+            }
+            log.flush();
+
+            assertEquals(0, log.dropped());
+            assertEquals(threads * perThread, log.lastSequence());
+            assertTrue("记录应该分布在多个分段中", log.segments() > 1);
+        }
+
+        try (DeadLetterLog log = DeadLetterLog.open(directory, 16 * 1024, 8192)) {
+            assertEquals(threads * perThread, log.lastSequence());
+            log.append("bulk", 1, null, null);
+            log.flush();
+
+            long expected = 1;
+            List<DeadLetterEntry> batch;
+            while (!(batch = log.read(expected, 300)).isEmpty()) {
+                for (DeadLetterEntry entry : batch) {
+                    assertEquals(expected++, entry.sequence());
+                }
+            }
+            assertEquals(threads * perThread + 2, expected);
+
+            DeadLetterEntry last = log.read(threads * perThread + 1, 1).get(0);
+            assertNull(last.causeClass());
+            assertFalse(last.hasParams());
+        }
+    }
+
+    /**
+     * 测试：压缩只删除已经全部处理的分段
+     */
+    @Test(timeout = 5000)
+    public void testCompactKeepsUnprocessedSegments() throws Exception {
+        try (DeadLetterLog log = DeadLetterLog.open(folder.getRoot().toPath(), 4 * 1024, 1024)) {
+            for (int i = 0; i < 300; i++) {
+                log.append("compact", 1, null, new byte[32]);
+            }
+            log.flush();
+            int segments = log.segments();
+            assertTrue(segments > 2);
+
+            long from = 150;
+            assertTrue(log.compact(from) > 0);
+            assertTrue(log.segments() < segments);
+            assertEquals(from, log.read(from, 1).get(0).sequence());
+
+            log.compact(Long.MAX_VALUE);
+            assertEquals("正在写入的分段不会被删除", 1, log.segments());
+            assertEquals(300, log.lastSequence());
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.deadletter.DeadLetterEntry;
+import com.poldroc.retry.core.support.deadletter.DeadLetterLog;
+import com.poldroc.retry.core.support.deadletter.DeadLetterReplayer;
+import com.poldroc.retry.core.support.deadletter.JavaDeadLetterSerializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 死信重放测试
+ *
+ * @since 2026-10-19
+ */
+public class DeadLetterReplayerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 测试：按照策略名称重放，失败的尝试由策略重试，没有策略的记录被跳过并写回日志
+     */
+    @Test(timeout = 5000)
+    public void testReplayThroughNamedPolicy() {
+        try (DeadLetterLog log = DeadLetterLog.open(folder.getRoot().toPath())) {
+            for (int i = 0; i < 20; i++) {
+                append(log, "orders", i);
+            }
+            append(log, "unknown", -1);
+            log.flush();
+
+            Set<Integer> replayed = ConcurrentHashMap.newKeySet();
+            AtomicInteger calls = new AtomicInteger();
+            DeadLetterReplayer replayer = DeadLetterReplayer.newInstance(log)
+                    .parallelism(4)
+                    .policy("orders", Retryer.<String>newInstance().maxAttempt(2), params -> {
+                        // 每个记录第一次执行失败，由重放策略重试
+                        if (calls.incrementAndGet() % 2 == 1) {
+                            throw new IllegalStateException("still recovering");
+                        }
+                        replayed.add((Integer) params[0]);
+                        return "ok";
+                    });
+
+            assertEquals(21, replayer.replay());
+            assertEquals(20, replayer.succeeded() + replayer.failed());
+            assertEquals(1, replayer.skipped());
+            assertEquals(21, replayer.checkpointSequence());
+
+            // 没有重放成功的记录被写回日志，不会因为检查点和压缩丢失
+            long notReplayed = replayer.failed() + replayer.skipped();
+            List<DeadLetterEntry> remaining = log.read(replayer.checkpointSequence() + 1, 100);
+            assertEquals(notReplayed, remaining.size());
+            assertEquals("unknown", remaining.get(remaining.size() - 1).name());
+            assertEquals(notReplayed, replayer.replay());
+        }
+    }
+
+    /**
+     * 测试：中途停止后从检查点继续，每条记录只执行一次，重放完成的分段被压缩
+     */
+    @Test(timeout = 10000)
+    public void testResumeFromCheckpointAndCompact() {
+        final int total = 200;
+        try (DeadLetterLog log = DeadLetterLog.open(folder.getRoot().toPath(), 2 * 1024, 1024)) {
+            for (int i = 0; i < total; i++) {
+                append(log, "orders", i);
+            }
+            log.flush();
+            int segments = log.segments();
+            assertTrue(segments > 2);
+
+            Set<Integer> replayed = ConcurrentHashMap.newKeySet();
+            AtomicInteger calls = new AtomicInteger();
+            DeadLetterReplayer first = DeadLetterReplayer.newInstance(log).batchSize(50).parallelism(2);
+            first.policy("orders", Retryer.<String>newInstance(), params -> {
+                replayed.add((Integer) params[0]);
+                if (calls.incrementAndGet() == 60) {
+                    first.stop();
+                }
+                return "ok";
+            });
+            long firstRun = first.replay();
+            assertTrue(firstRun < total);
+            assertEquals(firstRun, first.checkpointSequence());
+            assertTrue("已经重放的分段应该被删除", log.segments() < segments);
+
+            DeadLetterReplayer second = DeadLetterReplayer.newInstance(log)
+                    .policy("orders", Retryer.<String>newInstance(), params -> {
+                        replayed.add((Integer) params[0]);
+                        calls.incrementAndGet();
+                        return "ok";
+                    });
+            assertEquals(total - firstRun, second.replay());
+            assertEquals(total, replayed.size());
+            assertEquals("每条记录只执行一次", total, calls.get());
+            assertEquals(1, log.segments());
+        }
+    }
+
+    /**
+     * 测试：重放速度不超过限速
+     */
+    @Test(timeout = 5000)
+    public void testRateLimited() {
+        try (DeadLetterLog log = DeadLetterLog.open(folder.getRoot().toPath())) {
+            for (int i = 0; i < 20; i++) {
+                append(log, "orders", i);
+            }
+            log.flush();
+
+            long start = System.nanoTime();
+            long count = DeadLetterReplayer.newInstance(log)
+                    .ratePerSecond(50)
+                    .policy("orders", Retryer.<String>newInstance(), params -> "ok")
+                    .replay();
+            long costMills = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(20, count);
+            assertTrue("20 条记录按每秒 50 条重放，实际耗时 " + costMills + "ms", costMills >= 350);
+        }
+    }
+
+    private static void append(DeadLetterLog log, String name, int value) {
+        log.append(name, 3, new IllegalStateException("down"),
+                JavaDeadLetterSerializer.getInstance().serialize(new Object[]{value}));
+    }
+
+}
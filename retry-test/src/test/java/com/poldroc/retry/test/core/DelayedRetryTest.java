@@ -0,0 +1,317 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.exception.RetryDeferredException;
+import com.poldroc.retry.api.exception.RetryException;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.core.context.RetryContextHolder;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.deadletter.DeadLetterSerializer;
+import com.poldroc.retry.core.support.deadletter.JavaDeadLetterSerializer;
+import com.poldroc.retry.core.support.defer.DelayedRetryScheduler;
+import com.poldroc.retry.core.support.defer.FileDelayedRetryStore;
+import com.poldroc.retry.core.support.listen.AbstractRetryLifecycleListen;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * 延后重试测试
+ *
+ * @since 2026-10-19
+ */
+public class DelayedRetryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 测试：长时间等待交给后台，调用方立刻返回，后台接着尝试次数继续执行直到成功
+     */
+    @Test(timeout = 5000)
+    public void testDeferredRetryCompletesInBackground() throws Exception {
+        final String name = "delayed-success-" + System.nanoTime();
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(store())
+                .threshold(50, TimeUnit.MILLISECONDS)) {
+            Retryer<String> retryer = retryer(name, 5, scheduler, null).retryWaitContext(
+                    RetryWaiter.<String>retryWait(FixedRetryWait.class).value(400).context())
+                    .lifecycle(new AbstractRetryLifecycleListen() {
+                        @Override
+                        public <R> void onSuccess(RetryContext<R> context, RetryAttempt<R> attempt) {
+                            events.add("success-" + attempt.attempt());
+                        }
+
+                        @Override
+                        public <R> void onExhausted(RetryContext<R> context, RetryAttempt<R> attempt) {
+                            events.add("exhausted-" + attempt.attempt());
+                        }
+
+                        @Override
+                        public <R> void onDeferred(RetryContext<R> context, RetryAttempt<R> attempt) {
+                            events.add("deferred-" + attempt.attempt());
+                        }
+                    });
+            scheduler.policy(name, retryer, params -> {
+                attempts.add(RetryContextHolder.current().attempt());
+                if (attempts.size() < 3) {
+                    throw new IllegalStateException("not yet");
+                }
+                done.countDown();
+                return "done";
+            }).start();
+
+            long start = System.nanoTime();
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            attempts.add(RetryContextHolder.current().attempt());
+                            throw new IllegalStateException("first");
+                        })
+                        .params(new Object[]{"job-1"}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertTrue("调用方不应该等待", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 400);
+
+            assertTrue(done.await(3, TimeUnit.SECONDS));
+            assertEquals("尝试次数应该连续", Arrays.asList(1, 2, 3), attempts);
+            waitUntil(() -> scheduler.pending() == 0);
+            assertEquals(1, scheduler.succeeded());
+            assertEquals(2, RetryMetricsRegistry.getInstance().metrics(name).deferrals());
+            // 每次调用（包括后台继续执行）只触发一个结束事件
+            assertEquals(Arrays.asList("deferred-1", "deferred-2", "success-3"), events);
+        }
+    }
+
+    /**
+     * 测试：后台执行同样受停止策略限制，用尽之后执行恢复策略
+     */
+    @Test(timeout = 5000)
+    public void testDeferredRetryIsRecoveredWhenExhausted() throws Exception {
+        final String name = "delayed-exhausted-" + System.nanoTime();
+        CountDownLatch recovered = new CountDownLatch(1);
+        AtomicInteger recoveredAttempt = new AtomicInteger();
+        Recover recover = new Recover() {
+            @Override
+            public <R> void recover(RetryAttempt<R> retryAttempt) {
+                recoveredAttempt.set(retryAttempt.attempt());
+                recovered.countDown();
+            }
+        };
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(store())
+                .threshold(50, TimeUnit.MILLISECONDS)) {
+            Retryer<String> retryer = retryer(name, 3, scheduler, recover);
+            scheduler.policy(name, retryer, params -> {
+                throw new IllegalStateException("still down");
+            }).start();
+
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            throw new IllegalStateException("down");
+                        })
+                        .params(new Object[]{"job-2"}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException e) {
+                assertEquals(1, recovered.getCount());
+            }
+
+            assertTrue(recovered.await(3, TimeUnit.SECONDS));
+            assertEquals(3, recoveredAttempt.get());
+            waitUntil(() -> scheduler.exhausted() == 1 && scheduler.pending() == 0);
+        }
+    }
+
+    /**
+     * 测试：等待中的重试在重启之后继续执行
+     */
+    @Test(timeout = 5000)
+    public void testPendingRetrySurvivesRestart() throws Exception {
+        final String name = "delayed-restart-" + System.nanoTime();
+        Path file = folder.getRoot().toPath().resolve("delayed.journal");
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(new FileDelayedRetryStore(file))
+                .threshold(50, TimeUnit.MILLISECONDS)) {
+            Retryer<String> retryer = retryer(name, 3, scheduler, null).retryWaitContext(
+                    RetryWaiter.<String>retryWait(FixedRetryWait.class).value(300).context());
+            scheduler.policy(name, retryer, params -> "unused").start();
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            throw new IllegalStateException("down");
+                        })
+                        .params(new Object[]{"job-3", 7}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException e) {
+                assertEquals(1, scheduler.pending());
+            }
+        }
+
+        List<Object> replayed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(new FileDelayedRetryStore(file))) {
+            Retryer<String> retryer = retryer(name, 3, scheduler, null);
+            scheduler.policy(name, retryer, params -> {
+                replayed.add(params[0]);
+                replayed.add(params[1]);
+                replayed.add(RetryContextHolder.current().attempt());
+                done.countDown();
+                return "done";
+            });
+            assertEquals(1, scheduler.pending());
+            scheduler.start();
+
+            assertTrue(done.await(3, TimeUnit.SECONDS));
+            assertEquals(Arrays.<Object>asList("job-3", 7, 2), replayed);
+            waitUntil(() -> scheduler.pending() == 0);
+        }
+        try (FileDelayedRetryStore store = new FileDelayedRetryStore(file)) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    /**
+     * 测试：窗口之外的任务不交给定时器，由之后的扫描在到期之前交给定时器
+     */
+    @Test(timeout = 5000)
+    public void testTaskBeyondHorizonIsScheduledByScan() throws Exception {
+        final String name = "delayed-horizon-" + System.nanoTime();
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(store())
+                .threshold(50, TimeUnit.MILLISECONDS)
+                .horizon(200, TimeUnit.MILLISECONDS)) {
+            Retryer<String> retryer = retryer(name, 3, scheduler, null).retryWaitContext(
+                    RetryWaiter.<String>retryWait(FixedRetryWait.class).value(600).context());
+            scheduler.policy(name, retryer, params -> {
+                done.countDown();
+                return "done";
+            }).start();
+
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            throw new IllegalStateException("down");
+                        })
+                        .params(new Object[]{"job-4"}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException e) {
+                assertEquals(1, scheduler.pending());
+                assertEquals("窗口之外的任务不应该交给定时器", 0, scheduler.scheduled());
+            }
+
+            assertTrue(done.await(3, TimeUnit.SECONDS));
+            waitUntil(() -> scheduler.pending() == 0 && scheduler.scheduled() == 0);
+            assertEquals(1, scheduler.succeeded());
+        }
+    }
+
+    /**
+     * 测试：参数无法反序列化时不执行恢复策略，任务保留在存储中按照退避时间重新调度
+     */
+    @Test(timeout = 10000)
+    public void testUndeserializableTaskIsKept() throws Exception {
+        final String name = "delayed-deserialize-" + System.nanoTime();
+        final AtomicBoolean broken = new AtomicBoolean(true);
+        final AtomicInteger recovered = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        DeadLetterSerializer serializer = new DeadLetterSerializer() {
+            @Override
+            public byte[] serialize(Object[] params) {
+                return JavaDeadLetterSerializer.getInstance().serialize(params);
+            }
+
+            @Override
+            public Object[] deserialize(byte[] bytes) {
+                if (broken.get()) {
+                    throw new RetryException("class changed");
+                }
+                return JavaDeadLetterSerializer.getInstance().deserialize(bytes);
+            }
+        };
+        Recover recover = new Recover() {
+            @Override
+            public <R> void recover(RetryAttempt<R> retryAttempt) {
+                recovered.incrementAndGet();
+            }
+        };
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(store())
+                .threshold(50, TimeUnit.MILLISECONDS)
+                .serializer(serializer)) {
+            Retryer<String> retryer = retryer(name, 3, scheduler, recover);
+            scheduler.policy(name, retryer, params -> {
+                done.countDown();
+                return "done";
+            }).start();
+
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            throw new IllegalStateException("down");
+                        })
+                        .params(new Object[]{"job-5"}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException expected) {
+                // ignore
+            }
+
+            waitUntil(() -> scheduler.skipped() == 1);
+            assertEquals(1, scheduler.pending());
+            assertEquals(0, scheduler.exhausted());
+            assertEquals(0, recovered.get());
+
+            // 修复之后按照退避时间重新执行
+            broken.set(false);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            waitUntil(() -> scheduler.pending() == 0);
+            assertEquals(1, scheduler.succeeded());
+            assertEquals(0, recovered.get());
+        }
+    }
+
+    private FileDelayedRetryStore store() throws Exception {
+        return new FileDelayedRetryStore(folder.newFolder().toPath().resolve("delayed.journal"));
+    }
+
+    private static Retryer<String> retryer(String name, int maxAttempt, DelayedRetryScheduler scheduler, Recover recover) {
+        Retryer<String> retryer = Retryer.<String>newInstance()
+                .name(name)
+                .maxAttempt(maxAttempt)
+                .retryWaitContext(RetryWaiter.<String>retryWait(FixedRetryWait.class).value(100).context())
+                .defer(scheduler);
+        if (recover != null) {
+            retryer.recover(recover);
+        }
+        return retryer;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(10);
+        }
+    }
+
+}
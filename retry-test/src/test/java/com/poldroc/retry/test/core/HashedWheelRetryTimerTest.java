@@ -0,0 +1,123 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.exception.RetryTimeoutException;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.timer.HashedWheelRetryTimer;
+import com.poldroc.retry.core.support.timer.RetryTimers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 哈希时间轮定时器测试
+ *
+ * @since 2026-10-19
+ */
+public class HashedWheelRetryTimerTest {
+
+    /**
+     * 测试：任务在到期之后执行，误差在一个刻度之内，超过一圈的任务也能按时执行
+     */
+    @Test(timeout = 5000)
+    public void testTasksFireAfterDelay() throws InterruptedException {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(5, TimeUnit.MILLISECONDS, 8)) {
+            long[] delays = {0, 20, 60, 150};
+            CountDownLatch latch = new CountDownLatch(delays.length);
+            long[] fired = new long[delays.length];
+            long start = System.nanoTime();
+            List<TimerHandle> handles = new ArrayList<>();
+            for (int i = 0; i < delays.length; i++) {
+                final int index = i;
+                handles.add(timer.schedule(() -> {
+                    fired[index] = System.nanoTime() - start;
+                    latch.countDown();
+                }, delays[i], TimeUnit.MILLISECONDS));
+            }
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            for (int i = 0; i < delays.length; i++) {
+                assertTrue("任务不能提前执行", fired[i] >= TimeUnit.MILLISECONDS.toNanos(delays[i]));
+                assertTrue(handles.get(i).isExpired());
+            }
+            assertEquals(0, timer.pending());
+        }
+    }
+
+    /**
+     * 测试：调用线程带着中断标记启动时间轮，启动正常完成并保留中断标记
+     */
+    @Test(timeout = 5000)
+    public void testStartKeepsInterruptFlag() throws InterruptedException {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(1, TimeUnit.MILLISECONDS, 64)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            Thread.currentThread().interrupt();
+            try {
+                timer.schedule(fired::countDown, 1, TimeUnit.MILLISECONDS);
+                assertTrue("中断标记应该被保留", Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+            assertTrue(fired.await(1, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * 测试：取消的任务不会执行，已经执行的任务不能取消
+     */
+    @Test(timeout = 5000)
+    public void testCancel() throws InterruptedException {
+        try (HashedWheelRetryTimer timer = new HashedWheelRetryTimer(1, TimeUnit.MILLISECONDS, 64)) {
+            AtomicInteger executed = new AtomicInteger();
+            List<TimerHandle> handles = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                handles.add(timer.schedule(executed::incrementAndGet, 500 + i % 500, TimeUnit.MILLISECONDS));
+            }
+            for (TimerHandle handle : handles) {
+                assertTrue(handle.cancel());
+                assertTrue(handle.isCancelled());
+            }
+            assertEquals(0, timer.pending());
+
+            CountDownLatch latch = new CountDownLatch(1);
+            TimerHandle fired = timer.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            Thread.sleep(20);
+            assertFalse(fired.cancel());
+
+            Thread.sleep(1100);
+            assertEquals(0, executed.get());
+        }
+    }
+
+    /**
+     * 测试：作为单次尝试超时的定时器使用
+     */
+    @Test(timeout = 3000)
+    public void testAsAttemptTimeoutTimer() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(2)
+                    .timeout(50, TimeUnit.MILLISECONDS)
+                    .timer(RetryTimers.wheel())
+                    .callable(() -> {
+                        executionCount.incrementAndGet();
+                        Thread.sleep(10_000);
+                        return "never";
+                    })
+                    .retryCall();
+            fail("Expected RetryTimeoutException");
+        } catch (RetryTimeoutException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        assertEquals(2, executionCount.get());
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.core.retry.HedgedRetry;
+import com.poldroc.retry.core.support.hedge.HedgeBudget;
+import com.poldroc.retry.core.support.hedge.HedgeBudgetRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对冲重试测试
+ *
+ * @since 2026-10-19
+ */
+public class HedgedRetryTest {
+
+    /**
+     * 测试：慢的请求超过对冲延迟后发起对冲，快的对冲胜出，慢的请求被中断
+     */
+    @Test(timeout = 3000)
+    public void testFastHedgeWins() throws InterruptedException {
+        AtomicInteger executionCount = new AtomicInteger(0);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        long start = System.currentTimeMillis();
+        String result = Retryer.<String>newInstance()
+                .name("hedge-wins-" + System.nanoTime())
+                .retry(HedgedRetry.<String>newInstance().delay(20).quantile(0))
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            throw e;
+                        }
+                        return "slow";
+                    }
+                    return "hedge";
+                })
+                .retryCall();
+        long cost = System.currentTimeMillis() - start;
+
+        assertEquals("hedge", result);
+        assertEquals(2, executionCount.get());
+        assertTrue("对冲应该很快完成，实际耗时 " + cost + "ms", cost < 1000);
+        assertTrue("失败的请求应该被取消", interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试：预算耗尽之后不再对冲
+     */
+    @Test(timeout = 3000)
+    public void testBudgetExhaustedNoHedge() {
+        final String name = "hedge-budget-" + System.nanoTime();
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        String result = Retryer.<String>newInstance()
+                .name(name)
+                .retry(HedgedRetry.<String>newInstance().delay(5).quantile(0).maxHedges(5).budget(0, 1))
+                .callable(() -> {
+                    executionCount.incrementAndGet();
+                    Thread.sleep(100);
+                    return "primary";
+                })
+                .retryCall();
+
+        assertEquals("primary", result);
+        // 原始请求 + 唯一的一个令牌
+        assertEquals(2, executionCount.get());
+        HedgeBudget budget = HedgeBudgetRegistry.getInstance().get(name);
+        assertEquals(1, budget.issued());
+        assertTrue(budget.rejected() >= 1);
+    }
+
+    /**
+     * 测试：所有请求都失败时，按照正常流程进行重试
+     */
+    @Test(timeout = 3000)
+    public void testFailureStillRetried() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        String result = Retryer.<String>newInstance()
+                .maxAttempt(3)
+                .retry(HedgedRetry.<String>newInstance().delay(1000))
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() < 3) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals(3, executionCount.get());
+    }
+
+    /**
+     * 测试：原始请求在调用线程执行，线程池拒绝时跳过对冲并归还令牌
+     */
+    @Test(timeout = 3000)
+    public void testPrimaryOnCallerAndRejectedHedgeSkipped() {
+        final String name = "hedge-rejected-" + System.nanoTime();
+        final Thread caller = Thread.currentThread();
+        AtomicInteger executionCount = new AtomicInteger(0);
+        ExecutorService rejecting = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        rejecting.shutdown();
+
+        String result = Retryer.<String>newInstance()
+                .name(name)
+                .retry(HedgedRetry.<String>newInstance().delay(5).quantile(0).executor(rejecting))
+                .callable(() -> {
+                    executionCount.incrementAndGet();
+                    Thread.sleep(50);
+                    return Thread.currentThread() == caller ? "caller" : "pool";
+                })
+                .retryCall();
+
+        assertEquals("caller", result);
+        assertEquals(1, executionCount.get());
+        assertEquals(0, HedgeBudgetRegistry.getInstance().get(name).issued());
+    }
+
+    /**
+     * 测试：线程池不是 AbortPolicy 时拒绝，避免在定时器线程中执行对冲
+     */
+    @Test
+    public void testCallerRunsExecutorRejected() {
+        ThreadPoolExecutor callerRuns = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            HedgedRetry.<String>newInstance().executor(callerRuns);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // ignore
+        } finally {
+            callerRuns.shutdown();
+        }
+    }
+
+    /**
+     * 测试：对冲胜出时保留调用线程上其他来源的中断
+     */
+    @Test(timeout = 3000)
+    public void testForeignInterruptKeptWhenHedgeWins() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+        AtomicBoolean hedgeDone = new AtomicBoolean();
+
+        String result = Retryer.<String>newInstance()
+                .name("hedge-interrupt-" + System.nanoTime())
+                .retry(HedgedRetry.<String>newInstance().delay(20).quantile(0))
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        // 模拟调用方在原始请求执行期间被中断，不响应中断直到对冲完成
+                        Thread.currentThread().interrupt();
+                        while (!hedgeDone.get()) {
+                            Thread.yield();
+                        }
+                        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+                        while (System.nanoTime() < end) {
+                            Thread.yield();
+                        }
+                        return "slow";
+                    }
+                    hedgeDone.set(true);
+                    return "hedge";
+                })
+                .retryCall();
+
+        assertEquals("hedge", result);
+        assertTrue("其他来源的中断应该保留", Thread.interrupted());
+    }
+}
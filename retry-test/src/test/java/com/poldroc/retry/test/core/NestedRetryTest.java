@@ -0,0 +1,120 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.support.scope.NestedRetryMode;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 嵌套重试测试
+ *
+ * @since 2026-10-19
+ */
+public class NestedRetryTest {
+
+    /**
+     * 测试：三层独立重试时下游调用放大为 27 次
+     */
+    @Test
+    public void testAllowAmplifies() {
+        final String name = "nested-allow-" + System.nanoTime();
+        AtomicInteger downstream = new AtomicInteger(0);
+
+        callQuietly(() -> layer(name, NestedRetryMode.ALLOW, 0,
+                () -> layer(name + "-service", NestedRetryMode.ALLOW, 0,
+                        () -> layer(name + "-client", NestedRetryMode.ALLOW, 0, () -> downstreamCall(downstream)))));
+
+        assertEquals(27, downstream.get());
+        RetryMetrics metrics = RetryMetricsRegistry.getInstance().metrics(name);
+        assertEquals(27D, metrics.amplification(), 0.0001);
+        assertEquals(3, RetryMetricsRegistry.getInstance().metrics(name + "-service").nestedCalls());
+        assertEquals(9, RetryMetricsRegistry.getInstance().metrics(name + "-client").nestedCalls());
+    }
+
+    /**
+     * 测试：内层禁用时只有最外层重试
+     */
+    @Test
+    public void testDisable() {
+        final String name = "nested-disable-" + System.nanoTime();
+        AtomicInteger downstream = new AtomicInteger(0);
+
+        callQuietly(() -> layer(name, NestedRetryMode.ALLOW, 0,
+                () -> layer(name + "-client", NestedRetryMode.DISABLE, 0, () -> downstreamCall(downstream))));
+
+        assertEquals(3, downstream.get());
+        assertEquals(3D, RetryMetricsRegistry.getInstance().metrics(name).amplification(), 0.0001);
+        assertEquals(3, RetryMetricsRegistry.getInstance().metrics(name + "-client").guardedRetries());
+    }
+
+    /**
+     * 测试：内层共享外层的重试次数，外层的 2 次重试被内层用完
+     */
+    @Test
+    public void testShare() {
+        final String name = "nested-share-" + System.nanoTime();
+        AtomicInteger downstream = new AtomicInteger(0);
+
+        callQuietly(() -> layer(name, NestedRetryMode.ALLOW, 0,
+                () -> layer(name + "-client", NestedRetryMode.SHARE, 0, () -> downstreamCall(downstream))));
+
+        assertEquals(3, downstream.get());
+        assertEquals(1, RetryMetricsRegistry.getInstance().metrics(name).guardedRetries());
+    }
+
+    /**
+     * 测试：限制整个调用链的总尝试次数，最外层不受影响
+     */
+    @Test
+    public void testCap() {
+        final String name = "nested-cap-" + System.nanoTime();
+        AtomicInteger downstream = new AtomicInteger(0);
+
+        callQuietly(() -> layer(name, NestedRetryMode.ALLOW, 0,
+                () -> layer(name + "-client", NestedRetryMode.CAP, 5, () -> downstreamCall(downstream))));
+
+        // 外层 3 次尝试，内层第一次 3 次尝试，之后总尝试次数达到上限，只执行一次
+        assertEquals(5, downstream.get());
+        assertEquals(2, RetryMetricsRegistry.getInstance().metrics(name + "-client").guardedRetries());
+
+        // 没有嵌套时不受限制
+        AtomicInteger single = new AtomicInteger(0);
+        callQuietly(() -> layer(name + "-client", NestedRetryMode.DISABLE, 0, () -> downstreamCall(single)));
+        assertEquals(3, single.get());
+    }
+
+    private static String layer(String name, NestedRetryMode mode, int cap, Callable<String> callable) {
+        Retryer<String> retryer = Retryer.<String>newInstance()
+                .name(name)
+                .maxAttempt(3)
+                .callable(callable);
+        if (mode == NestedRetryMode.CAP) {
+            retryer.nestedCap(cap);
+        } else {
+            retryer.nested(mode);
+        }
+        return retryer.retryCall();
+    }
+
+    private static String downstreamCall(AtomicInteger downstream) {
+        downstream.incrementAndGet();
+        throw new IllegalStateException("downstream failed");
+    }
+
+    private static void callQuietly(Callable<String> callable) {
+        try {
+            callable.call();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // ignore
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
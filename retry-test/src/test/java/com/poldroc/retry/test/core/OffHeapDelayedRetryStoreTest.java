@@ -0,0 +1,157 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.exception.RetryDeferredException;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.defer.DelayedRetryScheduler;
+import com.poldroc.retry.core.support.defer.DelayedRetryTask;
+import com.poldroc.retry.core.support.defer.OffHeapDelayedRetryStore;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 堆外延后任务存储测试
+ *
+ * @since 2026-10-19
+ */
+public class OffHeapDelayedRetryStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 测试：保存、读取、删除，重新打开后只保留未删除的任务
+     */
+    @Test
+    public void testSaveRemoveAndReopen() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (OffHeapDelayedRetryStore store = new OffHeapDelayedRetryStore(directory, 64 * 1024)) {
+            for (int i = 1; i <= 100; i++) {
+                store.save(task(i, 1000L + i, 16));
+            }
+            for (int i = 1; i <= 100; i += 2) {
+                store.remove(i);
+            }
+            store.remove(1000);
+
+            assertEquals(50, store.size());
+            assertNull(store.get(1));
+            DelayedRetryTask task = store.get(2);
+            assertEquals("job", task.name());
+            assertEquals(3, task.attempt());
+            assertEquals(1002L, task.fireTime());
+            assertEquals(IllegalStateException.class.getName(), task.causeClass());
+            assertEquals(16, task.params().length);
+        }
+
+        try (OffHeapDelayedRetryStore store = new OffHeapDelayedRetryStore(directory, 64 * 1024)) {
+            assertEquals(50, store.size());
+            Map<Long, Long> visited = new HashMap<>();
+            store.forEach(visited::put);
+            assertEquals(50, visited.size());
+            for (long id = 2; id <= 100; id += 2) {
+                assertEquals(Long.valueOf(1000L + id), visited.get(id));
+            }
+            List<DelayedRetryTask> loaded = store.load();
+            assertEquals(2, loaded.get(0).id());
+            assertEquals(100, loaded.get(loaded.size() - 1).id());
+        }
+    }
+
+    /**
+     * 测试：任务分布在多个分段中，按任意顺序删除之后分段文件被回收
+     */
+    @Test
+    public void testDrainedSegmentsAreDeleted() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        final int count = 5000;
+        try (OffHeapDelayedRetryStore store = new OffHeapDelayedRetryStore(directory, 16 * 1024)) {
+            for (int i = 1; i <= count; i++) {
+                store.save(task(i, i, 64));
+            }
+            assertTrue(store.segments() > 10);
+
+            List<Long> ids = new ArrayList<>();
+            for (long i = 1; i <= count; i++) {
+                ids.add(i);
+            }
+            Collections.shuffle(ids, new Random(42));
+            for (int i = 0; i < count; i++) {
+                store.remove(ids.get(i));
+                if (i % 500 == 0) {
+                    // 删除过程中剩余的任务依然可以读取
+                    assertEquals(ids.get(count - 1).longValue(), store.get(ids.get(count - 1)).id());
+                }
+            }
+            assertEquals(0, store.size());
+            assertEquals("只保留正在写入的分段", 1, store.segments());
+        }
+        try (OffHeapDelayedRetryStore store = new OffHeapDelayedRetryStore(directory, 16 * 1024)) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    /**
+     * 测试：作为延后调度的存储，等待中的重试在重启之后继续执行
+     */
+    @Test(timeout = 5000)
+    public void testSchedulerResumesFromOffHeapStore() throws Exception {
+        final String name = "offheap-" + System.nanoTime();
+        Path directory = folder.getRoot().toPath();
+
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(new OffHeapDelayedRetryStore(directory))
+                .threshold(50, TimeUnit.MILLISECONDS)) {
+            Retryer<String> retryer = retryer(name, scheduler);
+            scheduler.policy(name, retryer, params -> "unused").start();
+            try {
+                retryer.retryCall(retryer.context()
+                        .callable(() -> {
+                            throw new IllegalStateException("down");
+                        })
+                        .params(new Object[]{"job-4"}));
+                fail("Expected RetryDeferredException");
+            } catch (RetryDeferredException e) {
+                assertEquals(1, scheduler.pending());
+            }
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        try (DelayedRetryScheduler scheduler = DelayedRetryScheduler.newInstance(new OffHeapDelayedRetryStore(directory))) {
+            Retryer<String> retryer = retryer(name, scheduler);
+            scheduler.policy(name, retryer, params -> {
+                assertEquals("job-4", params[0]);
+                done.countDown();
+                return "done";
+            }).start();
+            assertTrue(done.await(3, TimeUnit.SECONDS));
+        }
+    }
+
+    private static DelayedRetryTask task(long id, long fireTime, int paramSize) {
+        return new DelayedRetryTask(id, "job", 3, fireTime,
+                IllegalStateException.class.getName(), "down", new byte[paramSize]);
+    }
+
+    private static Retryer<String> retryer(String name, DelayedRetryScheduler scheduler) {
+        return Retryer.<String>newInstance()
+                .name(name)
+                .maxAttempt(3)
+                .retryWaitContext(RetryWaiter.<String>retryWait(FixedRetryWait.class).value(300).context())
+                .defer(scheduler);
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.wait.RetryAfterAware;
+import com.poldroc.retry.api.support.wait.RetryAfterHint;
+import com.poldroc.retry.core.context.DefaultRetryWaitContext;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.condition.RetryConditions;
+import com.poldroc.retry.core.support.wait.RetryAfterHints;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import com.poldroc.retry.core.support.wait.RetryAfterRetryWait;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 优先使用下游建议时间的等待策略测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryAfterRetryWaitTest {
+
+    private final RetryAfterRetryWait retryWait = new RetryAfterRetryWait();
+
+    /**
+     * 测试：异常链中的建议时间按照 min/max 修正
+     */
+    @Test
+    public void testHintFromCauseIsClamped() {
+        assertEquals(300, waitMills(new IllegalStateException(new RateLimitedException(300)), 0, 5000));
+        assertEquals(2000, waitMills(new RateLimitedException(10_000), 0, 2000));
+        assertEquals(100, waitMills(new RateLimitedException(0), 100, 2000));
+    }
+
+    /**
+     * 测试：没有建议时使用指数等待
+     */
+    @Test
+    public void testFallbackToExponential() {
+        DefaultRetryWaitContext<Object> context = (DefaultRetryWaitContext<Object>) RetryWaiter.retryWait(RetryAfterRetryWait.class)
+                .value(100)
+                .context();
+        context.attempt(3).cause(new IllegalStateException("no hint"));
+
+        long expected = Math.round(100 * Math.pow(context.factor(), 2));
+        assertEquals(expected, retryWait.waitTime(context).time());
+        // 小于 0 表示没有建议，使用默认的基础值
+        assertEquals(1000, waitMills(new RateLimitedException(-1), 0, 5000));
+    }
+
+    /**
+     * 测试：没有建议时使用配置的兜底策略，兜底策略不能是自身
+     */
+    @Test
+    public void testConfiguredFallback() {
+        DefaultRetryWaitContext<Object> context = (DefaultRetryWaitContext<Object>) RetryWaiter.retryWait(RetryAfterRetryWait.class)
+                .fallback(FixedRetryWait.class)
+                .value(300)
+                .context();
+        context.attempt(3).cause(new IllegalStateException("no hint"));
+        assertEquals(300, retryWait.waitTime(context).time());
+        assertEquals(FixedRetryWait.class, DefaultRetryWaitContext.copyOf(context).fallback());
+
+        context.fallback(RetryAfterRetryWait.class);
+        try {
+            retryWait.waitTime(context);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // ignore
+        }
+    }
+
+    /**
+     * 测试：注册的实现从结果中提取 Retry-After 头
+     */
+    @Test
+    public void testRegisteredHintAndHeaderParse() {
+        RetryAfterHint hint = new RetryAfterHint() {
+            @Override
+            public long retryAfterMills(RetryAttempt<?> attempt) {
+                if (attempt.result() instanceof Map) {
+                    return RetryAfterHints.parseHeader((String) ((Map<?, ?>) attempt.result()).get("Retry-After"));
+                }
+                return -1;
+            }
+        };
+        RetryAfterHints.register(hint);
+        try {
+            DefaultRetryWaitContext<Object> context = (DefaultRetryWaitContext<Object>) RetryWaiter.retryWait(RetryAfterRetryWait.class)
+                    .max(10_000)
+                    .context();
+            context.attempt(1).result(Collections.singletonMap("Retry-After", "2"));
+            assertEquals(2000, retryWait.waitTime(context).time());
+        } finally {
+            RetryAfterHints.unregister(hint);
+        }
+
+        assertEquals(-1, RetryAfterHints.parseHeader("soon"));
+        assertEquals(-1, RetryAfterHints.parseHeader(null));
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(30));
+        long mills = RetryAfterHints.parseHeader(date);
+        assertTrue(mills > 28_000 && mills <= 30_000);
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().minusSeconds(30));
+        assertEquals(0, RetryAfterHints.parseHeader(past));
+    }
+
+    /**
+     * 测试：重试的间隔不短于下游建议的时间
+     */
+    @Test(timeout = 5000)
+    public void testRetryerHonorsHint() {
+        final List<Long> starts = new ArrayList<>();
+        String result = Retryer.<String>newInstance()
+                .maxAttempt(3)
+                .condition(RetryConditions.hasExceptionCause())
+                .retryWaitContext(RetryWaiter.<String>retryWait(RetryAfterRetryWait.class).value(1).max(1000).context())
+                .callable(() -> {
+                    starts.add(System.nanoTime());
+                    if (starts.size() == 1) {
+                        throw new RateLimitedException(200);
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals(2, starts.size());
+        assertTrue((starts.get(1) - starts.get(0)) / 1_000_000 >= 200);
+    }
+
+    private long waitMills(Throwable cause, long min, long max) {
+        DefaultRetryWaitContext<Object> context = (DefaultRetryWaitContext<Object>) RetryWaiter.retryWait(RetryAfterRetryWait.class)
+                .min(min)
+                .max(max)
+                .context();
+        context.attempt(1).cause(cause);
+        return retryWait.waitTime(context).time();
+    }
+
+    /**
+     * 限流异常
+     */
+    private static class RateLimitedException extends RuntimeException implements RetryAfterAware {
+
+        private final long retryAfterMills;
+
+        private RateLimitedException(long retryAfterMills) {
+            super("rate limited");
+            this.retryAfterMills = retryAfterMills;
+        }
+
+        @Override
+        public long retryAfterMills() {
+            return retryAfterMills;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryAttemptContext;
+import com.poldroc.retry.core.context.RetryContextHolder;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.core.retry.HedgedRetry;
+import com.poldroc.retry.core.support.resource.ThreadResources;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 尝试信息持有者测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryContextHolderTest {
+
+    /**
+     * 测试：每次尝试都能拿到尝试次数、剩余时间和上一次的异常，调用结束后清理
+     */
+    @Test
+    public void testCurrentAttempt() {
+        List<String> seen = new CopyOnWriteArrayList<>();
+
+        String result = Retryer.<String>newInstance()
+                .name("holder")
+                .maxAttempt(3)
+                .timeout(1000, TimeUnit.MILLISECONDS)
+                .callable(() -> {
+                    RetryAttemptContext current = RetryContextHolder.current();
+                    assertEquals("holder", current.name());
+                    assertEquals(3, current.maxAttempt());
+                    assertTrue(current.remainingMills() > 0 && current.remainingMills() <= 1000);
+                    Throwable previous = current.previousCause();
+                    seen.add(current.attempt() + ":" + current.lastAttempt() + ":"
+                            + (previous == null ? null : previous.getMessage()));
+                    if (!current.lastAttempt()) {
+                        throw new IllegalStateException("fail-" + current.attempt());
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals("[1:false:null, 2:false:fail-1, 3:true:fail-2]", seen.toString());
+        assertNull(RetryContextHolder.current());
+    }
+
+    /**
+     * 测试：嵌套重试结束后恢复外层的尝试信息，没有超时时剩余时间为 -1
+     */
+    @Test
+    public void testNestedRestoresOuter() {
+        AtomicReference<String> inner = new AtomicReference<>();
+        AtomicReference<String> outer = new AtomicReference<>();
+
+        Retryer.<String>newInstance()
+                .name("holder-outer")
+                .callable(() -> {
+                    Retryer.<String>newInstance()
+                            .name("holder-inner")
+                            .callable(() -> {
+                                inner.set(RetryContextHolder.current().name());
+                                return "inner";
+                            })
+                            .retryCall();
+                    RetryAttemptContext current = RetryContextHolder.current();
+                    assertEquals(-1, current.remainingMills());
+                    outer.set(current.name());
+                    return "outer";
+                })
+                .retryCall();
+
+        assertEquals("holder-inner", inner.get());
+        assertEquals("holder-outer", outer.get());
+    }
+
+    /**
+     * 测试：对冲线程池中执行的方法也能拿到尝试信息
+     */
+    @Test
+    public void testHedgedAttempt() {
+        AtomicReference<Integer> attempt = new AtomicReference<>();
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        Retryer.<String>newInstance()
+                .name("holder-hedge-" + System.nanoTime())
+                .retry(HedgedRetry.<String>newInstance().delay(10).quantile(0))
+                .callable(() -> {
+                    // 原始请求在调用线程执行，等待对冲请求胜出
+                    if (executionCount.incrementAndGet() == 1) {
+                        Thread.sleep(10_000);
+                        return "primary";
+                    }
+                    attempt.set(RetryContextHolder.current().attempt());
+                    thread.set(Thread.currentThread().getName());
+                    return "hedge";
+                })
+                .retryCall();
+
+        assertEquals(Integer.valueOf(1), attempt.get());
+        assertNotEquals(Thread.currentThread().getName(), thread.get());
+    }
+
+    /**
+     * 测试：任何 nanoTime 都可以作为超时时间点，包括 0
+     */
+    @Test
+    public void testZeroDeadlineIsLegal() {
+        final long deadlineNanos = 0L;
+        final long expected = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        RetryContextHolder.enter("holder-zero-deadline", 1, 3, true, deadlineNanos, null);
+        try {
+            assertNotEquals(-1, RetryContextHolder.current().remainingMills());
+            assertTrue(RetryContextHolder.current().remainingMills() >= expected);
+        } finally {
+            RetryContextHolder.exit();
+        }
+    }
+
+    /**
+     * 测试：读取尝试信息不创建对象
+     */
+    @Test
+    public void testCurrentDoesNotAllocate() {
+        AtomicReference<Long> allocated = new AtomicReference<>();
+
+        Retryer.<String>newInstance()
+                .callable(() -> {
+                    long sum = 0;
+                    // 预热
+                    for (int i = 0; i < 10_000; i++) {
+                        sum += RetryContextHolder.current().attempt();
+                    }
+                    long start = ThreadResources.allocatedBytes();
+                    for (int i = 0; i < 100_000; i++) {
+                        RetryAttemptContext current = RetryContextHolder.current();
+                        sum += current.attempt() + current.maxAttempt();
+                    }
+                    allocated.set(ThreadResources.delta(start, ThreadResources.allocatedBytes()));
+                    return String.valueOf(sum);
+                })
+                .retryCall();
+
+        if (allocated.get() >= 0) {
+            assertTrue("allocated " + allocated.get() + " bytes", allocated.get() < 10_000);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.recover.Recover;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.model.DefaultRetryAttempt;
+import com.poldroc.retry.core.support.cache.FailureCacheRegistry;
+import com.poldroc.retry.core.support.cache.FailureCacheStore;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 失败结果缓存测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryFailureCacheTest {
+
+    /**
+     * 测试：有效期内相同参数的调用直接触发恢复策略，不同参数和过期之后正常执行
+     */
+    @Test(timeout = 5000)
+    public void testExhaustedKeyFailsFast() throws InterruptedException {
+        final String name = "failure-cache-" + System.nanoTime();
+        final AtomicInteger executionCount = new AtomicInteger(0);
+        final AtomicInteger recoverCount = new AtomicInteger(0);
+        final IllegalStateException error = new IllegalStateException("not found");
+        Callable<String> callable = () -> {
+            executionCount.incrementAndGet();
+            throw error;
+        };
+        Recover recover = new Recover() {
+            @Override
+            public <R> void recover(RetryAttempt<R> retryAttempt) {
+                recoverCount.incrementAndGet();
+            }
+        };
+
+        assertSame(error, callQuietly(name, "bad", callable, recover));
+        assertEquals(3, executionCount.get());
+        assertEquals(1, recoverCount.get());
+
+        // 有效期内直接恢复，抛出相同的异常
+        assertSame(error, callQuietly(name, "bad", callable, recover));
+        assertEquals(3, executionCount.get());
+        assertEquals(2, recoverCount.get());
+
+        // 不同的参数不受影响
+        callQuietly(name, "other", callable, recover);
+        assertEquals(6, executionCount.get());
+
+        // 过期之后重新执行
+        Thread.sleep(250);
+        callQuietly(name, "bad", callable, recover);
+        assertEquals(9, executionCount.get());
+    }
+
+    /**
+     * 测试：超出容量时淘汰最久未访问的键
+     */
+    @Test
+    public void testLruEviction() {
+        FailureCacheStore single = new FailureCacheStore(1);
+        RetryAttempt<String> attempt = new DefaultRetryAttempt<>();
+        long ttl = TimeUnit.MINUTES.toNanos(1);
+        single.put("a", attempt, ttl);
+        single.put("b", attempt, ttl);
+        assertNull(single.get("a"));
+        assertSame(attempt, single.get("b"));
+
+        FailureCacheStore store = new FailureCacheStore(64);
+        for (int i = 0; i < 1000; i++) {
+            store.put("key-" + i, attempt, ttl);
+        }
+        assertTrue(store.size() <= 64);
+        assertSame(attempt, store.get("key-999"));
+    }
+
+    /**
+     * 测试：没有策略名称，或者同名策略的容量不一致时拒绝
+     */
+    @Test
+    public void testRegistryRejectsUnnamedAndConflictingSize() {
+        final String name = "failure-cache-conflict-" + System.nanoTime();
+        FailureCacheRegistry registry = FailureCacheRegistry.getInstance();
+        FailureCacheStore store = registry.store(name, 16);
+        assertSame(store, registry.store(name, 16));
+
+        try {
+            registry.store(name, 32);
+            fail("conflicting maxSize should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // ignore
+        }
+        try {
+            registry.store(null, 16);
+            fail("unnamed policy should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // ignore
+        }
+    }
+
+    private static Object callQuietly(String name, String param, Callable<String> callable, Recover recover) {
+        Retryer<String> retryer = Retryer.<String>newInstance()
+                .name(name)
+                .failureCache(200, TimeUnit.MILLISECONDS, 16)
+                .recover(recover)
+                .callable(callable);
+        RetryContext<String> context = retryer.context().params(new Object[]{param});
+        try {
+            return retryer.retryCall(context);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
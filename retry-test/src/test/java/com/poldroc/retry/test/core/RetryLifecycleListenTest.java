@@ -0,0 +1,98 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.listen.AbstractRetryLifecycleListen;
+import com.poldroc.retry.core.support.listen.RetryListens;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 生命周期监听测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryLifecycleListenTest {
+
+    /**
+     * 记录事件顺序
+     */
+    private static class RecordLifecycleListen extends AbstractRetryLifecycleListen {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <R> void onStart(RetryContext<R> context) {
+            events.add("start");
+        }
+
+        @Override
+        public <R> void onAttempt(RetryContext<R> context, RetryAttempt<R> attempt) {
+            events.add("attempt-" + attempt.attempt());
+        }
+
+        @Override
+        public <R> void onSuccess(RetryContext<R> context, RetryAttempt<R> attempt) {
+            events.add("success-" + attempt.attempt());
+        }
+
+        @Override
+        public <R> void onExhausted(RetryContext<R> context, RetryAttempt<R> attempt) {
+            events.add("exhausted-" + attempt.attempt());
+        }
+    }
+
+    /**
+     * 测试：第一次尝试也会触发 onAttempt，成功时触发 onSuccess
+     */
+    @Test
+    public void testSuccessEvents() {
+        RecordLifecycleListen lifecycle = new RecordLifecycleListen();
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        String result = Retryer.<String>newInstance()
+                .maxAttempt(3)
+                .lifecycle(lifecycle)
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() < 2) {
+                        throw new RuntimeException("fail");
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals("[start, attempt-1, attempt-2, success-2]", lifecycle.events.toString());
+    }
+
+    /**
+     * 测试：用尽重试时触发 onExhausted，组合监听按照顺序执行
+     */
+    @Test
+    public void testExhaustedEvents() {
+        RecordLifecycleListen first = new RecordLifecycleListen();
+        RecordLifecycleListen second = new RecordLifecycleListen();
+
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(2)
+                    .lifecycle(RetryListens.lifecycles(first, second))
+                    .callable(() -> {
+                        throw new IllegalStateException("always");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("always", e.getMessage());
+        }
+
+        assertEquals("[start, attempt-1, attempt-2, exhausted-2]", first.events.toString());
+        assertEquals(first.events, second.events);
+    }
+}
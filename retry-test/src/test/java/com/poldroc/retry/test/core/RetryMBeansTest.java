@@ -0,0 +1,79 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.jmx.RetryMBeans;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * JMX 统计信息和运行时调整测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryMBeansTest {
+
+    @After
+    public void tearDown() {
+        RetryMBeans.disable();
+    }
+
+    /**
+     * 测试：通过 JMX 读取统计信息，并在下一次调用时降低最大尝试次数
+     */
+    @Test
+    public void testStatisticsAndTuning() throws Exception {
+        RetryMBeans.enable();
+        final String name = "jmx-" + System.nanoTime();
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        assertEquals(5, failingCall(name, executionCount));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = RetryMBeans.objectName(name);
+        assertTrue(server.isRegistered(objectName));
+        assertEquals(1L, server.getAttribute(objectName, "Calls"));
+        assertEquals(5L, server.getAttribute(objectName, "Attempts"));
+        assertEquals(1L, server.getAttribute(objectName, "Exhaustions"));
+
+        // 运行时调整为最多 2 次
+        server.setAttribute(objectName, new Attribute("MaxAttempt", 2));
+        assertEquals(2, server.getAttribute(objectName, "MaxAttempt"));
+        executionCount.set(0);
+        assertEquals(2, failingCall(name, executionCount));
+
+        // 调整只是额外的上限，不会放宽配置的停止策略
+        server.setAttribute(objectName, new Attribute("MaxAttempt", 10));
+        executionCount.set(0);
+        assertEquals(5, failingCall(name, executionCount));
+
+        // 恢复原有的配置
+        server.invoke(objectName, "resetTuning", new Object[0], new String[0]);
+        executionCount.set(0);
+        assertEquals(5, failingCall(name, executionCount));
+    }
+
+    private static int failingCall(String name, AtomicInteger executionCount) {
+        try {
+            Retryer.<String>newInstance()
+                    .name(name)
+                    .maxAttempt(5)
+                    .callable(() -> {
+                        executionCount.incrementAndGet();
+                        throw new IllegalStateException("fail");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // ignore
+        }
+        return executionCount.get();
+    }
+}
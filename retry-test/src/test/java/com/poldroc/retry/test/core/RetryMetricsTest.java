@@ -0,0 +1,170 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.model.AttemptTime;
+import com.poldroc.retry.api.model.RetryAttempt;
+import com.poldroc.retry.api.support.listen.RetryListen;
+import com.poldroc.retry.core.core.RetryWaiter;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.metrics.RetryMetrics;
+import com.poldroc.retry.core.support.metrics.RetryMetricsRegistry;
+import com.poldroc.retry.core.support.wait.FixedRetryWait;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 重试统计信息测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryMetricsTest {
+
+    /**
+     * 测试：调用、尝试、成功分布、用尽、恢复和等待时间
+     */
+    @Test
+    public void testCountersAndHistograms() {
+        final String name = "metrics-" + System.nanoTime();
+
+        // 第一次调用直接成功
+        Retryer.<String>newInstance()
+                .name(name)
+                .callable(() -> "ok")
+                .retryCall();
+
+        // 第二次调用在第 2 次尝试成功，等待 20ms
+        AtomicInteger executionCount = new AtomicInteger(0);
+        Retryer.<String>newInstance()
+                .name(name)
+                .retryWaitContext(RetryWaiter.<String>retryWait(FixedRetryWait.class).value(20).context())
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "ok";
+                })
+                .retryCall();
+
+        // 第三次调用用尽重试
+        try {
+            Retryer.<String>newInstance()
+                    .name(name)
+                    .maxAttempt(2)
+                    .callable(() -> {
+                        throw new IllegalStateException("fail");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // ignore
+        }
+
+        RetryMetrics metrics = RetryMetricsRegistry.getInstance().metrics(name);
+        assertEquals(3, metrics.calls());
+        assertEquals(5, metrics.attempts());
+        assertEquals(2, metrics.successes());
+        assertEquals(1, metrics.successes(1));
+        assertEquals(1, metrics.successes(2));
+        assertEquals(1, metrics.exhaustions());
+        assertEquals(1, metrics.recovers());
+        assertEquals(1D / 3, metrics.exhaustionRate(), 0.0001);
+        assertTrue(metrics.sleepMills() >= 20);
+        assertEquals(5, metrics.attemptLatency().snapshot().count());
+        assertEquals(3, metrics.callLatency().snapshot().count());
+        assertTrue(metrics.callLatency().snapshot().max() >= 20_000);
+    }
+
+    /**
+     * 测试：开启资源统计后记录每次尝试的 CPU 时间和分配的内存
+     */
+    @Test
+    public void testResourceAccounting() {
+        final String name = "metrics-resource-" + System.nanoTime();
+        final AtomicReference<AttemptTime> retryTime = new AtomicReference<>();
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        Retryer.<Integer>newInstance()
+                .name(name)
+                .resourceAccounting(true)
+                .listen(new RetryListen() {
+                    @Override
+                    public <R> void listen(RetryAttempt<R> attempt) {
+                        retryTime.set(attempt.time());
+                    }
+                })
+                .callable(() -> {
+                    byte[] bytes = new byte[1 << 20];
+                    long sum = 0;
+                    for (int i = 0; i < 2_000_000; i++) {
+                        sum += i % 7;
+                    }
+                    if (executionCount.incrementAndGet() == 1) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return bytes.length + (int) (sum & 1);
+                })
+                .retryCall();
+
+        AttemptTime time = retryTime.get();
+        assertNotNull(time);
+        RetryMetrics metrics = RetryMetricsRegistry.getInstance().metrics(name);
+        if (time.allocatedBytes() >= 0) {
+            assertTrue(time.allocatedBytes() >= 1 << 20);
+            assertTrue(metrics.allocatedBytes() >= 2 << 20);
+            assertTrue(metrics.retryAllocatedBytes() >= 1 << 20);
+            assertTrue(metrics.retryAllocatedBytes() < metrics.allocatedBytes());
+        }
+        if (time.cpuTimeInNanos() >= 0) {
+            assertTrue(metrics.cpuTimeNanos() >= metrics.retryCpuTimeNanos());
+            assertTrue(metrics.retryCpuTimeNanos() >= time.cpuTimeInNanos());
+        }
+
+        // 默认不统计
+        Retryer.<String>newInstance()
+                .listen(new RetryListen() {
+                    @Override
+                    public <R> void listen(RetryAttempt<R> attempt) {
+                        retryTime.set(attempt.time());
+                    }
+                })
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 3) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "ok";
+                })
+                .retryCall();
+        assertEquals(-1, retryTime.get().cpuTimeInNanos());
+        assertEquals(-1, retryTime.get().allocatedBytes());
+    }
+
+    /**
+     * 测试：没有实现资源统计方法的尝试时间返回 -1
+     */
+    @Test
+    public void testResourceDefaultsNotMeasured() {
+        AttemptTime time = new AttemptTime() {
+            @Override
+            public Date startTime() {
+                return null;
+            }
+
+            @Override
+            public Date endTime() {
+                return null;
+            }
+
+            @Override
+            public long costTimeInMills() {
+                return 0;
+            }
+        };
+
+        assertEquals(-1, time.cpuTimeInNanos());
+        assertEquals(-1, time.allocatedBytes());
+    }
+}
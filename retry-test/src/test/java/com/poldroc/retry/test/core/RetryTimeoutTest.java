@@ -0,0 +1,112 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.exception.RetryTimeoutException;
+import com.poldroc.retry.core.core.Retryer;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 单次尝试超时测试
+ *
+ * @since 2026-10-19
+ */
+public class RetryTimeoutTest {
+
+    /**
+     * 测试：挂起的尝试被中断，并按照失败进行重试
+     */
+    @Test(timeout = 3000)
+    public void testHungAttemptIsInterruptedAndRetried() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(3)
+                    .timeout(100, TimeUnit.MILLISECONDS)
+                    .callable(() -> {
+                        executionCount.incrementAndGet();
+                        Thread.sleep(10_000);
+                        return "never";
+                    })
+                    .retryCall();
+            fail("Expected RetryTimeoutException");
+        } catch (RetryTimeoutException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+
+        assertEquals(3, executionCount.get());
+        assertFalse("中断标记不应泄漏给调用方", Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * 测试：超时之后的重试成功
+     */
+    @Test(timeout = 3000)
+    public void testRetrySucceedsAfterTimeout() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        String result = Retryer.<String>newInstance()
+                .maxAttempt(3)
+                .timeout(100, TimeUnit.MILLISECONDS)
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        Thread.sleep(10_000);
+                    }
+                    return "success";
+                })
+                .retryCall();
+
+        assertEquals("success", result);
+        assertEquals(2, executionCount.get());
+    }
+
+    /**
+     * 测试：忽略中断的方法返回结果后，依然视为超时
+     */
+    @Test(timeout = 3000)
+    public void testIgnoredInterruptStillCountsAsTimeout() {
+        AtomicInteger executionCount = new AtomicInteger(0);
+
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(2)
+                    .timeout(50, TimeUnit.MILLISECONDS)
+                    .callable(() -> {
+                        executionCount.incrementAndGet();
+                        long end = System.currentTimeMillis() + 150;
+                        while (System.currentTimeMillis() < end) {
+                            // 忙等待，不响应中断
+                        }
+                        return "late";
+                    })
+                    .retryCall();
+            fail("Expected RetryTimeoutException");
+        } catch (RetryTimeoutException e) {
+            assertNull(e.getCause());
+        }
+
+        assertEquals(2, executionCount.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * 测试：在超时时间内完成的尝试不受影响，中断也不会在之后发生
+     */
+    @Test(timeout = 3000)
+    public void testFastAttemptNotAffected() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            String result = Retryer.<String>newInstance()
+                    .timeout(20, TimeUnit.MILLISECONDS)
+                    .callable(() -> "fast")
+                    .retryCall();
+            assertEquals("fast", result);
+        }
+        // 如果有遗留的定时任务，这里的睡眠会被中断
+        Thread.sleep(50);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+}
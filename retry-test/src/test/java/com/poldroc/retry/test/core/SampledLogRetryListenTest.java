@@ -0,0 +1,146 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.listen.RetryListens;
+import com.poldroc.retry.core.support.listen.SampledLogRetryListen;
+import com.poldroc.retry.core.support.log.RetryLogSink;
+import org.junit.Test;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.Assert.*;
+
+/**
+ * 采样限流日志监听测试
+ *
+ * @since 2026-10-19
+ */
+public class SampledLogRetryListenTest {
+
+    /**
+     * 记录日志的输出端
+     */
+    private static class RecordSink implements RetryLogSink {
+
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean isLoggable(Level level) {
+            return true;
+        }
+
+        @Override
+        public void log(LogRecord record) {
+            records.add(record);
+        }
+
+        private String message(int index) {
+            LogRecord record = records.get(index);
+            return MessageFormat.format(record.getMessage(), record.getParameters());
+        }
+    }
+
+    /**
+     * 测试：超过每秒上限的事件被抑制，并汇总成一条日志
+     */
+    @Test
+    public void testLimitAndSummary() {
+        RecordSink sink = new RecordSink();
+        SampledLogRetryListen listen = RetryListens.sampledLog("log-limit", 1, 3, sink);
+
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(11)
+                    .listen(listen)
+                    .callable(() -> {
+                        throw new IllegalStateException("boom");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+
+        // 监听器只在重试时触发，共 10 次
+        assertEquals(3, listen.logged());
+        assertEquals(7, listen.suppressed());
+        assertEquals(3, sink.records.size());
+        assertEquals(Level.WARNING, sink.records.get(0).getLevel());
+        assertTrue(sink.message(0).startsWith("Retry [log-limit] attempt 2 failed"));
+
+        listen.flush();
+        assertEquals(4, sink.records.size());
+        assertTrue(sink.message(3).startsWith("Retry [log-limit] suppressed 7 log events"));
+
+        // 没有被抑制的事件时不输出汇总
+        listen.flush();
+        assertEquals(4, sink.records.size());
+    }
+
+    /**
+     * 测试：每 N 个事件保留一个
+     */
+    @Test
+    public void testSampleRate() {
+        RecordSink sink = new RecordSink();
+        SampledLogRetryListen listen = RetryListens.sampledLog("log-sample", 4, 0, sink);
+
+        try {
+            Retryer.<String>newInstance()
+                    .maxAttempt(9)
+                    .listen(listen)
+                    .callable(() -> {
+                        throw new IllegalStateException("boom");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+
+        assertEquals(2, listen.logged());
+        assertEquals(6, listen.suppressed());
+        assertTrue(sink.message(1).startsWith("Retry [log-sample] attempt 6 failed"));
+    }
+
+    /**
+     * 测试：不指定名称时按照策略名称限流，一个策略的大量日志不会抑制其他策略
+     */
+    @Test
+    public void testLimitPerPolicyWithoutName() {
+        RecordSink sink = new RecordSink();
+        SampledLogRetryListen listen = new SampledLogRetryListen(1, 3, sink);
+
+        exhaust(listen, "log-noisy", 11);
+        exhaust(listen, "log-quiet", 2);
+
+        assertEquals(4, listen.logged());
+        assertEquals(7, listen.suppressed());
+        assertTrue(sink.message(0).startsWith("Retry [log-noisy] attempt"));
+        assertTrue(sink.message(3).startsWith("Retry [log-quiet] attempt"));
+
+        listen.flush();
+        assertEquals(5, sink.records.size());
+        assertTrue(sink.message(4).startsWith("Retry [log-noisy] suppressed 7 log events"));
+    }
+
+    private static void exhaust(SampledLogRetryListen listen, String name, int maxAttempt) {
+        try {
+            Retryer.<String>newInstance()
+                    .name(name)
+                    .maxAttempt(maxAttempt)
+                    .listen(listen)
+                    .callable(() -> {
+                        throw new IllegalStateException("boom");
+                    })
+                    .retryCall();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // ignore
+        }
+    }
+}
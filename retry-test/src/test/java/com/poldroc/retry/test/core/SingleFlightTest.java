@@ -0,0 +1,159 @@
+package com.poldroc.retry.test.core;
+
+import com.poldroc.retry.api.context.RetryContext;
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.core.support.coalesce.SingleFlight;
+import com.poldroc.retry.core.support.key.RetryKeys;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 合并相同并发调用测试
+ *
+ * @since 2026-10-19
+ */
+public class SingleFlightTest {
+
+    private static final int THREADS = 16;
+
+    /**
+     * 测试：相同参数的并发调用只执行一次，共享结果
+     */
+    @Test(timeout = 5000)
+    public void testConcurrentCallsShareResult() throws Exception {
+        final String name = "single-flight-" + System.nanoTime();
+        final AtomicInteger executionCount = new AtomicInteger(0);
+        List<String> results = runConcurrently(() -> call(name, "user-1", () -> {
+            executionCount.incrementAndGet();
+            awaitWaiters(name, "user-1");
+            return "value";
+        }));
+
+        assertEquals(1, executionCount.get());
+        for (String result : results) {
+            assertEquals("value", result);
+        }
+    }
+
+    /**
+     * 测试：所有等待者收到执行者最终的异常，重试只发生一次
+     */
+    @Test(timeout = 5000)
+    public void testConcurrentCallsShareException() throws Exception {
+        final String name = "single-flight-error-" + System.nanoTime();
+        final AtomicInteger executionCount = new AtomicInteger(0);
+        final IllegalStateException error = new IllegalStateException("backend down");
+        List<Object> outcomes = runConcurrently(() -> {
+            try {
+                return call(name, "user-1", () -> {
+                    // 等待所有调用进入之后再失败
+                    if (executionCount.incrementAndGet() == 1) {
+                        awaitWaiters(name, "user-1");
+                    }
+                    throw error;
+                });
+            } catch (IllegalStateException e) {
+                return e;
+            }
+        });
+
+        // 一次调用，最多尝试 3 次
+        assertEquals(3, executionCount.get());
+        for (Object outcome : outcomes) {
+            assertSame(error, outcome);
+        }
+    }
+
+    /**
+     * 测试：不同参数的调用互不影响，可以同时执行
+     */
+    @Test(timeout = 5000)
+    public void testDifferentParamsNotCoalesced() throws Exception {
+        final String name = "single-flight-params-" + System.nanoTime();
+        final AtomicInteger executionCount = new AtomicInteger(0);
+        final AtomicInteger index = new AtomicInteger(0);
+        // 只有所有调用同时在执行时才能通过屏障
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        runConcurrently(() -> call(name, "user-" + index.incrementAndGet(), () -> {
+            executionCount.incrementAndGet();
+            barrier.await();
+            return "value";
+        }));
+
+        assertEquals(THREADS, executionCount.get());
+    }
+
+    /**
+     * 测试：同一个线程重入相同的键时直接执行，不会死锁
+     */
+    @Test(timeout = 5000)
+    public void testReentrantCallRunsDirectly() {
+        final String name = "single-flight-reentrant-" + System.nanoTime();
+
+        String result = call(name, "user-1", () -> "outer-" + call(name, "user-1", () -> "inner"));
+
+        assertEquals("outer-inner", result);
+    }
+
+    /**
+     * 测试：设置了键但没有策略名称时拒绝执行
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyRequiresName() {
+        call(null, "user-1", () -> "value");
+    }
+
+    /**
+     * 等待其余调用都进入等待
+     */
+    private static void awaitWaiters(String name, String param) {
+        final Object key = RetryKeys.params().key(Retryer.<String>newInstance().context().params(new Object[]{param}));
+        while (SingleFlight.getInstance().waiting(name, key) < THREADS - 1) {
+            Thread.yield();
+        }
+    }
+
+    private static String call(String name, String param, Callable<String> callable) {
+        Retryer<String> retryer = Retryer.<String>newInstance()
+                .key(RetryKeys.params())
+                .callable(callable);
+        if (name != null) {
+            retryer.name(name);
+        }
+        RetryContext<String> context = retryer.context().params(new Object[]{param});
+        return retryer.retryCall(context);
+    }
+
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.poldroc.retry.test.performance;
+
+import com.poldroc.retry.api.support.timer.RetryTimer;
+import com.poldroc.retry.api.support.timer.TimerHandle;
+import com.poldroc.retry.core.support.timer.HashedWheelRetryTimer;
+import com.poldroc.retry.core.support.timer.RetryTimers;
+import org.junit.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 定时器性能测试
+ *
+ * 比较哈希时间轮和 JDK 调度线程池在大量等待中的任务下的开销：
+ * 1. 调度：放入大量长时间等待的任务
+ * 2. 抖动：在大量任务等待的同时，反复调度并取消短任务（如单次尝试超时）
+ * 3. 取消：取消所有等待中的任务
+ *
+ * @since 2026-10-19
+ */
+public class RetryTimerPerformanceTest {
+
+    /**
+     * 等待中的任务数量
+     */
+    private static final int[] PENDING_COUNTS = {100_000, 500_000};
+
+    /**
+     * 抖动阶段的调度次数
+     */
+    private static final int CHURN_ITERATIONS = 200_000;
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Test
+    public void testPendingTimers() {
+        System.out.println("\n=== 定时器：大量等待中的任务 ===");
+        // 预热
+        run("预热", RetryTimers.scheduled(), 50_000);
+        try (HashedWheelRetryTimer wheel = new HashedWheelRetryTimer()) {
+            run("预热", wheel, 50_000);
+        }
+
+        for (int pending : PENDING_COUNTS) {
+            run("ScheduledThreadPoolExecutor", RetryTimers.scheduled(), pending);
+            try (HashedWheelRetryTimer wheel = new HashedWheelRetryTimer()) {
+                run("HashedWheelRetryTimer", wheel, pending);
+                assertEquals(0, wheel.pending());
+            }
+        }
+    }
+
+    private static void run(String name, RetryTimer timer, int pending) {
+        TimerHandle[] handles = new TimerHandle[pending];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < pending; i++) {
+            handles[i] = timer.schedule(NOOP, random.nextLong(10, 20), TimeUnit.MINUTES);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < CHURN_ITERATIONS; i++) {
+            timer.schedule(NOOP, 30, TimeUnit.SECONDS).cancel();
+        }
+        long churnNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (TimerHandle handle : handles) {
+            handle.cancel();
+        }
+        long cancelNanos = System.nanoTime() - start;
+
+        System.out.println(String.format("[%s] 等待任务 %d: 调度 %d ns/op, 调度+取消 %d ns/op, 取消 %d ns/op",
+                name, pending, scheduleNanos / pending, churnNanos / CHURN_ITERATIONS, cancelNanos / pending));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.poldroc.retry.test.springboot;
+
+import com.poldroc.retry.core.core.Retryer;
+import com.poldroc.retry.springboot.starter.endpoint.RocRetryEndpoint;
+import com.poldroc.retry.springboot.starter.metrics.RocRetryMeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 重试指标和端点测试
+ *
+ * @since 2026-10-19
+ */
+public class RocRetryMetricsTest {
+
+    /**
+     * 测试：绑定之后创建的策略自动注册指标，端点返回尝试分布
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMeterBinderAndEndpoint() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RocRetryMeterBinder binder = new RocRetryMeterBinder();
+        binder.bindTo(registry);
+
+        final String name = "meter-binder-" + System.nanoTime();
+        AtomicInteger executionCount = new AtomicInteger(0);
+        Retryer.<String>newInstance()
+                .name(name)
+                .callable(() -> {
+                    if (executionCount.incrementAndGet() == 1) {
+                        throw new IllegalStateException("fail");
+                    }
+                    return "ok";
+                })
+                .retryCall();
+
+        assertEquals(1D, registry.get("roc.retry.calls").tag("name", name).functionCounter().count(), 0);
+        assertEquals(2D, registry.get("roc.retry.attempts").tag("name", name).functionCounter().count(), 0);
+        assertEquals(1D, registry.get("roc.retry.successes").tag("name", name).tag("attempt", "2").functionCounter().count(), 0);
+        assertEquals(0D, registry.get("roc.retry.exhaustions").tag("name", name).functionCounter().count(), 0);
+
+        Map<String, Object> stats = new RocRetryEndpoint().retry(name);
+        assertNotNull(stats);
+        assertEquals(1L, stats.get("calls"));
+        assertEquals(0D, stats.get("exhaustionRate"));
+        Map<String, Long> distribution = (Map<String, Long>) stats.get("successByAttempt");
+        assertEquals(Long.valueOf(1), distribution.get("2"));
+        assertTrue(new RocRetryEndpoint().retries().containsKey(name));
+        binder.close();
+    }
+
+    /**
+     * 测试：关闭之后创建的策略不再注册指标
+     */
+    @Test
+    public void testCloseRemovesListener() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RocRetryMeterBinder binder = new RocRetryMeterBinder();
+        binder.bindTo(registry);
+        binder.close();
+
+        final String name = "meter-binder-closed-" + System.nanoTime();
+        Retryer.<String>newInstance()
+                .name(name)
+                .callable(() -> "ok")
+                .retryCall();
+
+        assertNull(registry.find("roc.retry.calls").tag("name", name).functionCounter());
+    }
+}